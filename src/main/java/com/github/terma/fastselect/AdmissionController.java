@@ -0,0 +1,274 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits count of selects which scan data at same time. Concurrent scans compete for memory bandwidth
+ * so after some level more threads just make each select slower.
+ * <p>
+ * Select which can't start immediately waits in queue. Queue ordered by priority of {@link QueryContext}
+ * (bigger first) then by arrival. When queue is full or select waits more than wait budget
+ * {@link QueryRejectedException} thrown, so caller could fail fast instead of missing deadline.
+ * <p>
+ * Could be shared between few {@link FastSelect} to limit total count of scans.
+ *
+ * @see FastSelect#setAdmissionController(AdmissionController)
+ * @see com.github.terma.fastselect.jmx.AdmissionControllerMXBeanImpl
+ * @since 3.2.1
+ */
+@ThreadSafe
+public class AdmissionController {
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+
+    // guarded by lock
+    private int running;
+    private long sequence;
+    private long admitted;
+    private long queued;
+    private long rejected;
+    private long admittedAfterWait;
+    private long totalWaitNanos;
+    private long maxObservedWaitNanos;
+
+    /**
+     * @param maxConcurrent - max count of selects executed at same time
+     * @param maxQueue      - max count of selects waiting for admission
+     * @param maxWait       - max time to wait for admission
+     * @param unit          - unit of max wait
+     */
+    public AdmissionController(final int maxConcurrent, final int maxQueue, final long maxWait, final TimeUnit unit) {
+        if (maxConcurrent < 1)
+            throw new IllegalArgumentException("Max concurrent should be positive, but: " + maxConcurrent);
+        if (maxQueue < 0) throw new IllegalArgumentException("Max queue should not be negative, but: " + maxQueue);
+        if (maxWait < 0) throw new IllegalArgumentException("Max wait should not be negative, but: " + maxWait);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    /**
+     * Wait until select could be started. Each successful call should be followed by {@link AdmissionController#release()}
+     *
+     * @param priority - bigger admitted first
+     * @throws QueryRejectedException - when queue is full, wait budget expired or thread interrupted
+     */
+    public void acquire(final int priority) {
+        lock.lock();
+        try {
+            if (running < maxConcurrent && waiters.isEmpty()) {
+                running++;
+                admitted++;
+                return;
+            }
+
+            if (waiters.size() >= maxQueue) {
+                rejected++;
+                throw new QueryRejectedException("Queue of " + maxQueue + " selects is full, " + toStringLocked());
+            }
+
+            final long start = System.nanoTime();
+            final Waiter waiter = new Waiter(priority, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            queued++;
+
+            long nanos = maxWaitNanos;
+            try {
+                while (!waiter.admitted) {
+                    if (nanos <= 0) {
+                        waiters.remove(waiter);
+                        rejected++;
+                        throw new QueryRejectedException("Wait budget " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)
+                                + " msec expired, " + toStringLocked());
+                    }
+                    nanos = waiter.condition.awaitNanos(nanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (waiter.admitted) releaseLocked();
+                else waiters.remove(waiter);
+                rejected++;
+                throw new QueryRejectedException("Interrupted while waiting for admission, " + toStringLocked());
+            }
+
+            final long wait = System.nanoTime() - start;
+            totalWaitNanos += wait;
+            maxObservedWaitNanos = Math.max(maxObservedWaitNanos, wait);
+            admittedAfterWait++;
+            admitted++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked() {
+        final Waiter next = waiters.poll();
+        if (next == null) {
+            running--;
+        } else {
+            // pass slot to next without decrement
+            next.admitted = true;
+            next.condition.signal();
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public long getMaxWaitMsec() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+    }
+
+    /**
+     * @return count of selects executed now
+     */
+    public int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return count of selects waiting for admission now
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAdmittedCount() {
+        lock.lock();
+        try {
+            return admitted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return count of selects which waited in queue, admitted or rejected
+     */
+    public long getQueuedCount() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejectedCount() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return average wait of selects admitted after wait in queue
+     */
+    public long getAvgWaitMsec() {
+        lock.lock();
+        try {
+            return admittedAfterWait == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / admittedAfterWait);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxObservedWaitMsec() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(maxObservedWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return toStringLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String toStringLocked() {
+        return "AdmissionController {maxConcurrent: " + maxConcurrent + ", maxQueue: " + maxQueue
+                + ", maxWaitMsec: " + getMaxWaitMsec() + ", running: " + running + ", queueDepth: " + waiters.size()
+                + ", admitted: " + admitted + ", rejected: " + rejected + "}";
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+
+        private final int priority;
+        private final long sequence;
+        private final Condition condition;
+        private boolean admitted;
+
+        private Waiter(final int priority, final long sequence, final Condition condition) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        @Override
+        public int compareTo(final Waiter o) {
+            if (priority != o.priority) return priority > o.priority ? -1 : 1;
+            return sequence < o.sequence ? -1 : (sequence == o.sequence ? 0 : 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Internal
+ * <p>
+ * Inverted index of column: positions of each value. Enabled for column by
+ * {@link FastSelectBuilder#bitmapIndex(String...)} and used by {@link FastSelect} to take positions of
+ * selective requests from index instead of scan of all blocks, see {@link Request#indexCount()}.
+ * <p>
+ * Positions of value stored as sorted <code>int[]</code> while value is rare and as {@link BitSet}
+ * when it takes more than one of {@link BitmapIndex#DENSE} positions, so index takes not more than
+ * <code>4</code> bytes per row for rare values and <code>N / 8</code> bytes for frequent.
+ * <p>
+ * Values of string compressed columns are positions in dictionary.
+ *
+ * @since 3.2.1
+ */
+public final class BitmapIndex {
+
+    /**
+     * Values which takes more than <code>1 / DENSE</code> of positions stored as bitmap
+     */
+    static final int DENSE = 32;
+
+    private final Map<Integer, Positions> positionsByValue = new HashMap<>();
+
+    /**
+     * @param value    - value
+     * @param position - position, should be bigger than any added before for same value
+     */
+    void add(final int value, final int position) {
+        Positions positions = positionsByValue.get(value);
+        if (positions == null) {
+            positions = new Positions();
+            positionsByValue.put(value, positions);
+        }
+        positions.add(position);
+    }
+
+    /**
+     * @param value - value
+     * @return - count of positions with value
+     */
+    public int count(final int value) {
+        final Positions positions = positionsByValue.get(value);
+        return positions == null ? 0 : positions.size;
+    }
+
+    /**
+     * @param value  - value
+     * @param target - bitmap to set positions with value
+     */
+    public void or(final int value, final BitSet target) {
+        final Positions positions = positionsByValue.get(value);
+        if (positions != null) positions.or(target);
+    }
+
+    /**
+     * @return - count of distinct values
+     */
+    public int size() {
+        return positionsByValue.size();
+    }
+
+    @Override
+    public String toString() {
+        return "BitmapIndex {values: " + positionsByValue.size() + "}";
+    }
+
+    private static final class Positions {
+
+        private int[] positions = new int[4];
+        private BitSet bits;
+        private int size;
+
+        void add(final int position) {
+            if (bits != null) {
+                bits.set(position);
+            } else {
+                if (size == positions.length) positions = Arrays.copyOf(positions, size * 2);
+                positions[size] = position;
+                if (size >= Long.SIZE && (long) size * DENSE > position) {
+                    bits = new BitSet(position + 1);
+                    for (int i = 0; i <= size; i++) bits.set(positions[i]);
+                    positions = null;
+                }
+            }
+            size++;
+        }
+
+        void or(final BitSet target) {
+            if (bits != null) {
+                target.or(bits);
+            } else {
+                for (int i = 0; i < size; i++) target.set(positions[i]);
+            }
+        }
+
+    }
+
+}
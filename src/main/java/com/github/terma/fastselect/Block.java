@@ -28,27 +28,73 @@ import java.util.List;
  */
 public abstract class Block {
 
-    private final static long MIN_COLUMN_BIT = 0;
-
+    /**
+     * Values of <code>byte</code> and <code>short</code> columns present in block: non negative value
+     * as is, see {@link Block#negativeColumnBitSets} for other
+     */
     protected final List<BitSet> columnBitSets = new ArrayList<>();
+    /**
+     * Negative values present in block stored as <code>-value - 1</code> so <code>-1</code> is bit <code>0</code>
+     *
+     * @since 3.2.1
+     */
+    protected final List<BitSet> negativeColumnBitSets = new ArrayList<>();
     protected final List<Range> ranges = new ArrayList<>();
+    protected final List<BloomFilter> bloomFilters = new ArrayList<>();
+
+    /**
+     * Count of data blocks in this block, <code>1</code> for data block itself
+     *
+     * @since 3.2.1
+     */
+    protected int dataBlocks;
 
     abstract int free();
 
+    /**
+     * @return - first position in block (inclusive)
+     * @since 3.2.1
+     */
+    abstract int start();
+
+    /**
+     * @return - last position in block (exclusive)
+     * @since 3.2.1
+     */
+    abstract int end();
+
     void setColumnBitSet(FastSelect.Column column, int bit) {
-        // todo implement indexing for negative values, currently just use direct scan
-        if (bit >= MIN_COLUMN_BIT) {
-            columnBitSets.get(column.index).set(bit);
-        }
+        if (bit >= 0) columnBitSets.get(column.index).set(bit);
+        else negativeColumnBitSets.get(column.index).set(~bit);
+    }
+
+    /**
+     * @param column - column
+     * @param bit    - value, could be negative
+     * @return - true if value present in block
+     * @since 3.2.1
+     */
+    boolean getColumnBit(FastSelect.Column column, int bit) {
+        if (bit >= 0) return columnBitSets.get(column.index).get(bit);
+        else return negativeColumnBitSets.get(column.index).get(~bit);
+    }
+
+    /**
+     * @param column - column
+     * @return - bloom filter for column or <code>null</code> if not enabled or not supported by column
+     * @since 3.2.1
+     */
+    BloomFilter getBloomFilter(FastSelect.Column column) {
+        return column.index < bloomFilters.size() ? bloomFilters.get(column.index) : null;
     }
 
     abstract void add(List dataToAdd, int addFrom, int addTo);
 
-    abstract void select(Request[] where, ArrayLayoutCallback callback);
+    abstract void select(BlockScanner scanner, ArrayLayoutCallback callback);
 
     abstract int blockTouch(Request[] where);
 
-    abstract void select(Request[] where, ArrayLayoutLimitCallback callback);
+    abstract void select(BlockScanner scanner, ArrayLayoutLimitCallback callback);
 
     public abstract void init();
 
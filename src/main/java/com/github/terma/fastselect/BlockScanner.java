@@ -0,0 +1,363 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import com.github.terma.fastselect.callbacks.ArrayLayoutLimitCallback;
+import com.github.terma.fastselect.callbacks.ArrayLayoutRangeCallback;
+
+import java.util.Arrays;
+
+/**
+ * Internal
+ * <p>
+ * Block at a time executor of filter. Instead of calling each request for each position
+ * it calls {@link Request#filter(int, int, int[], int, int[])} once per block for each request.
+ * First request checks all positions of block, next one only positions accepted by previous.
+ * Accepted positions kept in selection vector which reused for all blocks of one select.
+ * <p>
+ * When filter contains {@link OrRequest} or {@link NotRequest} scanner works in bitmap mode.
+ * Each request marks accepted positions of block in bitmap by {@link Request#mask(int, int, long[])}
+ * bitmaps combined by word <code>AND</code> and callback called only for set bits.
+ * <p>
+ * For {@link ArrayLayoutRangeCallback} scanner always works in bitmap mode and calls callback once for each
+ * range of set bits found by word operations, so requests which mark runs of positions by words like for
+ * {@link com.github.terma.fastselect.data.RunLengthData} don't touch each position at all.
+ * <p>
+ * Order of requests taken from caller only for block skipping. For filter scanner counts how many
+ * positions each request checked and accepted and periodically sorts requests by
+ * <code>cost / (1 - selectivity)</code> so cheap and selective requests go first, see {@link Request#cost()}.
+ * Initial order based on {@link Request#selectivity()} estimated by {@link ColumnStatistics} or if request
+ * can't be estimated on selectivity learned by {@link RequestStatistics} from previous selects.
+ * <p>
+ * Not thread safe. One instance per select or per worker for parallel select.
+ */
+final class BlockScanner {
+
+    /**
+     * Count of blocks between reorder of requests. Reorder is cheap but don't want to
+     * react on each block with unusual data.
+     */
+    private static final int REORDER_INTERVAL = 16;
+
+    /**
+     * Used for requests which accept everything to keep rank finite.
+     */
+    private static final double MIN_REJECT = 1e-6;
+
+    final Request[] where;
+    final QueryContext context;
+    private final Request[] order;
+    /**
+     * Index in <code>where</code> of each request in order, to publish counters without lookup of request
+     */
+    private final int[] orderIndex;
+    private final long[] checked;
+    private final long[] accepted;
+    private final RequestStatistics statistics;
+    private int blocks;
+    private final boolean bitmap;
+    private final int[] selection;
+    private final long[] bits;
+    private final long[] requestBits;
+    /**
+     * Scratch of {@link NotRequest} on top level of filter, <code>null</code> if there is no such request
+     */
+    private final long[] notBits;
+
+    BlockScanner(final Request[] where, final int blockSize) {
+        this(where, blockSize, null);
+    }
+
+    /**
+     * @param statistics - learned selectivity to define initial order, could be null
+     */
+    BlockScanner(final Request[] where, final int blockSize, final RequestStatistics statistics) {
+        this(where, blockSize, statistics, null);
+    }
+
+    /**
+     * @param context - checked by blocks before each block, could be null
+     */
+    BlockScanner(final Request[] where, final int blockSize, final RequestStatistics statistics,
+                 final QueryContext context) {
+        this.where = where;
+        this.context = context;
+        this.order = where.clone();
+        this.orderIndex = new int[where.length];
+        for (int i = 0; i < orderIndex.length; i++) orderIndex[i] = i;
+        this.checked = new long[where.length];
+        this.accepted = new long[where.length];
+        this.statistics = statistics;
+        initOrder();
+        this.bitmap = hasComplexRequest(where);
+        // bitmap is small and used by range callback even without complex requests
+        final int words = (blockSize + 63) >>> 6;
+        this.bits = new long[words];
+        this.requestBits = new long[words];
+        this.notBits = hasNotRequest(where) ? new long[words] : null;
+        this.selection = bitmap ? null : new int[blockSize];
+    }
+
+    private static boolean hasComplexRequest(final Request[] where) {
+        for (final Request request : where) {
+            if (request instanceof OrRequest || request instanceof NotRequest) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasNotRequest(final Request[] where) {
+        for (final Request request : where) {
+            if (request instanceof NotRequest) return true;
+        }
+        return false;
+    }
+
+    private void initOrder() {
+        if (order.length < 2) return;
+
+        final double[] ranks = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            // estimate takes values of request into account, learned selectivity only kind of request
+            final double estimate = order[i].selectivity();
+            final double selectivity = estimate >= 0 ? estimate : statistics == null
+                    ? RequestStatistics.UNKNOWN_SELECTIVITY : statistics.selectivity(order[i]);
+            ranks[i] = rank(order[i], selectivity);
+        }
+        sort(ranks);
+    }
+
+    private static double rank(final Request request, final double selectivity) {
+        return request.cost() / Math.max(MIN_REJECT, 1 - selectivity);
+    }
+
+    private void reorder() {
+        if (order.length < 2) return;
+
+        final double[] ranks = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            // request which wasn't checked yet (previous rejected all) keeps unknown selectivity
+            final double selectivity = checked[i] == 0
+                    ? RequestStatistics.UNKNOWN_SELECTIVITY : (double) accepted[i] / checked[i];
+            ranks[i] = rank(order[i], selectivity);
+        }
+        sort(ranks);
+    }
+
+    /**
+     * Stable insertion sort of requests and counters by rank, arrays are small.
+     */
+    private void sort(final double[] ranks) {
+        for (int i = 1; i < order.length; i++) {
+            final double rank = ranks[i];
+            final Request request = order[i];
+            final int index = orderIndex[i];
+            final long requestChecked = checked[i];
+            final long requestAccepted = accepted[i];
+            int j = i - 1;
+            while (j >= 0 && ranks[j] > rank) {
+                ranks[j + 1] = ranks[j];
+                order[j + 1] = order[j];
+                orderIndex[j + 1] = orderIndex[j];
+                checked[j + 1] = checked[j];
+                accepted[j + 1] = accepted[j];
+                j--;
+            }
+            ranks[j + 1] = rank;
+            order[j + 1] = request;
+            orderIndex[j + 1] = index;
+            checked[j + 1] = requestChecked;
+            accepted[j + 1] = requestAccepted;
+        }
+    }
+
+    private void blockDone() {
+        if (++blocks % REORDER_INTERVAL == 0) reorder();
+    }
+
+    /**
+     * Add observed counters to counters of select, which published to {@link RequestStatistics} once
+     * for whole select. Call once when scanner done.
+     *
+     * @param counters - counters of select created for same <code>where</code>
+     */
+    void publish(final RequestStatistics.Counters counters) {
+        for (int i = 0; i < order.length; i++) {
+            if (checked[i] > 0) counters.add(orderIndex[i], checked[i], accepted[i]);
+        }
+        counters.order(order);
+    }
+
+    /**
+     * @return requests in current order of evaluation
+     */
+    Request[] order() {
+        return order.clone();
+    }
+
+    /**
+     * @return count of words in bitmap or 0 if nothing accepted
+     */
+    private int mask(final int start, final int end) {
+        final int words = (end - start + 63) >>> 6;
+        Arrays.fill(bits, 0, words, 0);
+        mask(order[0], start, end, bits);
+        checked[0] += end - start;
+        final int count = bitCount(bits, words);
+        accepted[0] += count;
+        if (count == 0) return 0;
+
+        for (int i = 1; i < order.length; i++) {
+            Arrays.fill(requestBits, 0, words, 0);
+            mask(order[i], start, end, requestBits);
+            checked[i] += end - start;
+            accepted[i] += bitCount(requestBits, words);
+
+            long any = 0;
+            for (int w = 0; w < words; w++) any |= bits[w] &= requestBits[w];
+            if (any == 0) return 0;
+        }
+        return words;
+    }
+
+    private void mask(final Request request, final int start, final int end, final long[] bits) {
+        if (request instanceof NotRequest) ((NotRequest) request).mask(start, end, bits, notBits);
+        else request.mask(start, end, bits);
+    }
+
+    private static int bitCount(final long[] bits, final int words) {
+        int c = 0;
+        for (int w = 0; w < words; w++) c += Long.bitCount(bits[w]);
+        return c;
+    }
+
+    /**
+     * @return count of accepted positions stored to selection vector
+     */
+    private int filter(final int start, final int end) {
+        int size = order[0].filter(start, end, null, 0, selection);
+        checked[0] += end - start;
+        accepted[0] += size;
+        for (int i = 1; i < order.length && size > 0; i++) {
+            checked[i] += size;
+            size = order[i].filter(start, end, selection, size, selection);
+            accepted[i] += size;
+        }
+        return size;
+    }
+
+    void select(final int start, final int end, final ArrayLayoutCallback callback) {
+        if (callback instanceof ArrayLayoutRangeCallback) {
+            select(start, end, (ArrayLayoutRangeCallback) callback);
+            return;
+        }
+
+        if (where.length == 0) {
+            for (int i = start; i < end; i++) callback.data(i);
+            return;
+        }
+
+        if (bitmap) {
+            final int words = mask(start, end);
+            blockDone();
+            for (int w = 0; w < words; w++) {
+                long word = bits[w];
+                final int base = start + (w << 6);
+                while (word != 0) {
+                    callback.data(base + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return;
+        }
+
+        final int size = filter(start, end);
+        blockDone();
+        for (int i = 0; i < size; i++) callback.data(selection[i]);
+    }
+
+    private void select(final int start, final int end, final ArrayLayoutRangeCallback callback) {
+        if (where.length == 0) {
+            if (start < end) callback.range(start, end);
+            return;
+        }
+
+        final int words = mask(start, end);
+        blockDone();
+        if (words == 0) return;
+
+        final int length = end - start;
+        int from = nextBit(bits, words, 0, false);
+        while (from < length) {
+            final int to = Math.min(length, nextBit(bits, words, from, true));
+            callback.range(start + from, start + to);
+            from = nextBit(bits, words, to, false);
+        }
+    }
+
+    /**
+     * @param clear - true to find clear bit, false to find set bit
+     * @return index of next bit from <code>index</code> (inclusive) or <code>words * 64</code> if not found
+     */
+    private static int nextBit(final long[] bits, final int words, final int index, final boolean clear) {
+        int w = index >>> 6;
+        if (w >= words) return words << 6;
+        long word = (clear ? ~bits[w] : bits[w]) & (-1L << index);
+        while (word == 0) {
+            if (++w == words) return words << 6;
+            word = clear ? ~bits[w] : bits[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * @return true if callback asks to stop
+     */
+    boolean select(final int start, final int end, final ArrayLayoutLimitCallback callback) {
+        if (where.length == 0) {
+            for (int i = start; i < end; i++) {
+                callback.data(i);
+                if (callback.needToStop()) return true;
+            }
+            return false;
+        }
+
+        if (bitmap) {
+            final int words = mask(start, end);
+            blockDone();
+            for (int w = 0; w < words; w++) {
+                long word = bits[w];
+                final int base = start + (w << 6);
+                while (word != 0) {
+                    callback.data(base + Long.numberOfTrailingZeros(word));
+                    if (callback.needToStop()) return true;
+                    word &= word - 1;
+                }
+            }
+            return false;
+        }
+
+        final int size = filter(start, end);
+        blockDone();
+        for (int i = 0; i < size; i++) {
+            callback.data(selection[i]);
+            if (callback.needToStop()) return true;
+        }
+        return false;
+    }
+
+}
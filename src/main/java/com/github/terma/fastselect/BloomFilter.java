@@ -0,0 +1,133 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+/**
+ * Internal
+ * <p>
+ * Set of hashes of column values in block. Used by point requests like {@link IntRequest} or
+ * {@link StringRequest} to skip block when values distributed randomly and {@link Range} of block
+ * covers almost everything.
+ * <p>
+ * Could say only that value definitely not in block or maybe in block. Probability of false positive
+ * depends on bits per value, for example <code>10</code> bits gives around <code>1%</code>.
+ * Build by {@link FastSelect} for <code>int</code>, <code>long</code>, <code>int[]</code>,
+ * <code>long[]</code> and not compressed <code>String</code> columns only if enabled by
+ * {@link FastSelectBuilder#bloomFilter(int)}
+ *
+ * @since 3.2.1
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final long mask;
+    private final int hashes;
+
+    /**
+     * @param maxSize      - max count of values to add
+     * @param bitsPerValue - bits per value
+     */
+    public BloomFilter(final int maxSize, final int bitsPerValue) {
+        if (bitsPerValue < 1) throw new IllegalArgumentException("Bits per value should be positive!");
+        // power of two to use mask instead of mod
+        final long size = Long.highestOneBit(Math.max(64L, (long) maxSize * bitsPerValue) - 1) << 1;
+        this.bits = new long[(int) (size >>> 6)];
+        this.mask = size - 1;
+        // optimal count of hashes is bits per value * ln 2
+        this.hashes = Math.max(1, Math.min(8, (int) Math.round(bitsPerValue * Math.log(2))));
+    }
+
+    public void add(final long hash) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            final long bit = (h1 + i * h2) & mask;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(final long hash) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            final long bit = (h1 + i * h2) & mask;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param hashes - hashes of values
+     * @return - true if any of values maybe in filter
+     */
+    public boolean mightContainAny(final long[] hashes) {
+        for (final long hash : hashes) {
+            if (mightContain(hash)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return - size in bits
+     */
+    public long size() {
+        return mask + 1;
+    }
+
+    /**
+     * Same hash for <code>int</code> and <code>long</code> with same value
+     *
+     * @param value - value
+     * @return - hash
+     */
+    public static long hash(long value) {
+        // finalizer of MurmurHash3
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * @param bytes - bytes
+     * @param from  - first byte (inclusive)
+     * @param to    - last byte (exclusive)
+     * @return - hash
+     */
+    public static long hash(final byte[] bytes, final int from, final int to) {
+        // FNV-1a
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= bytes[i] & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        return hash(h);
+    }
+
+    public static long hash(final byte[] bytes) {
+        return hash(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public String toString() {
+        return "BloomFilter {size: " + size() + ", hashes: " + hashes + "}";
+    }
+
+}
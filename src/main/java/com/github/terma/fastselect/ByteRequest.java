@@ -17,6 +17,8 @@ limitations under the License.
 package com.github.terma.fastselect;
 
 import com.github.terma.fastselect.data.ByteData;
+import com.github.terma.fastselect.data.OffHeapData;
+import com.github.terma.fastselect.data.RunLengthData;
 
 import java.util.Arrays;
 import java.util.BitSet;
@@ -26,14 +28,31 @@ import java.util.Map;
  * SQL analog is <code>COLUMN_X in (A, B, ...)</code>
  *
  * @see ByteData
+ * @see RunLengthData
  */
 public class ByteRequest extends ColumnRequest {
 
     private final int[] values;
 
+    /**
+     * Indexed by <code>value &amp; 0xFF</code> to support negative values without offset check
+     */
     private byte[] plainSet;
     private byte[] data;
 
+    /**
+     * Set only for run length column
+     */
+    private RunLengthData runLength;
+    /**
+     * Set only for run length and off heap column, values indexed by <code>value &amp; 0xFFFF</code>
+     */
+    private BitSet runSet;
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.Storage#OFF_HEAP} column
+     */
+    private OffHeapData offHeap;
+
     public ByteRequest(String name, int... values) {
         super(name);
         this.values = values;
@@ -41,33 +60,117 @@ public class ByteRequest extends ColumnRequest {
 
     @Override
     public boolean checkBlock(Block block) {
-        BitSet bitSet = block.columnBitSets.get(column.index);
         boolean p = false;
         for (final int value : values) {
-            p = p | bitSet.get(value);
+            p = p | (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE && block.getColumnBit(column, value));
         }
         return p;
     }
 
     @Override
     public boolean checkValue(int position) {
-        byte v = data[position];
-        return v < plainSet.length && plainSet[v] > 0;
+        if (runLength != null) return plainSet[runLength.getShort(position) & 0xFF] > 0;
+        if (offHeap != null) return plainSet[offHeap.getByte(position) & 0xFF] > 0;
+        return plainSet[data[position] & 0xFF] > 0;
+    }
+
+    @Override
+    public int filter(final int start, final int end, final int[] selIn, final int selInSize, final int[] selOut) {
+        if (runLength != null) {
+            return selIn == null ? runLength.filter(runSet, start, end, selOut)
+                    : runLength.filter(runSet, selIn, selInSize, selOut);
+        }
+        if (offHeap != null) {
+            return selIn == null ? offHeap.filter(runSet, start, end, selOut)
+                    : offHeap.filter(runSet, selIn, selInSize, selOut);
+        }
+
+        final byte[] data = this.data;
+        final byte[] plainSet = this.plainSet;
+        int c = 0;
+        if (selIn == null) {
+            for (int i = start; i < end; i++) {
+                if (plainSet[data[i] & 0xFF] > 0) selOut[c++] = i;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                if (plainSet[data[position] & 0xFF] > 0) selOut[c++] = position;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void mask(final int start, final int end, final long[] bits) {
+        if (runLength != null) {
+            runLength.mask(runSet, start, end, bits);
+            return;
+        }
+        if (offHeap != null) {
+            offHeap.mask(runSet, start, end, bits);
+            return;
+        }
+
+        final byte[] data = this.data;
+        final byte[] plainSet = this.plainSet;
+        for (int i = start, j = 0; i < end; i++, j++) {
+            bits[j >>> 6] |= (plainSet[data[i] & 0xFF] > 0 ? 1L : 0L) << j;
+        }
+    }
+
+    @Override
+    public int indexCount() {
+        final BitmapIndex index = column.bitmapIndex;
+        if (index == null) return -1;
+        int count = 0;
+        for (final int value : values) count += index.count(value);
+        return count;
+    }
+
+    @Override
+    public void indexOr(final BitSet positions) {
+        final BitmapIndex index = column.bitmapIndex;
+        for (final int value : values) index.or(value, positions);
     }
 
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
 
+        // plain
+        plainSet = new byte[1 << Byte.SIZE];
+        for (int b : values) {
+            if (b >= Byte.MIN_VALUE && b <= Byte.MAX_VALUE) plainSet[b & 0xFF] = 1;
+        }
+
         // cache data
-        data = ((ByteData) column.data).data;
+        if (column.data instanceof RunLengthData) runLength = (RunLengthData) column.data;
+        else if (column.data instanceof OffHeapData) offHeap = (OffHeapData) column.data;
+        else data = ((ByteData) column.data).data;
+
+        if (runLength != null || offHeap != null) {
+            runSet = new BitSet();
+            for (int b : values) {
+                if (b >= Byte.MIN_VALUE && b <= Byte.MAX_VALUE) runSet.set(b & 0xFFFF);
+            }
+        }
+    }
 
-        // plain
-        int max = 0;
-        for (int b : values) max = Math.max(max, b);
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        if (statistics == null) return -1;
+        double selectivity = 0;
+        for (int i = 0; i < plainSet.length; i++) {
+            if (plainSet[i] > 0) selectivity += statistics.equal((byte) i);
+        }
+        return Math.min(1, selectivity);
+    }
 
-        plainSet = new byte[max + 1];
-        for (int b : values) plainSet[b] = 1;
+    @Override
+    public int cost() {
+        return LOOKUP_COST;
     }
 
     @Override
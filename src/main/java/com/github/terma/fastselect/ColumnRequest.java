@@ -16,6 +16,7 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import java.util.BitSet;
 import java.util.Map;
 
 /**
@@ -34,6 +35,46 @@ public abstract class ColumnRequest extends Request {
         this.name = name;
     }
 
+    /**
+     * Position of block relative to values accepted by request. Used when data clustered by column of
+     * request, see {@link FastSelectBuilder#clusterBy(String...)}, so blocks sorted by that column and
+     * first and last block to scan could be found by binary search instead of check of each block.
+     *
+     * @param block - block to check
+     * @return - negative if all values in block less than accepted by request, positive if bigger,
+     * <code>0</code> if block could have accepted values or request doesn't support it, by default <code>0</code>
+     * @since 3.2.1
+     */
+    public int compareBlock(Block block) {
+        return 0;
+    }
+
+    /**
+     * Check block of {@link com.github.terma.fastselect.data.StringCompressedData} column by statistics of codes
+     *
+     * @param block - block to check
+     * @param codes - accepted codes
+     * @return - true if block could have one of codes
+     * @since 3.2.1
+     */
+    protected boolean checkBlockCodes(final Block block, final BitSet codes) {
+        final Range range = block.ranges.get(column.index);
+        if (range.max < 0) return false;
+        for (int code = codes.nextSetBit((int) Math.max(0, range.min)); code >= 0 && code <= range.max;
+             code = codes.nextSetBit(code + 1)) {
+            if (code > Short.MAX_VALUE || block.getColumnBit(column, code)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return - statistics of column or <code>null</code> if request not prepared or column doesn't have it
+     * @since 3.2.1
+     */
+    protected ColumnStatistics statistics() {
+        return column == null ? null : column.statistics;
+    }
+
     /**
      * Prepare request to scan through data set
      *
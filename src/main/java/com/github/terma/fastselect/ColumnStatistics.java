@@ -0,0 +1,206 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Lightweight statistics of one column used to estimate how many rows request will accept,
+ * see {@link FastSelect#estimateRows(Request...)} and {@link Request#selectivity()}.
+ * <ul>
+ * <li>count of distinct values by HyperLogLog with <code>1024</code> registers, around <code>3%</code> of error</li>
+ * <li>exact count of each value for <code>byte</code> and string compressed columns (dictionary codes)</li>
+ * <li>equi-depth histogram for other numeric columns, built from random sample of values</li>
+ * </ul>
+ * Values of <code>double</code> column stored as {@link Range#sortable(double)}.
+ * <p>
+ * Updated by {@link FastSelect#addAll(java.util.List)}, built again on
+ * {@link FastSelect#load(java.nio.channels.FileChannel, int)}.
+ *
+ * @since 3.2.1
+ */
+public final class ColumnStatistics {
+
+    static final int SAMPLE_SIZE = 1024;
+    static final int BUCKETS = 64;
+
+    private static final int REGISTER_BITS = 10;
+    private static final int REGISTERS = 1 << REGISTER_BITS;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+    /**
+     * Mixed to value before hash as {@link BloomFilter#hash(long)} of <code>0</code> is <code>0</code>
+     */
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final byte[] registers = new byte[REGISTERS];
+    private final long[] sample;
+    private final Random random = new Random(1);
+    private final int minCode;
+    private int[] frequencies;
+    private long rows;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    /**
+     * <code>BUCKETS + 1</code> bounds, each bucket has same count of sampled values, built on first use
+     */
+    private volatile long[] histogram;
+
+    private ColumnStatistics(final boolean histogram, final boolean frequencies, final int minCode) {
+        this.sample = histogram ? new long[SAMPLE_SIZE] : null;
+        this.frequencies = frequencies ? new int[0] : null;
+        this.minCode = minCode;
+    }
+
+    /**
+     * @return - statistics with histogram for numeric column
+     */
+    static ColumnStatistics withHistogram() {
+        return new ColumnStatistics(true, false, 0);
+    }
+
+    /**
+     * @param minCode - min possible value
+     * @return - statistics with exact count of each value for column with small count of possible values
+     */
+    static ColumnStatistics withFrequencies(final int minCode) {
+        return new ColumnStatistics(false, true, minCode);
+    }
+
+    /**
+     * @return - statistics with only count of distinct values, value added by hash
+     */
+    static ColumnStatistics withDistinct() {
+        return new ColumnStatistics(false, false, 0);
+    }
+
+    void add(final long value) {
+        addHash(BloomFilter.hash(value ^ SEED));
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+
+        if (sample != null) {
+            // reservoir sampling, each value has same chance to be in sample
+            if (rows <= SAMPLE_SIZE) {
+                sample[(int) rows - 1] = value;
+            } else {
+                final long i = (long) (random.nextDouble() * rows);
+                if (i < SAMPLE_SIZE) sample[(int) i] = value;
+            }
+            histogram = null;
+        }
+
+        if (frequencies != null) {
+            final int code = (int) (value - minCode);
+            if (code >= frequencies.length) frequencies = Arrays.copyOf(frequencies, Math.max(16, code * 2));
+            frequencies[code]++;
+        }
+    }
+
+    void addHash(final long hash) {
+        rows++;
+        final int register = (int) (hash >>> (64 - REGISTER_BITS));
+        final byte rank = (byte) Math.min(64 - REGISTER_BITS + 1, Long.numberOfLeadingZeros(hash << REGISTER_BITS) + 1);
+        if (rank > registers[register]) registers[register] = rank;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return - estimated count of distinct values
+     */
+    public long getDistinct() {
+        double sum = 0;
+        int zeros = 0;
+        for (final byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // linear counting is better for small cardinality
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        return Math.min(rows, Math.round(estimate));
+    }
+
+    /**
+     * @param value - value
+     * @return - estimated part of rows with value from <code>0</code> to <code>1</code>
+     */
+    public double equal(final long value) {
+        if (rows == 0 || value < min || value > max) return 0;
+        if (frequencies != null) {
+            final long code = value - minCode;
+            return code < frequencies.length ? (double) frequencies[(int) code] / rows : 0;
+        }
+        return 1.0 / Math.max(1, getDistinct());
+    }
+
+    /**
+     * @param from - min value (inclusive)
+     * @param to   - max value (inclusive)
+     * @return - estimated part of rows with value in range from <code>0</code> to <code>1</code> or
+     * <code>-1</code> if column has only count of distinct values
+     */
+    public double between(final long from, final long to) {
+        if (sample == null && frequencies == null) return -1;
+        if (rows == 0 || from > to || to < min || from > max) return 0;
+
+        if (frequencies != null) {
+            long count = 0;
+            final long end = Math.min(to - minCode, frequencies.length - 1);
+            for (long code = Math.max(0, from - minCode); code <= end; code++) count += frequencies[(int) code];
+            return (double) count / rows;
+        }
+
+        final long[] bounds = histogramBounds();
+        double buckets = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            final long low = bounds[i];
+            final long high = bounds[i + 1];
+            if (high < from || low > to) continue;
+            if (low >= from && high <= to) {
+                buckets++;
+            } else {
+                // values inside of bucket considered as uniform
+                final double width = (double) high - low + 1;
+                buckets += ((double) Math.min(high, to) - Math.max(low, from) + 1) / width;
+            }
+        }
+        return buckets / BUCKETS;
+    }
+
+    private long[] histogramBounds() {
+        long[] bounds = histogram;
+        if (bounds == null) {
+            final long[] sorted = Arrays.copyOf(sample, (int) Math.min(rows, SAMPLE_SIZE));
+            Arrays.sort(sorted);
+            bounds = new long[BUCKETS + 1];
+            for (int i = 0; i < BUCKETS; i++) bounds[i] = sorted[i * sorted.length / BUCKETS];
+            bounds[BUCKETS] = sorted[sorted.length - 1];
+            histogram = bounds;
+        }
+        return bounds;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStatistics {rows: " + rows + ", distinct: " + getDistinct() + ", min: " + min + ", max: " + max + "}";
+    }
+
+}
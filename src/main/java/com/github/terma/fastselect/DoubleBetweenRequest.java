@@ -17,6 +17,7 @@ limitations under the License.
 package com.github.terma.fastselect;
 
 import com.github.terma.fastselect.data.DoubleData;
+import com.github.terma.fastselect.data.OffHeapData;
 
 import java.util.Map;
 
@@ -31,9 +32,7 @@ import java.util.Map;
  * <p>
  * <code>new DoubleBetweenRequest("COLUMN_NAME", -Double.MAX_VALUE, MAX_UP_BORDER)</code>
  * <p>
- * That version of request use full scan. It doesn't support fast skip for block based
- * on block statistic. If you can use other data types for example {@link LongBetweenRequest}
- * which can delivery much faster search.
+ * Skip blocks by min and max of column in block, see {@link Range#sortable(double)}
  *
  * @see LongBetweenRequest
  * @see IntBetweenRequest
@@ -46,6 +45,10 @@ public class DoubleBetweenRequest extends ColumnRequest {
     private final double min;
     private final double max;
     private double[] data;
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.Storage#OFF_HEAP} column
+     */
+    private OffHeapData offHeap;
 
     public DoubleBetweenRequest(String name, double min, double max) {
         super(name);
@@ -53,17 +56,90 @@ public class DoubleBetweenRequest extends ColumnRequest {
         this.max = max;
     }
 
+    @Override
+    public boolean checkBlock(Block block) {
+        Range range = block.ranges.get(column.index);
+        return range.max >= Range.sortable(min) && range.min <= Range.sortable(max);
+    }
+
+    @Override
+    public int compareBlock(Block block) {
+        Range range = block.ranges.get(column.index);
+        if (range.max < Range.sortable(min)) return -1;
+        return range.min > Range.sortable(max) ? 1 : 0;
+    }
+
+    @Override
+    public boolean checkBlockAll(Block block) {
+        // NaN never accepted by checkValue but could be inside of sortable range
+        if (Double.isNaN(min) || Double.isNaN(max)) return false;
+        Range range = block.ranges.get(column.index);
+        return range.min >= Range.sortable(min) && range.max <= Range.sortable(max);
+    }
+
     @Override
     public boolean checkValue(int position) {
-        final double value = data[position];
+        final double value = offHeap != null ? offHeap.getDouble(position) : data[position];
         return value >= min && value <= max;
     }
 
+    @Override
+    public int filter(final int start, final int end, final int[] selIn, final int selInSize, final int[] selOut) {
+        if (offHeap != null) {
+            return selIn == null ? offHeap.betweenDouble(min, max, start, end, selOut)
+                    : offHeap.betweenDouble(min, max, selIn, selInSize, selOut);
+        }
+
+        final double[] data = this.data;
+        int c = 0;
+        if (selIn == null) {
+            for (int i = start; i < end; i++) {
+                final double value = data[i];
+                selOut[c] = i;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                final double value = data[position];
+                selOut[c] = position;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void mask(final int start, final int end, final long[] bits) {
+        if (offHeap != null) {
+            offHeap.maskBetweenDouble(min, max, start, end, bits);
+            return;
+        }
+
+        final double[] data = this.data;
+        for (int i = start, j = 0; i < end; i++, j++) {
+            final double value = data[i];
+            bits[j >>> 6] |= (value >= min & value <= max ? 1L : 0L) << j;
+        }
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
         // caching
-        data = ((DoubleData) column.data).data;
+        if (column.data instanceof OffHeapData) offHeap = (OffHeapData) column.data;
+        else data = ((DoubleData) column.data).data;
+    }
+
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        return statistics == null ? -1 : statistics.between(Range.sortable(min), Range.sortable(max));
+    }
+
+    @Override
+    public int cost() {
+        return LOOKUP_COST;
     }
 
     @Override
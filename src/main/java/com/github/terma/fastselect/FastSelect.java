@@ -28,10 +28,8 @@ import java.lang.invoke.MethodHandle;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.*;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Compact in-memory storage with fast search.
@@ -93,6 +91,9 @@ import java.util.concurrent.Future;
  * </pre>
  * Fast Search based two step search algorithm (<a href="https://en.wikipedia.org/wiki/Bloom_filter">Bloom Filter</a>
  * + direct scan within block)
+ * <p>
+ * Direct scan within block goes block at a time. Each request checks positions accepted by previous one
+ * and store result to selection vector, details {@link Request#filter(int, int, int[], int, int[])}
  * <h4>Marshalling and unmarshalling.</h4>
  * Because storage uses non object layout. That's provide huge improvement for memory and performance.
  * Downside of that we need to extract field values from object on add and build new object when
@@ -144,12 +145,39 @@ import java.util.concurrent.Future;
 @ThreadSafe
 public class FastSelect<T> {
 
+    /**
+     * How many tasks per thread to create for parallel select. More than one to get
+     * better balance when blocks have different selectivity.
+     */
+    private static final int PARALLEL_TASKS_PER_THREAD = 4;
+
+    /**
+     * Positions of request taken from {@link BitmapIndex} only if request accepts less than
+     * <code>1 / INDEX_SELECTIVITY</code> of rows, otherwise scan of blocks is faster.
+     */
+    private static final int INDEX_SELECTIVITY = 100;
+
+    /**
+     * Select by index checks {@link QueryContext} once per <code>INDEX_CHECK_MASK + 1</code> positions
+     */
+    private static final int INDEX_CHECK_MASK = 0xFFF;
+
     private final int[] blockSizes;
+    private final int bloomBitsPerValue;
     private final Class<T> dataClass;
     private final MethodHandlerRepository mhRepo;
-    private final Block rootBlock;
+    private final String[] clusterBy;
+    private final boolean zOrder;
+    private volatile SuperBlock rootBlock;
+    /**
+     * True when rows sorted by {@link FastSelect#clusterBy}, so blocks sorted by first cluster column
+     */
+    private volatile boolean clustered = true;
     private final List<Column> columns;
     private final Map<String, Column> columnsByNames;
+    private final RequestStatistics requestStatistics = new RequestStatistics();
+    private final AtomicLong dataVersion = new AtomicLong();
+    private volatile AdmissionController admissionController;
 
     /**
      * @param blockSize - block size
@@ -158,20 +186,84 @@ public class FastSelect<T> {
      *                  and used for filtering.
      */
     // todo don't throw exception when inc is small than data to add
-    // todo add description for block sizes parameter
     public FastSelect(final int blockSize, final Class<T> dataClass, final List<Column> columns) {
-        // todo check that block sizes not zero or negative or empty
-        this.blockSizes = new int[]{blockSize};
+        this(new int[]{blockSize}, dataClass, columns, 0);
+    }
+
+    /**
+     * @param blockSizes        - sizes of blocks for each level of block tree from top to bottom, last one is
+     *                          size of data block. For example <code>{1000000, 64000, 1000}</code> groups data blocks
+     *                          by <code>1000</code> rows to blocks by <code>64000</code> and them to blocks by
+     *                          <code>1000000</code>, so filter checks statistics of few top blocks and goes down only
+     *                          to blocks which could have requested data. Should be positive and descending
+     * @param dataClass         - data class
+     * @param columns           - columns
+     * @param bloomBitsPerValue - bits per value for {@link BloomFilter} in each data block or <code>0</code>
+     *                          to disable, see {@link FastSelectBuilder#bloomFilter(int)}
+     * @since 3.2.1
+     */
+    public FastSelect(final int[] blockSizes, final Class<T> dataClass, final List<Column> columns,
+                      final int bloomBitsPerValue) {
+        this(blockSizes, dataClass, columns, bloomBitsPerValue, new String[0]);
+    }
+
+    /**
+     * @param blockSizes        - see {@link FastSelect#FastSelect(int[], Class, List, int)}
+     * @param dataClass         - data class
+     * @param columns           - columns
+     * @param bloomBitsPerValue - see {@link FastSelect#FastSelect(int[], Class, List, int)}
+     * @param clusterBy         - names of columns to keep rows sorted by, or empty array to keep order
+     *                          of adding, see {@link FastSelectBuilder#clusterBy(String...)}
+     * @since 3.2.1
+     */
+    public FastSelect(final int[] blockSizes, final Class<T> dataClass, final List<Column> columns,
+                      final int bloomBitsPerValue, final String[] clusterBy) {
+        this(blockSizes, dataClass, columns, bloomBitsPerValue, clusterBy, false);
+    }
+
+    /**
+     * @param blockSizes        - see {@link FastSelect#FastSelect(int[], Class, List, int)}
+     * @param dataClass         - data class
+     * @param columns           - columns
+     * @param bloomBitsPerValue - see {@link FastSelect#FastSelect(int[], Class, List, int)}
+     * @param clusterBy         - see {@link FastSelect#FastSelect(int[], Class, List, int, String[])}
+     * @param zOrder            - true to keep rows in Z-order of cluster columns instead of sort by them,
+     *                          see {@link FastSelectBuilder#zOrder(String...)}
+     * @since 3.2.1
+     */
+    public FastSelect(final int[] blockSizes, final Class<T> dataClass, final List<Column> columns,
+                      final int bloomBitsPerValue, final String[] clusterBy, final boolean zOrder) {
+        if (blockSizes.length == 0) throw new IllegalArgumentException("Block sizes can't be empty!");
+        for (int i = 0; i < blockSizes.length; i++) {
+            if (blockSizes[i] < 1 || (i > 0 && blockSizes[i] >= blockSizes[i - 1]))
+                throw new IllegalArgumentException("Block sizes should be positive and descending: "
+                        + Arrays.toString(blockSizes) + "!");
+        }
+        if (bloomBitsPerValue < 0) throw new IllegalArgumentException("Bloom bits per value can't be negative!");
+        this.blockSizes = blockSizes.clone();
+        this.bloomBitsPerValue = bloomBitsPerValue;
         this.dataClass = dataClass;
         this.columns = columns;
         this.rootBlock = new SuperBlock(-1, Integer.MAX_VALUE);
         for (int i = 0; i < columns.size(); i++) columns.get(i).index = i;
         this.columnsByNames = initColumnsByName(columns);
+        for (final String name : clusterBy) {
+            final Column column = columnsByNames.get(name);
+            if (column == null) throw new IllegalArgumentException("Can't find column to cluster by: " + name + "!");
+            if (column.type.isArray())
+                throw new IllegalArgumentException("Can't cluster by multi value column: " + column + "!");
+            if (zOrder && !column.intCoded())
+                throw new IllegalArgumentException("Z-order supports only byte, short, int and string "
+                        + "compressed columns: " + column + "!");
+        }
+        this.clusterBy = clusterBy.clone();
+        this.zOrder = zOrder;
         this.mhRepo = new MethodHandlerRepository(dataClass, getColumnsAsMap(columns));
 
         for (Column column : columns) {
             column.getter = mhRepo.get(column.name);
             column.setter = mhRepo.set(column.name);
+            column.statistics = column.newStatistics();
         }
     }
 
@@ -187,8 +279,31 @@ public class FastSelect<T> {
         return r;
     }
 
+    /**
+     * When {@link FastSelectBuilder#clusterBy(String...)} used, data sorted by cluster columns
+     * before add. If added data doesn't continue order of existing data, engine stops to use
+     * order of data until next {@link FastSelect#compact()}
+     * <p>
+     * With {@link FastSelectBuilder#zOrder(String...)} only first add orders rows, call
+     * {@link FastSelect#compact()} after next adds
+     *
+     * @param data - data to add
+     */
     public void addAll(final List<T> data) {
-        rootBlock.add(data, 0, -1);
+        final int start = size();
+        if (clusterBy.length == 0) {
+            rootBlock.add(data, 0, data.size());
+        } else if (zOrder) {
+            // Z-order depends on range of values, so only first add could be ordered without reorder of all rows
+            rootBlock.add(data, 0, data.size());
+            if (start == 0) cluster();
+            else clustered = false;
+        } else {
+            rootBlock.add(sortByCluster(data), 0, data.size());
+            clustered = clustered && sorted(Math.max(0, start - 1), size());
+        }
+        updateStatistics(start, size());
+        dataVersion.incrementAndGet();
     }
 
     /**
@@ -255,7 +370,11 @@ public class FastSelect<T> {
                 if (!loadedColumns.contains(column.name)) column.data.init(size);
             }
         }
-        rootBlock.init();
+        if (clusterBy.length > 0) cluster();
+        else rootBlock.init();
+        for (final Column column : columns) column.statistics = column.newStatistics();
+        updateStatistics(0, size());
+        dataVersion.incrementAndGet();
     }
 
     /**
@@ -271,9 +390,34 @@ public class FastSelect<T> {
      * <p>
      * Result. In FastSelect you have 17 items. However space allocated for 300016 items. Some times you don't
      * want add more and you need to clean up allocated space. That's method for that.
+     * <p>
+     * When {@link FastSelectBuilder#clusterBy(String...)} used and data not sorted anymore
+     * (for example few {@link FastSelect#addAll(List)} with overlapped values) it sorts all rows
+     * and builds blocks again.
      */
     public void compact() {
-        for (final Column column : columns) column.compact();
+        if (clusterBy.length > 0 && !clustered) cluster();
+        else for (final Column column : columns) column.compact();
+        dataVersion.incrementAndGet();
+    }
+
+    /**
+     * Prepare requests once for many selects. Good for queries which executed often with same requests,
+     * as {@link FastSelect#select(Request[], ArrayLayoutCallback)} prepare requests on each call.
+     * <p>
+     * Prepared query could be executed concurrently. When data changed by {@link FastSelect#addAll(List)},
+     * {@link FastSelect#load(FileChannel, int)} or {@link FastSelect#compact()} requests will be prepared again
+     * on next execution.
+     * <p>
+     * Prepared query executes copies bound by {@link Request#bind(Map)}, passed requests stay untouched,
+     * so they could be shared with other selects and threads.
+     *
+     * @param where - filter criteria
+     * @return - prepared query
+     * @since 3.2.1
+     */
+    public PreparedQuery<T> prepare(final Request... where) {
+        return new PreparedQuery<>(this, where);
     }
 
     public List<T> select(final Request... where) {
@@ -291,21 +435,274 @@ public class FastSelect<T> {
      * @param callback callback. Will be called for each item accepted by where.
      */
     public void select(final Request[] where, final ArrayLayoutCallback callback) {
-        prepareRequest(where);
-        rootBlock.select(where, callback);
+        selectPrepared(bind(where), callback, null);
+    }
+
+    /**
+     * Same as {@link FastSelect#select(Request[], ArrayLayoutCallback)} but could be stopped
+     * by timeout or cancel of context.
+     *
+     * @param where    - filter criteria
+     * @param callback - callback
+     * @param context  - context of select
+     * @throws QueryCancelledException - when context cancelled
+     * @throws QueryTimeoutException   - when timeout of context expired
+     * @since 3.2.1
+     */
+    public void select(final Request[] where, final ArrayLayoutCallback callback, final QueryContext context) {
+        selectPrepared(bind(where), callback, context);
+    }
+
+    /**
+     * Parallel version of {@link FastSelect#select(Request[], ArrayLayoutCallback)} for heavy queries like
+     * aggregation over whole data set.
+     * <p>
+     * Blocks are split on ranges which scanned by {@link ForkJoinPool} each with own callback created by
+     * factory. When all ranges are done callbacks merged to one by {@link ArrayLayoutCallbackFactory#merge(ArrayLayoutCallback, ArrayLayoutCallback)}
+     * <p>
+     * Pool will be created for each call and shutdown after. To avoid that overhead on frequent queries
+     * use {@link FastSelect#select(Request[], ArrayLayoutCallbackFactory, ForkJoinPool)}
+     *
+     * @param where           - filter criteria
+     * @param callbackFactory - factory to create callback per worker and merge them
+     * @param parallelism     - count of threads to scan
+     * @param <C>             - type of callback
+     * @return - merged callback
+     * @since 3.2.1
+     */
+    public <C extends ArrayLayoutCallback> C select(
+            final Request[] where, final ArrayLayoutCallbackFactory<C> callbackFactory, final int parallelism) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return select(where, callbackFactory, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Same as {@link FastSelect#select(Request[], ArrayLayoutCallbackFactory, int)} but uses provided pool.
+     * Good option when you want to share pool between queries.
+     *
+     * @param where           - filter criteria
+     * @param callbackFactory - factory to create callback per worker and merge them
+     * @param pool            - pool to run scan
+     * @param <C>             - type of callback
+     * @return - merged callback
+     * @since 3.2.1
+     */
+    public <C extends ArrayLayoutCallback> C select(
+            final Request[] where, final ArrayLayoutCallbackFactory<C> callbackFactory, final ForkJoinPool pool) {
+        return selectPrepared(bind(where), callbackFactory, pool, null);
+    }
+
+    /**
+     * Same as {@link FastSelect#select(Request[], ArrayLayoutCallbackFactory, ForkJoinPool)} but could be
+     * stopped by timeout or cancel of context. All workers check same context.
+     *
+     * @param where           - filter criteria
+     * @param callbackFactory - factory to create callback per worker and merge them
+     * @param pool            - pool to run scan
+     * @param context         - context of select
+     * @param <C>             - type of callback
+     * @return - merged callback
+     * @throws QueryCancelledException - when context cancelled
+     * @throws QueryTimeoutException   - when timeout of context expired
+     * @since 3.2.1
+     */
+    public <C extends ArrayLayoutCallback> C select(
+            final Request[] where, final ArrayLayoutCallbackFactory<C> callbackFactory, final ForkJoinPool pool,
+            final QueryContext context) {
+        return selectPrepared(bind(where), callbackFactory, pool, context);
+    }
+
+    <C extends ArrayLayoutCallback> C selectPrepared(
+            final Request[] where, final ArrayLayoutCallbackFactory<C> callbackFactory, final ForkJoinPool pool,
+            final QueryContext context) {
+        final int tasks = pool.getParallelism() * PARALLEL_TASKS_PER_THREAD;
+        checkRows(where, context);
+        final AdmissionController admissionController = admit(context);
+        try {
+            final SuperBlock rootBlock = this.rootBlock;
+            if (context != null) context.start(rootBlock.dataBlocks);
+            final List<Block> blocks = rootBlock.split(where, tasks, context);
+            final int blocksPerTask = Math.max(1, blocks.size() / tasks);
+            final RequestStatistics.Counters counters = new RequestStatistics.Counters(where);
+            final C result = pool.invoke(new ParallelSelect<>(
+                    where, callbackFactory, context, counters, blocks, 0, blocks.size(), blocksPerTask));
+            requestStatistics.update(counters);
+            return result;
+        } finally {
+            if (admissionController != null) admissionController.release();
+        }
+    }
+
+    /**
+     * Parallel select for {@link MergeableCallback} like {@link GroupCountCallback}. Each worker gets
+     * own part created by {@link MergeableCallback#fork()} at the end all parts merged to passed callback.
+     *
+     * @param where       - filter criteria
+     * @param callback    - callback to merge result to
+     * @param parallelism - count of threads to scan
+     * @param <C>         - type of callback
+     * @see FastSelect#select(Request[], ArrayLayoutCallbackFactory, int)
+     * @since 3.2.1
+     */
+    public <C extends ArrayLayoutCallback & MergeableCallback<C>> void select(
+            final Request[] where, final C callback, final int parallelism) {
+        callback.merge(select(where, new MergeableCallbackFactory<C>(callback), parallelism));
+    }
+
+    /**
+     * Same as {@link FastSelect#select(Request[], ArrayLayoutCallback, int)} but uses provided pool.
+     *
+     * @param where    - filter criteria
+     * @param callback - callback to merge result to
+     * @param pool     - pool to run scan
+     * @param <C>      - type of callback
+     * @since 3.2.1
+     */
+    public <C extends ArrayLayoutCallback & MergeableCallback<C>> void select(
+            final Request[] where, final C callback, final ForkJoinPool pool) {
+        callback.merge(select(where, new MergeableCallbackFactory<C>(callback), pool));
+    }
+
+    /**
+     * Asynchronous version of {@link FastSelect#select(Request[], ArrayLayoutCallback)}. Select executed
+     * by executor, result available by returned future or by {@link SelectListener} added to it.
+     * <p>
+     * If executor rejects select (for example queue of {@link SelectExecutor} is full) future completed
+     * by {@link RejectedExecutionException}. Cancel of future stops select on next block.
+     *
+     * @param where    - filter criteria
+     * @param callback - callback, will be result of future
+     * @param executor - executor to run select, like {@link SelectExecutor}
+     * @param <C>      - type of callback
+     * @return - future with callback as result
+     * @since 3.2.1
+     */
+    public <C extends ArrayLayoutCallback> SelectFuture<C> selectAsync(
+            final Request[] where, final C callback, final Executor executor) {
+        return selectAsync(where, callback, executor, new QueryContext());
+    }
+
+    /**
+     * Same as {@link FastSelect#selectAsync(Request[], ArrayLayoutCallback, Executor)} with
+     * own context for example with timeout.
+     *
+     * @param where    - filter criteria
+     * @param callback - callback, will be result of future
+     * @param executor - executor to run select
+     * @param context  - context of select
+     * @param <C>      - type of callback
+     * @return - future with callback as result
+     * @since 3.2.1
+     */
+    public <C extends ArrayLayoutCallback> SelectFuture<C> selectAsync(
+            final Request[] where, final C callback, final Executor executor, final QueryContext context) {
+        return submit(new Callable<C>() {
+            @Override
+            public C call() {
+                select(where, callback, context);
+                return callback;
+            }
+        }, executor, context);
+    }
+
+    static <C> SelectFuture<C> submit(final Callable<C> select, final Executor executor, final QueryContext context) {
+        final SelectFuture<C> future = new SelectFuture<>(select, context);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            future.fail(e);
+        }
+        return future;
     }
 
     public void select(final ArrayLayoutLimitCallback callback, final Request... where) {
-        prepareRequest(where);
-        rootBlock.select(where, callback);
+        selectPrepared(bind(where), callback, null);
+    }
+
+    /**
+     * Same as {@link FastSelect#select(ArrayLayoutLimitCallback, Request...)} but could be stopped
+     * by timeout or cancel of context.
+     *
+     * @param where    - filter criteria
+     * @param callback - callback
+     * @param context  - context of select
+     * @throws QueryCancelledException - when context cancelled
+     * @throws QueryTimeoutException   - when timeout of context expired
+     * @since 3.2.1
+     */
+    public void select(final Request[] where, final ArrayLayoutLimitCallback callback, final QueryContext context) {
+        selectPrepared(bind(where), callback, context);
     }
 
     public void select(final Request[] where, final Callback<T> callback) {
-        select(where, new ArrayToObjectCallback<>(dataClass, columns, mhRepo, callback));
+        select(where, toArrayLayout(callback));
     }
 
     public void select(final LimitCallback<T> callback, final Request... where) {
-        select(new ArrayToObjectLimitCallback<>(dataClass, columns, mhRepo, callback), where);
+        select(toArrayLayout(callback), where);
+    }
+
+    void selectPrepared(final Request[] where, final ArrayLayoutCallback callback, final QueryContext context) {
+        checkRows(where, context);
+        final AdmissionController admissionController = admit(context);
+        try {
+            final BitSet indexed = selectIndexed(where);
+            if (indexed != null) {
+                int c = 0;
+                for (int p = indexed.nextSetBit(0); p >= 0; p = indexed.nextSetBit(p + 1)) {
+                    if (context != null && (c++ & INDEX_CHECK_MASK) == 0) context.check();
+                    if (accept(where, p)) callback.data(p);
+                }
+                return;
+            }
+
+            final SuperBlock rootBlock = this.rootBlock;
+            if (context != null) context.start(rootBlock.dataBlocks);
+            final BlockScanner scanner = newScanner(where, context);
+            rootBlock.select(scanner, callback);
+            publish(scanner);
+        } finally {
+            if (admissionController != null) admissionController.release();
+        }
+    }
+
+    void selectPrepared(final Request[] where, final ArrayLayoutLimitCallback callback, final QueryContext context) {
+        checkRows(where, context);
+        final AdmissionController admissionController = admit(context);
+        try {
+            final BitSet indexed = selectIndexed(where);
+            if (indexed != null) {
+                int c = 0;
+                for (int p = indexed.nextSetBit(0); p >= 0; p = indexed.nextSetBit(p + 1)) {
+                    if (context != null && (c++ & INDEX_CHECK_MASK) == 0) context.check();
+                    if (accept(where, p)) {
+                        callback.data(p);
+                        if (callback.needToStop()) return;
+                    }
+                }
+                return;
+            }
+
+            final SuperBlock rootBlock = this.rootBlock;
+            if (context != null) context.start(rootBlock.dataBlocks);
+            final BlockScanner scanner = newScanner(where, context);
+            rootBlock.select(scanner, callback);
+            publish(scanner);
+        } finally {
+            if (admissionController != null) admissionController.release();
+        }
+    }
+
+    ArrayLayoutCallback toArrayLayout(final Callback<T> callback) {
+        return new ArrayToObjectCallback<>(dataClass, columns, mhRepo, callback);
+    }
+
+    ArrayLayoutLimitCallback toArrayLayout(final LimitCallback<T> callback) {
+        return new ArrayToObjectLimitCallback<>(dataClass, columns, mhRepo, callback);
     }
 
     public List<Integer> selectPositions(final Request[] where) {
@@ -399,12 +796,25 @@ public class FastSelect<T> {
      * Create new instance of {@link FastSelect} with same data class, columns and block size
      * with data which accepted by passed where.
      * <p>
-     * Allocated size will be same with original. Use {@link FastSelect#compact()} to trim
+     * Allocated size will be same with original. Use {@link FastSelect#compact()} to trim.
+     * <p>
+     * When {@link FastSelectBuilder#clusterBy(String...)} used copy is sorted and compact.
      *
      * @param where - conditions to copy only specific data
      * @return - copy
      */
     public FastSelect<T> copy(final Request[] where) {
+        if (clusterBy.length > 0) {
+            final int[] positions = clusterPositions(selectPositions(where));
+            final List<Column> columnsCopy = new ArrayList<>();
+            for (Column column : columns) columnsCopy.add(column.copy(positions));
+            FastSelect<T> copy = new FastSelect<>(blockSizes, dataClass, columnsCopy, bloomBitsPerValue, clusterBy,
+                    zOrder);
+            copy.rootBlock.init();
+            copy.updateStatistics(0, copy.size());
+            return copy;
+        }
+
         final byte[] needToCopy = new byte[size()];
         select(where, new ArrayLayoutCallback() {
             @Override
@@ -415,14 +825,14 @@ public class FastSelect<T> {
 
         final List<Column> columnsCopy = new ArrayList<>();
         for (Column column : columns) columnsCopy.add(column.copy(needToCopy));
-        FastSelect<T> copy = new FastSelect<>(blockSizes[0], dataClass, columnsCopy);
+        FastSelect<T> copy = new FastSelect<>(blockSizes, dataClass, columnsCopy, bloomBitsPerValue);
         copy.rootBlock.init();
+        copy.updateStatistics(0, copy.size());
         return copy;
     }
 
     public int blockTouch(final ColumnRequest[] where) {
-        prepareRequest(where);
-        return rootBlock.blockTouch(where);
+        return rootBlock.blockTouch(bind(where));
     }
 
     /**
@@ -469,6 +879,32 @@ public class FastSelect<T> {
         return (R) column.data;
     }
 
+    /**
+     * Estimate count of rows accepted by requests without select. Each request estimated by
+     * {@link Request#selectivity()} from {@link ColumnStatistics} of column, requests considered
+     * as independent. Request which can't be estimated considered as accepting all rows.
+     *
+     * @param where - requests
+     * @return - estimated count of rows
+     * @see QueryContext#setMaxRows(long)
+     * @since 3.2.1
+     */
+    public long estimateRows(final Request... where) {
+        return estimatePrepared(bind(where));
+    }
+
+    /**
+     * @param columnName - name of column
+     * @return - statistics of column or <code>null</code> for multi value column
+     * @throws IllegalArgumentException - for unknown column
+     * @since 3.2.1
+     */
+    public ColumnStatistics getColumnStatistics(final String columnName) {
+        final Column column = columnsByNames.get(columnName);
+        if (column == null) throw new IllegalArgumentException("Can't find " + columnName + " in " + columnsByNames);
+        return column.statistics;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " {blockSizes: " + Arrays.toString(blockSizes) + ", data: " + size()
@@ -479,8 +915,373 @@ public class FastSelect<T> {
         return blockSizes[blockSizes.length - 1];
     }
 
-    private void prepareRequest(final Request[] where) {
-        for (final Request condition : where) condition.prepare(columnsByNames);
+    /**
+     * @return - copy of sizes of blocks for each level from top to data block
+     * @since 3.2.1
+     */
+    public int[] getBlockSizes() {
+        return blockSizes.clone();
+    }
+
+    /**
+     * @return - copy of names of columns to sort rows by, empty if not set
+     * @see FastSelectBuilder#clusterBy(String...)
+     * @since 3.2.1
+     */
+    public String[] getClusterBy() {
+        return clusterBy.clone();
+    }
+
+    /**
+     * @return - true if rows sorted by {@link FastSelect#getClusterBy()} (or in Z-order of them) and select
+     * finds blocks for requests to first cluster column by binary search (not for Z-order), false if cluster
+     * columns not set or order broken by {@link FastSelect#addAll(List)} until next {@link FastSelect#compact()}
+     * @since 3.2.1
+     */
+    public boolean isClustered() {
+        return clusterBy.length > 0 && clustered;
+    }
+
+    /**
+     * Selectivity of requests learned from previous selects. Used to evaluate cheap and selective
+     * requests first regardless of order passed by caller.
+     *
+     * @return - statistics of this instance
+     * @since 3.2.1
+     */
+    public RequestStatistics getRequestStatistics() {
+        return requestStatistics;
+    }
+
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    /**
+     * Limit count of concurrent selects. Each select waits for admission before scan, priority
+     * taken from {@link QueryContext} if passed. Could be changed at any time, selects which already
+     * admitted not affected.
+     *
+     * @param admissionController - controller or null to don't limit selects
+     * @since 3.2.1
+     */
+    public void setAdmissionController(final AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    /**
+     * @return controller which admitted select and should be released or null
+     */
+    private AdmissionController admit(final QueryContext context) {
+        final AdmissionController admissionController = this.admissionController;
+        if (admissionController != null) admissionController.acquire(
+                context == null ? QueryContext.NORMAL_PRIORITY : context.getPriority());
+        return admissionController;
+    }
+
+    private long estimatePrepared(final Request[] where) {
+        double selectivity = 1;
+        for (final Request request : where) {
+            final double requestSelectivity = request.selectivity();
+            if (requestSelectivity >= 0) selectivity *= requestSelectivity;
+        }
+        return Math.round(size() * selectivity);
+    }
+
+    /**
+     * @throws QueryRejectedException - if estimated count of rows bigger than {@link QueryContext#getMaxRows()}
+     */
+    private void checkRows(final Request[] where, final QueryContext context) {
+        if (context == null || context.getMaxRows() == Long.MAX_VALUE) return;
+        final long rows = estimatePrepared(where);
+        if (rows > context.getMaxRows()) throw new QueryRejectedException("Query expected to select " + rows
+                + " rows, more than max " + context.getMaxRows() + ", " + context);
+    }
+
+    /**
+     * Add values of rows to {@link ColumnStatistics}
+     *
+     * @param from - first position (inclusive)
+     * @param to   - last position (exclusive)
+     */
+    private void updateStatistics(final int from, final int to) {
+        for (final Column column : columns) {
+            final ColumnStatistics statistics = column.statistics;
+            if (column.data instanceof OffHeapData && column.type == double.class) {
+                final OffHeapData data = (OffHeapData) column.data;
+                for (int i = from; i < to; i++) statistics.add(Range.sortable(data.getDouble(i)));
+            } else if (column.data instanceof OffHeapData) {
+                final OffHeapData data = (OffHeapData) column.data;
+                for (int i = from; i < to; i++) statistics.add(data.getAsLong(i));
+            } else if (column.annotationType == RunLength.class) {
+                final RunLengthData data = (RunLengthData) column.data;
+                for (int run = data.run(from), i = from; i < to; run++) {
+                    final int runTo = Math.min(to, data.runEnd(run));
+                    for (; i < runTo; i++) statistics.add(data.runValue(run));
+                }
+            } else if (column.type == byte.class) {
+                final byte[] data = ((ByteData) column.data).data;
+                for (int i = from; i < to; i++) statistics.add(data[i]);
+            } else if (column.type == short.class) {
+                final short[] data = ((ShortData) column.data).data;
+                for (int i = from; i < to; i++) statistics.add(data[i]);
+            } else if (column.type == int.class && column.annotationType == BitPacked.class) {
+                final BitPackedIntData data = (BitPackedIntData) column.data;
+                for (int i = from; i < to; i++) statistics.add(data.getInt(i));
+            } else if (column.type == int.class) {
+                final int[] data = ((IntData) column.data).data;
+                for (int i = from; i < to; i++) statistics.add(data[i]);
+            } else if (column.type == long.class && column.annotationType == Delta.class) {
+                final DeltaLongData data = (DeltaLongData) column.data;
+                for (int i = from; i < to; i++) statistics.add(data.getLong(i));
+            } else if (column.type == long.class) {
+                final long[] data = ((LongData) column.data).data;
+                for (int i = from; i < to; i++) statistics.add(data[i]);
+            } else if (column.type == double.class) {
+                final double[] data = ((DoubleData) column.data).data;
+                for (int i = from; i < to; i++) statistics.add(Range.sortable(data[i]));
+            } else if (column.type == String.class && column.annotationType == StringCompressedByte.class) {
+                final byte[] data = ((StringCompressedByteData) column.data).data.data;
+                for (int i = from; i < to; i++) statistics.add(data[i]);
+            } else if (column.type == String.class && column.annotationType == StringCompressedShort.class) {
+                final short[] data = ((StringCompressedShortData) column.data).data.data;
+                for (int i = from; i < to; i++) statistics.add(data[i]);
+            } else if (column.type == String.class && column.annotationType == StringCompressedInt.class) {
+                final int[] data = ((StringCompressedIntData) column.data).data.data;
+                for (int i = from; i < to; i++) statistics.add(data[i]);
+            } else if (column.type == String.class && column.annotationType == StringCompressed.class) {
+                final StringCompressedData data = (StringCompressedData) column.data;
+                for (int i = from; i < to; i++) statistics.addHash(data.hash(i));
+            } else if (column.type == String.class) {
+                final StringData data = (StringData) column.data;
+                for (int i = from; i < to; i++) statistics.addHash(data.hash(i));
+            }
+        }
+    }
+
+    /**
+     * Intersection of positions of selective requests which could use {@link BitmapIndex}. Other
+     * requests not checked, so each position should be checked by {@link FastSelect#accept(Request[], int)}
+     *
+     * @param where - prepared requests
+     * @return - positions or <code>null</code> if no one request could use index and blocks should be scanned
+     */
+    private BitSet selectIndexed(final Request[] where) {
+        final int size = size();
+        BitSet result = null;
+        for (final Request request : where) {
+            final int count = request.indexCount();
+            if (count < 0 || (long) count * INDEX_SELECTIVITY > size) continue;
+
+            final BitSet positions = new BitSet();
+            request.indexOr(positions);
+            if (result == null) result = positions;
+            else result.and(positions);
+        }
+        return result;
+    }
+
+    /**
+     * Sort all rows by cluster columns, reorder data of each column in place and build blocks again. Columns
+     * and their data stay same objects, so columns taken by {@link FastSelect#getColumnsByNames()} see sorted data
+     */
+    private void cluster() {
+        final int[] positions = new int[size()];
+        for (int i = 0; i < positions.length; i++) positions[i] = i;
+        sortByCluster(positions);
+
+        for (final Column column : columns) column.reorder(positions);
+
+        final SuperBlock block = new SuperBlock(-1, Integer.MAX_VALUE);
+        block.init();
+        rootBlock = block;
+        clustered = true;
+    }
+
+    private Column[] clusterColumns() {
+        final Column[] result = new Column[clusterBy.length];
+        for (int i = 0; i < clusterBy.length; i++) result[i] = columnsByNames.get(clusterBy[i]);
+        return result;
+    }
+
+    /**
+     * @param positions - positions to sort, will be sorted in place by stable sort
+     */
+    private int[] sortByCluster(final int[] positions) {
+        final Column[] key = clusterColumns();
+        PositionSort.sort(positions, zOrder ? zOrderComparator(key, positions) : new PositionSort.Comparator() {
+            @Override
+            public int compare(final int position1, final int position2) {
+                return compareRows(key, position1, position2);
+            }
+        });
+        return positions;
+    }
+
+    /**
+     * Morton order without calculation of interleaved key. Values of each column shifted to start from
+     * <code>0</code> and scaled to <code>32</code> bits, so each column gets same weight. Rows compared by
+     * column which has highest different bit, first column wins when bit is same.
+     *
+     * @param key       - columns
+     * @param positions - positions which will be compared, to find range of values
+     */
+    private PositionSort.Comparator zOrderComparator(final Column[] key, final int[] positions) {
+        final long[][] values = new long[key.length][size()];
+        for (int d = 0; d < key.length; d++) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (final int position : positions) {
+                final long value = intCode(key[d], position);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            final int shift = positions.length == 0 ? 0 : Long.numberOfLeadingZeros(max - min) - 32;
+            for (final int position : positions) values[d][position] = (intCode(key[d], position) - min) << shift;
+        }
+
+        return new PositionSort.Comparator() {
+            @Override
+            public int compare(final int position1, final int position2) {
+                int d = 0;
+                long diff = values[0][position1] ^ values[0][position2];
+                for (int i = 1; i < values.length; i++) {
+                    final long x = values[i][position1] ^ values[i][position2];
+                    // highest bit of diff less than highest bit of x
+                    if (diff < x && diff < (diff ^ x)) {
+                        d = i;
+                        diff = x;
+                    }
+                }
+                return Long.compare(values[d][position1], values[d][position2]);
+            }
+        };
+    }
+
+    /**
+     * @return - value of <code>byte</code>, <code>short</code> or <code>int</code> column or code
+     * of value in dictionary for string compressed column
+     */
+    private static int intCode(final Column column, final int position) {
+        if (column.data instanceof OffHeapData) {
+            return (int) ((OffHeapData) column.data).getAsLong(position);
+        } else if (column.type == byte.class) {
+            return ((ByteData) column.data).data[position];
+        } else if (column.type == short.class) {
+            return ((ShortData) column.data).data[position];
+        } else if (column.type == int.class) {
+            return ((IntData) column.data).data[position];
+        } else if (column.annotationType == StringCompressedByte.class) {
+            return ((StringCompressedByteData) column.data).data.data[position];
+        } else if (column.annotationType == StringCompressedShort.class) {
+            return ((StringCompressedShortData) column.data).data.data[position];
+        } else {
+            return ((StringCompressedIntData) column.data).data.data[position];
+        }
+    }
+
+    private int[] clusterPositions(final List<Integer> positions) {
+        final int[] result = new int[positions.size()];
+        for (int i = 0; i < result.length; i++) result[i] = positions.get(i);
+        return clustered ? result : sortByCluster(result);
+    }
+
+    private List<T> sortByCluster(final List<T> data) {
+        final Column[] key = clusterColumns();
+        final List<T> sorted = new ArrayList<>(data);
+        Collections.sort(sorted, new Comparator<T>() {
+            @Override
+            public int compare(T o1, T o2) {
+                try {
+                    for (final Column column : key) {
+                        final int c = compareValues(column.getter.invoke(o1), column.getter.invoke(o2));
+                        if (c != 0) return c;
+                    }
+                    return 0;
+                } catch (Throwable throwable) {
+                    throw new RuntimeException(throwable);
+                }
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * @param from - first position (inclusive)
+     * @param to   - last position (exclusive)
+     * @return - true if rows sorted by cluster columns
+     */
+    private boolean sorted(final int from, final int to) {
+        final Column[] key = clusterColumns();
+        for (int i = from + 1; i < to; i++) {
+            if (compareRows(key, i - 1, i) > 0) return false;
+        }
+        return true;
+    }
+
+    private static int compareRows(final Column[] key, final int position1, final int position2) {
+        for (final Column column : key) {
+            // strings compared as values to support null
+            final int c = column.type == String.class
+                    ? compareValues(column.data.get(position1), column.data.get(position2))
+                    : column.data.compare(position1, position2);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(final Object value1, final Object value2) {
+        if (value1 == null) return value2 == null ? 0 : -1;
+        if (value2 == null) return 1;
+        return ((Comparable) value1).compareTo(value2);
+    }
+
+    /**
+     * @return - requests to first cluster column which could find blocks by
+     * {@link ColumnRequest#compareBlock(Block)}, empty if data not sorted
+     */
+    private List<ColumnRequest> clusterRequests(final Request[] where) {
+        if (clusterBy.length == 0 || zOrder || !clustered) return Collections.emptyList();
+        final List<ColumnRequest> result = new ArrayList<>();
+        for (final Request request : where) {
+            if (request instanceof ColumnRequest && ((ColumnRequest) request).name.equals(clusterBy[0]))
+                result.add((ColumnRequest) request);
+        }
+        return result;
+    }
+
+    private static boolean accept(final Request[] where, final int position) {
+        for (final Request request : where) {
+            if (!request.checkValue(position)) return false;
+        }
+        return true;
+    }
+
+    private BlockScanner newScanner(final Request[] where, final QueryContext context) {
+        return new BlockScanner(where, dataBlockSize(), requestStatistics, context);
+    }
+
+    private void publish(final BlockScanner scanner) {
+        final RequestStatistics.Counters counters = new RequestStatistics.Counters(scanner.where);
+        scanner.publish(counters);
+        requestStatistics.update(counters);
+    }
+
+    /**
+     * @return - counter changed on each modification of data which could make prepared requests invalid
+     */
+    long dataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * @return - copies of requests prepared for current data, original requests stay untouched
+     */
+    Request[] bind(final Request[] where) {
+        final Request[] bound = new Request[where.length];
+        for (int i = 0; i < where.length; i++) bound[i] = where[i].bind(columnsByNames);
+        return bound;
     }
 
     private void createObjects(final LimitCallback<T> callback, final List<Integer> positions) {
@@ -511,13 +1312,42 @@ public class FastSelect<T> {
         MethodHandle getter;
         MethodHandle setter;
         int index;
+        /**
+         * Not null if index enabled by {@link FastSelectBuilder#bitmapIndex(String...)}
+         */
+        BitmapIndex bitmapIndex;
+        /**
+         * Not null if index enabled by {@link FastSelectBuilder#trigramIndex(String...)}
+         */
+        TrigramIndex trigramIndex;
+        /**
+         * Shared by sorted copy of column as values are same, null for multi value column
+         */
+        ColumnStatistics statistics;
 
         public Column(final String name, final Class type, final Class annotationType, final int inc) {
+            this(name, type, annotationType, inc, Storage.HEAP);
+        }
+
+        /**
+         * @param storage - where to keep values of not encoded primitive column, other columns always in heap
+         * @since 3.2.1
+         */
+        public Column(final String name, final Class<?> type, final Class<?> annotationType, final int inc,
+                      final Storage storage) {
             this.name = name;
             this.type = type;
             this.annotationType = annotationType;
 
-            if (type == long.class) {
+            if ((type == byte.class || type == short.class) && annotationType == RunLength.class) {
+                data = new RunLengthData(type, inc);
+            } else if (type == long.class && annotationType == Delta.class) {
+                data = new DeltaLongData(inc);
+            } else if (type == int.class && annotationType == BitPacked.class) {
+                data = new BitPackedIntData(inc);
+            } else if (storage == Storage.OFF_HEAP && OffHeapData.supports(type)) {
+                data = new OffHeapData(type, inc);
+            } else if (type == long.class) {
                 data = new LongData(inc);
             } else if (type == long[].class) {
                 data = new MultiLongData(inc);
@@ -539,6 +1369,8 @@ public class FastSelect<T> {
                 data = new StringCompressedShortData(inc);
             } else if (type == String.class && annotationType == StringCompressedInt.class) {
                 data = new StringCompressedIntData(inc);
+            } else if (type == String.class && annotationType == StringCompressed.class) {
+                data = new StringCompressedData(inc);
             } else if (type == String.class) {
                 data = new StringData(inc);
             } else if (type == double.class) {
@@ -558,6 +1390,55 @@ public class FastSelect<T> {
             this.type = column.type;
             this.annotationType = column.annotationType;
             this.data = column.data.copy(needToCopy);
+            if (column.bitmapIndex != null) this.bitmapIndex = new BitmapIndex();
+            if (column.trigramIndex != null) this.trigramIndex = new TrigramIndex();
+        }
+
+        /**
+         * @param column    - column to copy
+         * @param positions - positions to copy in required order
+         * @since 3.2.1
+         */
+        public Column(final Column column, int[] positions) {
+            this.name = column.name;
+            this.type = column.type;
+            this.annotationType = column.annotationType;
+            this.data = column.data.copy(positions);
+            if (column.bitmapIndex != null) this.bitmapIndex = new BitmapIndex();
+            if (column.trigramIndex != null) this.trigramIndex = new TrigramIndex();
+        }
+
+        ColumnStatistics newStatistics() {
+            if (type == byte.class) {
+                return ColumnStatistics.withFrequencies(Byte.MIN_VALUE);
+            } else if (type == short.class || type == int.class || type == long.class || type == double.class) {
+                return ColumnStatistics.withHistogram();
+            } else if (type == String.class && (annotationType == StringCompressedByte.class
+                    || annotationType == StringCompressedShort.class || annotationType == StringCompressedInt.class)) {
+                return ColumnStatistics.withFrequencies(0);
+            } else if (type == String.class) {
+                return ColumnStatistics.withDistinct();
+            } else {
+                return null;
+            }
+        }
+
+        /**
+         * @return - true if {@link BitmapIndex} could be built for column
+         */
+        boolean supportsBitmapIndex() {
+            return intCoded();
+        }
+
+        /**
+         * @return - true for not run length <code>byte</code> and <code>short</code>, not bit packed <code>int</code>
+         * and string compressed columns which values or dictionary codes are integers
+         */
+        boolean intCoded() {
+            return ((type == byte.class || type == short.class) && annotationType != RunLength.class)
+                    || (type == int.class && annotationType != BitPacked.class)
+                    || (type == String.class && (annotationType == StringCompressedByte.class
+                    || annotationType == StringCompressedShort.class || annotationType == StringCompressedInt.class));
         }
 
         public void compact() {
@@ -570,12 +1451,20 @@ public class FastSelect<T> {
         }
 
         public int valueAsInt(final int position) {
-            if (type == byte.class) {
+            if (data instanceof OffHeapData) {
+                return (int) ((OffHeapData) data).getAsLong(position);
+            } else if (annotationType == RunLength.class) {
+                return ((RunLengthData) data).getShort(position);
+            } else if (type == byte.class) {
                 return ((ByteData) data).data[position];
             } else if (type == short.class) {
                 return ((ShortData) data).data[position];
+            } else if (type == int.class && annotationType == BitPacked.class) {
+                return ((BitPackedIntData) data).getInt(position);
             } else if (type == int.class) {
                 return ((IntData) data).data[position];
+            } else if (type == long.class && annotationType == Delta.class) {
+                return (int) ((DeltaLongData) data).getLong(position);
             } else if (type == long.class) {
                 return (int) ((LongData) data).data[position];
             } else {
@@ -603,13 +1492,59 @@ public class FastSelect<T> {
             return new Column(this, needToCopy);
         }
 
+        /**
+         * @since 3.2.1
+         */
+        public Column copy(int[] positions) {
+            return new Column(this, positions);
+        }
+
+        /**
+         * Reorder data in place by {@link Data#reorder(int[])}, indexes become empty and should be built again
+         *
+         * @param positions - all positions of column in required order
+         */
+        void reorder(final int[] positions) {
+            data.reorder(positions);
+            if (bitmapIndex != null) bitmapIndex = new BitmapIndex();
+            if (trigramIndex != null) trigramIndex = new TrigramIndex();
+        }
+
+    }
+
+    private static boolean inBlock(final Request[] where, final Block block) {
+        for (final Request request : where) {
+            if (!request.checkBlock(block)) return false;
+        }
+        return true;
     }
 
+    /**
+     * @param fromBlock - index of first block to scan (inclusive)
+     * @param toBlock   - index of last block to scan (exclusive)
+     */
+    private static void select(final List<Block> blocks, final int fromBlock, final int toBlock,
+                               final BlockScanner scanner, final ArrayLayoutCallback callback) {
+        final QueryContext context = scanner.context;
+        for (int i = fromBlock; i < toBlock; i++) {
+            final Block block = blocks.get(i);
+            if (context != null) context.check();
+            if (inBlock(scanner.where, block)) block.select(scanner, callback);
+            else if (context != null) context.blocksDone(block.dataBlocks, true);
+        }
+    }
+
+    /**
+     * Block of blocks. Keeps merged statistics of nested blocks except {@link BloomFilter}, so whole
+     * group could be skipped by one check. Nested blocks are super blocks with size from next level of
+     * {@link FastSelect#blockSizes} or data blocks for last level.
+     */
     private final class SuperBlock extends Block {
 
         final int level;
         final int maxSize;
         final List<Block> blocks = new ArrayList<>();
+        int size;
 
         SuperBlock(int level, int maxSize) {
             this.level = level;
@@ -617,6 +1552,8 @@ public class FastSelect<T> {
 
             for (Column ignored : columns) {
                 columnBitSets.add(new BitSet());
+                negativeColumnBitSets.add(new BitSet());
+                ranges.add(new Range());
             }
         }
 
@@ -627,28 +1564,100 @@ public class FastSelect<T> {
 
         @Override
         int free() {
-            throw new UnsupportedOperationException();
+            return maxSize - size;
         }
 
-        private boolean inBlock(Request[] requests, Block block) {
-            for (Request request : requests) {
-                if (!request.checkBlock(block)) return false;
-            }
-            return true;
+        @Override
+        int start() {
+            return blocks.isEmpty() ? 0 : blocks.get(0).start();
         }
 
         @Override
-        void select(Request[] where, ArrayLayoutCallback callback) {
-            for (final Block block : blocks) {
-                if (!inBlock(where, block)) continue;
-                block.select(where, callback);
+        int end() {
+            return blocks.isEmpty() ? 0 : blocks.get(blocks.size() - 1).end();
+        }
+
+        private boolean dataLevel() {
+            return level + 1 == blockSizes.length - 1;
+        }
+
+        private Block newBlock(final int start) {
+            return dataLevel() ? new DataBlock(start) : new SuperBlock(level + 1, blockSizes[level + 1]);
+        }
+
+        private void merge(final Block block) {
+            for (Column column : columns) {
+                columnBitSets.get(column.index).or(block.columnBitSets.get(column.index));
+                negativeColumnBitSets.get(column.index).or(block.negativeColumnBitSets.get(column.index));
+                final Range range = ranges.get(column.index);
+                final Range blockRange = block.ranges.get(column.index);
+                range.update(blockRange.min);
+                range.update(blockRange.max);
+            }
+        }
+
+        /**
+         * When data clustered blocks sorted by first cluster column, so first and last block which
+         * could have values accepted by requests to that column found by binary search.
+         *
+         * @param where   - requests
+         * @param context - to count skipped blocks or null
+         * @return - nested blocks to check
+         */
+        private List<Block> blocks(final Request[] where, final QueryContext context) {
+            final List<ColumnRequest> clusterWhere = clusterRequests(where);
+            if (clusterWhere.isEmpty()) return blocks;
+
+            int low = 0;
+            int high = blocks.size();
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (before(clusterWhere, blocks.get(middle))) low = middle + 1;
+                else high = middle;
+            }
+            final int from = low;
+
+            high = blocks.size();
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (after(clusterWhere, blocks.get(middle))) high = middle;
+                else low = middle + 1;
+            }
+            final int to = low;
+
+            if (context != null) {
+                int skipped = 0;
+                for (int i = 0; i < from; i++) skipped += blocks.get(i).dataBlocks;
+                for (int i = to; i < blocks.size(); i++) skipped += blocks.get(i).dataBlocks;
+                if (skipped > 0) context.blocksDone(skipped, true);
+            }
+            return blocks.subList(from, to);
+        }
+
+        private boolean before(final List<ColumnRequest> clusterWhere, final Block block) {
+            for (final ColumnRequest request : clusterWhere) {
+                if (request.compareBlock(block) < 0) return true;
             }
+            return false;
+        }
+
+        private boolean after(final List<ColumnRequest> clusterWhere, final Block block) {
+            for (final ColumnRequest request : clusterWhere) {
+                if (request.compareBlock(block) > 0) return true;
+            }
+            return false;
+        }
+
+        @Override
+        void select(BlockScanner scanner, ArrayLayoutCallback callback) {
+            final List<Block> blocks = blocks(scanner.where, scanner.context);
+            FastSelect.select(blocks, 0, blocks.size(), scanner, callback);
         }
 
         @Override
         int blockTouch(Request[] where) {
             int c = 0;
-            for (final Block block : blocks) {
+            for (final Block block : blocks(where, null)) {
                 if (!inBlock(where, block)) continue;
                 c += block.blockTouch(where);
             }
@@ -656,58 +1665,146 @@ public class FastSelect<T> {
         }
 
         @Override
-        void select(Request[] where, ArrayLayoutLimitCallback callback) {
-            for (final Block block : blocks) {
-                if (!inBlock(where, block)) continue;
-                block.select(where, callback);
+        void select(BlockScanner scanner, ArrayLayoutLimitCallback callback) {
+            final QueryContext context = scanner.context;
+            for (final Block block : blocks(scanner.where, context)) {
+                if (context != null) context.check();
+                if (inBlock(scanner.where, block)) block.select(scanner, callback);
+                else if (context != null) context.blocksDone(block.dataBlocks, true);
 
                 if (callback.needToStop()) return;
             }
         }
 
-        @Override
-        public void init() {
-            int start = 0;
-            int size = columns.iterator().next().size();
-            while (start < size) {
-                int blockSize = Math.min(size - start, dataBlockSize());
-                DataBlock block = new DataBlock(start, blockSize);
-                block.init();
-                blocks.add(block);
-                start += block.getMaxSize();
+        /**
+         * Replace nested super blocks by their blocks until get enough blocks to split work between threads.
+         * Super blocks skipped by where are not expanded and not returned.
+         *
+         * @param where     - requests
+         * @param minBlocks - count of blocks to stop
+         * @param context   - to count skipped blocks or null
+         * @return - blocks to scan
+         */
+        List<Block> split(final Request[] where, final int minBlocks, final QueryContext context) {
+            List<Block> result = blocks(where, context);
+            boolean expanded = true;
+            while (expanded && result.size() < minBlocks) {
+                expanded = false;
+                final List<Block> next = new ArrayList<>();
+                for (final Block block : result) {
+                    if (block instanceof FastSelect<?>.SuperBlock) {
+                        expanded = true;
+                        final FastSelect<?>.SuperBlock superBlock = (FastSelect<?>.SuperBlock) block;
+                        if (inBlock(where, block)) next.addAll(superBlock.blocks(where, context));
+                        else if (context != null) context.blocksDone(block.dataBlocks, true);
+                    } else {
+                        next.add(block);
+                    }
+                }
+                result = next;
             }
+            return result;
         }
 
         @Override
-        void add(List dataToAdd, int addFrom, int addTo) {
-            int position = 0;
-            int updatePosition = Math.max(0, blocks.size() - 1);
+        public void init() {
+            init(0, columns.iterator().next().size());
+        }
 
-            if (blocks.isEmpty()) {
-                Block block = new DataBlock(columns.get(0).data.size());
+        /**
+         * @param start - first position (inclusive)
+         * @param end   - last position (exclusive)
+         */
+        private void init(final int start, final int end) {
+            final int blockSize = blockSizes[level + 1];
+            for (int blockStart = start; blockStart < end; blockStart += blockSize) {
+                final int blockEnd = Math.min(end, blockStart + blockSize);
+                final Block block;
+                if (dataLevel()) {
+                    block = new DataBlock(blockStart, blockEnd - blockStart);
+                    block.init();
+                } else {
+                    final SuperBlock superBlock = new SuperBlock(level + 1, blockSize);
+                    superBlock.init(blockStart, blockEnd);
+                    block = superBlock;
+                }
                 blocks.add(block);
+                merge(block);
+                dataBlocks += block.dataBlocks;
+                size += blockEnd - blockStart;
             }
+        }
 
-            while (position < dataToAdd.size()) {
-                Block block = blocks.get(blocks.size() - 1);
-                final int free = block.free();
-                if (free == 0) {
-                    block = new DataBlock(columns.get(0).data.size());
+        @Override
+        void add(List dataToAdd, int addFrom, int addTo) {
+            int position = addFrom;
+            while (position < addTo) {
+                Block block = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+                if (block == null || block.free() == 0) {
+                    block = newBlock(columns.get(0).data.size());
                     blocks.add(block);
+                    dataBlocks += block.dataBlocks;
                 }
 
-                int toAdd = Math.min(free, dataToAdd.size() - position);
+                final int toAdd = Math.min(block.free(), addTo - position);
+                final int blockDataBlocks = block.dataBlocks;
                 block.add(dataToAdd, position, position + toAdd);
+                merge(block);
+                dataBlocks += block.dataBlocks - blockDataBlocks;
+                size += toAdd;
                 position += toAdd;
             }
+        }
 
-            for (int i = updatePosition; i < blocks.size(); i++) {
-                Block block = blocks.get(i);
-                for (Column column : columns) {
-                    BitSet bitSet = columnBitSets.get(column.index);
-                    bitSet.or(block.columnBitSets.get(column.index));
-                }
+    }
+
+    @SuppressWarnings("serial")
+    private final class ParallelSelect<C extends ArrayLayoutCallback> extends RecursiveTask<C> {
+
+        private final Request[] where;
+        private final ArrayLayoutCallbackFactory<C> callbackFactory;
+        private final QueryContext context;
+        /**
+         * Shared by all tasks of select, published by caller when select done
+         */
+        private final RequestStatistics.Counters counters;
+        private final List<Block> blocks;
+        private final int fromBlock;
+        private final int toBlock;
+        private final int blocksPerTask;
+
+        private ParallelSelect(final Request[] where, final ArrayLayoutCallbackFactory<C> callbackFactory,
+                               final QueryContext context, final RequestStatistics.Counters counters,
+                               final List<Block> blocks, final int fromBlock, final int toBlock,
+                               final int blocksPerTask) {
+            this.where = where;
+            this.callbackFactory = callbackFactory;
+            this.context = context;
+            this.counters = counters;
+            this.blocks = blocks;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+            this.blocksPerTask = blocksPerTask;
+        }
+
+        @Override
+        protected C compute() {
+            if (toBlock - fromBlock <= blocksPerTask) {
+                final C callback = callbackFactory.create();
+                final BlockScanner scanner = newScanner(where, context);
+                select(blocks, fromBlock, toBlock, scanner, callback);
+                scanner.publish(counters);
+                return callback;
             }
+
+            final int middle = (fromBlock + toBlock) >>> 1;
+            final ParallelSelect<C> right = new ParallelSelect<>(
+                    where, callbackFactory, context, counters, blocks, middle, toBlock, blocksPerTask);
+            right.fork();
+            final C result = new ParallelSelect<>(
+                    where, callbackFactory, context, counters, blocks, fromBlock, middle, blocksPerTask).compute();
+            callbackFactory.merge(result, right.join());
+            return result;
         }
 
     }
@@ -724,9 +1821,16 @@ public class FastSelect<T> {
         private DataBlock(final int start, final int size) {
             this.start = start;
             this.size = size;
-            for (Column ignored : columns) {
+            this.dataBlocks = 1;
+            for (Column column : columns) {
                 columnBitSets.add(new BitSet());
+                negativeColumnBitSets.add(new BitSet());
                 ranges.add(new Range());
+                bloomFilters.add(bloomBitsPerValue > 0 && (column.data instanceof IntData
+                        || column.data instanceof LongData || column.data instanceof StringData
+                        || (column.data instanceof OffHeapData && (column.type == int.class || column.type == long.class))
+                        || column.data instanceof MultiIntData || column.data instanceof MultiLongData)
+                        ? new BloomFilter(getMaxSize(), bloomBitsPerValue) : null);
             }
         }
 
@@ -748,13 +1852,35 @@ public class FastSelect<T> {
                 for (final Column column : columns) {
                     final MethodHandle methodHandle = column.getter;
                     final Range range = ranges.get(column.index);
+                    final BloomFilter bloomFilter = bloomFilters.get(column.index);
 
-                    if (column.type == long.class) {
+                    if (column.data instanceof OffHeapData) {
+                        final OffHeapData data = (OffHeapData) column.data;
+                        for (int i = addFrom; i < addTo; i++) {
+                            final Object item = dataToAdd.get(i);
+                            if (column.type == double.class) data.addDouble((double) methodHandle.invoke(item));
+                            else if (column.type == long.class) data.add((long) methodHandle.invoke(item));
+                            else if (column.type == int.class) data.add((int) methodHandle.invoke(item));
+                            else if (column.type == short.class) data.add((short) methodHandle.invoke(item));
+                            else data.add((byte) methodHandle.invoke(item));
+                        }
+                        updateOffHeap(column, start + size, start + size + additionalSize);
+
+                    } else if (column.type == long.class && column.annotationType == Delta.class) {
+                        final DeltaLongData data = (DeltaLongData) column.data;
+                        for (int i = addFrom; i < addTo; i++) {
+                            long v = (long) methodHandle.invoke(dataToAdd.get(i));
+                            data.add(v);
+                            range.update(v);
+                        }
+
+                    } else if (column.type == long.class) {
                         final LongData data = (LongData) column.data;
                         for (int i = addFrom; i < addTo; i++) {
                             long v = (long) methodHandle.invoke(dataToAdd.get(i));
                             data.add(v);
                             range.update(v);
+                            if (bloomFilter != null) bloomFilter.add(BloomFilter.hash(v));
                         }
 
                     } else if (column.type == long[].class) {
@@ -762,6 +1888,10 @@ public class FastSelect<T> {
                         for (int i = addFrom; i < addTo; i++) {
                             long[] v = (long[]) methodHandle.invoke(dataToAdd.get(i));
                             data.add(v);
+                            for (long v1 : v) {
+                                range.update(v1);
+                                if (bloomFilter != null) bloomFilter.add(BloomFilter.hash(v1));
+                            }
                         }
 
                     } else if (column.type == int[].class) {
@@ -769,6 +1899,10 @@ public class FastSelect<T> {
                         for (int i = addFrom; i < addTo; i++) {
                             int[] v = (int[]) methodHandle.invoke(dataToAdd.get(i));
                             data.add(v);
+                            for (int v1 : v) {
+                                range.update(v1);
+                                if (bloomFilter != null) bloomFilter.add(BloomFilter.hash(v1));
+                            }
                         }
 
                     } else if (column.type == short[].class) {
@@ -789,6 +1923,14 @@ public class FastSelect<T> {
                             for (byte v1 : v) setColumnBitSet(column, v1);
                         }
 
+                    } else if (column.type == int.class && column.annotationType == BitPacked.class) {
+                        final BitPackedIntData data = (BitPackedIntData) column.data;
+                        for (int i = addFrom; i < addTo; i++) {
+                            int v = (int) methodHandle.invoke(dataToAdd.get(i));
+                            data.add(v);
+                            range.update(v);
+                        }
+
                     } else if (column.type == int.class) {
                         final IntData data = (IntData) column.data;
                         data.allocate(additionalSize);
@@ -797,6 +1939,16 @@ public class FastSelect<T> {
                             int v = (int) methodHandle.invoke(dataToAdd.get(i));
                             data.set(position, v);
                             range.update(v);
+                            if (bloomFilter != null) bloomFilter.add(BloomFilter.hash(v));
+                        }
+
+                    } else if (column.annotationType == RunLength.class) {
+                        final RunLengthData data = (RunLengthData) column.data;
+                        for (int i = addFrom; i < addTo; i++) {
+                            short v = ((Number) methodHandle.invoke(dataToAdd.get(i))).shortValue();
+                            data.add(v);
+                            setColumnBitSet(column, v);
+                            range.update(v);
                         }
 
                     } else if (column.type == short.class) {
@@ -843,11 +1995,21 @@ public class FastSelect<T> {
                             range.update(position);
                         }
 
+                    } else if (column.type == String.class && column.annotationType == StringCompressed.class) {
+                        final StringCompressedData data = (StringCompressedData) column.data;
+                        for (int i = addFrom; i < addTo; i++) {
+                            String v = (String) methodHandle.invoke(dataToAdd.get(i));
+                            int code = data.add(v);
+                            if (code >= 0) setCode(column, code);
+                        }
+
                     } else if (column.type == String.class) {
                         final StringData data = (StringData) column.data;
                         for (int i = addFrom; i < addTo; i++) {
                             String v = (String) methodHandle.invoke(dataToAdd.get(i));
                             data.add(v);
+                            range.update(data.prefix(data.size() - 1));
+                            if (bloomFilter != null) bloomFilter.add(data.hash(data.size() - 1));
                         }
 
                     } else if (column.type == double.class) {
@@ -855,11 +2017,15 @@ public class FastSelect<T> {
                         for (int i = addFrom; i < addTo; i++) {
                             double v = (double) methodHandle.invoke(dataToAdd.get(i));
                             data.add(v);
+                            range.update(Range.sortable(v));
                         }
 
                     } else {
                         throw new IllegalArgumentException("Unsupported column type: " + column.type + "!");
                     }
+
+                    if (column.bitmapIndex != null) index(column, start + size, start + size + additionalSize);
+                    if (column.trigramIndex != null) indexTrigrams(column, start + size, start + size + additionalSize);
                 }
             } catch (Throwable throwable) {
                 throw new RuntimeException(throwable);
@@ -869,16 +2035,9 @@ public class FastSelect<T> {
         }
 
         @Override
-        void select(Request[] where, ArrayLayoutCallback callback) {
-            final int end = start + size;
-            opa:
-            for (int i = start; i < end; i++) {
-                for (final Request request : where) {
-                    if (!request.checkValue(i)) continue opa;
-                }
-
-                callback.data(i);
-            }
+        void select(BlockScanner scanner, ArrayLayoutCallback callback) {
+            scanner.select(start, start + size, callback);
+            if (scanner.context != null) scanner.context.blocksDone(1, false);
         }
 
         @Override
@@ -887,18 +2046,9 @@ public class FastSelect<T> {
         }
 
         @Override
-        void select(Request[] where, ArrayLayoutLimitCallback callback) {
-            final int end = start + size;
-            opa:
-            for (int i = start; i < end; i++) {
-                for (final Request request : where) {
-                    if (!request.checkValue(i)) continue opa;
-                }
-
-                callback.data(i);
-
-                if (callback.needToStop()) return;
-            }
+        void select(BlockScanner scanner, ArrayLayoutLimitCallback callback) {
+            scanner.select(start, start + size, callback);
+            if (scanner.context != null) scanner.context.blocksDone(1, false);
         }
 
         @Override
@@ -906,11 +2056,41 @@ public class FastSelect<T> {
             final int end = start + size;
 
             for (final Column column : columns) {
+                final BloomFilter bloomFilter = bloomFilters.get(column.index);
+
+                if (column.data instanceof OffHeapData) {
+                    updateOffHeap(column, start, end);
 
-                if (column.type == long.class) {
+                } else if (column.type == long.class && column.annotationType == Delta.class) {
+                    final DeltaLongData data = (DeltaLongData) column.data;
+                    final Range range = ranges.get(column.index);
+                    for (int i = start; i < end; i++) range.update(data.getLong(i));
+
+                } else if (column.type == long.class) {
                     final LongData data = (LongData) column.data;
                     final Range range = ranges.get(column.index);
-                    for (int i = start; i < end; i++) range.update(data.data[i]);
+                    for (int i = start; i < end; i++) {
+                        range.update(data.data[i]);
+                        if (bloomFilter != null) bloomFilter.add(BloomFilter.hash(data.data[i]));
+                    }
+
+                } else if (column.type == long[].class) {
+                    final MultiLongData data = (MultiLongData) column.data;
+                    final long[] values = data.data.data;
+                    final Range range = ranges.get(column.index);
+                    for (int i = data.getDataStart(start), valuesEnd = data.getDataEnd(end - 1); i < valuesEnd; i++) {
+                        range.update(values[i]);
+                        if (bloomFilter != null) bloomFilter.add(BloomFilter.hash(values[i]));
+                    }
+
+                } else if (column.type == int[].class) {
+                    final MultiIntData data = (MultiIntData) column.data;
+                    final int[] values = data.data.data;
+                    final Range range = ranges.get(column.index);
+                    for (int i = data.getDataStart(start), valuesEnd = data.getDataEnd(end - 1); i < valuesEnd; i++) {
+                        range.update(values[i]);
+                        if (bloomFilter != null) bloomFilter.add(BloomFilter.hash(values[i]));
+                    }
 
                 } else if (column.type == short[].class) {
                     final MultiShortData data = (MultiShortData) column.data;
@@ -926,18 +2106,44 @@ public class FastSelect<T> {
                         for (byte v1 : v) setColumnBitSet(column, v1);
                     }
 
+                } else if (column.type == int.class && column.annotationType == BitPacked.class) {
+                    final BitPackedIntData data = (BitPackedIntData) column.data;
+                    final Range range = ranges.get(column.index);
+                    for (int i = start; i < end; i++) range.update(data.getInt(i));
+
                 } else if (column.type == int.class) {
                     final IntData data = (IntData) column.data;
                     final Range range = ranges.get(column.index);
-                    for (int i = start; i < end; i++) range.update(data.data[i]);
+                    for (int i = start; i < end; i++) {
+                        range.update(data.data[i]);
+                        if (bloomFilter != null) bloomFilter.add(BloomFilter.hash(data.data[i]));
+                    }
+
+                } else if (column.annotationType == RunLength.class) {
+                    // bits and range updated once per run
+                    final RunLengthData data = (RunLengthData) column.data;
+                    final Range range = ranges.get(column.index);
+                    for (int run = data.run(start), from = start; from < end; run++) {
+                        setColumnBitSet(column, data.runValue(run));
+                        range.update(data.runValue(run));
+                        from = data.runEnd(run);
+                    }
 
                 } else if (column.type == short.class) {
                     final ShortData data = (ShortData) column.data;
-                    for (int i = start; i < end; i++) setColumnBitSet(column, data.data[i]);
+                    final Range range = ranges.get(column.index);
+                    for (int i = start; i < end; i++) {
+                        setColumnBitSet(column, data.data[i]);
+                        range.update(data.data[i]);
+                    }
 
                 } else if (column.type == byte.class) {
                     final ByteData data = (ByteData) column.data;
-                    for (int i = start; i < end; i++) setColumnBitSet(column, data.data[i]);
+                    final Range range = ranges.get(column.index);
+                    for (int i = start; i < end; i++) {
+                        setColumnBitSet(column, data.data[i]);
+                        range.update(data.data[i]);
+                    }
 
                 } else if (column.type == String.class && column.annotationType == StringCompressedByte.class) {
                     final byte[] data = ((StringCompressedByteData) column.data).data.data;
@@ -952,7 +2158,118 @@ public class FastSelect<T> {
                     final Range range = ranges.get(column.index);
                     for (int i = start; i < end; i++) range.update(data[i]);
 
+                } else if (column.type == String.class && column.annotationType == StringCompressed.class) {
+                    final StringCompressedData data = (StringCompressedData) column.data;
+                    if (data.coded()) {
+                        for (int i = start; i < end; i++) setCode(column, data.code(i));
+                    }
+
+                } else if (column.type == String.class) {
+                    final StringData data = (StringData) column.data;
+                    final Range range = ranges.get(column.index);
+                    for (int i = start; i < end; i++) {
+                        range.update(data.prefix(i));
+                        if (bloomFilter != null) bloomFilter.add(data.hash(i));
+                    }
+
+                } else if (column.type == double.class) {
+                    final double[] data = ((DoubleData) column.data).data;
+                    final Range range = ranges.get(column.index);
+                    for (int i = start; i < end; i++) range.update(Range.sortable(data[i]));
+
                 }
+
+                if (column.bitmapIndex != null) index(column, start, end);
+                if (column.trigramIndex != null) indexTrigrams(column, start, end);
+            }
+        }
+
+        /**
+         * Statistics of {@link StringCompressedData} built on codes which stay same when width of codes
+         * changed: range of codes and bit of code if it's not bigger than {@link Short#MAX_VALUE}, see
+         * {@link ColumnRequest#checkBlockCodes(Block, BitSet)}. Not updated when column is raw.
+         *
+         * @param column - column
+         * @param code   - code of value
+         */
+        private void setCode(final Column column, final int code) {
+            ranges.get(column.index).update(code);
+            if (code <= Short.MAX_VALUE) setColumnBitSet(column, code);
+        }
+
+        /**
+         * Add values to {@link TrigramIndex} of column
+         *
+         * @param from - first position (inclusive)
+         * @param to   - last position (exclusive)
+         */
+        private void indexTrigrams(final Column column, final int from, final int to) {
+            final TrigramIndex index = column.trigramIndex;
+            final StringData data = (StringData) column.data;
+            for (int i = from; i < to; i++) index.add((String) data.get(i), i);
+        }
+
+        /**
+         * Update bits, range and bloom filter of block by values of {@link OffHeapData} column same
+         * way as for heap data of column type
+         *
+         * @param from - first position (inclusive)
+         * @param to   - last position (exclusive)
+         */
+        private void updateOffHeap(final Column column, final int from, final int to) {
+            final OffHeapData data = (OffHeapData) column.data;
+            final Range range = ranges.get(column.index);
+            final BloomFilter bloomFilter = bloomFilters.get(column.index);
+            if (column.type == double.class) {
+                for (int i = from; i < to; i++) range.update(Range.sortable(data.getDouble(i)));
+                return;
+            }
+
+            final boolean bits = column.type == byte.class || column.type == short.class;
+            for (int i = from; i < to; i++) {
+                final long v = data.getAsLong(i);
+                range.update(v);
+                if (bits) setColumnBitSet(column, (int) v);
+                if (bloomFilter != null) bloomFilter.add(BloomFilter.hash(v));
+            }
+        }
+
+        /**
+         * Add values to {@link BitmapIndex} of column
+         *
+         * @param from - first position (inclusive)
+         * @param to   - last position (exclusive)
+         */
+        private void index(final Column column, final int from, final int to) {
+            final BitmapIndex index = column.bitmapIndex;
+            if (column.data instanceof OffHeapData) {
+                final OffHeapData data = (OffHeapData) column.data;
+                for (int i = from; i < to; i++) index.add((int) data.getAsLong(i), i);
+
+            } else if (column.type == byte.class) {
+                final byte[] data = ((ByteData) column.data).data;
+                for (int i = from; i < to; i++) index.add(data[i], i);
+
+            } else if (column.type == short.class) {
+                final short[] data = ((ShortData) column.data).data;
+                for (int i = from; i < to; i++) index.add(data[i], i);
+
+            } else if (column.type == int.class) {
+                final int[] data = ((IntData) column.data).data;
+                for (int i = from; i < to; i++) index.add(data[i], i);
+
+            } else if (column.type == String.class && column.annotationType == StringCompressedByte.class) {
+                final byte[] data = ((StringCompressedByteData) column.data).data.data;
+                for (int i = from; i < to; i++) index.add(data[i], i);
+
+            } else if (column.type == String.class && column.annotationType == StringCompressedShort.class) {
+                final short[] data = ((StringCompressedShortData) column.data).data.data;
+                for (int i = from; i < to; i++) index.add(data[i], i);
+
+            } else if (column.type == String.class && column.annotationType == StringCompressedInt.class) {
+                final int[] data = ((StringCompressedIntData) column.data).data.data;
+                for (int i = from; i < to; i++) index.add(data[i], i);
+
             }
         }
 
@@ -960,6 +2277,16 @@ public class FastSelect<T> {
             return getMaxSize() - size;
         }
 
+        @Override
+        int start() {
+            return start;
+        }
+
+        @Override
+        int end() {
+            return start + size;
+        }
+
         public int getMaxSize() {
             return blockSizes[blockSizes.length - 1];
         }
@@ -16,6 +16,11 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import com.github.terma.fastselect.data.Storage;
+import com.github.terma.fastselect.data.StringCompressed;
+import com.github.terma.fastselect.data.StringCompressedData;
+import com.github.terma.fastselect.data.StringData;
+
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
@@ -30,9 +35,16 @@ public class FastSelectBuilder<T> {
 
     private final Class<T> dataClass;
 
-    private int blockSize = DEFAULT_BLOCK_SIZE;
+    private int[] blockSizes = {DEFAULT_BLOCK_SIZE};
     private int inc = DEFAULT_INC;
     private List<FastSelect.Column> columns;
+    private AdmissionController admissionController;
+    private int bloomBitsPerValue;
+    private String[] bitmapIndexColumns = new String[0];
+    private String[] trigramIndexColumns = new String[0];
+    private String[] clusterBy = new String[0];
+    private boolean zOrder;
+    private Storage storage = Storage.HEAP;
 
     public FastSelectBuilder(Class<T> dataClass) {
         this.dataClass = dataClass;
@@ -40,19 +52,44 @@ public class FastSelectBuilder<T> {
 
     // todo find better place for static shared method
     public static List<FastSelect.Column> getColumnsFromDataClass(Class dataClass, int inc) {
+        return getColumnsFromDataClass(dataClass, inc, Storage.HEAP);
+    }
+
+    /**
+     * @since 3.2.1
+     */
+    public static List<FastSelect.Column> getColumnsFromDataClass(Class<?> dataClass, int inc, Storage storage) {
         final List<FastSelect.Column> columns = new ArrayList<>();
         for (Field field : dataClass.getDeclaredFields()) {
             if (!field.isSynthetic() && !Modifier.isStatic(field.getModifiers())) {
                 Annotation[] annotations = field.getAnnotations();
-                columns.add(new FastSelect.Column(field.getName(), field.getType(),
-                        annotations.length > 0 ? annotations[0].annotationType() : null, inc));
+                final FastSelect.Column column = new FastSelect.Column(field.getName(), field.getType(),
+                        annotations.length > 0 ? annotations[0].annotationType() : null, inc, storage);
+                if (annotations.length > 0 && annotations[0] instanceof StringCompressed) {
+                    ((StringCompressedData) column.data).setRawRatio(((StringCompressed) annotations[0]).rawRatio());
+                }
+                columns.add(column);
             }
         }
         return columns;
     }
 
     public FastSelectBuilder<T> blockSize(int blockSize) {
-        this.blockSize = blockSize;
+        this.blockSizes = new int[]{blockSize};
+        return this;
+    }
+
+    /**
+     * Multi level blocks, for example <code>blockSizes(1000000, 64000, 1000)</code>. Statistics of upper
+     * levels merged from nested blocks, so filter could skip many data blocks by one check.
+     *
+     * @param blockSizes - sizes from top level to data block, positive and descending
+     * @return - same builder
+     * @see FastSelect#FastSelect(int[], Class, List, int)
+     * @since 3.2.1
+     */
+    public FastSelectBuilder<T> blockSizes(int... blockSizes) {
+        this.blockSizes = blockSizes.clone();
         return this;
     }
 
@@ -73,9 +110,146 @@ public class FastSelectBuilder<T> {
         return this;
     }
 
+    /**
+     * @param admissionController - to limit count of concurrent selects, could be shared between instances
+     * @return - same builder
+     * @see FastSelect#setAdmissionController(AdmissionController)
+     * @since 3.2.1
+     */
+    public FastSelectBuilder<T> admissionController(final AdmissionController admissionController) {
+        this.admissionController = admissionController;
+        return this;
+    }
+
+    /**
+     * Enable {@link BloomFilter} per block for <code>int</code>, <code>long</code>, <code>int[]</code>,
+     * <code>long[]</code> and not compressed <code>String</code> columns. Helps {@link IntRequest},
+     * {@link LongRequest}, {@link MultiIntRequest}, {@link MultiLongRequest}, {@link StringRequest}
+     * and {@link StringMultipleRequest} to skip blocks when values distributed randomly, for example ids.
+     * <p>
+     * Each filter takes <code>blockSize * bitsPerValue / 8</code> bytes. For multi value columns
+     * it's bits per row, so multiply by average count of elements in row. Filters are not saved,
+     * they will be built again on load
+     *
+     * @param bitsPerValue - <code>10</code> gives around <code>1%</code> of false positives, <code>0</code> to disable
+     * @return - same builder
+     * @since 3.2.1
+     */
+    public FastSelectBuilder<T> bloomFilter(final int bitsPerValue) {
+        this.bloomBitsPerValue = bitsPerValue;
+        return this;
+    }
+
+    /**
+     * Build {@link BitmapIndex} for columns. When request accepts small part of rows (for example
+     * {@link IntRequest} by id or {@link ByteRequest} by rare code), select takes positions from index
+     * instead of scan all blocks. Supported by {@link ByteRequest}, {@link ShortRequest}, {@link IntRequest},
+     * string compressed no case like requests and {@link OrRequest} of them.
+     * <p>
+     * Index takes up to <code>4</code> bytes per row, it's not saved and built again on load.
+     *
+     * @param columnNames - names of <code>byte</code>, <code>short</code>, <code>int</code> or
+     *                    string compressed columns
+     * @return - same builder
+     * @since 3.2.1
+     */
+    public FastSelectBuilder<T> bitmapIndex(final String... columnNames) {
+        this.bitmapIndexColumns = columnNames.clone();
+        return this;
+    }
+
+    /**
+     * Build {@link TrigramIndex} for string columns. {@link StringLikeRequest} and {@link StringNoCaseLikeRequest}
+     * take candidate rows which have all trigrams of substring from index, skip blocks without candidates
+     * and decode only candidates instead of each row.
+     * <p>
+     * Index takes up to <code>4</code> bytes per character, it's not saved and built again on load.
+     *
+     * @param columnNames - names of not compressed string columns
+     * @return - same builder
+     * @since 3.2.1
+     */
+    public FastSelectBuilder<T> trigramIndex(final String... columnNames) {
+        this.trigramIndexColumns = columnNames.clone();
+        return this;
+    }
+
+    /**
+     * Keep rows sorted by columns, so each block has short range of values of first cluster column
+     * and requests to that column skip most of blocks. Blocks for {@link IntBetweenRequest},
+     * {@link LongBetweenRequest}, {@link ShortBetweenRequest}, {@link ByteBetweenRequest},
+     * {@link DoubleBetweenRequest}, {@link IntRequest} and {@link LongRequest} found by binary search.
+     * <p>
+     * Each {@link FastSelect#addAll(List)} sorts added data, {@link FastSelect#load(java.nio.channels.FileChannel, int)}
+     * sorts loaded data, {@link FastSelect#copy(Request[])} creates sorted copy. If added data overlaps
+     * existing, order is broken until {@link FastSelect#compact()}, see {@link FastSelect#isClustered()}
+     *
+     * @param columnNames - names of not multi value columns, first one is most important
+     * @return - same builder
+     * @since 3.2.1
+     */
+    public FastSelectBuilder<T> clusterBy(final String... columnNames) {
+        this.clusterBy = columnNames.clone();
+        this.zOrder = false;
+        return this;
+    }
+
+    /**
+     * Keep rows in Z-order (Morton order) of columns. Unlike {@link FastSelectBuilder#clusterBy(String...)}
+     * which helps mostly first column, each block gets short range of values for all columns, so
+     * filter by few of them skips more blocks.
+     * <p>
+     * First {@link FastSelect#addAll(List)}, {@link FastSelect#load(java.nio.channels.FileChannel, int)}
+     * and {@link FastSelect#copy(Request[])} order rows, after next adds call {@link FastSelect#compact()}
+     *
+     * @param columnNames - names of <code>byte</code>, <code>short</code>, <code>int</code> or string
+     *                    compressed columns (dictionary codes used as values)
+     * @return - same builder
+     * @since 3.2.1
+     */
+    public FastSelectBuilder<T> zOrder(final String... columnNames) {
+        this.clusterBy = columnNames.clone();
+        this.zOrder = true;
+        return this;
+    }
+
+    /**
+     * Keep primitive columns off heap to reduce heap size and GC pauses for big data set, by default
+     * {@link Storage#HEAP}. Access to off heap data is slower, compare by <code>OffHeapVsHeapBenchmark</code>
+     * before switching. Applied only to columns taken from data class, not to set by
+     * {@link FastSelectBuilder#columns(List)}
+     *
+     * @param storage - storage
+     * @return - same builder
+     * @see com.github.terma.fastselect.data.OffHeapData
+     * @since 3.2.1
+     */
+    public FastSelectBuilder<T> storage(final Storage storage) {
+        this.storage = storage;
+        return this;
+    }
+
     public FastSelect<T> create() {
-        if (columns == null) columns = getColumnsFromDataClass(dataClass, inc);
-        return new FastSelect<>(blockSize, dataClass, columns);
+        if (columns == null) columns = getColumnsFromDataClass(dataClass, inc, storage);
+        for (final String name : bitmapIndexColumns) {
+            FastSelect.Column column = null;
+            for (final FastSelect.Column c : columns) if (c.name.equals(name)) column = c;
+            if (column == null) throw new IllegalArgumentException("Can't find column for index: " + name + "!");
+            if (!column.supportsBitmapIndex())
+                throw new IllegalArgumentException("Unsupported column type for index: " + column + "!");
+            column.bitmapIndex = new BitmapIndex();
+        }
+        for (final String name : trigramIndexColumns) {
+            FastSelect.Column column = null;
+            for (final FastSelect.Column c : columns) if (c.name.equals(name)) column = c;
+            if (column == null) throw new IllegalArgumentException("Can't find column for index: " + name + "!");
+            if (!(column.data instanceof StringData))
+                throw new IllegalArgumentException("Unsupported column type for trigram index: " + column + "!");
+            column.trigramIndex = new TrigramIndex();
+        }
+        final FastSelect<T> fastSelect = new FastSelect<>(blockSizes, dataClass, columns, bloomBitsPerValue, clusterBy, zOrder);
+        fastSelect.setAdmissionController(admissionController);
+        return fastSelect;
     }
 
 }
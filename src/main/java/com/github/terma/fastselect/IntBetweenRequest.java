@@ -16,7 +16,9 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import com.github.terma.fastselect.data.BitPackedIntData;
 import com.github.terma.fastselect.data.IntData;
+import com.github.terma.fastselect.data.OffHeapData;
 
 import java.util.Map;
 
@@ -33,6 +35,14 @@ public class IntBetweenRequest extends ColumnRequest {
     private final int min;
     private final int max;
     private int[] data;
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.BitPacked} column
+     */
+    private BitPackedIntData packed;
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.Storage#OFF_HEAP} column
+     */
+    private OffHeapData offHeap;
 
     public IntBetweenRequest(String name, int min, int max) {
         super(name);
@@ -46,17 +56,98 @@ public class IntBetweenRequest extends ColumnRequest {
         return range.max >= min && range.min <= max;
     }
 
+    @Override
+    public int compareBlock(Block block) {
+        Range range = block.ranges.get(column.index);
+        if (range.max < min) return -1;
+        return range.min > max ? 1 : 0;
+    }
+
+    @Override
+    public boolean checkBlockAll(Block block) {
+        Range range = block.ranges.get(column.index);
+        return range.min >= min && range.max <= max;
+    }
+
     @Override
     public boolean checkValue(int position) {
-        final int value = data[position];
+        final int value = packed != null ? packed.getInt(position) : offHeap != null ? offHeap.getInt(position) : data[position];
         return value >= min && value <= max;
     }
 
+    @Override
+    public int filter(final int start, final int end, final int[] selIn, final int selInSize, final int[] selOut) {
+        if (packed != null) {
+            if (selIn == null) return packed.between(min, max, start, end, selOut);
+            return super.filter(start, end, selIn, selInSize, selOut);
+        }
+        if (offHeap != null) {
+            return selIn == null ? offHeap.between(min, max, start, end, selOut)
+                    : offHeap.between(min, max, selIn, selInSize, selOut);
+        }
+
+        final int[] data = this.data;
+        int c = 0;
+        if (selIn == null) {
+            for (int i = start; i < end; i++) {
+                final int value = data[i];
+                selOut[c] = i;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                final int value = data[position];
+                selOut[c] = position;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void mask(final int start, final int end, final long[] bits) {
+        if (offHeap != null) {
+            offHeap.maskBetween(min, max, start, end, bits);
+            return;
+        }
+        if (packed != null) {
+            super.mask(start, end, bits);
+            return;
+        }
+
+        final int[] data = this.data;
+        for (int i = start, j = 0; i < end; i++, j++) {
+            final int value = data[i];
+            bits[j >>> 6] |= (value >= min & value <= max ? 1L : 0L) << j;
+        }
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
         // caching
-        data = ((IntData) column.data).data;
+        if (column.data instanceof BitPackedIntData) {
+            packed = (BitPackedIntData) column.data;
+            data = null;
+        } else if (column.data instanceof OffHeapData) {
+            offHeap = (OffHeapData) column.data;
+            data = null;
+        } else {
+            packed = null;
+            data = ((IntData) column.data).data;
+        }
+    }
+
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        return statistics == null ? -1 : statistics.between(min, max);
+    }
+
+    @Override
+    public int cost() {
+        return LOOKUP_COST;
     }
 
     @Override
@@ -16,9 +16,12 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import com.github.terma.fastselect.data.BitPackedIntData;
 import com.github.terma.fastselect.data.IntData;
+import com.github.terma.fastselect.data.OffHeapData;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
 
 /**
@@ -29,34 +32,148 @@ import java.util.Map;
 public class IntRequest extends ColumnRequest {
 
     private final int[] values;
+    private final long[] hashes;
     private int[] data;
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.BitPacked} column
+     */
+    private BitPackedIntData packed;
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.Storage#OFF_HEAP} column
+     */
+    private OffHeapData offHeap;
+    /**
+     * Values widened for {@link OffHeapData#filter(long[], int, int, int[])}, sorted same as values
+     */
+    private long[] offHeapValues;
 
     public IntRequest(String name, int... values) {
         super(name);
-        this.values = values;
+        this.values = values.clone();
+        Arrays.sort(this.values);
+        this.hashes = new long[values.length];
+        for (int i = 0; i < values.length; i++) hashes[i] = BloomFilter.hash(values[i]);
     }
 
     @Override
     public boolean checkBlock(Block block) {
         Range range = block.ranges.get(column.index);
-        return values[0] <= range.max && values[values.length - 1] >= range.min;
+        if (values[0] > range.max || values[values.length - 1] < range.min) return false;
+        BloomFilter bloomFilter = block.getBloomFilter(column);
+        return bloomFilter == null || bloomFilter.mightContainAny(hashes);
+    }
+
+    @Override
+    public int compareBlock(Block block) {
+        Range range = block.ranges.get(column.index);
+        if (range.max < values[0]) return -1;
+        return range.min > values[values.length - 1] ? 1 : 0;
     }
 
     @Override
     public boolean checkValue(int position) {
-        int value = data[position];
+        int value = packed != null ? packed.getInt(position) : offHeap != null ? offHeap.getInt(position) : data[position];
         return values[0] <= value && values[values.length - 1] >= value && Arrays.binarySearch(values, value) > -1;
     }
 
+    @Override
+    public int filter(final int start, final int end, final int[] selIn, final int selInSize, final int[] selOut) {
+        if (offHeap != null) {
+            return selIn == null ? offHeap.filter(offHeapValues, start, end, selOut)
+                    : offHeap.filter(offHeapValues, selIn, selInSize, selOut);
+        }
+        if (packed != null) return super.filter(start, end, selIn, selInSize, selOut);
+
+        final int[] data = this.data;
+        final int[] values = this.values;
+        final int first = values[0];
+        final int last = values[values.length - 1];
+        int c = 0;
+        if (selIn == null) {
+            for (int i = start; i < end; i++) {
+                final int value = data[i];
+                if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) selOut[c++] = i;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                final int value = data[position];
+                if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) selOut[c++] = position;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void mask(final int start, final int end, final long[] bits) {
+        if (offHeap != null) {
+            offHeap.mask(offHeapValues, start, end, bits);
+            return;
+        }
+        if (packed != null) {
+            super.mask(start, end, bits);
+            return;
+        }
+
+        final int[] data = this.data;
+        final int[] values = this.values;
+        final int first = values[0];
+        final int last = values[values.length - 1];
+        for (int i = start, j = 0; i < end; i++, j++) {
+            final int value = data[i];
+            if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) bits[j >>> 6] |= 1L << j;
+        }
+    }
+
+    @Override
+    public int indexCount() {
+        final BitmapIndex index = column.bitmapIndex;
+        if (index == null) return -1;
+        int count = 0;
+        for (final int value : values) count += index.count(value);
+        return count;
+    }
+
+    @Override
+    public void indexOr(final BitSet positions) {
+        final BitmapIndex index = column.bitmapIndex;
+        for (final int value : values) index.or(value, positions);
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
 
         // caching
-        data = ((IntData) column.data).data;
+        if (column.data instanceof BitPackedIntData) {
+            packed = (BitPackedIntData) column.data;
+            data = null;
+        } else if (column.data instanceof OffHeapData) {
+            offHeap = (OffHeapData) column.data;
+            offHeapValues = new long[values.length];
+            for (int i = 0; i < values.length; i++) offHeapValues[i] = values[i];
+            data = null;
+        } else {
+            packed = null;
+            data = ((IntData) column.data).data;
+        }
 
-        // prepare
-        Arrays.sort(values);
+    }
+
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        if (statistics == null) return -1;
+        double selectivity = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) selectivity += statistics.equal(values[i]);
+        }
+        return Math.min(1, selectivity);
+    }
+
+    @Override
+    public int cost() {
+        return SEARCH_COST;
     }
 
     @Override
@@ -16,7 +16,9 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import com.github.terma.fastselect.data.DeltaLongData;
 import com.github.terma.fastselect.data.LongData;
+import com.github.terma.fastselect.data.OffHeapData;
 
 import java.util.Arrays;
 import java.util.Map;
@@ -29,35 +31,128 @@ import java.util.Map;
 @SuppressWarnings("WeakerAccess")
 public class LongRequest extends ColumnRequest {
 
-    private final long[] values; // after .prepared() sorted by ASC
+    private final long[] values; // sorted by ASC
+    private final long[] hashes; // for bloom filter
     private long[] data; // cache
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.Delta} column
+     */
+    private DeltaLongData delta;
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.Storage#OFF_HEAP} column
+     */
+    private OffHeapData offHeap;
 
     public LongRequest(String name, long... values) {
         super(name);
-        this.values = values;
+        this.values = values.clone();
+        Arrays.sort(this.values);
+        this.hashes = new long[values.length];
+        for (int i = 0; i < values.length; i++) hashes[i] = BloomFilter.hash(values[i]);
     }
 
     @Override
     public boolean checkBlock(Block block) {
         Range range = block.ranges.get(column.index);
-        return values[0] <= range.max && values[values.length - 1] >= range.min;
+        if (values[0] > range.max || values[values.length - 1] < range.min) return false;
+        BloomFilter bloomFilter = block.getBloomFilter(column);
+        return bloomFilter == null || bloomFilter.mightContainAny(hashes);
+    }
+
+    @Override
+    public int compareBlock(Block block) {
+        Range range = block.ranges.get(column.index);
+        if (range.max < values[0]) return -1;
+        return range.min > values[values.length - 1] ? 1 : 0;
     }
 
     @Override
     public boolean checkValue(int position) {
-        long value = data[position];
+        long value = delta != null ? delta.getLong(position) : offHeap != null ? offHeap.getLong(position) : data[position];
         return values[0] <= value && values[values.length - 1] >= value && Arrays.binarySearch(values, value) > -1;
     }
 
+    @Override
+    public int filter(final int start, final int end, final int[] selIn, final int selInSize, final int[] selOut) {
+        if (offHeap != null) {
+            return selIn == null ? offHeap.filter(values, start, end, selOut)
+                    : offHeap.filter(values, selIn, selInSize, selOut);
+        }
+        if (delta != null) return super.filter(start, end, selIn, selInSize, selOut);
+
+        final long[] data = this.data;
+        final long[] values = this.values;
+        final long first = values[0];
+        final long last = values[values.length - 1];
+        int c = 0;
+        if (selIn == null) {
+            for (int i = start; i < end; i++) {
+                final long value = data[i];
+                if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) selOut[c++] = i;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                final long value = data[position];
+                if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) selOut[c++] = position;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void mask(final int start, final int end, final long[] bits) {
+        if (offHeap != null) {
+            offHeap.mask(values, start, end, bits);
+            return;
+        }
+        if (delta != null) {
+            super.mask(start, end, bits);
+            return;
+        }
+
+        final long[] data = this.data;
+        final long[] values = this.values;
+        final long first = values[0];
+        final long last = values[values.length - 1];
+        for (int i = start, j = 0; i < end; i++, j++) {
+            final long value = data[i];
+            if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) bits[j >>> 6] |= 1L << j;
+        }
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
 
         // caching
-        data = ((LongData) column.data).data;
+        if (column.data instanceof DeltaLongData) {
+            delta = (DeltaLongData) column.data;
+            data = null;
+        } else if (column.data instanceof OffHeapData) {
+            offHeap = (OffHeapData) column.data;
+            data = null;
+        } else {
+            delta = null;
+            data = ((LongData) column.data).data;
+        }
+
+    }
 
-        // prepare
-        Arrays.sort(values);
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        if (statistics == null) return -1;
+        double selectivity = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) selectivity += statistics.equal(values[i]);
+        }
+        return Math.min(1, selectivity);
+    }
+
+    @Override
+    public int cost() {
+        return SEARCH_COST;
     }
 
     @Override
@@ -35,7 +35,16 @@ public class MultiByteRequest extends ColumnRequest {
 
     public MultiByteRequest(final String name, final byte... values) {
         super(name);
-        this.values = values;
+        this.values = values.clone();
+        Arrays.sort(this.values);
+    }
+
+    @Override
+    public boolean checkBlock(final Block block) {
+        for (final byte value : values) {
+            if (block.getColumnBit(column, value)) return true;
+        }
+        return false;
     }
 
     @Override
@@ -52,11 +61,15 @@ public class MultiByteRequest extends ColumnRequest {
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
-        Arrays.sort(values);
         data = ((MultiByteData) column.data);
         realData = data.data.data;
     }
 
+    @Override
+    public int cost() {
+        return BYTES_COST;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " {name: '" + name + "', values: " + Arrays.toString(values) + "}";
@@ -30,12 +30,29 @@ import java.util.Map;
 public class MultiLongRequest extends ColumnRequest {
 
     private final long[] values;
+    private final long[] hashes;
     private MultiLongData data;
     private long[] realData;
 
     public MultiLongRequest(final String name, final long... values) {
         super(name);
-        this.values = values;
+        this.values = values.clone();
+        Arrays.sort(this.values);
+        this.hashes = new long[this.values.length];
+        for (int i = 0; i < this.values.length; i++) hashes[i] = BloomFilter.hash(this.values[i]);
+    }
+
+    /**
+     * Skip block if no one of values in range of block elements or in {@link BloomFilter} of block if enabled
+     */
+    @Override
+    public boolean checkBlock(final Block block) {
+        final Range range = block.ranges.get(column.index);
+        int i = Arrays.binarySearch(values, range.min);
+        if (i < 0) i = -i - 1;
+        if (i >= values.length || values[i] > range.max) return false;
+        final BloomFilter bloomFilter = block.getBloomFilter(column);
+        return bloomFilter == null || bloomFilter.mightContainAny(hashes);
     }
 
     @Override
@@ -57,6 +74,11 @@ public class MultiLongRequest extends ColumnRequest {
         realData = data.data.data;
     }
 
+    @Override
+    public int cost() {
+        return BYTES_COST;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " {name: '" + name + "', values: " + Arrays.toString(values) + "}";
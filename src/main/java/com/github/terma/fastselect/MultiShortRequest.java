@@ -35,7 +35,16 @@ public class MultiShortRequest extends ColumnRequest {
 
     public MultiShortRequest(final String name, final short... values) {
         super(name);
-        this.values = values;
+        this.values = values.clone();
+        Arrays.sort(this.values);
+    }
+
+    @Override
+    public boolean checkBlock(final Block block) {
+        for (final short value : values) {
+            if (block.getColumnBit(column, value)) return true;
+        }
+        return false;
     }
 
     @Override
@@ -57,6 +66,11 @@ public class MultiShortRequest extends ColumnRequest {
         realData = data.data.data;
     }
 
+    @Override
+    public int cost() {
+        return BYTES_COST;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + " {name: '" + name + "', values: " + Arrays.toString(values) + "}";
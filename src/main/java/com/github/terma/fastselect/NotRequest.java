@@ -16,6 +16,7 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -25,13 +26,16 @@ import java.util.Map;
  * <p>
  * You can use it with any type of request
  * <p>
- * WARNING! <code>NotRequest</code> could be slow. It doesn't support column statistic.
- * Because of that filtering will always use full scan by all cache elements regardless of underling request.
+ * WARNING! <code>NotRequest</code> could be slow. It has limited support of column statistic.
  * <p>
- * Simple explanation for that is <code>NotRequest</code> doesn't have information how to make opposite
- * result from underling request. By definition {@link Request#checkBlock(Block)} returns <code>true</code>
- * only when data present somewhere at the block. So it could be case when two records in block and only
- * one of them good for filter but <code>checkBlock</code> should return <code>true</code>
+ * Simple explanation for that is <code>NotRequest</code> can't make opposite result from
+ * {@link Request#checkBlock(Block)} of underling request. By definition <code>checkBlock</code> returns
+ * <code>true</code> when data present somewhere at the block. So it could be case when two records
+ * in block and only one of them good for filter but <code>checkBlock</code> should return <code>true</code>
+ * <p>
+ * Instead of that it uses {@link Request#checkBlockAll(Block)} which returns <code>true</code> only
+ * when all records in block good for underling request, for example range request when block range
+ * is inside of requested. Only in that case block will be skipped.
  */
 @SuppressWarnings("WeakerAccess")
 public class NotRequest extends Request {
@@ -44,11 +48,16 @@ public class NotRequest extends Request {
 
     /**
      * @param block {@link Request#checkBlock(Block)}
-     * @return always true Why? Check class javadoc
+     * @return false only if all records in block good for underling request. Why? Check class javadoc
      */
     @Override
     public boolean checkBlock(Block block) {
-        return true;
+        return !request.checkBlockAll(block);
+    }
+
+    @Override
+    public boolean checkBlockAll(Block block) {
+        return !request.checkBlock(block);
     }
 
     @Override
@@ -56,6 +65,45 @@ public class NotRequest extends Request {
         return !request.checkValue(position);
     }
 
+    @Override
+    public void mask(final int start, final int end, final long[] bits) {
+        mask(start, end, bits, new long[(end - start + 63) >>> 6]);
+    }
+
+    /**
+     * Same as {@link NotRequest#mask(int, int, long[])} but bits of underling request kept in buffer of
+     * caller, so {@link BlockScanner} doesn't allocate bitmap for each block
+     *
+     * @param requestBits - scratch with at least <code>(end - start + 63) / 64</code> words, content ignored
+     */
+    void mask(final int start, final int end, final long[] bits, final long[] requestBits) {
+        final int size = end - start;
+        final int words = (size + 63) >>> 6;
+        Arrays.fill(requestBits, 0, words, 0);
+        request.mask(start, end, requestBits);
+
+        final int lastWord = words - 1;
+        for (int i = 0; i < lastWord; i++) bits[i] |= ~requestBits[i];
+        // don't set bits after end
+        if (lastWord >= 0) bits[lastWord] |= ~requestBits[lastWord] & (-1L >>> (-size & 63));
+    }
+
+    @Override
+    public double selectivity() {
+        final double selectivity = request.selectivity();
+        return selectivity < 0 ? -1 : 1 - selectivity;
+    }
+
+    @Override
+    public int cost() {
+        return request.cost();
+    }
+
+    @Override
+    public Request bind(final Map<String, FastSelect.Column> columnByNames) {
+        return new NotRequest(request.bind(columnByNames));
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         request.prepare(columnByNames);
@@ -17,6 +17,7 @@ limitations under the License.
 package com.github.terma.fastselect;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
 
 /**
@@ -38,6 +39,13 @@ public class OrRequest extends Request {
         return false;
     }
 
+    @Override
+    public boolean checkBlockAll(Block block) {
+        for (final Request request : requests)
+            if (request.checkBlockAll(block)) return true;
+        return false;
+    }
+
     @Override
     public boolean checkValue(final int position) {
         for (final Request request : requests)
@@ -45,6 +53,61 @@ public class OrRequest extends Request {
         return false;
     }
 
+    /**
+     * Each request adds own result to same bits, so no additional scan per position
+     */
+    @Override
+    public void mask(final int start, final int end, final long[] bits) {
+        for (final Request request : requests) request.mask(start, end, bits);
+    }
+
+    /**
+     * Resolved by index only if all requests could be
+     */
+    @Override
+    public int indexCount() {
+        int count = 0;
+        for (final Request request : requests) {
+            final int requestCount = request.indexCount();
+            if (requestCount < 0) return -1;
+            count += requestCount;
+        }
+        return count;
+    }
+
+    @Override
+    public void indexOr(final BitSet positions) {
+        for (final Request request : requests) request.indexOr(positions);
+    }
+
+    /**
+     * Requests considered as independent
+     */
+    @Override
+    public double selectivity() {
+        double rejected = 1;
+        for (final Request request : requests) {
+            final double selectivity = request.selectivity();
+            if (selectivity < 0) return -1;
+            rejected *= 1 - selectivity;
+        }
+        return 1 - rejected;
+    }
+
+    @Override
+    public int cost() {
+        int cost = 0;
+        for (final Request request : requests) cost += request.cost();
+        return cost;
+    }
+
+    @Override
+    public Request bind(final Map<String, FastSelect.Column> columnByNames) {
+        final Request[] bound = new Request[requests.length];
+        for (int i = 0; i < requests.length; i++) bound[i] = requests[i].bind(columnByNames);
+        return new OrRequest(bound);
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         for (final Request request : requests) request.prepare(columnByNames);
@@ -0,0 +1,93 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+/**
+ * Internal
+ * <p>
+ * Stable merge sort of positions of rows by comparator of positions. Works with primitive
+ * <code>int[]</code> so sort of millions rows doesn't box each position and takes only one
+ * temporary array of same size.
+ */
+final class PositionSort {
+
+    /**
+     * Runs shorter than that sorted by insertion sort
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private PositionSort() {
+        throw new UnsupportedOperationException("Just util class no instances!");
+    }
+
+    interface Comparator {
+
+        /**
+         * Same contract as {@link java.util.Comparator#compare(Object, Object)}
+         */
+        int compare(int position1, int position2);
+
+    }
+
+    /**
+     * @param positions  - positions to sort in place, equal positions keep order
+     * @param comparator - order of positions
+     */
+    static void sort(final int[] positions, final Comparator comparator) {
+        if (positions.length < 2) return;
+        sort(positions, positions.clone(), 0, positions.length, comparator);
+    }
+
+    /**
+     * Sort <code>source</code> from <code>from</code> to <code>to</code> to <code>destination</code>,
+     * both arrays have same positions in that range before call.
+     */
+    private static void sort(final int[] destination, final int[] source, final int from, final int to,
+                             final Comparator comparator) {
+        if (to - from < INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                final int position = destination[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(destination[j], position) > 0) {
+                    destination[j + 1] = destination[j];
+                    j--;
+                }
+                destination[j + 1] = position;
+            }
+            return;
+        }
+
+        final int middle = (from + to) >>> 1;
+        // sorted halves go to source and merged to destination
+        sort(source, destination, from, middle, comparator);
+        sort(source, destination, middle, to, comparator);
+
+        if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+            System.arraycopy(source, from, destination, from, to - from);
+            return;
+        }
+
+        for (int i = from, left = from, right = middle; i < to; i++) {
+            if (right >= to || (left < middle && comparator.compare(source[left], source[right]) <= 0)) {
+                destination[i] = source[left++];
+            } else {
+                destination[i] = source[right++];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.*;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Requests prepared once by {@link FastSelect#prepare(Request...)} and executed many times
+ * without {@link Request#prepare(java.util.Map)} on each call.
+ * <p>
+ * Each execution checks version of data in {@link FastSelect}, when data was changed
+ * (new items, new dictionary values, compact) requests bound again by {@link Request#bind(java.util.Map)}.
+ * Bound requests are never changed after publication, so executions don't need any lock.
+ * <p>
+ * Same instance could be executed from many threads concurrently.
+ *
+ * @param <T> - type of data class
+ * @since 3.2.1
+ */
+@ThreadSafe
+public final class PreparedQuery<T> {
+
+    private final FastSelect<T> fastSelect;
+    private final Request[] where;
+    private volatile Bound bound;
+
+    PreparedQuery(final FastSelect<T> fastSelect, final Request[] where) {
+        this.fastSelect = fastSelect;
+        this.where = where.clone();
+        this.bound = bind();
+    }
+
+    private Bound bind() {
+        // read before bind, if data changed during bind next execution will bind again
+        final long version = fastSelect.dataVersion();
+        return new Bound(version, fastSelect.bind(where));
+    }
+
+    /**
+     * @return requests prepared for current data
+     */
+    private Request[] current() {
+        Bound current = bound;
+        if (current.version != fastSelect.dataVersion()) {
+            // few threads could bind at same time, all results are valid so last one wins
+            current = bind();
+            bound = current;
+        }
+        return current.where;
+    }
+
+    public void select(final ArrayLayoutCallback callback) {
+        fastSelect.selectPrepared(current(), callback, null);
+    }
+
+    /**
+     * @see FastSelect#select(Request[], ArrayLayoutCallback, QueryContext)
+     */
+    public void select(final ArrayLayoutCallback callback, final QueryContext context) {
+        fastSelect.selectPrepared(current(), callback, context);
+    }
+
+    /**
+     * @see FastSelect#selectAsync(Request[], ArrayLayoutCallback, Executor)
+     */
+    public <C extends ArrayLayoutCallback> SelectFuture<C> selectAsync(final C callback, final Executor executor) {
+        final QueryContext context = new QueryContext();
+        return FastSelect.submit(new Callable<C>() {
+            @Override
+            public C call() {
+                select(callback, context);
+                return callback;
+            }
+        }, executor, context);
+    }
+
+    public void select(final ArrayLayoutLimitCallback callback) {
+        fastSelect.selectPrepared(current(), callback, null);
+    }
+
+    /**
+     * @see FastSelect#select(Request[], ArrayLayoutLimitCallback, QueryContext)
+     */
+    public void select(final ArrayLayoutLimitCallback callback, final QueryContext context) {
+        fastSelect.selectPrepared(current(), callback, context);
+    }
+
+    public void select(final Callback<T> callback) {
+        select(fastSelect.toArrayLayout(callback));
+    }
+
+    public void select(final LimitCallback<T> callback) {
+        select(fastSelect.toArrayLayout(callback));
+    }
+
+    public List<T> select() {
+        final ListCallback<T> result = new ListCallback<>();
+        select(result);
+        return result.getResult();
+    }
+
+    /**
+     * @see FastSelect#select(Request[], ArrayLayoutCallbackFactory, ForkJoinPool)
+     */
+    public <C extends ArrayLayoutCallback> C select(
+            final ArrayLayoutCallbackFactory<C> callbackFactory, final ForkJoinPool pool) {
+        return fastSelect.selectPrepared(current(), callbackFactory, pool, null);
+    }
+
+    /**
+     * @see FastSelect#select(Request[], ArrayLayoutCallbackFactory, ForkJoinPool, QueryContext)
+     */
+    public <C extends ArrayLayoutCallback> C select(
+            final ArrayLayoutCallbackFactory<C> callbackFactory, final ForkJoinPool pool, final QueryContext context) {
+        return fastSelect.selectPrepared(current(), callbackFactory, pool, context);
+    }
+
+    /**
+     * @see FastSelect#select(Request[], ArrayLayoutCallback, ForkJoinPool)
+     */
+    public <C extends ArrayLayoutCallback & MergeableCallback<C>> void select(
+            final C callback, final ForkJoinPool pool) {
+        callback.merge(select(new MergeableCallbackFactory<C>(callback), pool));
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedQuery {where: " + Arrays.toString(where) + "}";
+    }
+
+    private static final class Bound {
+
+        private final long version;
+        private final Request[] where;
+
+        private Bound(final long version, final Request[] where) {
+            this.version = version;
+            this.where = where;
+        }
+
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Control of one select: deadline, cancellation and progress.
+ * <p>
+ * {@link FastSelect} checks context before each block (including blocks skipped by
+ * {@link Request#checkBlock(Block)}) and stops select by {@link QueryCancelledException} or
+ * {@link QueryTimeoutException}. So long select could be aborted from other thread without
+ * interruption of thread which executes it. Block is smallest unit of work, select never stopped
+ * in the middle of block.
+ * <p>
+ * Priority used by {@link AdmissionController} to order selects waiting for admission.
+ * <p>
+ * Create new context for each select, progress counters are not reset.
+ *
+ * @since 3.2.1
+ */
+@ThreadSafe
+public class QueryContext {
+
+    public static final int LOW_PRIORITY = -10;
+    public static final int NORMAL_PRIORITY = 0;
+    public static final int HIGH_PRIORITY = 10;
+
+    private final long timeoutNanos;
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+    private volatile int priority = NORMAL_PRIORITY;
+    private volatile long maxRows = Long.MAX_VALUE;
+
+    private final AtomicInteger totalBlocks = new AtomicInteger();
+    private final AtomicInteger doneBlocks = new AtomicInteger();
+    private final AtomicInteger skippedBlocks = new AtomicInteger();
+
+    /**
+     * Context without deadline, could be stopped only by {@link QueryContext#cancel()}
+     */
+    public QueryContext() {
+        this.timeoutNanos = 0;
+        this.deadlineNanos = 0;
+    }
+
+    /**
+     * @param timeout - max time of select from creation of context
+     * @param unit    - unit of timeout
+     */
+    public QueryContext(final long timeout, final TimeUnit unit) {
+        if (timeout <= 0) throw new IllegalArgumentException("Timeout should be positive, but: " + timeout);
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.deadlineNanos = System.nanoTime() + timeoutNanos;
+    }
+
+    /**
+     * Ask select to stop. Select will throw {@link QueryCancelledException} before next block.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * @param priority - bigger admitted first, by default {@link QueryContext#NORMAL_PRIORITY}
+     * @return - same context
+     */
+    public QueryContext setPriority(final int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public long getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Reject too broad select before start. Count of rows estimated by {@link FastSelect#estimateRows(Request...)},
+     * select throws {@link QueryRejectedException} if estimate is bigger than max.
+     *
+     * @param maxRows - max estimated count of rows, by default {@link Long#MAX_VALUE} to don't check
+     * @return - same context
+     */
+    public QueryContext setMaxRows(final long maxRows) {
+        this.maxRows = maxRows;
+        return this;
+    }
+
+    /**
+     * @return count of blocks to check, known after start of select
+     */
+    public int getTotalBlocks() {
+        return totalBlocks.get();
+    }
+
+    /**
+     * @return count of checked blocks, scanned or skipped
+     */
+    public int getDoneBlocks() {
+        return doneBlocks.get();
+    }
+
+    /**
+     * @return count of blocks skipped without scan by {@link Request#checkBlock(Block)}
+     */
+    public int getSkippedBlocks() {
+        return skippedBlocks.get();
+    }
+
+    /**
+     * @return from 0 to 1
+     */
+    public double getProgress() {
+        final int total = totalBlocks.get();
+        return total == 0 ? 0 : Math.min(1, (double) doneBlocks.get() / total);
+    }
+
+    void start(final int blocks) {
+        totalBlocks.addAndGet(blocks);
+    }
+
+    /**
+     * Called by engine before each block.
+     *
+     * @throws QueryCancelledException - if cancelled
+     * @throws QueryTimeoutException   - if deadline passed
+     */
+    void check() {
+        if (cancelled) throw new QueryCancelledException("Query cancelled, " + this);
+        if (timeoutNanos > 0 && System.nanoTime() - deadlineNanos > 0)
+            throw new QueryTimeoutException("Query timeout " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos)
+                    + " msec expired, " + this);
+    }
+
+    /**
+     * @param blocks  - count of data blocks, more than one if whole super block skipped
+     * @param skipped - true if blocks skipped without scan
+     */
+    void blocksDone(final int blocks, final boolean skipped) {
+        doneBlocks.addAndGet(blocks);
+        if (skipped) skippedBlocks.addAndGet(blocks);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryContext {cancelled: " + cancelled + ", priority: " + priority + ", maxRows: " + maxRows + ", timeoutMsec: " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos)
+                + ", totalBlocks: " + totalBlocks + ", doneBlocks: " + doneBlocks
+                + ", skippedBlocks: " + skippedBlocks + "}";
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+/**
+ * Thrown when {@link AdmissionController} didn't admit select: queue is full or wait budget expired.
+ * Select was not started, so it's safe to retry later.
+ * <p>
+ * Also thrown when select expected to return more rows than {@link QueryContext#setMaxRows(long)}
+ *
+ * @see AdmissionController
+ * @since 3.2.1
+ */
+public class QueryRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public QueryRejectedException(final String message) {
+        super(message);
+    }
+
+}
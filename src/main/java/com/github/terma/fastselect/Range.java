@@ -18,6 +18,10 @@ package com.github.terma.fastselect;
 
 /**
  * Internal
+ * <p>
+ * Min and max of column values in block. Non integer columns stored as <code>long</code> which
+ * keeps order of values: {@link Range#sortable(double)} for <code>double</code> and
+ * {@link Range#prefix(byte[], int, int)} for strings.
  */
 public final class Range {
 
@@ -46,6 +50,39 @@ public final class Range {
         min = Math.min(min, value);
     }
 
+    /**
+     * Same order as {@link Double#compare(double, double)} except <code>-0.0 == 0.0</code>
+     * <code>NaN</code> is bigger than any other value.
+     *
+     * @param value - value
+     * @return - long with same order as value
+     */
+    public static long sortable(final double value) {
+        // + 0.0 to normalize -0.0
+        final long bits = Double.doubleToLongBits(value + 0.0);
+        // negative values has reverse order of bits, flip all except sign
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * First 8 bytes as unsigned big endian number shifted to signed range. Shorter value
+     * padded by zero. So if <code>a &lt;= b</code> by bytes then <code>prefix(a) &lt;= prefix(b)</code>
+     *
+     * @param bytes - bytes
+     * @param from  - first byte (inclusive)
+     * @param to    - last byte (exclusive)
+     * @return - prefix
+     */
+    public static long prefix(final byte[] bytes, final int from, final int to) {
+        long prefix = 0;
+        for (int i = from; i < from + 8; i++) prefix = (prefix << 8) | (i < to ? bytes[i] & 0xFF : 0);
+        return prefix ^ Long.MIN_VALUE;
+    }
+
+    public static long prefix(final byte[] bytes) {
+        return prefix(bytes, 0, bytes.length);
+    }
+
     @Override
     public String toString() {
         return "Range [" + min + ", " + max + ']';
@@ -17,6 +17,7 @@ limitations under the License.
 package com.github.terma.fastselect;
 
 import java.io.Serializable;
+import java.util.BitSet;
 import java.util.Map;
 
 /**
@@ -29,6 +30,9 @@ import java.util.Map;
  * <ul>
  * <li>Should immutable until you need to cover really special
  * case but in that way you need to worry about side effects</li>
+ * <li>State required for execution (column, cached data) should be set only by
+ * {@link Request#prepare(Map)}, engine calls it on copy created by {@link Request#bind(Map)}
+ * so request passed by user never changed and could be shared between threads and selects</li>
  * <li>Method of requests will be called many times on data set, as result
  * better to keep implementations as <code>final</code> to reduce performance
  * penalties, however impact is really small</li>
@@ -37,7 +41,12 @@ import java.util.Map;
  * as in general request classes don't expose data</li>
  * </ul>
  */
-public abstract class Request implements Serializable {
+public abstract class Request implements Serializable, Cloneable {
+
+    public static final int LOOKUP_COST = 1;
+    public static final int SEARCH_COST = 2;
+    public static final int BYTES_COST = 4;
+    public static final int DECODE_COST = 16;
 
     /**
      * Called before filtering in each of block in {@link FastSelect}
@@ -52,6 +61,17 @@ public abstract class Request implements Serializable {
         return true;
     }
 
+    /**
+     * Opposite to {@link Request#checkBlock(Block)} used by {@link NotRequest} to skip blocks
+     *
+     * @param block to check
+     * @return true only if all records in a block accepted by request, false if not sure
+     * @since 3.2.1
+     */
+    public boolean checkBlockAll(Block block) {
+        return false;
+    }
+
     /**
      * Called for each record within block for which {@link Request#checkBlock(Block)} was true
      *
@@ -60,6 +80,131 @@ public abstract class Request implements Serializable {
      */
     public abstract boolean checkValue(int position);
 
+    /**
+     * Batch version of {@link Request#checkValue(int)} called once per block instead of once per position.
+     * Default implementation just calls {@link Request#checkValue(int)} for each position. Override it
+     * for requests where tight loop over column data possible.
+     * <p>
+     * <code>selIn</code> and <code>selOut</code> could be same array. Implementation should write
+     * accepted position to <code>selOut</code> only after reading same index from <code>selIn</code>
+     *
+     * @param start     - first position in block (inclusive)
+     * @param end       - last position in block (exclusive)
+     * @param selIn     - positions to check or <code>null</code> to check all from start to end
+     * @param selInSize - count of positions in <code>selIn</code>, ignored if <code>selIn</code> is null
+     * @param selOut    - accepted positions in same order as checked, size should be enough to fit all
+     * @return count of accepted positions stored to <code>selOut</code>
+     * @since 3.2.1
+     */
+    public int filter(final int start, final int end, final int[] selIn, final int selInSize, final int[] selOut) {
+        int c = 0;
+        if (selIn == null) {
+            for (int i = start; i < end; i++) {
+                if (checkValue(i)) selOut[c++] = i;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                if (checkValue(position)) selOut[c++] = position;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Bitmap version of {@link Request#filter(int, int, int[], int, int[])} used to combine requests
+     * like {@link OrRequest} and {@link NotRequest} by word operations instead of checking each position
+     * by each request.
+     * <p>
+     * Implementation should set bit <code>position - start</code> for each accepted position and
+     * don't touch other bits. So few requests could add result to same bits as <code>OR</code>
+     *
+     * @param start - first position in block (inclusive)
+     * @param end   - last position in block (exclusive)
+     * @param bits  - at least <code>(end - start + 63) / 64</code> words
+     * @since 3.2.1
+     */
+    public void mask(final int start, final int end, final long[] bits) {
+        for (int i = start, j = 0; i < end; i++, j++) {
+            if (checkValue(i)) bits[j >>> 6] |= 1L << j;
+        }
+    }
+
+    /**
+     * Relative cost to check one position. Together with observed selectivity used to find order
+     * of requests in filter, cheap and selective requests checked first. Scale:
+     * <ul>
+     * <li>{@link Request#LOOKUP_COST} - compare or lookup of primitive value</li>
+     * <li>{@link Request#SEARCH_COST} - search in sorted values</li>
+     * <li>{@link Request#BYTES_COST} - compare of raw bytes or scan of multi value</li>
+     * <li>{@link Request#DECODE_COST} - decode of <code>UTF-8</code> string</li>
+     * </ul>
+     *
+     * @return cost, by default {@link Request#BYTES_COST}
+     * @since 3.2.1
+     */
+    public int cost() {
+        return BYTES_COST;
+    }
+
+    /**
+     * Estimated part of rows accepted by request based on {@link ColumnStatistics} of column. Used to
+     * find initial order of requests in filter and by {@link FastSelect#estimateRows(Request...)}
+     *
+     * @return from <code>0</code> to <code>1</code> or <code>-1</code> if unknown, by default <code>-1</code>
+     * @since 3.2.1
+     */
+    public double selectivity() {
+        return -1;
+    }
+
+    /**
+     * Count of positions accepted by request taken from {@link BitmapIndex} of column, could be bigger
+     * than real but not less. Engine uses it to find selective requests which positions cheaper to take
+     * from index than scan all blocks.
+     *
+     * @return count or <code>-1</code> if request can't use index, by default <code>-1</code>
+     * @since 3.2.1
+     */
+    public int indexCount() {
+        return -1;
+    }
+
+    /**
+     * Set positions accepted by request using {@link BitmapIndex} of column. Called only
+     * if {@link Request#indexCount()} is not negative
+     *
+     * @param positions - bitmap to set positions, other bits should stay same
+     * @since 3.2.1
+     */
+    public void indexOr(BitSet positions) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " doesn't support index!");
+    }
+
+    /**
+     * Create copy of request prepared for execution by {@link Request#prepare(Map)}. Engine calls it
+     * before each select instead of preparing request passed by user, so same request could be
+     * executed by many threads at same time.
+     * <p>
+     * Default implementation prepares shallow copy of current request, so {@link Request#prepare(Map)}
+     * should assign new objects to fields instead of changing objects shared with original.
+     * Composite requests should override it to bind nested requests.
+     *
+     * @param columnByNames - map passed by engine
+     * @return - prepared copy
+     * @since 3.2.1
+     */
+    public Request bind(final Map<String, FastSelect.Column> columnByNames) {
+        final Request copy;
+        try {
+            copy = (Request) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        copy.prepare(columnByNames);
+        return copy;
+    }
+
     /**
      * Called before filtering started. Prepare request to scan through data set.
      *
@@ -0,0 +1,247 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Selectivity of requests learned from executed selects of one {@link FastSelect}.
+ * <p>
+ * Each select tracks how many positions were checked and accepted by each request. Workers of select
+ * add their counters to {@link Counters} of select and when select is done counters are published here
+ * once, so next select with same kind of request starts with better order instead of order from caller.
+ * Learned selectivity read without lock.
+ * <p>
+ * Requests grouped by kind: class of request plus column name for {@link ColumnRequest}.
+ * Values of request are not part of key, so map size limited by count of columns and request types.
+ * Old observations lose weight on each update to follow changes in data and queries.
+ *
+ * @see BlockScanner
+ * @since 3.2.1
+ */
+@ThreadSafe
+public class RequestStatistics {
+
+    /**
+     * Selectivity used when nothing known about request. In that case order defined only by cost.
+     */
+    static final double UNKNOWN_SELECTIVITY = 0.5;
+
+    /**
+     * Weight of previous selectivity when new observation published.
+     */
+    private static final double HISTORY_WEIGHT = 0.5;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    /**
+     * Requests are formatted only when asked by {@link RequestStatistics#getLastOrder()}
+     */
+    private volatile Request[] lastOrder = new Request[0];
+
+    static Key key(final Request request) {
+        return new Key(request.getClass(), request instanceof ColumnRequest ? ((ColumnRequest) request).name : null);
+    }
+
+    /**
+     * @param request - request
+     * @return learned fraction of accepted positions or {@link RequestStatistics#UNKNOWN_SELECTIVITY}
+     */
+    double selectivity(final Request request) {
+        final Entry entry = entries.get(key(request));
+        return entry == null ? UNKNOWN_SELECTIVITY : entry.selectivity;
+    }
+
+    /**
+     * Publish counters of finished select
+     *
+     * @param counters - counters of all workers of select
+     */
+    synchronized void update(final Counters counters) {
+        for (int i = 0; i < counters.where.length; i++) {
+            final long checked = counters.checked.get(i);
+            if (checked == 0) continue;
+
+            final long accepted = counters.accepted.get(i);
+            final Request request = counters.where[i];
+            final Key key = key(request);
+            final double selectivity = (double) accepted / checked;
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(request.cost(), selectivity);
+                entries.put(key, entry);
+            } else {
+                entry.selectivity = entry.selectivity * HISTORY_WEIGHT + selectivity * (1 - HISTORY_WEIGHT);
+            }
+            entry.checked += checked;
+            entry.accepted += accepted;
+        }
+
+        if (counters.order != null) lastOrder = counters.order;
+    }
+
+    /**
+     * @return requests of last finished select in order of evaluation, for parallel select
+     * order of one of workers
+     */
+    public List<String> getLastOrder() {
+        final Request[] order = lastOrder;
+        final List<String> result = new ArrayList<>(order.length);
+        for (final Request request : order) result.add(request.toString());
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return snapshot of learned statistics for each kind of request
+     */
+    public synchronized List<Item> getItems() {
+        final List<Item> items = new ArrayList<>();
+        for (final Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            final Entry value = entry.getValue();
+            items.add(new Item(entry.getKey().toString(), value.cost, value.selectivity,
+                    value.checked, value.accepted));
+        }
+        return items;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        lastOrder = new Request[0];
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RequestStatistics {entries: " + entries.size() + ", lastOrder: " + getLastOrder() + "}";
+    }
+
+    /**
+     * Counters of one select filled by all workers of select, indexed same as requests of select.
+     */
+    static final class Counters {
+
+        private final Request[] where;
+        private final AtomicLongArray checked;
+        private final AtomicLongArray accepted;
+        private volatile Request[] order;
+
+        Counters(final Request[] where) {
+            this.where = where;
+            this.checked = new AtomicLongArray(where.length);
+            this.accepted = new AtomicLongArray(where.length);
+        }
+
+        /**
+         * @param index    - index of request in requests of select
+         * @param checked  - count of checked positions
+         * @param accepted - count of accepted positions
+         */
+        void add(final int index, final long checked, final long accepted) {
+            this.checked.addAndGet(index, checked);
+            this.accepted.addAndGet(index, accepted);
+        }
+
+        /**
+         * @param order - requests in order of evaluation of one of workers, not changed after
+         */
+        void order(final Request[] order) {
+            this.order = order;
+        }
+
+    }
+
+    /**
+     * Kind of request: class plus column name for {@link ColumnRequest}
+     */
+    static final class Key {
+
+        private final Class<?> type;
+        private final String column;
+
+        private Key(final Class<?> type, final String column) {
+            this.type = type;
+            this.column = column;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Key key = (Key) o;
+            return type == key.type && (column == null ? key.column == null : column.equals(key.column));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + (column == null ? 0 : column.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return column == null ? type.getSimpleName() : type.getSimpleName() + "(" + column + ")";
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final int cost;
+        private volatile double selectivity;
+        private long checked;
+        private long accepted;
+
+        private Entry(final int cost, final double selectivity) {
+            this.cost = cost;
+            this.selectivity = selectivity;
+        }
+
+    }
+
+    /**
+     * Read-only view of statistics for one kind of request.
+     */
+    public static final class Item {
+
+        public final String key;
+        public final int cost;
+        public final double selectivity;
+        public final long checked;
+        public final long accepted;
+
+        private Item(final String key, final int cost, final double selectivity,
+                     final long checked, final long accepted) {
+            this.key = key;
+            this.cost = cost;
+            this.selectivity = selectivity;
+            this.checked = checked;
+            this.accepted = accepted;
+        }
+
+        @Override
+        public String toString() {
+            return "Item {key: " + key + ", cost: " + cost + ", selectivity: " + selectivity
+                    + ", checked: " + checked + ", accepted: " + accepted + "}";
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded executor for {@link FastSelect#selectAsync(Request[], com.github.terma.fastselect.callbacks.ArrayLayoutCallback, Executor)}
+ * <p>
+ * Fixed count of threads and queue with limited capacity. When queue is full new select rejected
+ * by {@link RejectedExecutionException} which passed to {@link SelectFuture}. Provides metrics about
+ * queue and time which select spent in queue.
+ * <p>
+ * Threads are daemon, call {@link SelectExecutor#shutdown()} when executor not needed.
+ *
+ * @since 3.2.1
+ */
+@ThreadSafe
+public class SelectExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * @param threads       - count of threads which execute selects
+     * @param queueCapacity - max count of selects waiting for thread
+     */
+    public SelectExecutor(final int threads, final int queueCapacity) {
+        if (threads < 1) throw new IllegalArgumentException("Threads should be positive, but: " + threads);
+        if (queueCapacity < 1)
+            throw new IllegalArgumentException("Queue capacity should be positive, but: " + queueCapacity);
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new DaemonThreadFactory());
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        final long queuedAt = System.nanoTime();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    recordWait(System.nanoTime() - queuedAt);
+                    command.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private void recordWait(final long waitNanos) {
+        started.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        long max;
+        do {
+            max = maxWaitNanos.get();
+        } while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos));
+    }
+
+    /**
+     * @return count of selects waiting for thread
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+    }
+
+    /**
+     * @return count of threads which execute select now
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * @return count of selects rejected because queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getAvgWaitMsec() {
+        final long count = started.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / count);
+    }
+
+    public long getMaxWaitMsec() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * Stop accept new selects, already accepted will be done.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "SelectExecutor {queueSize: " + getQueueSize() + ", active: " + getActiveCount()
+                + ", completed: " + getCompletedCount() + ", rejected: " + getRejectedCount()
+                + ", avgWaitMsec: " + getAvgWaitMsec() + ", maxWaitMsec: " + getMaxWaitMsec() + "}";
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+        private final int poolNumber = POOL_NUMBER.incrementAndGet();
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "fast-select-" + poolNumber + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Result of {@link FastSelect#selectAsync(Request[], com.github.terma.fastselect.callbacks.ArrayLayoutCallback, java.util.concurrent.Executor)}
+ * <p>
+ * Standard {@link java.util.concurrent.Future} plus listeners to get result without blocking of thread.
+ * {@link SelectFuture#cancel(boolean)} cancels {@link QueryContext} of select, so already started select
+ * stopped on next block.
+ *
+ * @param <C> - type of result
+ * @since 3.2.1
+ */
+@ThreadSafe
+public class SelectFuture<C> extends FutureTask<C> {
+
+    private final QueryContext context;
+    private final List<SelectListener<? super C>> listeners = new ArrayList<>();
+    private boolean notified; // guarded by listeners
+
+    SelectFuture(final Callable<C> callable, final QueryContext context) {
+        super(callable);
+        this.context = context;
+    }
+
+    /**
+     * Add listener, if select already done listener called immediately by current thread.
+     *
+     * @param listener - listener
+     */
+    public void addListener(final SelectListener<? super C> listener) {
+        synchronized (listeners) {
+            if (!notified) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        notify(listener);
+    }
+
+    public QueryContext getContext() {
+        return context;
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        context.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    protected void done() {
+        final List<SelectListener<? super C>> toNotify;
+        synchronized (listeners) {
+            notified = true;
+            toNotify = new ArrayList<>(listeners);
+            listeners.clear();
+        }
+        for (final SelectListener<? super C> listener : toNotify) notify(listener);
+    }
+
+    void fail(final Throwable e) {
+        setException(e);
+    }
+
+    private void notify(final SelectListener<? super C> listener) {
+        final C result;
+        try {
+            result = get();
+        } catch (ExecutionException e) {
+            listener.onFailure(e.getCause());
+            return;
+        } catch (CancellationException e) {
+            listener.onFailure(e);
+            return;
+        } catch (InterruptedException e) {
+            // not possible as future is done
+            Thread.currentThread().interrupt();
+            listener.onFailure(e);
+            return;
+        }
+        listener.onSuccess(result);
+    }
+
+}
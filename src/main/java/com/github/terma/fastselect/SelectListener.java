@@ -0,0 +1,39 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+/**
+ * Notified when {@link SelectFuture} completed.
+ * <p>
+ * Called by thread which completed select (or by thread which added listener if select already done),
+ * so implementation should be fast and never block.
+ *
+ * @param <C> - type of result
+ * @since 3.2.1
+ */
+public interface SelectListener<C> {
+
+    void onSuccess(C result);
+
+    /**
+     * @param e - exception thrown by select, {@link java.util.concurrent.CancellationException} if future cancelled
+     *          or {@link java.util.concurrent.RejectedExecutionException} if executor didn't accept select
+     */
+    void onFailure(Throwable e);
+
+}
@@ -16,8 +16,11 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import com.github.terma.fastselect.data.OffHeapData;
+import com.github.terma.fastselect.data.RunLengthData;
 import com.github.terma.fastselect.data.ShortData;
 
+import java.util.BitSet;
 import java.util.Map;
 
 /**
@@ -30,6 +33,15 @@ public class ShortBetweenRequest extends ColumnRequest {
     private final short min;
     private final short max;
     private short[] data;
+    /**
+     * Set only for run length column
+     */
+    private RunLengthData runLength;
+    private BitSet runSet;
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.Storage#OFF_HEAP} column
+     */
+    private OffHeapData offHeap;
 
     public ShortBetweenRequest(String name, short min, short max) {
         super(name);
@@ -43,17 +55,97 @@ public class ShortBetweenRequest extends ColumnRequest {
         return range.max >= min && range.min <= max;
     }
 
+    @Override
+    public int compareBlock(Block block) {
+        Range range = block.ranges.get(column.index);
+        if (range.max < min) return -1;
+        return range.min > max ? 1 : 0;
+    }
+
+    @Override
+    public boolean checkBlockAll(Block block) {
+        Range range = block.ranges.get(column.index);
+        return range.min >= min && range.max <= max;
+    }
+
     @Override
     public boolean checkValue(int position) {
-        final short value = data[position];
+        final short value = runLength != null ? runLength.getShort(position)
+                : offHeap != null ? offHeap.getShort(position) : data[position];
         return value >= min && value <= max;
     }
 
+    @Override
+    public int filter(final int start, final int end, final int[] selIn, final int selInSize, final int[] selOut) {
+        if (runLength != null) {
+            return selIn == null ? runLength.filter(runSet, start, end, selOut)
+                    : runLength.filter(runSet, selIn, selInSize, selOut);
+        }
+        if (offHeap != null) {
+            return selIn == null ? offHeap.between(min, max, start, end, selOut)
+                    : offHeap.between(min, max, selIn, selInSize, selOut);
+        }
+
+        final short[] data = this.data;
+        int c = 0;
+        if (selIn == null) {
+            for (int i = start; i < end; i++) {
+                final short value = data[i];
+                selOut[c] = i;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                final short value = data[position];
+                selOut[c] = position;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void mask(final int start, final int end, final long[] bits) {
+        if (runLength != null) {
+            runLength.mask(runSet, start, end, bits);
+            return;
+        }
+        if (offHeap != null) {
+            offHeap.maskBetween(min, max, start, end, bits);
+            return;
+        }
+
+        final short[] data = this.data;
+        for (int i = start, j = 0; i < end; i++, j++) {
+            final short value = data[i];
+            bits[j >>> 6] |= (value >= min & value <= max ? 1L : 0L) << j;
+        }
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
         // caching
-        data = ((ShortData) column.data).data;
+        if (column.data instanceof RunLengthData) {
+            runLength = (RunLengthData) column.data;
+            runSet = RunLengthData.between(min, max);
+        } else if (column.data instanceof OffHeapData) {
+            offHeap = (OffHeapData) column.data;
+        } else {
+            data = ((ShortData) column.data).data;
+        }
+    }
+
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        return statistics == null ? -1 : statistics.between(min, max);
+    }
+
+    @Override
+    public int cost() {
+        return LOOKUP_COST;
     }
 
     @Override
@@ -16,6 +16,8 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import com.github.terma.fastselect.data.OffHeapData;
+import com.github.terma.fastselect.data.RunLengthData;
 import com.github.terma.fastselect.data.ShortData;
 
 import java.util.Arrays;
@@ -27,8 +29,19 @@ public class ShortRequest extends ColumnRequest {
 
     private final short[] values;
 
+    /**
+     * Indexed by <code>value &amp; 0xFFFF</code> to support negative values
+     */
     private BitSet plainSet;
     private short[] data;
+    /**
+     * Set only for run length column
+     */
+    private RunLengthData runLength;
+    /**
+     * Not null for {@link com.github.terma.fastselect.data.Storage#OFF_HEAP} column
+     */
+    private OffHeapData offHeap;
 
     public ShortRequest(String name, short... values) {
         super(name);
@@ -43,17 +56,78 @@ public class ShortRequest extends ColumnRequest {
 
     @Override
     public boolean checkBlock(Block block) {
-        BitSet bitSet = block.columnBitSets.get(column.index);
         boolean p = false;
-        for (final int value : values) {
-            p = p | bitSet.get(value);
+        for (final short value : values) {
+            p = p | block.getColumnBit(column, value);
         }
         return p;
     }
 
     @Override
     public boolean checkValue(int position) {
-        return plainSet.get(data[position]);
+        if (runLength != null) return plainSet.get(runLength.getShort(position) & 0xFFFF);
+        if (offHeap != null) return plainSet.get(offHeap.getShort(position) & 0xFFFF);
+        return plainSet.get(data[position] & 0xFFFF);
+    }
+
+    @Override
+    public int filter(final int start, final int end, final int[] selIn, final int selInSize, final int[] selOut) {
+        if (runLength != null) {
+            return selIn == null ? runLength.filter(plainSet, start, end, selOut)
+                    : runLength.filter(plainSet, selIn, selInSize, selOut);
+        }
+        if (offHeap != null) {
+            return selIn == null ? offHeap.filter(plainSet, start, end, selOut)
+                    : offHeap.filter(plainSet, selIn, selInSize, selOut);
+        }
+
+        final short[] data = this.data;
+        final BitSet plainSet = this.plainSet;
+        int c = 0;
+        if (selIn == null) {
+            for (int i = start; i < end; i++) {
+                if (plainSet.get(data[i] & 0xFFFF)) selOut[c++] = i;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                if (plainSet.get(data[position] & 0xFFFF)) selOut[c++] = position;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void mask(final int start, final int end, final long[] bits) {
+        if (runLength != null) {
+            runLength.mask(plainSet, start, end, bits);
+            return;
+        }
+        if (offHeap != null) {
+            offHeap.mask(plainSet, start, end, bits);
+            return;
+        }
+
+        final short[] data = this.data;
+        final BitSet plainSet = this.plainSet;
+        for (int i = start, j = 0; i < end; i++, j++) {
+            bits[j >>> 6] |= (plainSet.get(data[i] & 0xFFFF) ? 1L : 0L) << j;
+        }
+    }
+
+    @Override
+    public int indexCount() {
+        final BitmapIndex index = column.bitmapIndex;
+        if (index == null) return -1;
+        int count = 0;
+        for (final int value : values) count += index.count(value);
+        return count;
+    }
+
+    @Override
+    public void indexOr(final BitSet positions) {
+        final BitmapIndex index = column.bitmapIndex;
+        for (final int value : values) index.or(value, positions);
     }
 
     @Override
@@ -61,11 +135,29 @@ public class ShortRequest extends ColumnRequest {
         super.prepare(columnByNames);
 
         // cache
-        data = ((ShortData) column.data).data;
+        if (column.data instanceof RunLengthData) runLength = (RunLengthData) column.data;
+        else if (column.data instanceof OffHeapData) offHeap = (OffHeapData) column.data;
+        else data = ((ShortData) column.data).data;
 
         // plain
         plainSet = new BitSet();
-        for (short value : values) plainSet.set(value);
+        for (short value : values) plainSet.set(value & 0xFFFF);
+    }
+
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        if (statistics == null) return -1;
+        double selectivity = 0;
+        for (int i = plainSet.nextSetBit(0); i >= 0; i = plainSet.nextSetBit(i + 1)) {
+            selectivity += statistics.equal((short) i);
+        }
+        return Math.min(1, selectivity);
+    }
+
+    @Override
+    public int cost() {
+        return LOOKUP_COST;
     }
 
     @Override
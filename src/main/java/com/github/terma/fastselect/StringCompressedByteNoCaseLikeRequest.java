@@ -38,7 +38,7 @@ public class StringCompressedByteNoCaseLikeRequest extends ColumnRequest {
      * Max size of data dictionary is {@link Byte#MAX_VALUE}
      * So we have init array where non zero
      */
-    private byte[] plainSet = new byte[Byte.MAX_VALUE];
+    private byte[] plainSet;
 
     public StringCompressedByteNoCaseLikeRequest(String name, String... l) {
         super(name);
@@ -62,11 +62,31 @@ public class StringCompressedByteNoCaseLikeRequest extends ColumnRequest {
         return plainSet[v] >= 0;
     }
 
+    @Override
+    public int indexCount() {
+        final BitmapIndex index = column.bitmapIndex;
+        if (index == null) return -1;
+        int count = 0;
+        for (final byte position : plainSet) {
+            if (position >= 0) count += index.count(position);
+        }
+        return count;
+    }
+
+    @Override
+    public void indexOr(final BitSet positions) {
+        final BitmapIndex index = column.bitmapIndex;
+        for (final byte position : plainSet) {
+            if (position >= 0) index.or(position, positions);
+        }
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
 
         // init all items as non present
+        plainSet = new byte[Byte.MAX_VALUE];
         Arrays.fill(plainSet, Byte.MIN_VALUE);
 
         data = ((StringCompressedByteData) column.data).data.data;
@@ -82,6 +102,22 @@ public class StringCompressedByteNoCaseLikeRequest extends ColumnRequest {
         }
     }
 
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        if (statistics == null) return -1;
+        double selectivity = 0;
+        for (final byte position : plainSet) {
+            if (position >= 0) selectivity += statistics.equal(position);
+        }
+        return Math.min(1, selectivity);
+    }
+
+    @Override
+    public int cost() {
+        return LOOKUP_COST;
+    }
+
     @Override
     public String toString() {
         return "StringCompressedByteNoCaseLikeRequest {name: " + name + ", likes: " + Arrays.toString(likes) + '}';
@@ -19,6 +19,7 @@ package com.github.terma.fastselect;
 import com.github.terma.fastselect.data.StringCompressedIntData;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -55,6 +56,21 @@ public class StringCompressedIntNoCaseLikeRequest extends ColumnRequest {
         return Collections.binarySearch(addresses, v) > -1;
     }
 
+    @Override
+    public int indexCount() {
+        final BitmapIndex index = column.bitmapIndex;
+        if (index == null) return -1;
+        int count = 0;
+        for (final int address : addresses) count += index.count(address);
+        return count;
+    }
+
+    @Override
+    public void indexOr(final BitSet positions) {
+        final BitmapIndex index = column.bitmapIndex;
+        for (final int address : addresses) index.or(address, positions);
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
@@ -72,6 +88,20 @@ public class StringCompressedIntNoCaseLikeRequest extends ColumnRequest {
         Collections.sort(addresses);
     }
 
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        if (statistics == null) return -1;
+        double selectivity = 0;
+        for (final int address : addresses) selectivity += statistics.equal(address);
+        return Math.min(1, selectivity);
+    }
+
+    @Override
+    public int cost() {
+        return SEARCH_COST;
+    }
+
     @Override
     public String toString() {
         return "StringCompressedIntNoCaseLikeRequest {name: " + name + ", like: " + like + '}';
@@ -52,6 +52,21 @@ public class StringCompressedShortNoCaseLikeRequest extends ColumnRequest {
         return plainSet.get(data[position]);
     }
 
+    @Override
+    public int indexCount() {
+        final BitmapIndex index = column.bitmapIndex;
+        if (index == null) return -1;
+        int count = 0;
+        for (int i = plainSet.nextSetBit(0); i >= 0; i = plainSet.nextSetBit(i + 1)) count += index.count(i);
+        return count;
+    }
+
+    @Override
+    public void indexOr(final BitSet positions) {
+        final BitmapIndex index = column.bitmapIndex;
+        for (int i = plainSet.nextSetBit(0); i >= 0; i = plainSet.nextSetBit(i + 1)) index.or(i, positions);
+    }
+
     @Override
     public void prepare(Map<String, FastSelect.Column> columnByNames) {
         super.prepare(columnByNames);
@@ -67,6 +82,20 @@ public class StringCompressedShortNoCaseLikeRequest extends ColumnRequest {
         }
     }
 
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        if (statistics == null) return -1;
+        double selectivity = 0;
+        for (int i = plainSet.nextSetBit(0); i >= 0; i = plainSet.nextSetBit(i + 1)) selectivity += statistics.equal(i);
+        return Math.min(1, selectivity);
+    }
+
+    @Override
+    public int cost() {
+        return LOOKUP_COST;
+    }
+
     @Override
     public String toString() {
         return "StringCompressedShortNoCaseLikeRequest {name: " + name + ", like: " + like + '}';
@@ -16,11 +16,15 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import com.github.terma.fastselect.data.StringCompressedData;
 import com.github.terma.fastselect.data.StringData;
+import com.github.terma.fastselect.utils.Utf8Utils;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -34,6 +38,29 @@ public class StringMultipleRequest extends ColumnRequest {
 
     private final Set<String> values;
 
+    /**
+     * Sorted {@link Range#prefix(byte[], int, int)} of values to skip blocks
+     */
+    private long[] prefixes;
+
+    /**
+     * {@link BloomFilter#hash(byte[])} of values
+     */
+    private long[] hashes;
+
+    /**
+     * Set when column is {@link StringCompressedData}
+     */
+    private StringCompressedData compressed;
+    /**
+     * Codes of accepted values if {@link StringCompressedData} has dictionary, otherwise <code>null</code>
+     */
+    private BitSet codes;
+    /**
+     * Strings of column, <code>null</code> if column has dictionary
+     */
+    private StringData data;
+
     public StringMultipleRequest(String name, String... values) {
         this(name, Arrays.asList(values));
     }
@@ -52,13 +79,75 @@ public class StringMultipleRequest extends ColumnRequest {
         this.values = values;
     }
 
+    @Override
+    public boolean checkBlock(Block block) {
+        if (codes != null) return checkBlockCodes(block, codes);
+        // block statistics of raw compressed column built on codes
+        if (compressed != null) return true;
+        final Range range = block.ranges.get(column.index);
+        int i = Arrays.binarySearch(prefixes, range.min);
+        if (i < 0) i = -i - 1;
+        if (i >= prefixes.length || prefixes[i] > range.max) return false;
+        final BloomFilter bloomFilter = block.getBloomFilter(column);
+        return bloomFilter == null || bloomFilter.mightContainAny(hashes);
+    }
+
     @Override
     public boolean checkValue(int position) {
-        StringData data = (StringData) column.data;
+        if (codes != null) return codes.get(compressed.code(position));
         String value = (String) data.get(position);
         return values.contains(value);
     }
 
+    @Override
+    public void prepare(Map<String, FastSelect.Column> columnByNames) {
+        super.prepare(columnByNames);
+        if (column.data instanceof StringCompressedData) {
+            compressed = (StringCompressedData) column.data;
+            data = compressed.raw();
+            codes = compressed.coded() ? acceptedCodes() : null;
+        } else {
+            compressed = null;
+            codes = null;
+            data = (StringData) column.data;
+        }
+
+        final long[] prefixes = new long[values.size()];
+        final long[] hashes = new long[values.size()];
+        int c = 0;
+        for (final String value : values) {
+            if (value != null) {
+                final byte[] bytes = Utf8Utils.stringToBytes(value);
+                prefixes[c] = Range.prefix(bytes);
+                hashes[c] = BloomFilter.hash(bytes);
+                c++;
+            }
+        }
+        this.hashes = Arrays.copyOf(hashes, c);
+        this.prefixes = Arrays.copyOf(prefixes, c);
+        Arrays.sort(this.prefixes);
+    }
+
+    private BitSet acceptedCodes() {
+        final BitSet codes = new BitSet();
+        for (int code = 0; code < compressed.distinct(); code++) {
+            if (values.contains(compressed.value(code))) codes.set(code);
+        }
+        return codes;
+    }
+
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        if (statistics == null) return -1;
+        return statistics.getRows() == 0 ? 0 : Math.min(1, (double) values.size() / Math.max(1, statistics.getDistinct()));
+    }
+
+    @Override
+    public int cost() {
+        return DECODE_COST;
+    }
+
     @Override
     public String toString() {
         return "StringMultipleRequest {name: '" + name + "', in: " + values + "}";
@@ -16,12 +16,16 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import com.github.terma.fastselect.data.StringCompressedData;
 import com.github.terma.fastselect.data.StringData;
 
+import java.util.BitSet;
+import java.util.Map;
+
 /**
  * SQL analog <code>where lowerCase(STRING_FIELD) like lowerCase('%SUBSTRING%')</code>
  * <p>
- * Implemented as full scan
+ * Implemented as full scan, column with {@link TrigramIndex} scans only candidate rows
  * <p>
  * Case sensitive like select use {@link StringLikeRequest}
  * Case sensitive exact select use {@link StringRequest}
@@ -31,6 +35,26 @@ public class StringNoCaseLikeRequest extends ColumnRequest {
 
     private final String like;
 
+    /**
+     * Positions which could have substring taken from {@link TrigramIndex} of column,
+     * <code>null</code> if column doesn't have index or substring too short
+     */
+    private BitSet candidates;
+    private int candidateCount;
+
+    /**
+     * Set when column is {@link StringCompressedData}
+     */
+    private StringCompressedData compressed;
+    /**
+     * Codes of accepted values if {@link StringCompressedData} has dictionary, otherwise <code>null</code>
+     */
+    private BitSet codes;
+    /**
+     * Strings of column, <code>null</code> if column has dictionary
+     */
+    private StringData data;
+
     public StringNoCaseLikeRequest(String name, String like) {
         super(name);
 
@@ -39,12 +63,83 @@ public class StringNoCaseLikeRequest extends ColumnRequest {
     }
 
     @Override
-    public  boolean checkValue(int position) {
-        StringData data = (StringData) column.data;
+    public boolean checkBlock(Block block) {
+        if (codes != null) return checkBlockCodes(block, codes);
+        if (candidates == null) return true;
+        final int next = candidates.nextSetBit(block.start());
+        return next >= 0 && next < block.end();
+    }
+
+    @Override
+    public boolean checkValue(int position) {
+        if (codes != null) return codes.get(compressed.code(position));
+        if (candidates != null && !candidates.get(position)) return false;
         String value = (String) data.get(position);
         return value.toLowerCase().contains(like);
     }
 
+    @Override
+    public int filter(final int start, final int end, final int[] selIn, final int selInSize, final int[] selOut) {
+        if (candidates == null || selIn != null) return super.filter(start, end, selIn, selInSize, selOut);
+
+        // decode only candidates instead of each position in block
+        int c = 0;
+        for (int i = candidates.nextSetBit(start); i >= 0 && i < end; i = candidates.nextSetBit(i + 1)) {
+            final String value = (String) data.get(i);
+            if (value.toLowerCase().contains(like)) selOut[c++] = i;
+        }
+        return c;
+    }
+
+    @Override
+    public int cost() {
+        return DECODE_COST;
+    }
+
+    @Override
+    public double selectivity() {
+        if (candidates == null || column.data.size() == 0) return -1;
+        return (double) candidateCount / column.data.size();
+    }
+
+    @Override
+    public int indexCount() {
+        return candidates == null ? -1 : candidateCount;
+    }
+
+    @Override
+    public void indexOr(final BitSet positions) {
+        positions.or(candidates);
+    }
+
+    @Override
+    public void prepare(Map<String, FastSelect.Column> columnByNames) {
+        super.prepare(columnByNames);
+        if (column.data instanceof StringCompressedData) {
+            compressed = (StringCompressedData) column.data;
+            data = compressed.raw();
+            codes = compressed.coded() ? acceptedCodes() : null;
+        } else {
+            compressed = null;
+            codes = null;
+            data = (StringData) column.data;
+        }
+        final TrigramIndex index = column.trigramIndex;
+        candidates = index == null ? null : index.candidates(like);
+        candidateCount = candidates == null ? 0 : candidates.cardinality();
+    }
+
+    /**
+     * @return - codes of dictionary values which contain substring, each value checked once instead of each row
+     */
+    private BitSet acceptedCodes() {
+        final BitSet codes = new BitSet();
+        for (int code = 0; code < compressed.distinct(); code++) {
+            if (compressed.value(code).toLowerCase().contains(like)) codes.set(code);
+        }
+        return codes;
+    }
+
     @Override
     public String toString() {
         return "StringNoCaseLikeRequest {name: " + name + ", like: " + like + '}';
@@ -16,10 +16,13 @@ limitations under the License.
 
 package com.github.terma.fastselect;
 
+import com.github.terma.fastselect.data.StringCompressedData;
 import com.github.terma.fastselect.data.StringData;
 import com.github.terma.fastselect.utils.Utf8Utils;
 
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
 
 /**
  * SQL analog <code>where STRING_FIELD = '???'</code>
@@ -28,19 +31,87 @@ import java.util.Arrays;
 public class StringRequest extends ColumnRequest {
 
     private final byte[] bytes;
+    private final long hash;
+
+    /**
+     * Set when column is {@link StringCompressedData}
+     */
+    private StringCompressedData compressed;
+    /**
+     * Codes of accepted values if {@link StringCompressedData} has dictionary, otherwise <code>null</code>
+     */
+    private BitSet codes;
+    /**
+     * Strings of column, <code>null</code> if column has dictionary
+     */
+    private StringData data;
 
     public StringRequest(String name, String value) {
         super(name);
         bytes = Utf8Utils.stringToBytes(value);
+        hash = BloomFilter.hash(bytes);
+    }
+
+    /**
+     * Skip block if first bytes of value out of block range, see {@link Range#prefix(byte[], int, int)}
+     * or value not in {@link BloomFilter} of block if enabled. For {@link StringCompressedData} skip block
+     * without code of value.
+     */
+    @Override
+    public boolean checkBlock(Block block) {
+        if (codes != null) return checkBlockCodes(block, codes);
+        // block statistics of raw compressed column built on codes
+        if (compressed != null) return true;
+        final Range range = block.ranges.get(column.index);
+        final long prefix = Range.prefix(bytes);
+        if (prefix < range.min || prefix > range.max) return false;
+        final BloomFilter bloomFilter = block.getBloomFilter(column);
+        return bloomFilter == null || bloomFilter.mightContain(hash);
     }
 
     @Override
     public boolean checkValue(int position) {
-        StringData data = (StringData) column.data;
+        if (codes != null) return codes.get(compressed.code(position));
         byte[] value = data.getRaw(position);
         return Arrays.equals(bytes, value);
     }
 
+    @Override
+    public void prepare(Map<String, FastSelect.Column> columnByNames) {
+        super.prepare(columnByNames);
+        if (column.data instanceof StringCompressedData) {
+            compressed = (StringCompressedData) column.data;
+            data = compressed.raw();
+            codes = compressed.coded() ? acceptedCodes() : null;
+        } else {
+            compressed = null;
+            codes = null;
+            data = (StringData) column.data;
+        }
+    }
+
+    private BitSet acceptedCodes() {
+        final BitSet codes = new BitSet();
+        final int code = compressed.code(Utf8Utils.bytesToString(bytes));
+        if (code >= 0) codes.set(code);
+        // raw column stores null as empty string
+        final int nullCode = compressed.code((String) null);
+        if (bytes.length == 0 && nullCode >= 0) codes.set(nullCode);
+        return codes;
+    }
+
+    @Override
+    public double selectivity() {
+        final ColumnStatistics statistics = statistics();
+        if (statistics == null) return -1;
+        return statistics.getRows() == 0 ? 0 : 1.0 / Math.max(1, statistics.getDistinct());
+    }
+
+    @Override
+    public int cost() {
+        return BYTES_COST;
+    }
+
     @Override
     public String toString() {
         return name + " = '" + Utf8Utils.bytesToString(bytes) + "'";
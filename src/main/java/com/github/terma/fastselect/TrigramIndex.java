@@ -0,0 +1,122 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Internal
+ * <p>
+ * Trigram index of string column: positions of rows for each trigram of lower case value. Enabled for column
+ * by {@link FastSelectBuilder#trigramIndex(String...)} and used by {@link StringLikeRequest} and
+ * {@link StringNoCaseLikeRequest} to find candidate rows as intersection of positions of all trigrams
+ * of substring, so only candidates decoded and checked.
+ * <p>
+ * Only trigrams of <code>ASCII</code> characters indexed, each one coded as <code>int</code> by
+ * <code>7</code> bits per character and positions stored by {@link BitmapIndex}. Substring without
+ * three <code>ASCII</code> characters in a row doesn't have candidates and scanned as before.
+ *
+ * @since 3.2.1
+ */
+public final class TrigramIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final BitmapIndex index = new BitmapIndex();
+
+    /**
+     * @param value    - value, could be null
+     * @param position - position, should be bigger than any added before
+     */
+    void add(final String value, final int position) {
+        if (value == null) return;
+        for (final int trigram : trigrams(value)) index.add(trigram, position);
+    }
+
+    /**
+     * @param like - substring
+     * @return - positions which could contain substring with any case or <code>null</code>
+     * if substring too short to use index
+     */
+    public BitSet candidates(final String like) {
+        final int[] trigrams = trigrams(like);
+        if (trigrams.length == 0) return null;
+
+        // start from most selective trigram to keep intersection small
+        final long[] counts = new long[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            counts[i] = ((long) index.count(trigrams[i]) << 32) | (trigrams[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(counts);
+
+        final BitSet result = new BitSet();
+        index.or((int) counts[0], result);
+        final BitSet positions = new BitSet();
+        for (int i = 1; i < counts.length && !result.isEmpty(); i++) {
+            positions.clear();
+            index.or((int) counts[i], positions);
+            result.and(positions);
+        }
+        return result;
+    }
+
+    /**
+     * @return - count of distinct trigrams
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @param value - value
+     * @return - sorted distinct trigrams of <code>ASCII</code> characters of lower case value
+     */
+    static int[] trigrams(final String value) {
+        final String lower = value.toLowerCase();
+        if (lower.length() < 3) return EMPTY;
+
+        final int[] result = new int[lower.length() - 2];
+        int count = 0;
+        int trigram = 0;
+        int run = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            final char c = lower.charAt(i);
+            if (c < 128) {
+                trigram = ((trigram << 7) | c) & 0x1FFFFF;
+                if (++run >= 3) result[count++] = trigram;
+            } else {
+                run = 0;
+            }
+        }
+        if (count == 0) return EMPTY;
+
+        Arrays.sort(result, 0, count);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (result[i] != result[distinct - 1]) result[distinct++] = result[i];
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    @Override
+    public String toString() {
+        return "TrigramIndex {trigrams: " + index.size() + "}";
+    }
+
+}
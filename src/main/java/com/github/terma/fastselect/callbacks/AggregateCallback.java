@@ -30,6 +30,8 @@ import java.util.Map;
  * <p>
  * Calling {@link FastSelect#select(com.github.terma.fastselect.Request[], ArrayLayoutCallback)} twice with same instance is ok.
  * Result will be counter twice.
+ * <p>
+ * To use it with parallel select aggregator should implement {@link MergeableAggregator}
  *
  * @author Artem Stasiuk
  * @see GroupCountCallback
@@ -38,7 +40,7 @@ import java.util.Map;
  * @since 3.2.0
  */
 @NotThreadSafe
-public class AggregateCallback<T> implements ArrayLayoutCallback {
+public class AggregateCallback<T> implements ArrayLayoutCallback, MergeableCallback<AggregateCallback<T>> {
 
     private final Map<AggregateKey, T> data = new HashMap<>();
     private final Data[] datas;
@@ -70,4 +72,28 @@ public class AggregateCallback<T> implements ArrayLayoutCallback {
         return data;
     }
 
+    @Override
+    public AggregateCallback<T> fork() {
+        return new AggregateCallback<>(aggregator, datas);
+    }
+
+    /**
+     * @param other - part of aggregation
+     * @throws UnsupportedOperationException - if aggregator is not {@link MergeableAggregator}
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void merge(final AggregateCallback<T> other) {
+        if (!(aggregator instanceof MergeableAggregator))
+            throw new UnsupportedOperationException("Aggregator " + aggregator + " should implement "
+                    + MergeableAggregator.class.getSimpleName() + " to merge!");
+
+        final MergeableAggregator<T> mergeableAggregator = (MergeableAggregator<T>) aggregator;
+        for (final Map.Entry<AggregateKey, T> entry : other.data.entrySet()) {
+            final T value = data.get(entry.getKey());
+            if (value == null) data.put(entry.getKey(), entry.getValue());
+            else mergeableAggregator.merge(value, entry.getValue());
+        }
+    }
+
 }
@@ -0,0 +1,60 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.callbacks;
+
+import com.github.terma.fastselect.FastSelect;
+
+/**
+ * Creates callbacks for parallel select where each worker thread needs own {@link ArrayLayoutCallback}
+ * instance and results should be combined at the end.
+ * <p>
+ * Example sum with parallel scan (<code>SumCallback</code> from {@link ArrayLayoutCallback} javadoc):
+ * <pre>
+ * SumCallback result = fastSelect.select(where, new ArrayLayoutCallbackFactory&lt;SumCallback&gt;() {
+ *     public SumCallback create() {
+ *         return new SumCallback(fastSelect);
+ *     }
+ *
+ *     public void merge(SumCallback target, SumCallback source) {
+ *         target.result += source.result;
+ *     }
+ * }, 4);
+ * </pre>
+ *
+ * @param <C> - type of callback
+ * @author Artem Stasiuk
+ * @see FastSelect#select(com.github.terma.fastselect.Request[], ArrayLayoutCallbackFactory, int)
+ * @since 3.2.1
+ */
+public interface ArrayLayoutCallbackFactory<C extends ArrayLayoutCallback> {
+
+    /**
+     * Called once per portion of blocks scanned by single worker.
+     *
+     * @return - new empty callback
+     */
+    C create();
+
+    /**
+     * Called when two portions are done to combine results. Never called concurrently for same target.
+     *
+     * @param target - callback to add result to
+     * @param source - callback which result should be added to target, will be not used after
+     */
+    void merge(C target, C source);
+
+}
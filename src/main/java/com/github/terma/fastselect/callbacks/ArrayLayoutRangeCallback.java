@@ -0,0 +1,40 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.callbacks;
+
+import com.github.terma.fastselect.FastSelect;
+
+/**
+ * {@link ArrayLayoutCallback} which could take accepted positions as ranges. During select in
+ * {@link FastSelect} engine calls {@link ArrayLayoutRangeCallback#range(int, int)} for each range of
+ * accepted positions in a row instead of {@link ArrayLayoutCallback#data(int)} for each position.
+ * Useful when callback could process range faster than each position, for example counts runs of
+ * {@link com.github.terma.fastselect.data.RunLengthData} like {@link GroupCountCallback}.
+ * <p>
+ * {@link ArrayLayoutCallback#data(int)} still used when positions taken from index.
+ *
+ * @since 3.2.1
+ */
+public interface ArrayLayoutRangeCallback extends ArrayLayoutCallback {
+
+    /**
+     * @param start - first accepted position (inclusive)
+     * @param end   - last accepted position (exclusive)
+     */
+    void range(int start, int end);
+
+}
@@ -21,7 +21,7 @@ package com.github.terma.fastselect.callbacks;
  *
  * @author Artem Stasiuk
  */
-public class CounterCallback implements ArrayLayoutCallback {
+public class CounterCallback implements ArrayLayoutCallback, MergeableCallback<CounterCallback> {
 
     private int count;
 
@@ -38,4 +38,15 @@ public class CounterCallback implements ArrayLayoutCallback {
     public int getCount() {
         return count;
     }
+
+    @Override
+    public CounterCallback fork() {
+        return new CounterCallback();
+    }
+
+    @Override
+    public void merge(final CounterCallback other) {
+        count += other.count;
+    }
+
 }
@@ -17,6 +17,7 @@ limitations under the License.
 package com.github.terma.fastselect.callbacks;
 
 import com.github.terma.fastselect.FastSelect;
+import com.github.terma.fastselect.data.RunLengthData;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.HashMap;
@@ -24,11 +25,13 @@ import java.util.Map;
 
 /**
  * Analog of SQL expression: <pre>select count(COLUMN) from TABLE where CONDITION group by COLUMN</pre>
+ * <p>
+ * For {@link RunLengthData} column counts length of run in accepted range instead of each position.
  *
  * @author Artem Stasiuk
  */
 @NotThreadSafe
-public class GroupCountCallback implements ArrayLayoutCallback {
+public class GroupCountCallback implements ArrayLayoutRangeCallback, MergeableCallback<GroupCountCallback> {
 
     private final Map<Integer, Integer> counter = new HashMap<>();
     private final FastSelect.Column groupBy;
@@ -39,14 +42,45 @@ public class GroupCountCallback implements ArrayLayoutCallback {
 
     @Override
     public void data(final int position) {
-        final int value = groupBy.valueAsInt(position);
+        add(groupBy.valueAsInt(position), 1);
+    }
+
+    @Override
+    public void range(final int start, final int end) {
+        if (groupBy.data instanceof RunLengthData) {
+            final RunLengthData data = (RunLengthData) groupBy.data;
+            for (int run = data.run(start), from = start; from < end; run++) {
+                final int to = Math.min(end, data.runEnd(run));
+                add(data.runValue(run), to - from);
+                from = to;
+            }
+        } else {
+            for (int i = start; i < end; i++) add(groupBy.valueAsInt(i), 1);
+        }
+    }
+
+    private void add(final int value, final int count) {
         final Integer c = counter.get(value);
-        if (c == null) counter.put(value, 1);
-        else counter.put(value, c + 1);
+        if (c == null) counter.put(value, count);
+        else counter.put(value, c + count);
     }
 
     public Map<Integer, Integer> getCounters() {
         return counter;
     }
 
+    @Override
+    public GroupCountCallback fork() {
+        return new GroupCountCallback(groupBy);
+    }
+
+    @Override
+    public void merge(final GroupCountCallback other) {
+        for (final Map.Entry<Integer, Integer> entry : other.counter.entrySet()) {
+            final Integer c = counter.get(entry.getKey());
+            if (c == null) counter.put(entry.getKey(), entry.getValue());
+            else counter.put(entry.getKey(), c + entry.getValue());
+        }
+    }
+
 }
@@ -0,0 +1,36 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.callbacks;
+
+/**
+ * {@link Aggregator} which supports combination of two aggregates for same key.
+ * Required by {@link AggregateCallback#merge(AggregateCallback)}
+ *
+ * @param <T> - type of aggregation
+ * @author Artem Stasiuk
+ * @see AggregateCallback
+ * @since 3.2.1
+ */
+public interface MergeableAggregator<T> extends Aggregator<T> {
+
+    /**
+     * @param agg   - aggregate to add to
+     * @param other - aggregate for same key from other part
+     */
+    void merge(T agg, T other);
+
+}
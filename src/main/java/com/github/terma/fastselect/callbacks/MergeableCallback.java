@@ -0,0 +1,49 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.callbacks;
+
+import com.github.terma.fastselect.FastSelect;
+
+/**
+ * Callback which could be split on independent parts and combined back. Instead of sharing
+ * one instance between threads (with locks or concurrent maps) each thread works with own part
+ * created by {@link MergeableCallback#fork()} and at the end parts merged to one by
+ * {@link MergeableCallback#merge(Object)}
+ * <p>
+ * Implementations don't need to be thread safe. Engine guarantee that each part used only by one thread at time.
+ *
+ * @param <C> - type of callback itself
+ * @author Artem Stasiuk
+ * @see FastSelect#select(com.github.terma.fastselect.Request[], ArrayLayoutCallback, int)
+ * @see MergeableCallbackFactory
+ * @since 3.2.1
+ */
+public interface MergeableCallback<C> {
+
+    /**
+     * @return - new empty callback with same configuration (group by columns, aggregator etc.)
+     */
+    C fork();
+
+    /**
+     * Add result of other callback to current.
+     *
+     * @param other - callback created by {@link MergeableCallback#fork()}, will be not used after
+     */
+    void merge(C other);
+
+}
@@ -0,0 +1,46 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.callbacks;
+
+/**
+ * Adapter of {@link MergeableCallback} to {@link ArrayLayoutCallbackFactory} new parts created by
+ * {@link MergeableCallback#fork()} from prototype
+ *
+ * @param <C> - type of callback
+ * @author Artem Stasiuk
+ * @since 3.2.1
+ */
+public class MergeableCallbackFactory<C extends ArrayLayoutCallback & MergeableCallback<C>>
+        implements ArrayLayoutCallbackFactory<C> {
+
+    private final C prototype;
+
+    public MergeableCallbackFactory(final C prototype) {
+        this.prototype = prototype;
+    }
+
+    @Override
+    public C create() {
+        return prototype.fork();
+    }
+
+    @Override
+    public void merge(final C target, final C source) {
+        target.merge(source);
+    }
+
+}
@@ -43,14 +43,16 @@ import java.util.Map;
  * @see GroupCountCallback
  */
 @NotThreadSafe
-public class MultiGroupCountCallback implements ArrayLayoutCallback {
+public class MultiGroupCountCallback implements ArrayLayoutCallback, MergeableCallback<MultiGroupCountCallback> {
 
     private final Map<Integer, Object> counters = new HashMap<>();
+    private final FastSelect.Column[] groupBy;
     private final FastSelect.Column first;
     private final FastSelect.Column[] middle;
     private final FastSelect.Column last;
 
     public MultiGroupCountCallback(final FastSelect.Column... groupBy) {
+        this.groupBy = groupBy;
         this.first = groupBy[0];
         this.last = groupBy[groupBy.length - 1];
 
@@ -82,8 +84,32 @@ public class MultiGroupCountCallback implements ArrayLayoutCallback {
         else counter.put(value, c + 1);
     }
 
+    @SuppressWarnings("unchecked")
+    private static void merge(Map<Integer, Object> target, Map<Integer, Object> source, int depth) {
+        for (final Map.Entry<Integer, Object> entry : source.entrySet()) {
+            final Object value = target.get(entry.getKey());
+            if (value == null) {
+                target.put(entry.getKey(), entry.getValue());
+            } else if (depth == 0) {
+                target.put(entry.getKey(), (Integer) value + (Integer) entry.getValue());
+            } else {
+                merge((Map<Integer, Object>) value, (Map<Integer, Object>) entry.getValue(), depth - 1);
+            }
+        }
+    }
+
     public Map<Integer, Object> getCounters() {
         return counters;
     }
 
+    @Override
+    public MultiGroupCountCallback fork() {
+        return new MultiGroupCountCallback(groupBy);
+    }
+
+    @Override
+    public void merge(final MultiGroupCountCallback other) {
+        merge(counters, other.counters, middle.length + 1);
+    }
+
 }
@@ -0,0 +1,336 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Bit packed storage of <code>int</code> for columns with short range of values like status codes or
+ * counters. Values split to frames of {@link BitPackedIntData#FRAME} rows, each frame stores min value and
+ * offsets from min packed by minimal count of bits enough for max offset in frame. So column with values
+ * from <code>0</code> to <code>20</code> takes <code>5</code> bits per row instead of <code>32</code>.
+ * <p>
+ * Last not full frame stored as plain <code>int[]</code> and packed when full.
+ * <p>
+ * {@link BitPackedIntData#between(int, int, int, int, int[])} compares packed offsets without decode of values
+ * and skips or accepts entire frame by min and width.
+ * <p>
+ * To use that type of data field should have type <code>int</code> and additionally marked by {@link BitPacked}
+ *
+ * @see IntData
+ * @since 3.2.1
+ */
+public class BitPackedIntData implements Data {
+
+    /**
+     * Rows in frame, power of two
+     */
+    public static final int FRAME = 1024;
+
+    private static final int FRAME_SHIFT = 10;
+    private static final int FRAME_MASK = FRAME - 1;
+
+    private final int inc;
+
+    /**
+     * Packed offsets of all frames, frame <code>i</code> starts from word <code>offsets[i]</code>
+     */
+    private long[] words = new long[DEFAULT_SIZE];
+    private int wordCount;
+    private int[] offsets = new int[DEFAULT_SIZE];
+    private int[] mins = new int[DEFAULT_SIZE];
+    private byte[] widths = new byte[DEFAULT_SIZE];
+    private int frames;
+
+    private int[] tail = new int[FRAME];
+    private int tailSize;
+
+    public BitPackedIntData(final int inc) {
+        this.inc = inc;
+    }
+
+    public BitPackedIntData(final BitPackedIntData data, final byte[] needToCopy) {
+        this(data.inc);
+        for (int i = 0; i < needToCopy.length; i++) {
+            if (needToCopy[i] == 1) add(data.getInt(i));
+        }
+    }
+
+    public BitPackedIntData(final BitPackedIntData data, final int[] positions) {
+        this(data.inc);
+        for (final int position : positions) add(data.getInt(position));
+    }
+
+    public void add(final int v) {
+        tail[tailSize++] = v;
+        if (tailSize == FRAME) pack();
+    }
+
+    private void pack() {
+        int min = tail[0];
+        int max = tail[0];
+        for (int i = 1; i < FRAME; i++) {
+            min = Math.min(min, tail[i]);
+            max = Math.max(max, tail[i]);
+        }
+        final int width = 64 - Long.numberOfLeadingZeros((long) max - min);
+        final int frameWords = (FRAME * width + 63) >>> 6;
+
+        if (frames == mins.length) {
+            offsets = Arrays.copyOf(offsets, frames * 2);
+            mins = Arrays.copyOf(mins, frames * 2);
+            widths = Arrays.copyOf(widths, frames * 2);
+        }
+        if (wordCount + frameWords > words.length) {
+            words = Arrays.copyOf(words, Math.max(words.length * 2, wordCount + frameWords));
+        }
+
+        for (int i = 0; i < FRAME && width > 0; i++) {
+            final long offset = (long) tail[i] - min;
+            final int bit = i * width;
+            final int word = wordCount + (bit >>> 6);
+            final int shift = bit & 63;
+            words[word] |= offset << shift;
+            if (shift + width > 64) words[word + 1] |= offset >>> (64 - shift);
+        }
+
+        offsets[frames] = wordCount;
+        mins[frames] = min;
+        widths[frames] = (byte) width;
+        frames++;
+        wordCount += frameWords;
+        tailSize = 0;
+    }
+
+    public int getInt(final int position) {
+        final int frame = position >>> FRAME_SHIFT;
+        if (frame == frames) return tail[position & FRAME_MASK];
+        return (int) (mins[frame] + unpack(offsets[frame], widths[frame], position & FRAME_MASK));
+    }
+
+    private long unpack(final int offset, final int width, final int index) {
+        if (width == 0) return 0;
+        final int bit = index * width;
+        final int word = offset + (bit >>> 6);
+        final int shift = bit & 63;
+        long value = words[word] >>> shift;
+        if (shift + width > 64) value |= words[word + 1] << (64 - shift);
+        return value & ((1L << width) - 1);
+    }
+
+    /**
+     * Bits per value of frame
+     *
+     * @param frame - frame, position divided by {@link BitPackedIntData#FRAME}
+     * @return - width from <code>0</code> if all values in frame same to <code>32</code>
+     * or <code>-1</code> if frame is not packed yet
+     */
+    public int width(final int frame) {
+        return frame < frames ? widths[frame] : -1;
+    }
+
+    /**
+     * Select positions with value from <code>min</code> to <code>max</code> (inclusive). Bounds moved to
+     * offsets of each frame, so packed offsets compared as is, frame out of bounds skipped and frame inside
+     * of bounds accepted without unpack.
+     *
+     * @param min    - min value (inclusive)
+     * @param max    - max value (inclusive)
+     * @param start  - first position (inclusive)
+     * @param end    - last position (exclusive)
+     * @param selOut - accepted positions
+     * @return - count of accepted positions
+     */
+    public int between(final int min, final int max, final int start, final int end, final int[] selOut) {
+        int c = 0;
+        int from = start;
+        while (from < end) {
+            final int frame = from >>> FRAME_SHIFT;
+            final int to = Math.min(end, (frame + 1) << FRAME_SHIFT);
+
+            if (frame == frames) {
+                for (int i = from; i < to; i++) {
+                    final int value = tail[i & FRAME_MASK];
+                    selOut[c] = i;
+                    c += value >= min & value <= max ? 1 : 0;
+                }
+            } else {
+                final int width = widths[frame];
+                final long maxOffset = (1L << width) - 1;
+                final long low = Math.max(0, (long) min - mins[frame]);
+                final long high = Math.min(maxOffset, (long) max - mins[frame]);
+
+                if (low == 0 && high == maxOffset) {
+                    for (int i = from; i < to; i++) selOut[c++] = i;
+                } else if (low <= high) {
+                    final int offset = offsets[frame];
+                    for (int i = from; i < to; i++) {
+                        final long value = unpack(offset, width, i & FRAME_MASK);
+                        selOut[c] = i;
+                        c += value >= low & value <= high ? 1 : 0;
+                    }
+                }
+            }
+            from = to;
+        }
+        return c;
+    }
+
+    @Override
+    public int getDiskSpace() {
+        return INT_BYTES + INT_BYTES + frames * (INT_BYTES + 1) + INT_BYTES + wordCount * LONG_BYTES
+                + tailSize * INT_BYTES;
+    }
+
+    /**
+     * <pre>
+     *  frames: int
+     *  tail-size: int
+     *  frame-mins: int[frames]
+     *  frame-widths: byte[frames]
+     *  word-count: int
+     *  words: long[word-count]
+     *  tail: int[tail-size]
+     * </pre>
+     *
+     * @param buffer - b
+     * @throws IOException - IO exception
+     */
+    @Override
+    public void save(final ByteBuffer buffer) throws IOException {
+        buffer.putInt(frames);
+        buffer.putInt(tailSize);
+        for (int i = 0; i < frames; i++) buffer.putInt(mins[i]);
+        buffer.put(widths, 0, frames);
+        buffer.putInt(wordCount);
+        for (int i = 0; i < wordCount; i++) buffer.putLong(words[i]);
+        for (int i = 0; i < tailSize; i++) buffer.putInt(tail[i]);
+    }
+
+    @Override
+    public void load(final String dataClass, final ByteBuffer buffer, final int size) throws IOException {
+        frames = buffer.getInt();
+        tailSize = buffer.getInt();
+        mins = new int[Math.max(DEFAULT_SIZE, frames)];
+        widths = new byte[mins.length];
+        offsets = new int[mins.length];
+        for (int i = 0; i < frames; i++) mins[i] = buffer.getInt();
+        buffer.get(widths, 0, frames);
+        wordCount = buffer.getInt();
+        words = new long[Math.max(DEFAULT_SIZE, wordCount)];
+        for (int i = 0; i < wordCount; i++) words[i] = buffer.getLong();
+        tail = new int[FRAME];
+        for (int i = 0; i < tailSize; i++) tail[i] = buffer.getInt();
+
+        int offset = 0;
+        for (int i = 0; i < frames; i++) {
+            offsets[i] = offset;
+            offset += (FRAME * widths[i] + 63) >>> 6;
+        }
+    }
+
+    @Override
+    public Object get(final int position) {
+        return getInt(position);
+    }
+
+    @Override
+    public int compare(final int position1, final int position2) {
+        return Integer.compare(getInt(position1), getInt(position2));
+    }
+
+    @Override
+    public int hashCode(final int position) {
+        return getInt(position);
+    }
+
+    @Override
+    public void init(final int size) {
+        if (size < 0) throw new NegativeArraySizeException(Integer.toString(size));
+        frames = size >>> FRAME_SHIFT;
+        tailSize = size & FRAME_MASK;
+        // all frames has width 0 and min 0 so don't need words
+        mins = new int[Math.max(DEFAULT_SIZE, frames)];
+        widths = new byte[mins.length];
+        offsets = new int[mins.length];
+        words = new long[DEFAULT_SIZE];
+        wordCount = 0;
+        tail = new int[FRAME];
+    }
+
+    @Override
+    public void compact() {
+        words = Arrays.copyOf(words, wordCount);
+        offsets = Arrays.copyOf(offsets, Math.max(1, frames));
+        mins = Arrays.copyOf(mins, offsets.length);
+        widths = Arrays.copyOf(widths, offsets.length);
+    }
+
+    @Override
+    public int size() {
+        return (frames << FRAME_SHIFT) + tailSize;
+    }
+
+    @Override
+    public int allocatedSize() {
+        return (frames << FRAME_SHIFT) + FRAME;
+    }
+
+    @Override
+    public long mem() {
+        return OBJECT_HEADER_BYTES + 6 * REFERENCE_BYTES + 4 * INT_BYTES
+                + (long) words.length * LONG_BYTES + (long) mins.length * (INT_BYTES + INT_BYTES + 1)
+                + FRAME * INT_BYTES;
+    }
+
+    @Override
+    public int inc() {
+        return inc;
+    }
+
+    @Override
+    public Data copy(final byte[] needToCopy) {
+        return new BitPackedIntData(this, needToCopy);
+    }
+
+    @Override
+    public Data copy(final int[] positions) {
+        return new BitPackedIntData(this, positions);
+    }
+
+    @Override
+    public void reorder(final int[] positions) {
+        final BitPackedIntData reordered = new BitPackedIntData(this, positions);
+        words = reordered.words;
+        wordCount = reordered.wordCount;
+        offsets = reordered.offsets;
+        mins = reordered.mins;
+        widths = reordered.widths;
+        frames = reordered.frames;
+        tail = reordered.tail;
+        tailSize = reordered.tailSize;
+    }
+
+    @Override
+    public String toString() {
+        return "BitPackedIntData {size: " + size() + ", frames: " + frames + ", words: " + wordCount + "}";
+    }
+
+}
@@ -52,6 +52,13 @@ public class ByteData implements Data {
         }
     }
 
+    public ByteData(ByteData data, int[] positions) {
+        this.inc = data.inc;
+        this.size = positions.length;
+        this.data = new byte[positions.length];
+        for (int i = 0; i < positions.length; i++) this.data[i] = data.data[positions[i]];
+    }
+
     public void allocate(int additionalSize) {
         size += additionalSize;
         while (size > data.length) {
@@ -144,4 +151,16 @@ public class ByteData implements Data {
         return new ByteData(this, needToCopy);
     }
 
+    @Override
+    public Data copy(final int[] positions) {
+        return new ByteData(this, positions);
+    }
+
+    @Override
+    public void reorder(final int[] positions) {
+        final byte[] reordered = new byte[positions.length];
+        for (int i = 0; i < positions.length; i++) reordered[i] = data[positions[i]];
+        data = reordered;
+    }
+
 }
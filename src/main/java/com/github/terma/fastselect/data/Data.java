@@ -127,4 +127,23 @@ public interface Data {
 
     Data copy(byte[] needToCopy);
 
+    /**
+     * Create compact copy of column with values from positions in passed order, used to
+     * reorder rows of {@link com.github.terma.fastselect.FastSelect} by cluster key
+     *
+     * @param positions - positions to copy, could be in any order
+     * @return - copy with <code>positions.length</code> items
+     * @since 3.2.1
+     */
+    Data copy(int[] positions);
+
+    /**
+     * Same as {@link Data#copy(int[])} but values reordered inside of current object, so everybody who keeps
+     * reference to column data sees new order. Arrays taken from data before reorder stay in old order.
+     *
+     * @param positions - all positions of column in required order
+     * @since 3.2.1
+     */
+    void reorder(int[] positions);
+
 }
@@ -0,0 +1,459 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Delta storage of <code>long</code> for columns like timestamps which values are close within block.
+ * Values split to frames of {@link DeltaLongData#FRAME} rows, each frame stores base (min value of frame)
+ * and deltas from base as <code>byte</code>, <code>short</code> or <code>int</code> (unsigned) picked
+ * by range of frame. Frame with same values doesn't store deltas, frame which range doesn't fit to
+ * <code>int</code> stores values as is.
+ * <p>
+ * Last not full frame stored as plain <code>long[]</code> and encoded when full.
+ * <p>
+ * {@link DeltaLongData#between(long, long, int, int, int[])} compares encoded deltas without decode of values
+ * and skips or accepts entire frame by its range.
+ * <p>
+ * To use that type of data field should have type <code>long</code> and additionally marked by {@link Delta}
+ *
+ * @see LongData
+ * @see BitPackedIntData
+ * @since 3.2.1
+ */
+public class DeltaLongData implements Data {
+
+    /**
+     * Rows in frame, power of two
+     */
+    public static final int FRAME = 1024;
+
+    private static final int FRAME_SHIFT = 10;
+    private static final int FRAME_MASK = FRAME - 1;
+
+    private static final long BYTE_DELTA = 0xFFL;
+    private static final long SHORT_DELTA = 0xFFFFL;
+    private static final long INT_DELTA = 0xFFFFFFFFL;
+
+    private final int inc;
+
+    private byte[] byteDeltas = new byte[0];
+    private short[] shortDeltas = new short[0];
+    private int[] intDeltas = new int[0];
+    private long[] plainValues = new long[0];
+    private int byteCount;
+    private int shortCount;
+    private int intCount;
+    private int plainCount;
+
+    /**
+     * Bytes per delta of frame: <code>0</code>, <code>1</code>, <code>2</code>, <code>4</code>
+     * or <code>8</code> for plain values
+     */
+    private byte[] widths = new byte[DEFAULT_SIZE];
+    /**
+     * First delta of frame in array for width of frame
+     */
+    private int[] offsets = new int[DEFAULT_SIZE];
+    private long[] mins = new long[DEFAULT_SIZE];
+    private long[] maxs = new long[DEFAULT_SIZE];
+    private int frames;
+
+    private long[] tail = new long[FRAME];
+    private int tailSize;
+
+    public DeltaLongData(final int inc) {
+        this.inc = inc;
+    }
+
+    public DeltaLongData(final DeltaLongData data, final byte[] needToCopy) {
+        this(data.inc);
+        for (int i = 0; i < needToCopy.length; i++) {
+            if (needToCopy[i] == 1) add(data.getLong(i));
+        }
+    }
+
+    public DeltaLongData(final DeltaLongData data, final int[] positions) {
+        this(data.inc);
+        for (final int position : positions) add(data.getLong(position));
+    }
+
+    public void add(final long v) {
+        tail[tailSize++] = v;
+        if (tailSize == FRAME) encode();
+    }
+
+    private static int width(final long min, final long max) {
+        final long range = max - min;
+        // negative when range overflows long
+        if (range < 0 || range > INT_DELTA) return LONG_BYTES;
+        else if (range > SHORT_DELTA) return INT_BYTES;
+        else if (range > BYTE_DELTA) return SHORT_BYTES;
+        else if (range > 0) return 1;
+        else return 0;
+    }
+
+    private void encode() {
+        long min = tail[0];
+        long max = tail[0];
+        for (int i = 1; i < FRAME; i++) {
+            min = Math.min(min, tail[i]);
+            max = Math.max(max, tail[i]);
+        }
+        final int width = width(min, max);
+
+        if (frames == widths.length) {
+            widths = Arrays.copyOf(widths, frames * 2);
+            offsets = Arrays.copyOf(offsets, frames * 2);
+            mins = Arrays.copyOf(mins, frames * 2);
+            maxs = Arrays.copyOf(maxs, frames * 2);
+        }
+        widths[frames] = (byte) width;
+        mins[frames] = min;
+        maxs[frames] = max;
+
+        if (width == 1) {
+            if (byteCount == byteDeltas.length) byteDeltas = Arrays.copyOf(byteDeltas, byteCount * 2 + FRAME);
+            for (int i = 0; i < FRAME; i++) byteDeltas[byteCount + i] = (byte) (tail[i] - min);
+            offsets[frames] = byteCount;
+            byteCount += FRAME;
+        } else if (width == SHORT_BYTES) {
+            if (shortCount == shortDeltas.length) shortDeltas = Arrays.copyOf(shortDeltas, shortCount * 2 + FRAME);
+            for (int i = 0; i < FRAME; i++) shortDeltas[shortCount + i] = (short) (tail[i] - min);
+            offsets[frames] = shortCount;
+            shortCount += FRAME;
+        } else if (width == INT_BYTES) {
+            if (intCount == intDeltas.length) intDeltas = Arrays.copyOf(intDeltas, intCount * 2 + FRAME);
+            for (int i = 0; i < FRAME; i++) intDeltas[intCount + i] = (int) (tail[i] - min);
+            offsets[frames] = intCount;
+            intCount += FRAME;
+        } else if (width == LONG_BYTES) {
+            if (plainCount == plainValues.length) plainValues = Arrays.copyOf(plainValues, plainCount * 2 + FRAME);
+            System.arraycopy(tail, 0, plainValues, plainCount, FRAME);
+            offsets[frames] = plainCount;
+            plainCount += FRAME;
+        }
+
+        frames++;
+        tailSize = 0;
+    }
+
+    public long getLong(final int position) {
+        final int frame = position >>> FRAME_SHIFT;
+        if (frame == frames) return tail[position & FRAME_MASK];
+
+        final int index = offsets[frame] + (position & FRAME_MASK);
+        switch (widths[frame]) {
+            case 0:
+                return mins[frame];
+            case 1:
+                return mins[frame] + (byteDeltas[index] & BYTE_DELTA);
+            case SHORT_BYTES:
+                return mins[frame] + (shortDeltas[index] & SHORT_DELTA);
+            case INT_BYTES:
+                return mins[frame] + (intDeltas[index] & INT_DELTA);
+            default:
+                return plainValues[index];
+        }
+    }
+
+    /**
+     * Bytes per delta of frame
+     *
+     * @param frame - frame, position divided by {@link DeltaLongData#FRAME}
+     * @return - <code>0</code> if all values in frame same, <code>1</code>, <code>2</code>, <code>4</code>,
+     * <code>8</code> if values stored as is or <code>-1</code> if frame is not encoded yet
+     */
+    public int width(final int frame) {
+        return frame < frames ? widths[frame] : -1;
+    }
+
+    /**
+     * Select positions with value from <code>min</code> to <code>max</code> (inclusive). Bounds moved to
+     * deltas of each frame, so encoded deltas compared as is, frame out of bounds skipped and frame inside
+     * of bounds accepted without decode.
+     *
+     * @param min    - min value (inclusive)
+     * @param max    - max value (inclusive)
+     * @param start  - first position (inclusive)
+     * @param end    - last position (exclusive)
+     * @param selOut - accepted positions
+     * @return - count of accepted positions
+     */
+    public int between(final long min, final long max, final int start, final int end, final int[] selOut) {
+        int c = 0;
+        int from = start;
+        while (from < end) {
+            final int frame = from >>> FRAME_SHIFT;
+            final int to = Math.min(end, (frame + 1) << FRAME_SHIFT);
+
+            if (frame == frames) {
+                for (int i = from; i < to; i++) {
+                    final long value = tail[i & FRAME_MASK];
+                    selOut[c] = i;
+                    c += value >= min & value <= max ? 1 : 0;
+                }
+            } else if (min <= mins[frame] && max >= maxs[frame]) {
+                for (int i = from; i < to; i++) selOut[c++] = i;
+            } else if (min <= maxs[frame] && max >= mins[frame]) {
+                c = between(frame, min, max, from, to, selOut, c);
+            }
+            from = to;
+        }
+        return c;
+    }
+
+    /**
+     * Part of frame when frame overlaps bounds, so bounds could be moved to deltas without overflow
+     */
+    private int between(final int frame, final long min, final long max, final int from, final int to,
+                        final int[] selOut, int c) {
+        final int offset = offsets[frame] - (frame << FRAME_SHIFT);
+        final int width = widths[frame];
+
+        if (width == LONG_BYTES) {
+            final long[] values = plainValues;
+            for (int i = from; i < to; i++) {
+                final long value = values[offset + i];
+                selOut[c] = i;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+            return c;
+        }
+
+        final long base = mins[frame];
+        final long low = Math.max(min, base) - base;
+        final long high = Math.min(max, maxs[frame]) - base;
+        if (width == 1) {
+            final byte[] deltas = byteDeltas;
+            for (int i = from; i < to; i++) {
+                final long delta = deltas[offset + i] & BYTE_DELTA;
+                selOut[c] = i;
+                c += delta >= low & delta <= high ? 1 : 0;
+            }
+        } else if (width == SHORT_BYTES) {
+            final short[] deltas = shortDeltas;
+            for (int i = from; i < to; i++) {
+                final long delta = deltas[offset + i] & SHORT_DELTA;
+                selOut[c] = i;
+                c += delta >= low & delta <= high ? 1 : 0;
+            }
+        } else {
+            final int[] deltas = intDeltas;
+            for (int i = from; i < to; i++) {
+                final long delta = deltas[offset + i] & INT_DELTA;
+                selOut[c] = i;
+                c += delta >= low & delta <= high ? 1 : 0;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public int getDiskSpace() {
+        return INT_BYTES + INT_BYTES + frames * (1 + LONG_BYTES + LONG_BYTES) + byteCount
+                + shortCount * SHORT_BYTES + intCount * INT_BYTES + plainCount * LONG_BYTES + tailSize * LONG_BYTES;
+    }
+
+    /**
+     * <pre>
+     *  frames: int
+     *  tail-size: int
+     *  frame-widths: byte[frames]
+     *  frame-mins: long[frames]
+     *  frame-maxs: long[frames]
+     *  byte-deltas: byte[frames with width 1 * FRAME]
+     *  short-deltas: short[frames with width 2 * FRAME]
+     *  int-deltas: int[frames with width 4 * FRAME]
+     *  plain-values: long[frames with width 8 * FRAME]
+     *  tail: long[tail-size]
+     * </pre>
+     *
+     * @param buffer - b
+     * @throws IOException - IO exception
+     */
+    @Override
+    public void save(final ByteBuffer buffer) throws IOException {
+        buffer.putInt(frames);
+        buffer.putInt(tailSize);
+        buffer.put(widths, 0, frames);
+        for (int i = 0; i < frames; i++) buffer.putLong(mins[i]);
+        for (int i = 0; i < frames; i++) buffer.putLong(maxs[i]);
+        buffer.put(byteDeltas, 0, byteCount);
+        for (int i = 0; i < shortCount; i++) buffer.putShort(shortDeltas[i]);
+        for (int i = 0; i < intCount; i++) buffer.putInt(intDeltas[i]);
+        for (int i = 0; i < plainCount; i++) buffer.putLong(plainValues[i]);
+        for (int i = 0; i < tailSize; i++) buffer.putLong(tail[i]);
+    }
+
+    @Override
+    public void load(final String dataClass, final ByteBuffer buffer, final int size) throws IOException {
+        frames = buffer.getInt();
+        tailSize = buffer.getInt();
+        widths = new byte[Math.max(DEFAULT_SIZE, frames)];
+        offsets = new int[widths.length];
+        mins = new long[widths.length];
+        maxs = new long[widths.length];
+        buffer.get(widths, 0, frames);
+        for (int i = 0; i < frames; i++) mins[i] = buffer.getLong();
+        for (int i = 0; i < frames; i++) maxs[i] = buffer.getLong();
+
+        byteCount = 0;
+        shortCount = 0;
+        intCount = 0;
+        plainCount = 0;
+        for (int i = 0; i < frames; i++) {
+            if (widths[i] == 1) {
+                offsets[i] = byteCount;
+                byteCount += FRAME;
+            } else if (widths[i] == SHORT_BYTES) {
+                offsets[i] = shortCount;
+                shortCount += FRAME;
+            } else if (widths[i] == INT_BYTES) {
+                offsets[i] = intCount;
+                intCount += FRAME;
+            } else if (widths[i] == LONG_BYTES) {
+                offsets[i] = plainCount;
+                plainCount += FRAME;
+            }
+        }
+
+        byteDeltas = new byte[byteCount];
+        buffer.get(byteDeltas);
+        shortDeltas = new short[shortCount];
+        for (int i = 0; i < shortCount; i++) shortDeltas[i] = buffer.getShort();
+        intDeltas = new int[intCount];
+        for (int i = 0; i < intCount; i++) intDeltas[i] = buffer.getInt();
+        plainValues = new long[plainCount];
+        for (int i = 0; i < plainCount; i++) plainValues[i] = buffer.getLong();
+        tail = new long[FRAME];
+        for (int i = 0; i < tailSize; i++) tail[i] = buffer.getLong();
+    }
+
+    @Override
+    public Object get(final int position) {
+        return getLong(position);
+    }
+
+    @Override
+    public int compare(final int position1, final int position2) {
+        return Long.compare(getLong(position1), getLong(position2));
+    }
+
+    @Override
+    public int hashCode(final int position) {
+        final long value = getLong(position);
+        return (int) (value ^ (value >>> 32));
+    }
+
+    @Override
+    public void init(final int size) {
+        if (size < 0) throw new NegativeArraySizeException(Integer.toString(size));
+        frames = size >>> FRAME_SHIFT;
+        tailSize = size & FRAME_MASK;
+        // all frames has width 0 and base 0 so don't need deltas
+        widths = new byte[Math.max(DEFAULT_SIZE, frames)];
+        offsets = new int[widths.length];
+        mins = new long[widths.length];
+        maxs = new long[widths.length];
+        byteDeltas = new byte[0];
+        shortDeltas = new short[0];
+        intDeltas = new int[0];
+        plainValues = new long[0];
+        byteCount = 0;
+        shortCount = 0;
+        intCount = 0;
+        plainCount = 0;
+        tail = new long[FRAME];
+    }
+
+    @Override
+    public void compact() {
+        byteDeltas = Arrays.copyOf(byteDeltas, byteCount);
+        shortDeltas = Arrays.copyOf(shortDeltas, shortCount);
+        intDeltas = Arrays.copyOf(intDeltas, intCount);
+        plainValues = Arrays.copyOf(plainValues, plainCount);
+        final int length = Math.max(1, frames);
+        widths = Arrays.copyOf(widths, length);
+        offsets = Arrays.copyOf(offsets, length);
+        mins = Arrays.copyOf(mins, length);
+        maxs = Arrays.copyOf(maxs, length);
+    }
+
+    @Override
+    public int size() {
+        return (frames << FRAME_SHIFT) + tailSize;
+    }
+
+    @Override
+    public int allocatedSize() {
+        return (frames << FRAME_SHIFT) + FRAME;
+    }
+
+    @Override
+    public long mem() {
+        return OBJECT_HEADER_BYTES + 9 * REFERENCE_BYTES + 6 * INT_BYTES
+                + byteDeltas.length + (long) shortDeltas.length * SHORT_BYTES + (long) intDeltas.length * INT_BYTES
+                + (long) plainValues.length * LONG_BYTES
+                + (long) widths.length * (1 + INT_BYTES + LONG_BYTES + LONG_BYTES) + FRAME * LONG_BYTES;
+    }
+
+    @Override
+    public int inc() {
+        return inc;
+    }
+
+    @Override
+    public Data copy(final byte[] needToCopy) {
+        return new DeltaLongData(this, needToCopy);
+    }
+
+    @Override
+    public Data copy(final int[] positions) {
+        return new DeltaLongData(this, positions);
+    }
+
+    @Override
+    public void reorder(final int[] positions) {
+        final DeltaLongData reordered = new DeltaLongData(this, positions);
+        byteDeltas = reordered.byteDeltas;
+        shortDeltas = reordered.shortDeltas;
+        intDeltas = reordered.intDeltas;
+        plainValues = reordered.plainValues;
+        byteCount = reordered.byteCount;
+        shortCount = reordered.shortCount;
+        intCount = reordered.intCount;
+        plainCount = reordered.plainCount;
+        widths = reordered.widths;
+        offsets = reordered.offsets;
+        mins = reordered.mins;
+        maxs = reordered.maxs;
+        frames = reordered.frames;
+        tail = reordered.tail;
+        tailSize = reordered.tailSize;
+    }
+
+    @Override
+    public String toString() {
+        return "DeltaLongData {size: " + size() + ", frames: " + frames + "}";
+    }
+
+}
@@ -52,6 +52,13 @@ public class DoubleData implements Data {
         }
     }
 
+    public DoubleData(DoubleData data, int[] positions) {
+        this.inc = data.inc;
+        this.size = positions.length;
+        this.data = new double[positions.length];
+        for (int i = 0; i < positions.length; i++) this.data[i] = data.data[positions[i]];
+    }
+
     public void add(double v) {
         if (size == data.length) {
             data = Arrays.copyOf(data, size + inc);
@@ -128,4 +135,16 @@ public class DoubleData implements Data {
     public Data copy(final byte[] needToCopy) {
         return new DoubleData(this, needToCopy);
     }
+
+    @Override
+    public Data copy(final int[] positions) {
+        return new DoubleData(this, positions);
+    }
+
+    @Override
+    public void reorder(final int[] positions) {
+        final double[] reordered = new double[positions.length];
+        for (int i = 0; i < positions.length; i++) reordered[i] = data[positions[i]];
+        data = reordered;
+    }
 }
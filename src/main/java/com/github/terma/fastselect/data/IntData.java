@@ -46,6 +46,13 @@ public class IntData implements Data {
         }
     }
 
+    public IntData(IntData data, int[] positions) {
+        this.inc = data.inc;
+        this.size = positions.length;
+        this.data = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) this.data[i] = data.data[positions[i]];
+    }
+
     public void allocate(int additionalSize) {
         size += additionalSize;
         while (size > data.length) data = Arrays.copyOf(data, size + inc);
@@ -89,7 +96,7 @@ public class IntData implements Data {
 
     @Override
     public int compare(int position1, int position2) {
-        return data[position1] - data[position2];
+        return Integer.compare(data[position1], data[position2]);
     }
 
     @Override
@@ -133,4 +140,16 @@ public class IntData implements Data {
         return new IntData(this, needToCopy);
     }
 
+    @Override
+    public Data copy(final int[] positions) {
+        return new IntData(this, positions);
+    }
+
+    @Override
+    public void reorder(final int[] positions) {
+        final int[] reordered = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) reordered[i] = data[positions[i]];
+        data = reordered;
+    }
+
 }
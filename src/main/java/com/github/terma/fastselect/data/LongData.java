@@ -46,6 +46,13 @@ public class LongData implements Data {
         }
     }
 
+    public LongData(LongData data, int[] positions) {
+        this.inc = data.inc;
+        this.size = positions.length;
+        this.data = new long[positions.length];
+        for (int i = 0; i < positions.length; i++) this.data[i] = data.data[positions[i]];
+    }
+
     public void add(long v) {
         if (size == data.length) {
             data = Arrays.copyOf(data, size + inc);
@@ -123,4 +130,16 @@ public class LongData implements Data {
     public Data copy(final byte[] needToCopy) {
         return new LongData(this, needToCopy);
     }
+
+    @Override
+    public Data copy(final int[] positions) {
+        return new LongData(this, positions);
+    }
+
+    @Override
+    public void reorder(final int[] positions) {
+        final long[] reordered = new long[positions.length];
+        for (int i = 0; i < positions.length; i++) reordered[i] = data[positions[i]];
+        data = reordered;
+    }
 }
@@ -51,6 +51,18 @@ public class MultiByteData implements Data {
         }
     }
 
+    public MultiByteData(MultiByteData data, int[] positions) {
+        this.index = new IntData(data.inc());
+        this.data = new ByteData(data.inc());
+
+        final byte[] bytes = data.data.data;
+
+        for (final int position : positions) {
+            index.add(this.data.size);
+            this.data.add(bytes, data.getDataStart(position), data.getDataEnd(position));
+        }
+    }
+
     public void add(byte[] values) {
         index.add(data.size); // store index of first element of data
         for (byte v : values) data.add(v); // todo optimize for batch
@@ -141,4 +153,18 @@ public class MultiByteData implements Data {
         return new MultiByteData(this, needToCopy);
     }
 
+    @Override
+    public Data copy(int[] positions) {
+        return new MultiByteData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        final MultiByteData reordered = new MultiByteData(this, positions);
+        index.data = reordered.index.data;
+        index.size = reordered.index.size;
+        data.data = reordered.data.data;
+        data.size = reordered.data.size;
+    }
+
 }
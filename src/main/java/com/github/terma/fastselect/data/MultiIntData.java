@@ -41,6 +41,13 @@ public class MultiIntData implements Data {
         }
     }
 
+    public MultiIntData(MultiIntData data, int[] positions) {
+        this.index = new IntData(data.inc());
+        this.data = new IntData(data.inc());
+
+        for (final int position : positions) add((int[]) data.get(position));
+    }
+
     public void add(int[] values) {
         index.add(data.size); // store index of first element of data
         for (int v : values) data.add(v);
@@ -131,4 +138,16 @@ public class MultiIntData implements Data {
         return new MultiIntData(this, needToCopy);
     }
 
+    @Override
+    public Data copy(int[] positions) {
+        return new MultiIntData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        final MultiIntData reordered = new MultiIntData(this, positions);
+        index = reordered.index;
+        data = reordered.data;
+    }
+
 }
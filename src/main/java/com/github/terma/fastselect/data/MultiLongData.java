@@ -41,6 +41,13 @@ public class MultiLongData implements Data {
         }
     }
 
+    public MultiLongData(MultiLongData data, int[] positions) {
+        this.index = new IntData(data.inc());
+        this.data = new LongData(data.inc());
+
+        for (final int position : positions) add((long[]) data.get(position));
+    }
+
     public void add(long[] values) {
         index.add(data.size); // store index of first element of data
         for (long v : values) data.add(v);
@@ -131,4 +138,16 @@ public class MultiLongData implements Data {
         return new MultiLongData(this, needToCopy);
     }
 
+    @Override
+    public Data copy(int[] positions) {
+        return new MultiLongData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        final MultiLongData reordered = new MultiLongData(this, positions);
+        index = reordered.index;
+        data = reordered.data;
+    }
+
 }
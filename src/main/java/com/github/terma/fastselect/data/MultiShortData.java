@@ -45,6 +45,13 @@ public class MultiShortData implements Data {
         }
     }
 
+    public MultiShortData(MultiShortData data, int[] positions) {
+        this.index = new IntData(data.inc());
+        this.data = new ShortData(data.inc());
+
+        for (final int position : positions) add((short[]) data.get(position));
+    }
+
     public void add(short[] values) {
         index.add(data.size); // store index of first element of data
         for (short v : values) data.add(v);
@@ -137,4 +144,18 @@ public class MultiShortData implements Data {
         return new MultiShortData(this, needToCopy);
     }
 
+    @Override
+    public Data copy(int[] positions) {
+        return new MultiShortData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        final MultiShortData reordered = new MultiShortData(this, positions);
+        index.data = reordered.index.data;
+        index.size = reordered.index.size;
+        data.data = reordered.data.data;
+        data.size = reordered.data.size;
+    }
+
 }
@@ -0,0 +1,695 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Off heap storage of <code>byte</code>, <code>short</code>, <code>int</code>, <code>long</code> and
+ * <code>double</code> column in direct {@link ByteBuffer}. Used for all columns of that types when
+ * {@link Storage#OFF_HEAP} selected for {@link com.github.terma.fastselect.FastSelect}.
+ * <p>
+ * Values kept in pages of {@link OffHeapData#PAGE} rows, so growth of column allocates new page instead
+ * of copy of whole column and size of column is not limited by max size of one buffer. Memory of pages
+ * released when column collected by GC as for any direct buffer, so <code>-XX:MaxDirectMemorySize</code>
+ * should be enough for all columns.
+ * <p>
+ * Access by position checks bounds of buffer and page, that's why heap arrays still default,
+ * see <code>docs/ARHI.md</code> and <code>OffHeapVsHeapBenchmark</code>. Format of
+ * {@link OffHeapData#save(ByteBuffer)} same as for heap data, so saved data could be loaded to any storage.
+ *
+ * @see Storage
+ * @since 3.2.1
+ */
+public class OffHeapData implements Data {
+
+    /**
+     * Rows in page, power of two
+     */
+    public static final int PAGE = 1 << 16;
+
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_MASK = PAGE - 1;
+
+    private final Class<?> type;
+    private final int inc;
+    /**
+     * <code>log2</code> of bytes per value
+     */
+    private final int shift;
+
+    private ByteBuffer[] pages = new ByteBuffer[DEFAULT_SIZE];
+    private int pageCount;
+    private int size;
+
+    /**
+     * @param type - <code>byte.class</code>, <code>short.class</code>, <code>int.class</code>,
+     *             <code>long.class</code> or <code>double.class</code>
+     * @param inc  - not used as memory allocated by pages
+     */
+    public OffHeapData(final Class<?> type, final int inc) {
+        if (!supports(type)) {
+            throw new IllegalArgumentException("Off heap supports only byte, short, int, long and double, but: "
+                    + type + "!");
+        }
+        this.type = type;
+        this.inc = inc;
+        if (type == byte.class) shift = 0;
+        else if (type == short.class) shift = 1;
+        else if (type == int.class) shift = 2;
+        else shift = 3;
+    }
+
+    /**
+     * Same as for heap data, copied values moved to begin but size stays same as size of
+     * <code>needToCopy</code>
+     */
+    public OffHeapData(final OffHeapData data, final byte[] needToCopy) {
+        this(data.type, data.inc);
+        int c = 0;
+        for (int i = 0; i < needToCopy.length; i++) {
+            if (needToCopy[i] == 1) {
+                addBits(data.getBits(i));
+                c++;
+            }
+        }
+        for (; c < needToCopy.length; c++) addBits(0);
+    }
+
+    public OffHeapData(final OffHeapData data, final int[] positions) {
+        this(data.type, data.inc);
+        for (final int position : positions) addBits(data.getBits(position));
+    }
+
+    /**
+     * @param type - type of field
+     * @return - true if column of that type could be stored off heap
+     */
+    public static boolean supports(final Class<?> type) {
+        return type == byte.class || type == short.class || type == int.class
+                || type == long.class || type == double.class;
+    }
+
+    /**
+     * Add value of <code>byte</code>, <code>short</code>, <code>int</code> or <code>long</code> column,
+     * stored only lower bytes as in column type
+     *
+     * @param value - value
+     */
+    public void add(final long value) {
+        addBits(value);
+    }
+
+    public void addDouble(final double value) {
+        addBits(Double.doubleToRawLongBits(value));
+    }
+
+    private void addBits(final long bits) {
+        final int page = size >>> PAGE_SHIFT;
+        if (page == pageCount) allocatePage();
+        final ByteBuffer buffer = pages[page];
+        final int index = (size & PAGE_MASK) << shift;
+        if (shift == 0) buffer.put(index, (byte) bits);
+        else if (shift == 1) buffer.putShort(index, (short) bits);
+        else if (shift == 2) buffer.putInt(index, (int) bits);
+        else buffer.putLong(index, bits);
+        size++;
+    }
+
+    private void allocatePage() {
+        if (pageCount == pages.length) pages = Arrays.copyOf(pages, pageCount * 2);
+        pages[pageCount++] = ByteBuffer.allocateDirect(PAGE << shift).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @return - value as is for integer types and raw bits for <code>double</code>
+     */
+    private long getBits(final int position) {
+        final ByteBuffer buffer = pages[position >>> PAGE_SHIFT];
+        final int index = (position & PAGE_MASK) << shift;
+        if (shift == 0) return buffer.get(index);
+        else if (shift == 1) return buffer.getShort(index);
+        else if (shift == 2) return buffer.getInt(index);
+        else return buffer.getLong(index);
+    }
+
+    public byte getByte(final int position) {
+        return pages[position >>> PAGE_SHIFT].get(position & PAGE_MASK);
+    }
+
+    public short getShort(final int position) {
+        return pages[position >>> PAGE_SHIFT].getShort((position & PAGE_MASK) << 1);
+    }
+
+    public int getInt(final int position) {
+        return pages[position >>> PAGE_SHIFT].getInt((position & PAGE_MASK) << 2);
+    }
+
+    public long getLong(final int position) {
+        return pages[position >>> PAGE_SHIFT].getLong((position & PAGE_MASK) << 3);
+    }
+
+    public double getDouble(final int position) {
+        return pages[position >>> PAGE_SHIFT].getDouble((position & PAGE_MASK) << 3);
+    }
+
+    /**
+     * @param position - position
+     * @return - value of integer column of any type, not applicable to <code>double</code>
+     */
+    public long getAsLong(final int position) {
+        return getBits(position);
+    }
+
+    /**
+     * Select positions of integer column with value from <code>min</code> to <code>max</code> (inclusive).
+     * Type of column checked once per page, not for each position.
+     *
+     * @param min    - min value (inclusive)
+     * @param max    - max value (inclusive)
+     * @param start  - first position (inclusive)
+     * @param end    - last position (exclusive)
+     * @param selOut - accepted positions
+     * @return - count of accepted positions
+     */
+    public int between(final long min, final long max, final int start, final int end, final int[] selOut) {
+        int c = 0;
+        int from = start;
+        while (from < end) {
+            final int page = from >>> PAGE_SHIFT;
+            final int to = Math.min(end, (page + 1) << PAGE_SHIFT);
+            final ByteBuffer buffer = pages[page];
+            final int base = page << PAGE_SHIFT;
+
+            if (shift == 0) {
+                for (int i = from; i < to; i++) {
+                    final byte value = buffer.get(i - base);
+                    selOut[c] = i;
+                    c += value >= min & value <= max ? 1 : 0;
+                }
+            } else if (shift == 1) {
+                for (int i = from; i < to; i++) {
+                    final short value = buffer.getShort((i - base) << 1);
+                    selOut[c] = i;
+                    c += value >= min & value <= max ? 1 : 0;
+                }
+            } else if (shift == 2) {
+                for (int i = from; i < to; i++) {
+                    final int value = buffer.getInt((i - base) << 2);
+                    selOut[c] = i;
+                    c += value >= min & value <= max ? 1 : 0;
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    final long value = buffer.getLong((i - base) << 3);
+                    selOut[c] = i;
+                    c += value >= min & value <= max ? 1 : 0;
+                }
+            }
+            from = to;
+        }
+        return c;
+    }
+
+    /**
+     * Version of {@link OffHeapData#between(long, long, int, int, int[])} for positions selected before
+     *
+     * @param min       - min value (inclusive)
+     * @param max       - max value (inclusive)
+     * @param selIn     - positions to check
+     * @param selInSize - count of positions to check
+     * @param selOut    - accepted positions, could be same as <code>selIn</code>
+     * @return - count of accepted positions
+     */
+    public int between(final long min, final long max, final int[] selIn, final int selInSize, final int[] selOut) {
+        int c = 0;
+        if (shift == 0) {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                final byte value = getByte(position);
+                selOut[c] = position;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        } else if (shift == 1) {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                final short value = getShort(position);
+                selOut[c] = position;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        } else if (shift == 2) {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                final int value = getInt(position);
+                selOut[c] = position;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                final long value = getLong(position);
+                selOut[c] = position;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Bitmap version of {@link OffHeapData#between(long, long, int, int, int[])}
+     *
+     * @param min   - min value (inclusive)
+     * @param max   - max value (inclusive)
+     * @param start - first position (inclusive), bit <code>0</code>
+     * @param end   - last position (exclusive)
+     * @param bits  - bitmap
+     */
+    public void maskBetween(final long min, final long max, final int start, final int end, final long[] bits) {
+        int from = start;
+        while (from < end) {
+            final int page = from >>> PAGE_SHIFT;
+            final int to = Math.min(end, (page + 1) << PAGE_SHIFT);
+            final ByteBuffer buffer = pages[page];
+            final int base = page << PAGE_SHIFT;
+
+            if (shift == 0) {
+                for (int i = from, j = from - start; i < to; i++, j++) {
+                    final byte value = buffer.get(i - base);
+                    bits[j >>> 6] |= (value >= min & value <= max ? 1L : 0L) << j;
+                }
+            } else if (shift == 1) {
+                for (int i = from, j = from - start; i < to; i++, j++) {
+                    final short value = buffer.getShort((i - base) << 1);
+                    bits[j >>> 6] |= (value >= min & value <= max ? 1L : 0L) << j;
+                }
+            } else if (shift == 2) {
+                for (int i = from, j = from - start; i < to; i++, j++) {
+                    final int value = buffer.getInt((i - base) << 2);
+                    bits[j >>> 6] |= (value >= min & value <= max ? 1L : 0L) << j;
+                }
+            } else {
+                for (int i = from, j = from - start; i < to; i++, j++) {
+                    final long value = buffer.getLong((i - base) << 3);
+                    bits[j >>> 6] |= (value >= min & value <= max ? 1L : 0L) << j;
+                }
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * Select positions of <code>double</code> column with value from <code>min</code> to <code>max</code>
+     * (inclusive), <code>NaN</code> is never accepted.
+     *
+     * @param min    - min value (inclusive)
+     * @param max    - max value (inclusive)
+     * @param start  - first position (inclusive)
+     * @param end    - last position (exclusive)
+     * @param selOut - accepted positions
+     * @return - count of accepted positions
+     */
+    public int betweenDouble(final double min, final double max, final int start, final int end,
+                             final int[] selOut) {
+        int c = 0;
+        int from = start;
+        while (from < end) {
+            final int page = from >>> PAGE_SHIFT;
+            final int to = Math.min(end, (page + 1) << PAGE_SHIFT);
+            final ByteBuffer buffer = pages[page];
+            final int base = page << PAGE_SHIFT;
+            for (int i = from; i < to; i++) {
+                final double value = buffer.getDouble((i - base) << 3);
+                selOut[c] = i;
+                c += value >= min & value <= max ? 1 : 0;
+            }
+            from = to;
+        }
+        return c;
+    }
+
+    /**
+     * Version of {@link OffHeapData#betweenDouble(double, double, int, int, int[])} for positions selected before
+     *
+     * @param min       - min value (inclusive)
+     * @param max       - max value (inclusive)
+     * @param selIn     - positions to check
+     * @param selInSize - count of positions to check
+     * @param selOut    - accepted positions, could be same as <code>selIn</code>
+     * @return - count of accepted positions
+     */
+    public int betweenDouble(final double min, final double max, final int[] selIn, final int selInSize,
+                             final int[] selOut) {
+        int c = 0;
+        for (int i = 0; i < selInSize; i++) {
+            final int position = selIn[i];
+            final double value = getDouble(position);
+            selOut[c] = position;
+            c += value >= min & value <= max ? 1 : 0;
+        }
+        return c;
+    }
+
+    /**
+     * Bitmap version of {@link OffHeapData#betweenDouble(double, double, int, int, int[])}
+     *
+     * @param min   - min value (inclusive)
+     * @param max   - max value (inclusive)
+     * @param start - first position (inclusive), bit <code>0</code>
+     * @param end   - last position (exclusive)
+     * @param bits  - bitmap
+     */
+    public void maskBetweenDouble(final double min, final double max, final int start, final int end,
+                                  final long[] bits) {
+        int from = start;
+        while (from < end) {
+            final int page = from >>> PAGE_SHIFT;
+            final int to = Math.min(end, (page + 1) << PAGE_SHIFT);
+            final ByteBuffer buffer = pages[page];
+            final int base = page << PAGE_SHIFT;
+            for (int i = from, j = from - start; i < to; i++, j++) {
+                final double value = buffer.getDouble((i - base) << 3);
+                bits[j >>> 6] |= (value >= min & value <= max ? 1L : 0L) << j;
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * Select positions of <code>byte</code> or <code>short</code> column with value from set, same as
+     * {@link RunLengthData#filter(BitSet, int, int, int[])}
+     *
+     * @param accepted - values indexed by <code>value &amp; 0xFFFF</code>
+     * @param start    - first position (inclusive)
+     * @param end      - last position (exclusive)
+     * @param selOut   - accepted positions
+     * @return - count of accepted positions
+     */
+    public int filter(final BitSet accepted, final int start, final int end, final int[] selOut) {
+        int c = 0;
+        int from = start;
+        while (from < end) {
+            final int page = from >>> PAGE_SHIFT;
+            final int to = Math.min(end, (page + 1) << PAGE_SHIFT);
+            final ByteBuffer buffer = pages[page];
+            final int base = page << PAGE_SHIFT;
+
+            if (shift == 0) {
+                for (int i = from; i < to; i++) {
+                    if (accepted.get(buffer.get(i - base) & 0xFFFF)) selOut[c++] = i;
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    if (accepted.get(buffer.getShort((i - base) << 1) & 0xFFFF)) selOut[c++] = i;
+                }
+            }
+            from = to;
+        }
+        return c;
+    }
+
+    /**
+     * Version of {@link OffHeapData#filter(BitSet, int, int, int[])} for positions selected before
+     *
+     * @param accepted  - values indexed by <code>value &amp; 0xFFFF</code>
+     * @param selIn     - positions to check
+     * @param selInSize - count of positions to check
+     * @param selOut    - accepted positions, could be same as <code>selIn</code>
+     * @return - count of accepted positions
+     */
+    public int filter(final BitSet accepted, final int[] selIn, final int selInSize, final int[] selOut) {
+        int c = 0;
+        if (shift == 0) {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                if (accepted.get(getByte(position) & 0xFFFF)) selOut[c++] = position;
+            }
+        } else {
+            for (int i = 0; i < selInSize; i++) {
+                final int position = selIn[i];
+                if (accepted.get(getShort(position) & 0xFFFF)) selOut[c++] = position;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Bitmap version of {@link OffHeapData#filter(BitSet, int, int, int[])}
+     *
+     * @param accepted - values indexed by <code>value &amp; 0xFFFF</code>
+     * @param start    - first position (inclusive), bit <code>0</code>
+     * @param end      - last position (exclusive)
+     * @param bits     - bitmap
+     */
+    public void mask(final BitSet accepted, final int start, final int end, final long[] bits) {
+        int from = start;
+        while (from < end) {
+            final int page = from >>> PAGE_SHIFT;
+            final int to = Math.min(end, (page + 1) << PAGE_SHIFT);
+            final ByteBuffer buffer = pages[page];
+            final int base = page << PAGE_SHIFT;
+
+            if (shift == 0) {
+                for (int i = from, j = from - start; i < to; i++, j++) {
+                    bits[j >>> 6] |= (accepted.get(buffer.get(i - base) & 0xFFFF) ? 1L : 0L) << j;
+                }
+            } else {
+                for (int i = from, j = from - start; i < to; i++, j++) {
+                    bits[j >>> 6] |= (accepted.get(buffer.getShort((i - base) << 1) & 0xFFFF) ? 1L : 0L) << j;
+                }
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * Select positions of <code>int</code> or <code>long</code> column with value from sorted values
+     *
+     * @param values - sorted values, not empty
+     * @param start  - first position (inclusive)
+     * @param end    - last position (exclusive)
+     * @param selOut - accepted positions
+     * @return - count of accepted positions
+     */
+    public int filter(final long[] values, final int start, final int end, final int[] selOut) {
+        final long first = values[0];
+        final long last = values[values.length - 1];
+        int c = 0;
+        int from = start;
+        while (from < end) {
+            final int page = from >>> PAGE_SHIFT;
+            final int to = Math.min(end, (page + 1) << PAGE_SHIFT);
+            final ByteBuffer buffer = pages[page];
+            final int base = page << PAGE_SHIFT;
+
+            if (shift == 2) {
+                for (int i = from; i < to; i++) {
+                    final long value = buffer.getInt((i - base) << 2);
+                    if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) selOut[c++] = i;
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    final long value = buffer.getLong((i - base) << 3);
+                    if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) selOut[c++] = i;
+                }
+            }
+            from = to;
+        }
+        return c;
+    }
+
+    /**
+     * Version of {@link OffHeapData#filter(long[], int, int, int[])} for positions selected before
+     *
+     * @param values    - sorted values, not empty
+     * @param selIn     - positions to check
+     * @param selInSize - count of positions to check
+     * @param selOut    - accepted positions, could be same as <code>selIn</code>
+     * @return - count of accepted positions
+     */
+    public int filter(final long[] values, final int[] selIn, final int selInSize, final int[] selOut) {
+        final long first = values[0];
+        final long last = values[values.length - 1];
+        int c = 0;
+        for (int i = 0; i < selInSize; i++) {
+            final int position = selIn[i];
+            final long value = shift == 2 ? getInt(position) : getLong(position);
+            if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) selOut[c++] = position;
+        }
+        return c;
+    }
+
+    /**
+     * Bitmap version of {@link OffHeapData#filter(long[], int, int, int[])}
+     *
+     * @param values - sorted values, not empty
+     * @param start  - first position (inclusive), bit <code>0</code>
+     * @param end    - last position (exclusive)
+     * @param bits   - bitmap
+     */
+    public void mask(final long[] values, final int start, final int end, final long[] bits) {
+        final long first = values[0];
+        final long last = values[values.length - 1];
+        int from = start;
+        while (from < end) {
+            final int page = from >>> PAGE_SHIFT;
+            final int to = Math.min(end, (page + 1) << PAGE_SHIFT);
+            final ByteBuffer buffer = pages[page];
+            final int base = page << PAGE_SHIFT;
+
+            if (shift == 2) {
+                for (int i = from, j = from - start; i < to; i++, j++) {
+                    final long value = buffer.getInt((i - base) << 2);
+                    if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) {
+                        bits[j >>> 6] |= 1L << j;
+                    }
+                }
+            } else {
+                for (int i = from, j = from - start; i < to; i++, j++) {
+                    final long value = buffer.getLong((i - base) << 3);
+                    if (first <= value && last >= value && Arrays.binarySearch(values, value) > -1) {
+                        bits[j >>> 6] |= 1L << j;
+                    }
+                }
+            }
+            from = to;
+        }
+    }
+
+    @Override
+    public int getDiskSpace() {
+        return size << shift;
+    }
+
+    @Override
+    public void save(final ByteBuffer buffer) throws IOException {
+        for (int i = 0; i < size; i++) {
+            if (shift == 0) buffer.put(getByte(i));
+            else if (shift == 1) buffer.putShort(getShort(i));
+            else if (shift == 2) buffer.putInt(getInt(i));
+            else buffer.putLong(getLong(i));
+        }
+    }
+
+    @Override
+    public void load(final String dataClass, final ByteBuffer buffer, final int size) throws IOException {
+        pages = new ByteBuffer[DEFAULT_SIZE];
+        pageCount = 0;
+        this.size = 0;
+        for (int i = 0; i < size; i++) {
+            if (shift == 0) addBits(buffer.get());
+            else if (shift == 1) addBits(buffer.getShort());
+            else if (shift == 2) addBits(buffer.getInt());
+            else addBits(buffer.getLong());
+        }
+    }
+
+    @Override
+    public Object get(final int position) {
+        if (type == byte.class) return getByte(position);
+        else if (type == short.class) return getShort(position);
+        else if (type == int.class) return getInt(position);
+        else if (type == long.class) return getLong(position);
+        else return getDouble(position);
+    }
+
+    @Override
+    public int compare(final int position1, final int position2) {
+        if (type == double.class) return Double.compare(getDouble(position1), getDouble(position2));
+        return Long.compare(getBits(position1), getBits(position2));
+    }
+
+    /**
+     * Same as for heap data of column type
+     */
+    @Override
+    public int hashCode(final int position) {
+        if (type == double.class) return (int) getDouble(position);
+        final long value = getBits(position);
+        if (type == long.class) return (int) (value ^ (value >>> 32));
+        return (int) value;
+    }
+
+    @Override
+    public void init(final int size) {
+        if (size < 0) throw new NegativeArraySizeException(Integer.toString(size));
+        pages = new ByteBuffer[DEFAULT_SIZE];
+        pageCount = 0;
+        // direct buffer filled by zeros
+        while (((long) pageCount << PAGE_SHIFT) < size) allocatePage();
+        this.size = size;
+    }
+
+    /**
+     * Pages are not moved, only array of pages trimmed
+     */
+    @Override
+    public void compact() {
+        pages = Arrays.copyOf(pages, Math.max(1, pageCount));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int allocatedSize() {
+        return pageCount << PAGE_SHIFT;
+    }
+
+    /**
+     * @return - heap and off heap memory
+     */
+    @Override
+    public long mem() {
+        return OBJECT_HEADER_BYTES + 2 * REFERENCE_BYTES + 4 * INT_BYTES
+                + (long) pages.length * REFERENCE_BYTES + ((long) pageCount << PAGE_SHIFT << shift);
+    }
+
+    @Override
+    public int inc() {
+        return inc;
+    }
+
+    @Override
+    public Data copy(final byte[] needToCopy) {
+        return new OffHeapData(this, needToCopy);
+    }
+
+    @Override
+    public Data copy(final int[] positions) {
+        return new OffHeapData(this, positions);
+    }
+
+    @Override
+    public void reorder(final int[] positions) {
+        final OffHeapData reordered = new OffHeapData(this, positions);
+        pages = reordered.pages;
+        pageCount = reordered.pageCount;
+        size = reordered.size;
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapData {type: " + type + ", size: " + size + ", pages: " + pageCount + "}";
+    }
+
+}
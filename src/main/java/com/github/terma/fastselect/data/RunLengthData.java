@@ -0,0 +1,339 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Run length encoded storage of <code>byte</code> or <code>short</code> for columns sorted or clustered
+ * by value like {@link com.github.terma.fastselect.demo.DemoData#prr}. Each run of same value in a row
+ * stored once as value and end position, so column with <code>1M</code> rows and <code>100</code> runs
+ * takes <code>600</code> bytes instead of <code>1M</code>.
+ * <p>
+ * Predicates and aggregation could work with runs directly, see
+ * {@link RunLengthData#filter(BitSet, int, int, int[])}, {@link RunLengthData#mask(BitSet, int, int, long[])}
+ * and {@link com.github.terma.fastselect.callbacks.GroupCountCallback}. Access by position is binary search
+ * of run so for not clustered column plain {@link ByteData} or {@link ShortData} is better.
+ * <p>
+ * To use that type of data field should have type <code>byte</code> or <code>short</code>
+ * and additionally marked by {@link RunLength}
+ *
+ * @see ByteData
+ * @see ShortData
+ * @since 3.2.1
+ */
+public class RunLengthData implements Data {
+
+    private final Class<?> type;
+    private final int inc;
+
+    private short[] values = new short[DEFAULT_SIZE];
+    /**
+     * Position after last row of run (exclusive), run <code>i</code> starts from <code>ends[i - 1]</code>
+     */
+    private int[] ends = new int[DEFAULT_SIZE];
+    private int runs;
+
+    /**
+     * @param type - <code>byte.class</code> or <code>short.class</code>
+     * @param inc  - not used as runs grow twice
+     */
+    public RunLengthData(final Class<?> type, final int inc) {
+        if (type != byte.class && type != short.class) {
+            throw new IllegalArgumentException("Run length supports only byte and short, but: " + type + "!");
+        }
+        this.type = type;
+        this.inc = inc;
+    }
+
+    public RunLengthData(final RunLengthData data, final byte[] needToCopy) {
+        this(data.type, data.inc);
+        final int size = Math.min(needToCopy.length, data.size());
+        int run = 0;
+        for (int i = 0; i < size; i++) {
+            while (data.ends[run] <= i) run++;
+            if (needToCopy[i] == 1) add(data.values[run]);
+        }
+    }
+
+    public RunLengthData(final RunLengthData data, final int[] positions) {
+        this(data.type, data.inc);
+        for (final int position : positions) add(data.getShort(position));
+    }
+
+    public void add(final short v) {
+        if (runs > 0 && values[runs - 1] == v) {
+            ends[runs - 1]++;
+            return;
+        }
+
+        if (runs == values.length) {
+            values = Arrays.copyOf(values, runs * 2);
+            ends = Arrays.copyOf(ends, runs * 2);
+        }
+        values[runs] = v;
+        ends[runs] = size() + 1;
+        runs++;
+    }
+
+    public short getShort(final int position) {
+        return values[run(position)];
+    }
+
+    /**
+     * @param position - from <code>0</code> to {@link RunLengthData#size()} - 1
+     * @return - index of run which contains position
+     */
+    public int run(final int position) {
+        int low = 0;
+        int high = runs - 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (ends[middle] <= position) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    public int runs() {
+        return runs;
+    }
+
+    public int runStart(final int run) {
+        return run == 0 ? 0 : ends[run - 1];
+    }
+
+    public int runEnd(final int run) {
+        return ends[run];
+    }
+
+    public short runValue(final int run) {
+        return values[run];
+    }
+
+    /**
+     * Select positions of runs which value in set. Value of run checked once and all positions
+     * of accepted run stored without check.
+     *
+     * @param accepted - values indexed by <code>value &amp; 0xFFFF</code>
+     * @param start    - first position (inclusive)
+     * @param end      - last position (exclusive)
+     * @param selOut   - accepted positions
+     * @return - count of accepted positions
+     */
+    public int filter(final BitSet accepted, final int start, final int end, final int[] selOut) {
+        int c = 0;
+        for (int run = run(start), from = start; from < end; run++) {
+            final int to = Math.min(end, ends[run]);
+            if (accepted.get(values[run] & 0xFFFF)) {
+                for (int i = from; i < to; i++) selOut[c++] = i;
+            }
+            from = to;
+        }
+        return c;
+    }
+
+    /**
+     * Same as {@link RunLengthData#filter(BitSet, int, int, int[])} for sorted positions,
+     * walks runs together with positions instead of search of run for each position.
+     *
+     * @param accepted  - values indexed by <code>value &amp; 0xFFFF</code>
+     * @param selIn     - positions to check in ascending order
+     * @param selInSize - count of positions to check
+     * @param selOut    - accepted positions, could be same as <code>selIn</code>
+     * @return - count of accepted positions
+     */
+    public int filter(final BitSet accepted, final int[] selIn, final int selInSize, final int[] selOut) {
+        if (selInSize == 0) return 0;
+        int c = 0;
+        int run = run(selIn[0]);
+        for (int i = 0; i < selInSize; i++) {
+            final int position = selIn[i];
+            while (ends[run] <= position) run++;
+            if (accepted.get(values[run] & 0xFFFF)) selOut[c++] = position;
+        }
+        return c;
+    }
+
+    /**
+     * Bitmap version of {@link RunLengthData#filter(BitSet, int, int, int[])}, sets bits of accepted
+     * run by words.
+     *
+     * @param accepted - values indexed by <code>value &amp; 0xFFFF</code>
+     * @param start    - first position (inclusive), bit <code>0</code>
+     * @param end      - last position (exclusive)
+     * @param bits     - bitmap
+     */
+    public void mask(final BitSet accepted, final int start, final int end, final long[] bits) {
+        for (int run = run(start), from = start; from < end; run++) {
+            final int to = Math.min(end, ends[run]);
+            if (accepted.get(values[run] & 0xFFFF)) setBits(bits, from - start, to - start);
+            from = to;
+        }
+    }
+
+    /**
+     * @param min - min value (inclusive)
+     * @param max - max value (inclusive)
+     * @return - set of values from min to max indexed by <code>value &amp; 0xFFFF</code> to use as
+     * accepted for {@link RunLengthData#filter(BitSet, int, int, int[])}
+     */
+    public static BitSet between(final short min, final short max) {
+        final BitSet accepted = new BitSet();
+        if (min > max) return accepted;
+        if (min < 0 && max >= 0) {
+            accepted.set(min & 0xFFFF, 0x10000);
+            accepted.set(0, max + 1);
+        } else {
+            accepted.set(min & 0xFFFF, (max & 0xFFFF) + 1);
+        }
+        return accepted;
+    }
+
+    /**
+     * @param bits - bitmap
+     * @param from - first bit to set (inclusive)
+     * @param to   - last bit to set (exclusive)
+     */
+    private static void setBits(final long[] bits, final int from, final int to) {
+        final int fromWord = from >>> 6;
+        final int toWord = (to - 1) >>> 6;
+        final long first = -1L << from;
+        final long last = -1L >>> -to;
+        if (fromWord == toWord) {
+            bits[fromWord] |= first & last;
+        } else {
+            bits[fromWord] |= first;
+            for (int w = fromWord + 1; w < toWord; w++) bits[w] = -1L;
+            bits[toWord] |= last;
+        }
+    }
+
+    @Override
+    public int getDiskSpace() {
+        return INT_BYTES + runs * (SHORT_BYTES + INT_BYTES);
+    }
+
+    /**
+     * <pre>
+     *  runs: int
+     *  values: short[runs]
+     *  ends: int[runs]
+     * </pre>
+     *
+     * @param buffer - b
+     * @throws IOException - IO exception
+     */
+    @Override
+    public void save(final ByteBuffer buffer) throws IOException {
+        buffer.putInt(runs);
+        for (int i = 0; i < runs; i++) buffer.putShort(values[i]);
+        for (int i = 0; i < runs; i++) buffer.putInt(ends[i]);
+    }
+
+    @Override
+    public void load(final String dataClass, final ByteBuffer buffer, final int size) throws IOException {
+        runs = buffer.getInt();
+        values = new short[Math.max(DEFAULT_SIZE, runs)];
+        ends = new int[values.length];
+        for (int i = 0; i < runs; i++) values[i] = buffer.getShort();
+        for (int i = 0; i < runs; i++) ends[i] = buffer.getInt();
+    }
+
+    @Override
+    public Object get(final int position) {
+        final short value = getShort(position);
+        if (type == byte.class) return (byte) value;
+        return value;
+    }
+
+    @Override
+    public int compare(final int position1, final int position2) {
+        return Short.compare(getShort(position1), getShort(position2));
+    }
+
+    @Override
+    public int hashCode(final int position) {
+        return getShort(position);
+    }
+
+    @Override
+    public void init(final int size) {
+        if (size < 0) throw new NegativeArraySizeException(Integer.toString(size));
+        values = new short[DEFAULT_SIZE];
+        ends = new int[DEFAULT_SIZE];
+        runs = 0;
+        if (size > 0) {
+            ends[0] = size;
+            runs = 1;
+        }
+    }
+
+    @Override
+    public void compact() {
+        values = Arrays.copyOf(values, Math.max(1, runs));
+        ends = Arrays.copyOf(ends, values.length);
+    }
+
+    @Override
+    public int size() {
+        return runs == 0 ? 0 : ends[runs - 1];
+    }
+
+    @Override
+    public int allocatedSize() {
+        return size();
+    }
+
+    @Override
+    public long mem() {
+        return OBJECT_HEADER_BYTES + 3 * REFERENCE_BYTES + 2 * INT_BYTES
+                + (long) values.length * (SHORT_BYTES + INT_BYTES);
+    }
+
+    @Override
+    public int inc() {
+        return inc;
+    }
+
+    @Override
+    public Data copy(final byte[] needToCopy) {
+        return new RunLengthData(this, needToCopy);
+    }
+
+    @Override
+    public Data copy(final int[] positions) {
+        return new RunLengthData(this, positions);
+    }
+
+    @Override
+    public void reorder(final int[] positions) {
+        final RunLengthData reordered = new RunLengthData(this, positions);
+        values = reordered.values;
+        ends = reordered.ends;
+        runs = reordered.runs;
+    }
+
+    @Override
+    public String toString() {
+        return "RunLengthData {type: " + type + ", size: " + size() + ", runs: " + runs + "}";
+    }
+
+}
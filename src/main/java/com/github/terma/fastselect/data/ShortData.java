@@ -46,6 +46,13 @@ public class ShortData implements Data {
         }
     }
 
+    public ShortData(ShortData data, int[] positions) {
+        this.inc = data.inc;
+        this.size = positions.length;
+        this.data = new short[positions.length];
+        for (int i = 0; i < positions.length; i++) this.data[i] = data.data[positions[i]];
+    }
+
     public void add(short v) {
         if (size == data.length) {
             data = Arrays.copyOf(data, size + inc);
@@ -123,4 +130,16 @@ public class ShortData implements Data {
         return new ShortData(this, needToCopy);
     }
 
+    @Override
+    public Data copy(int[] positions) {
+        return new ShortData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        final short[] reordered = new short[positions.length];
+        for (int i = 0; i < positions.length; i++) reordered[i] = data[positions[i]];
+        data = reordered;
+    }
+
 }
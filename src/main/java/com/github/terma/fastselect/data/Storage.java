@@ -0,0 +1,40 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.data;
+
+/**
+ * Where {@link com.github.terma.fastselect.FastSelect} keeps values of columns, selected by
+ * {@link com.github.terma.fastselect.FastSelectBuilder#storage(Storage)}
+ *
+ * @since 3.2.1
+ */
+public enum Storage {
+
+    /**
+     * Default. Arrays in heap like {@link IntData}, fastest access but whole data set
+     * is part of heap for GC
+     */
+    HEAP,
+
+    /**
+     * {@link OffHeapData} for <code>byte</code>, <code>short</code>, <code>int</code>, <code>long</code>
+     * and <code>double</code> columns without encoding like {@link BitPacked}, {@link Delta} or {@link RunLength}.
+     * Other columns stay in heap.
+     */
+    OFF_HEAP
+
+}
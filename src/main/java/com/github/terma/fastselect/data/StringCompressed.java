@@ -0,0 +1,43 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.data;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * String column with dictionary which picks width of codes automatically, see {@link StringCompressedData}
+ * <p>
+ * <code>null</code> value is returned and sorted as empty string before and after column moves to raw strings.
+ *
+ * @see com.github.terma.fastselect.StringRequest
+ * @see com.github.terma.fastselect.StringLikeRequest
+ * @since 3.2.1
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StringCompressed {
+
+    /**
+     * @return - part of distinct values in rows above which column stores raw strings instead of dictionary,
+     * see {@link StringCompressedData#setRawRatio(double)}
+     */
+    double rawRatio() default StringCompressedData.DEFAULT_RAW_RATIO;
+
+}
@@ -52,6 +52,12 @@ public class StringCompressedByteData implements Data {
         this.valueToPosition = data.valueToPosition;
     }
 
+    public StringCompressedByteData(StringCompressedByteData data, int[] positions) {
+        this.data = (ByteData) data.data.copy(positions);
+        this.values = data.values;
+        this.valueToPosition = data.valueToPosition;
+    }
+
     public Map<String, Byte> getValueToPosition() {
         return valueToPosition;
     }
@@ -167,4 +173,14 @@ public class StringCompressedByteData implements Data {
     public Data copy(byte[] needToCopy) {
         return new StringCompressedByteData(this, needToCopy);
     }
+
+    @Override
+    public Data copy(int[] positions) {
+        return new StringCompressedByteData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        data.reorder(positions);
+    }
 }
@@ -0,0 +1,390 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.data;
+
+import com.github.terma.fastselect.BloomFilter;
+import com.github.terma.fastselect.utils.IOUtils;
+import com.github.terma.fastselect.utils.Utf8Utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * String storage with dictionary where width of codes picked automatically. Column starts with
+ * <code>byte</code> codes and moves to <code>short</code> and <code>int</code> codes when count of distinct
+ * values doesn't fit, codes of values never changed so statistics of blocks built on codes stay valid.
+ * <p>
+ * When part of distinct values in rows bigger than {@link StringCompressedData#setRawRatio(double)} dictionary
+ * doesn't save memory, so column moves to {@link StringData} and stays raw.
+ * <p>
+ * To use that type of data field should have type {@link String} and additionally
+ * marked by {@link StringCompressed}
+ * <p>
+ * Column keeps <code>null</code> as separate value of dictionary but returns it as empty string, same as
+ * {@link StringData} does, so values and order of rows don't change when column moves to raw.
+ * <p>
+ * Save and load width of codes, dictionary as UTF-8 <code>byte[]</code> and codes, raw column
+ * as {@link StringData}
+ *
+ * @see StringCompressedByteData
+ * @see StringData
+ * @since 3.2.1
+ */
+public class StringCompressedData implements Data {
+
+    public static final double DEFAULT_RAW_RATIO = 0.5;
+
+    /**
+     * Raw ratio checked only when column has at least that count of rows
+     */
+    static final int RAW_CHECK_SIZE = 1024;
+
+    private static final int RAW = 0;
+
+    private static final byte[] ZERO = new byte[0];
+
+    private final int inc;
+    private final Map<String, Integer> valueToCode;
+    private final List<String> values;
+    /**
+     * {@link BloomFilter#hash(byte[])} of value by code, same as {@link StringData#hash(int)}
+     */
+    private long[] hashes;
+    private double rawRatio = DEFAULT_RAW_RATIO;
+
+    private ByteData byteCodes;
+    private ShortData shortCodes;
+    private IntData intCodes;
+    private StringData raw;
+
+    public StringCompressedData(final int inc) {
+        this.inc = inc;
+        this.valueToCode = new HashMap<>();
+        this.values = new ArrayList<>();
+        this.hashes = new long[Data.DEFAULT_SIZE];
+        this.byteCodes = new ByteData(inc);
+    }
+
+    public StringCompressedData(final StringCompressedData data, final byte[] needToCopy) {
+        this.inc = data.inc;
+        this.valueToCode = new HashMap<>(data.valueToCode);
+        this.values = new ArrayList<>(data.values);
+        this.hashes = data.hashes.clone();
+        this.rawRatio = data.rawRatio;
+        if (data.byteCodes != null) byteCodes = (ByteData) data.byteCodes.copy(needToCopy);
+        if (data.shortCodes != null) shortCodes = (ShortData) data.shortCodes.copy(needToCopy);
+        if (data.intCodes != null) intCodes = (IntData) data.intCodes.copy(needToCopy);
+        if (data.raw != null) raw = (StringData) data.raw.copy(needToCopy);
+    }
+
+    public StringCompressedData(final StringCompressedData data, final int[] positions) {
+        this.inc = data.inc;
+        this.valueToCode = new HashMap<>(data.valueToCode);
+        this.values = new ArrayList<>(data.values);
+        this.hashes = data.hashes.clone();
+        this.rawRatio = data.rawRatio;
+        if (data.byteCodes != null) byteCodes = (ByteData) data.byteCodes.copy(positions);
+        if (data.shortCodes != null) shortCodes = (ShortData) data.shortCodes.copy(positions);
+        if (data.intCodes != null) intCodes = (IntData) data.intCodes.copy(positions);
+        if (data.raw != null) raw = (StringData) data.raw.copy(positions);
+    }
+
+    /**
+     * @param rawRatio - part of distinct values in rows above which column moves to raw strings, checked
+     *                 when new value added, <code>1</code> or more to keep dictionary always
+     */
+    public void setRawRatio(final double rawRatio) {
+        this.rawRatio = rawRatio;
+    }
+
+    /**
+     * @param v - value, could be null
+     * @return - code of value or <code>-1</code> if column is raw
+     */
+    public int add(final String v) {
+        if (raw != null) {
+            raw.add(v);
+            return -1;
+        }
+
+        Integer code = valueToCode.get(v);
+        if (code == null) {
+            final int size = size();
+            if (size + 1 >= RAW_CHECK_SIZE && values.size() + 1 > rawRatio * (size + 1)) {
+                toRaw();
+                raw.add(v);
+                return -1;
+            }
+
+            code = addValue(v);
+            if (code > Short.MAX_VALUE) toInt();
+            else if (code > Byte.MAX_VALUE) toShort();
+        }
+
+        if (byteCodes != null) byteCodes.add((byte) (int) code);
+        else if (shortCodes != null) shortCodes.add((short) (int) code);
+        else intCodes.add(code);
+        return code;
+    }
+
+    private int addValue(final String v) {
+        final int code = values.size();
+        valueToCode.put(v, code);
+        values.add(v);
+        if (code == hashes.length) hashes = Arrays.copyOf(hashes, code * 2);
+        hashes[code] = BloomFilter.hash(v == null ? ZERO : Utf8Utils.stringToBytes(v));
+        return code;
+    }
+
+    private void clear() {
+        valueToCode.clear();
+        values.clear();
+        byteCodes = null;
+        shortCodes = null;
+        intCodes = null;
+        raw = null;
+    }
+
+    private void toShort() {
+        if (byteCodes == null) return;
+        final short[] codes = new short[byteCodes.data.length];
+        for (int i = 0; i < byteCodes.size; i++) codes[i] = byteCodes.data[i];
+        shortCodes = new ShortData(inc);
+        shortCodes.data = codes;
+        shortCodes.size = byteCodes.size;
+        byteCodes = null;
+    }
+
+    private void toInt() {
+        if (shortCodes == null) return;
+        final int[] codes = new int[shortCodes.data.length];
+        for (int i = 0; i < shortCodes.size; i++) codes[i] = shortCodes.data[i];
+        intCodes = new IntData(inc);
+        intCodes.data = codes;
+        intCodes.size = shortCodes.size;
+        shortCodes = null;
+    }
+
+    private void toRaw() {
+        final StringData raw = new StringData(inc);
+        for (int i = 0; i < size(); i++) raw.add(values.get(code(i)));
+        clear();
+        this.raw = raw;
+    }
+
+    /**
+     * @return - true if column stores codes of values, false if raw strings
+     */
+    public boolean coded() {
+        return raw == null;
+    }
+
+    /**
+     * @return - bytes per code: <code>1</code>, <code>2</code>, <code>4</code> or <code>0</code> if column is raw
+     */
+    public int width() {
+        if (byteCodes != null) return 1;
+        else if (shortCodes != null) return 2;
+        else if (intCodes != null) return 4;
+        else return RAW;
+    }
+
+    /**
+     * @param position - position
+     * @return - code of value, should be called only if {@link StringCompressedData#coded()}
+     */
+    public int code(final int position) {
+        if (byteCodes != null) return byteCodes.data[position];
+        else if (shortCodes != null) return shortCodes.data[position];
+        else return intCodes.data[position];
+    }
+
+    /**
+     * @param value - value
+     * @return - code of value or <code>-1</code> if value not in dictionary
+     */
+    public int code(final String value) {
+        final Integer code = valueToCode.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * @param code - code
+     * @return - value of code, <code>null</code> returned as empty string same as {@link StringData}
+     */
+    public String value(final int code) {
+        final String value = values.get(code);
+        return value == null ? "" : value;
+    }
+
+    /**
+     * @return - count of values in dictionary, <code>0</code> if column is raw
+     */
+    public int distinct() {
+        return values.size();
+    }
+
+    /**
+     * @return - raw strings or <code>null</code> if column is coded
+     */
+    public StringData raw() {
+        return raw;
+    }
+
+    /**
+     * @param position - position
+     * @return - {@link BloomFilter#hash(byte[])} of value same as {@link StringData#hash(int)}
+     */
+    public long hash(final int position) {
+        return raw != null ? raw.hash(position) : hashes[code(position)];
+    }
+
+    private Data codes() {
+        if (byteCodes != null) return byteCodes;
+        else if (shortCodes != null) return shortCodes;
+        else if (intCodes != null) return intCodes;
+        else return raw;
+    }
+
+    @Override
+    public int getDiskSpace() {
+        int space = Data.INT_BYTES;
+        if (raw == null) {
+            space += Data.INT_BYTES;
+            for (String string : values) space += IOUtils.getStringBytesSize(string);
+        }
+        return space + codes().getDiskSpace();
+    }
+
+    @Override
+    public void save(final ByteBuffer buffer) throws IOException {
+        buffer.putInt(width());
+        if (raw == null) {
+            buffer.putInt(values.size());
+            for (String string : values) IOUtils.writeString(buffer, string);
+        }
+        codes().save(buffer);
+    }
+
+    /**
+     * <pre>
+     *  width: int (0 for raw)
+     *  dictionary-size: int (only if not raw)
+     *  dictionary-string-0-size: int
+     *  dictionary-string-0-data: byte[]
+     *  ...
+     *  codes: ByteData, ShortData, IntData or StringData for raw
+     * </pre>
+     *
+     * @param buffer - b
+     * @param size   - count of elements in data (not bytes)
+     */
+    @Override
+    public void load(String dataClass, ByteBuffer buffer, int size) throws IOException {
+        final int width = buffer.getInt();
+        clear();
+        if (width == RAW) {
+            raw = new StringData(inc);
+        } else {
+            final int dictionarySize = buffer.getInt();
+            for (int i = 0; i < dictionarySize; i++) addValue(IOUtils.readString(buffer));
+            if (width == 1) byteCodes = new ByteData(inc);
+            else if (width == 2) shortCodes = new ShortData(inc);
+            else intCodes = new IntData(inc);
+        }
+        // nested data expects buffer which starts from its data
+        codes().load(dataClass, buffer.slice(), size);
+    }
+
+    @Override
+    public Object get(int position) {
+        return raw != null ? raw.get(position) : value(code(position));
+    }
+
+    @Override
+    public int compare(int position1, int position2) {
+        if (raw != null) return raw.compare(position1, position2);
+        final int code1 = code(position1);
+        final int code2 = code(position2);
+        return code1 == code2 ? 0 : value(code1).compareTo(value(code2));
+    }
+
+    @Override
+    public int hashCode(int position) {
+        return raw != null ? raw.hashCode(position) : code(position);
+    }
+
+    @Override
+    public void init(int size) {
+        clear();
+        addValue(null);
+        byteCodes = new ByteData(inc);
+        byteCodes.init(size);
+    }
+
+    @Override
+    public void compact() {
+        codes().compact();
+    }
+
+    @Override
+    public int size() {
+        return codes().size();
+    }
+
+    @Override
+    public int allocatedSize() {
+        return codes().allocatedSize();
+    }
+
+    @Override
+    public long mem() {
+        return codes().mem() + (long) hashes.length * LONG_BYTES;
+    }
+
+    @Override
+    public int inc() {
+        return inc;
+    }
+
+    @Override
+    public Data copy(byte[] needToCopy) {
+        return new StringCompressedData(this, needToCopy);
+    }
+
+    @Override
+    public Data copy(int[] positions) {
+        return new StringCompressedData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        codes().reorder(positions);
+    }
+
+    @Override
+    public String toString() {
+        return "StringCompressedData {width: " + width() + ", distinct: " + values.size() + ", size: " + size() + "}";
+    }
+
+}
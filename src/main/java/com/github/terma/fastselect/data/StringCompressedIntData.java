@@ -55,6 +55,12 @@ public class StringCompressedIntData implements Data {
         this.valueToPosition = data.valueToPosition;
     }
 
+    public StringCompressedIntData(StringCompressedIntData data, int[] positions) {
+        this.data = (IntData) data.data.copy(positions);
+        this.values = data.values;
+        this.valueToPosition = data.valueToPosition;
+    }
+
     public Map<String, Integer> getValueToPosition() {
         return valueToPosition;
     }
@@ -166,4 +172,14 @@ public class StringCompressedIntData implements Data {
     public Data copy(byte[] needToCopy) {
         return new StringCompressedIntData(this, needToCopy);
     }
+
+    @Override
+    public Data copy(int[] positions) {
+        return new StringCompressedIntData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        data.reorder(positions);
+    }
 }
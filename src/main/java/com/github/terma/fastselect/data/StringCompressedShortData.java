@@ -52,6 +52,12 @@ public class StringCompressedShortData implements Data {
         this.valueToPosition = data.valueToPosition;
     }
 
+    public StringCompressedShortData(StringCompressedShortData data, int[] positions) {
+        this.data = (ShortData) data.data.copy(positions);
+        this.values = data.values;
+        this.valueToPosition = data.valueToPosition;
+    }
+
     public Map<String, Short> getValueToPosition() {
         return valueToPosition;
     }
@@ -163,4 +169,14 @@ public class StringCompressedShortData implements Data {
     public Data copy(byte[] needToCopy) {
         return new StringCompressedShortData(this, needToCopy);
     }
+
+    @Override
+    public Data copy(int[] positions) {
+        return new StringCompressedShortData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        data.reorder(positions);
+    }
 }
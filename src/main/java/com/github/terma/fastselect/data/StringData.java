@@ -16,6 +16,8 @@ limitations under the License.
 
 package com.github.terma.fastselect.data;
 
+import com.github.terma.fastselect.BloomFilter;
+import com.github.terma.fastselect.Range;
 import com.github.terma.fastselect.utils.Utf8Utils;
 
 import java.io.IOException;
@@ -42,6 +44,10 @@ public class StringData implements Data {
         this.data = (MultiByteData) data.data.copy(needToCopy);
     }
 
+    public StringData(StringData data, int[] positions) {
+        this.data = (MultiByteData) data.data.copy(positions);
+    }
+
     public void add(String v) {
         final byte[] bytes = v == null ? ZERO : Utf8Utils.stringToBytes(v);
         data.add(bytes);
@@ -88,6 +94,22 @@ public class StringData implements Data {
         data.compact();
     }
 
+    /**
+     * @param position - position
+     * @return - {@link com.github.terma.fastselect.Range#prefix(byte[], int, int)} of value without copy
+     */
+    public long prefix(int position) {
+        return Range.prefix(data.data.data, data.getDataStart(position), data.getDataEnd(position));
+    }
+
+    /**
+     * @param position - position
+     * @return - {@link com.github.terma.fastselect.BloomFilter#hash(byte[], int, int)} of value without copy
+     */
+    public long hash(int position) {
+        return BloomFilter.hash(data.data.data, data.getDataStart(position), data.getDataEnd(position));
+    }
+
     public byte[] getRaw(int position) {
         return (byte[]) data.get(position);
     }
@@ -116,4 +138,14 @@ public class StringData implements Data {
     public Data copy(byte[] needToCopy) {
         return new StringData(this, needToCopy);
     }
+
+    @Override
+    public Data copy(int[] positions) {
+        return new StringData(this, positions);
+    }
+
+    @Override
+    public void reorder(int[] positions) {
+        data.reorder(positions);
+    }
 }
@@ -0,0 +1,46 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.jmx;
+
+/**
+ * @see com.github.terma.fastselect.AdmissionController
+ * @since 3.2.1
+ */
+public interface AdmissionControllerMXBean {
+
+    int getMaxConcurrent();
+
+    int getMaxQueue();
+
+    long getMaxWaitMsec();
+
+    int getRunning();
+
+    int getQueueDepth();
+
+    long getAdmittedCount();
+
+    long getQueuedCount();
+
+    long getRejectedCount();
+
+    long getAvgWaitMsec();
+
+    long getMaxObservedWaitMsec();
+
+}
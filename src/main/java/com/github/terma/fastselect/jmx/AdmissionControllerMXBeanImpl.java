@@ -0,0 +1,100 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.jmx;
+
+import com.github.terma.fastselect.AdmissionController;
+import com.github.terma.fastselect.FastSelect;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * @since 3.2.1
+ */
+public class AdmissionControllerMXBeanImpl implements AdmissionControllerMXBean {
+
+    private final AdmissionController admissionController;
+
+    public AdmissionControllerMXBeanImpl(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    public static AdmissionControllerMXBean register(
+            final String name, final AdmissionController admissionController) throws JMException {
+        final ObjectName objectName = new ObjectName(FastSelect.class.getPackage().getName() + ":type=" + name);
+        AdmissionControllerMXBean admissionControllerMXBean = new AdmissionControllerMXBeanImpl(admissionController);
+
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        mbs.registerMBean(admissionControllerMXBean, objectName);
+
+        return admissionControllerMXBean;
+    }
+
+    @Override
+    public int getMaxConcurrent() {
+        return admissionController.getMaxConcurrent();
+    }
+
+    @Override
+    public int getMaxQueue() {
+        return admissionController.getMaxQueue();
+    }
+
+    @Override
+    public long getMaxWaitMsec() {
+        return admissionController.getMaxWaitMsec();
+    }
+
+    @Override
+    public int getRunning() {
+        return admissionController.getRunning();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return admissionController.getQueueDepth();
+    }
+
+    @Override
+    public long getAdmittedCount() {
+        return admissionController.getAdmittedCount();
+    }
+
+    @Override
+    public long getQueuedCount() {
+        return admissionController.getQueuedCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return admissionController.getRejectedCount();
+    }
+
+    @Override
+    public long getAvgWaitMsec() {
+        return admissionController.getAvgWaitMsec();
+    }
+
+    @Override
+    public long getMaxObservedWaitMsec() {
+        return admissionController.getMaxObservedWaitMsec();
+    }
+
+}
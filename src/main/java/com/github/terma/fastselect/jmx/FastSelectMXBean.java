@@ -32,4 +32,16 @@ public interface FastSelectMXBean {
 
     List<ColumnBean> getColumns();
 
+    /**
+     * @return requests of last select in order of evaluation
+     * @since 3.2.1
+     */
+    List<String> getLastRequestOrder();
+
+    /**
+     * @return learned selectivity per kind of request
+     * @since 3.2.1
+     */
+    List<RequestStatisticsBean> getRequestStatistics();
+
 }
@@ -17,6 +17,7 @@ limitations under the License.
 package com.github.terma.fastselect.jmx;
 
 import com.github.terma.fastselect.FastSelect;
+import com.github.terma.fastselect.RequestStatistics;
 
 import javax.management.JMException;
 import javax.management.MBeanServer;
@@ -81,4 +82,18 @@ public class FastSelectMXBeanImpl implements FastSelectMXBean {
         return columnBeans;
     }
 
+    @Override
+    public List<String> getLastRequestOrder() {
+        return fastSelect.getRequestStatistics().getLastOrder();
+    }
+
+    @Override
+    public List<RequestStatisticsBean> getRequestStatistics() {
+        List<RequestStatisticsBean> beans = new ArrayList<>();
+        for (RequestStatistics.Item item : fastSelect.getRequestStatistics().getItems()) {
+            beans.add(new RequestStatisticsBean(item.key, item.cost, item.selectivity, item.checked, item.accepted));
+        }
+        return beans;
+    }
+
 }
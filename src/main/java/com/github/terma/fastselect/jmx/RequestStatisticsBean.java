@@ -0,0 +1,63 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.jmx;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * @see com.github.terma.fastselect.RequestStatistics
+ * @since 3.2.1
+ */
+public class RequestStatisticsBean {
+
+    private final String key;
+    private final int cost;
+    private final double selectivity;
+    private final long checked;
+    private final long accepted;
+
+    @ConstructorProperties({"key", "cost", "selectivity", "checked", "accepted"})
+    public RequestStatisticsBean(String key, int cost, double selectivity, long checked, long accepted) {
+        this.key = key;
+        this.cost = cost;
+        this.selectivity = selectivity;
+        this.checked = checked;
+        this.accepted = accepted;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public double getSelectivity() {
+        return selectivity;
+    }
+
+    public long getChecked() {
+        return checked;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import com.github.terma.fastselect.callbacks.CounterCallback;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+public class AdmissionControllerTest {
+
+    private static Thread acquireAndRelease(final AdmissionController controller, final int priority,
+                                            final List<Integer> admitted) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                controller.acquire(priority);
+                admitted.add(priority);
+                controller.release();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void waitQueueDepth(AdmissionController controller, int depth) throws InterruptedException {
+        while (controller.getQueueDepth() != depth) Thread.sleep(1);
+    }
+
+    @Test
+    public void admitImmediatelyUnderLimit() {
+        AdmissionController controller = new AdmissionController(2, 0, 0, TimeUnit.MILLISECONDS);
+
+        controller.acquire(QueryContext.NORMAL_PRIORITY);
+        controller.acquire(QueryContext.NORMAL_PRIORITY);
+        Assert.assertEquals(2, controller.getRunning());
+
+        controller.release();
+        controller.release();
+        Assert.assertEquals(0, controller.getRunning());
+        Assert.assertEquals(2, controller.getAdmittedCount());
+    }
+
+    @Test
+    public void rejectWhenQueueIsFull() {
+        AdmissionController controller = new AdmissionController(1, 0, 1, TimeUnit.SECONDS);
+        controller.acquire(QueryContext.NORMAL_PRIORITY);
+
+        try {
+            controller.acquire(QueryContext.NORMAL_PRIORITY);
+            Assert.fail();
+        } catch (QueryRejectedException e) {
+            // expected
+        }
+        Assert.assertEquals(1, controller.getRejectedCount());
+    }
+
+    @Test
+    public void rejectWhenWaitBudgetExpired() {
+        AdmissionController controller = new AdmissionController(1, 1, 10, TimeUnit.MILLISECONDS);
+        controller.acquire(QueryContext.NORMAL_PRIORITY);
+
+        try {
+            controller.acquire(QueryContext.NORMAL_PRIORITY);
+            Assert.fail();
+        } catch (QueryRejectedException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Wait budget 10 msec expired"));
+        }
+        Assert.assertEquals(0, controller.getQueueDepth());
+        Assert.assertEquals(1, controller.getQueuedCount());
+        Assert.assertEquals(1, controller.getRejectedCount());
+        Assert.assertEquals(1, controller.getRunning());
+    }
+
+    @Test
+    public void admitWaitingOnRelease() throws InterruptedException {
+        AdmissionController controller = new AdmissionController(1, 1, 10, TimeUnit.SECONDS);
+        controller.acquire(QueryContext.NORMAL_PRIORITY);
+        List<Integer> admitted = Collections.synchronizedList(new ArrayList<Integer>());
+
+        Thread thread = acquireAndRelease(controller, QueryContext.NORMAL_PRIORITY, admitted);
+        waitQueueDepth(controller, 1);
+        controller.release();
+        thread.join();
+
+        Assert.assertEquals(asList(QueryContext.NORMAL_PRIORITY), admitted);
+        Assert.assertEquals(0, controller.getRunning());
+        Assert.assertEquals(2, controller.getAdmittedCount());
+        Assert.assertTrue(controller.getMaxObservedWaitMsec() >= controller.getAvgWaitMsec());
+    }
+
+    @Test
+    public void admitHigherPriorityFirst() throws InterruptedException {
+        AdmissionController controller = new AdmissionController(1, 10, 10, TimeUnit.SECONDS);
+        controller.acquire(QueryContext.NORMAL_PRIORITY);
+        List<Integer> admitted = Collections.synchronizedList(new ArrayList<Integer>());
+
+        Thread low = acquireAndRelease(controller, QueryContext.LOW_PRIORITY, admitted);
+        waitQueueDepth(controller, 1);
+        Thread high = acquireAndRelease(controller, QueryContext.HIGH_PRIORITY, admitted);
+        waitQueueDepth(controller, 2);
+        controller.release();
+        low.join();
+        high.join();
+
+        Assert.assertEquals(asList(QueryContext.HIGH_PRIORITY, QueryContext.LOW_PRIORITY), admitted);
+    }
+
+    @Test
+    public void limitSelectsOfFastSelect() {
+        AdmissionController controller = new AdmissionController(1, 0, 0, TimeUnit.MILLISECONDS);
+        final FastSelect<FastSelectIntTest.TestInt> fastSelect =
+                new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).admissionController(controller).create();
+        fastSelect.addAll(asList(new FastSelectIntTest.TestInt(1), new FastSelectIntTest.TestInt(2)));
+
+        try {
+            fastSelect.select(new Request[0], new ArrayLayoutCallback() {
+                @Override
+                public void data(int position) {
+                    // second select while first is running
+                    fastSelect.select(new Request[0], new CounterCallback());
+                }
+            });
+            Assert.fail();
+        } catch (QueryRejectedException e) {
+            // expected
+        }
+
+        Assert.assertEquals(0, controller.getRunning());
+        CounterCallback counter = new CounterCallback();
+        fastSelect.select(new Request[0], counter);
+        Assert.assertEquals(2, counter.getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwExceptionIfMaxConcurrentIsNotPositive() {
+        new AdmissionController(0, 1, 1, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+public class BitmapIndexTest {
+
+    @Test
+    public void countAndPositionsOfRareValue() {
+        BitmapIndex index = new BitmapIndex();
+        index.add(5, 1);
+        index.add(-7, 2);
+        index.add(5, 1000);
+
+        Assert.assertEquals(2, index.count(5));
+        Assert.assertEquals(1, index.count(-7));
+        Assert.assertEquals(0, index.count(6));
+        Assert.assertEquals(2, index.size());
+
+        BitSet positions = new BitSet();
+        index.or(5, positions);
+        index.or(6, positions);
+        Assert.assertEquals("{1, 1000}", positions.toString());
+    }
+
+    @Test
+    public void keepPositionsWhenValueBecomeDense() {
+        BitmapIndex index = new BitmapIndex();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 10000; i += 3) {
+            index.add(1, i);
+            expected.set(i);
+        }
+
+        BitSet positions = new BitSet();
+        index.or(1, positions);
+        Assert.assertEquals(expected, positions);
+        Assert.assertEquals(expected.cardinality(), index.count(1));
+    }
+
+    @Test
+    public void orKeepsOtherPositions() {
+        BitmapIndex index = new BitmapIndex();
+        index.add(1, 10);
+
+        BitSet positions = new BitSet();
+        positions.set(3);
+        index.or(1, positions);
+        Assert.assertEquals("{3, 10}", positions.toString());
+    }
+
+}
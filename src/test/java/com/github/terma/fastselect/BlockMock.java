@@ -35,13 +35,23 @@ public class BlockMock extends Block {
         return 0;
     }
 
+    @Override
+    int start() {
+        return 0;
+    }
+
+    @Override
+    int end() {
+        return 0;
+    }
+
     @Override
     void add(List dataToAdd, int addFrom, int addTo) {
 
     }
 
     @Override
-    void select(Request[] where, ArrayLayoutCallback callback) {
+    void select(BlockScanner scanner, ArrayLayoutCallback callback) {
 
     }
 
@@ -51,7 +61,7 @@ public class BlockMock extends Block {
     }
 
     @Override
-    void select(Request[] where, ArrayLayoutLimitCallback callback) {
+    void select(BlockScanner scanner, ArrayLayoutLimitCallback callback) {
 
     }
 
@@ -0,0 +1,163 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.CounterCallback;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class BlockScannerTest {
+
+    private static final int BLOCK_SIZE = 100;
+
+    @Test
+    public void orderCheapRequestsFirstWhenNothingKnown() {
+        Request like = new StringLikeRequest("name", "x");
+        Request in = new ByteRequest("id", 1);
+
+        BlockScanner scanner = new BlockScanner(new Request[]{like, in}, BLOCK_SIZE);
+
+        Assert.assertSame(in, scanner.order()[0]);
+        Assert.assertSame(like, scanner.order()[1]);
+    }
+
+    @Test
+    public void keepOrderOfCallerForSameCostAndNoStatistics() {
+        Request first = new ModRequest("a", 1);
+        Request second = new ModRequest("b", 10);
+
+        BlockScanner scanner = new BlockScanner(new Request[]{first, second}, BLOCK_SIZE);
+
+        Assert.assertSame(first, scanner.order()[0]);
+    }
+
+    @Test
+    public void reorderBySelectivityAfterFewBlocks() {
+        Request all = new ModRequest("a", 1);
+        Request selective = new ModRequest("b", 10);
+        BlockScanner scanner = new BlockScanner(new Request[]{all, selective}, BLOCK_SIZE);
+
+        CounterCallback counter = new CounterCallback();
+        for (int block = 0; block < 16; block++) {
+            scanner.select(block * BLOCK_SIZE, (block + 1) * BLOCK_SIZE, counter);
+        }
+
+        Assert.assertEquals(160, counter.getCount());
+        Assert.assertSame(selective, scanner.order()[0]);
+        Assert.assertSame(all, scanner.order()[1]);
+    }
+
+    @Test
+    public void sameResultAfterReorder() {
+        BlockScanner scanner = new BlockScanner(
+                new Request[]{new ModRequest("a", 2), new ModRequest("b", 3), new ModRequest("c", 5)}, BLOCK_SIZE);
+
+        CounterCallback counter = new CounterCallback();
+        for (int block = 0; block < 60; block++) {
+            scanner.select(block * BLOCK_SIZE, (block + 1) * BLOCK_SIZE, counter);
+        }
+
+        Assert.assertEquals(200, counter.getCount());
+    }
+
+    @Test
+    public void reorderInBitmapMode() {
+        Request all = new NotRequest(new ModRequest("a", Integer.MAX_VALUE));
+        Request selective = new ModRequest("b", 10);
+        BlockScanner scanner = new BlockScanner(new Request[]{all, selective}, BLOCK_SIZE);
+
+        CounterCallback counter = new CounterCallback();
+        for (int block = 0; block < 16; block++) {
+            scanner.select(block * BLOCK_SIZE, (block + 1) * BLOCK_SIZE, counter);
+        }
+
+        Assert.assertEquals(159, counter.getCount());
+        Assert.assertSame(selective, scanner.order()[0]);
+    }
+
+    @Test
+    public void startWithOrderLearnedByPreviousSelect() {
+        RequestStatistics statistics = new RequestStatistics();
+        Request all = new ModRequest("a", 1);
+        Request selective = new ModRequest("b", 10);
+
+        Request[] where = new Request[]{all, selective};
+        BlockScanner scanner = new BlockScanner(where, BLOCK_SIZE, statistics);
+        scanner.select(0, BLOCK_SIZE, new CounterCallback());
+        RequestStatistics.Counters counters = new RequestStatistics.Counters(where);
+        scanner.publish(counters);
+        statistics.update(counters);
+
+        BlockScanner next = new BlockScanner(new Request[]{all, selective}, BLOCK_SIZE, statistics);
+        Assert.assertSame(selective, next.order()[0]);
+        Assert.assertEquals(2, statistics.getItems().size());
+        Assert.assertEquals(2, statistics.getLastOrder().size());
+    }
+
+    @Test
+    public void publishCountersByIndexOfRequestInWhere() {
+        Request all = new ModRequest("a", 1);
+        Request selective = new ModRequest("b", 10);
+        Request[] where = new Request[]{all, selective};
+        BlockScanner scanner = new BlockScanner(where, BLOCK_SIZE);
+        for (int block = 0; block < 16; block++) {
+            scanner.select(block * BLOCK_SIZE, (block + 1) * BLOCK_SIZE, new CounterCallback());
+        }
+        Assert.assertSame(selective, scanner.order()[0]);
+
+        RequestStatistics statistics = new RequestStatistics();
+        RequestStatistics.Counters counters = new RequestStatistics.Counters(where);
+        scanner.publish(counters);
+        statistics.update(counters);
+
+        Assert.assertEquals(1.0, statistics.selectivity(all));
+        Assert.assertTrue(statistics.selectivity(selective) < 0.2);
+        Assert.assertEquals(2, statistics.getLastOrder().size());
+    }
+
+    /**
+     * Accepts positions divisible by mod
+     */
+    private static class ModRequest extends ColumnRequest {
+
+        private final int mod;
+
+        ModRequest(String name, int mod) {
+            super(name);
+            this.mod = mod;
+        }
+
+        @Override
+        public boolean checkValue(int position) {
+            return position % mod == 0;
+        }
+
+        @Override
+        public void prepare(Map<String, FastSelect.Column> columnByNames) {
+        }
+
+        @Override
+        public String toString() {
+            return name + " % " + mod + " = 0";
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class BloomFilterTest {
+
+    @Test
+    public void containsAllAddedValues() {
+        BloomFilter bloomFilter = new BloomFilter(1000, 10);
+        Random random = new Random(1);
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong();
+            bloomFilter.add(BloomFilter.hash(values[i]));
+        }
+
+        for (long value : values) Assert.assertTrue(bloomFilter.mightContain(BloomFilter.hash(value)));
+    }
+
+    @Test
+    public void falsePositivesAroundExpectedForBitsPerValue() {
+        BloomFilter bloomFilter = new BloomFilter(10000, 10);
+        for (int i = 0; i < 10000; i++) bloomFilter.add(BloomFilter.hash(i));
+
+        int falsePositives = 0;
+        for (int i = 10000; i < 110000; i++) {
+            if (bloomFilter.mightContain(BloomFilter.hash(i))) falsePositives++;
+        }
+        Assert.assertTrue("False positives: " + falsePositives, falsePositives < 2000);
+    }
+
+    @Test
+    public void emptyFilterContainsNothing() {
+        BloomFilter bloomFilter = new BloomFilter(100, 8);
+        Assert.assertFalse(bloomFilter.mightContain(BloomFilter.hash(0)));
+        Assert.assertFalse(bloomFilter.mightContainAny(new long[]{BloomFilter.hash(1), BloomFilter.hash(2)}));
+        Assert.assertFalse(bloomFilter.mightContainAny(new long[0]));
+    }
+
+    @Test
+    public void mightContainAnyIfOneOfValuesAdded() {
+        BloomFilter bloomFilter = new BloomFilter(100, 8);
+        bloomFilter.add(BloomFilter.hash(12));
+        Assert.assertTrue(bloomFilter.mightContainAny(new long[]{BloomFilter.hash(1), BloomFilter.hash(12)}));
+    }
+
+    @Test
+    public void sizeIsPowerOfTwoAndEnoughForBitsPerValue() {
+        Assert.assertEquals(64, new BloomFilter(1, 1).size());
+        Assert.assertEquals(16384, new BloomFilter(1000, 10).size());
+        Assert.assertEquals(1024, new BloomFilter(128, 8).size());
+    }
+
+    @Test
+    public void sameHashForIntAndLongWithSameValue() {
+        int value = -12;
+        Assert.assertEquals(BloomFilter.hash(value), BloomFilter.hash((long) value));
+    }
+
+    @Test
+    public void sameHashForSameBytesInDifferentArrays() {
+        Assert.assertEquals(BloomFilter.hash(new byte[]{1, 2, 3}),
+                BloomFilter.hash(new byte[]{0, 1, 2, 3, 4}, 1, 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bitsPerValueShouldBePositive() {
+        new BloomFilter(100, 0);
+    }
+
+}
@@ -21,6 +21,7 @@ import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -44,8 +45,8 @@ public class ByteRequestTest {
         data = (ByteData) column.data;
     }
 
-    @Test(expected = IndexOutOfBoundsException.class)
-    public void checkValueDontSupportNegativeValues() {
+    @Test
+    public void checkValueSupportNegativeValues() {
         data.add(Byte.MIN_VALUE);
         data.add((byte) 0);
 
@@ -63,4 +64,21 @@ public class ByteRequestTest {
         Assert.assertEquals("ByteRequest {name: 'x', values: []}", createRequest(column).toString());
     }
 
+    @Test
+    public void filterSameAsCheckValue() {
+        data.add((byte) 0);
+        data.add((byte) 5);
+        data.add((byte) 12);
+        data.add((byte) 5);
+        ByteRequest request = createRequest(column, 5, 12);
+
+        int[] selection = new int[4];
+        Assert.assertEquals(3, request.filter(0, 4, null, 0, selection));
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2, 3}, Arrays.copyOf(selection, 3)));
+
+        selection = new int[]{0, 1, 2};
+        Assert.assertEquals(2, request.filter(0, 4, selection, 3, selection));
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2}, Arrays.copyOf(selection, 2)));
+    }
+
 }
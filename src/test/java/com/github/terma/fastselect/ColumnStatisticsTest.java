@@ -0,0 +1,99 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ColumnStatisticsTest {
+
+    @Test
+    public void emptyStatistics() {
+        ColumnStatistics statistics = ColumnStatistics.withHistogram();
+
+        Assert.assertEquals(0, statistics.getRows());
+        Assert.assertEquals(0, statistics.getDistinct());
+        Assert.assertEquals(0.0, statistics.equal(1));
+        Assert.assertEquals(0.0, statistics.between(0, 100));
+    }
+
+    @Test
+    public void distinctAroundRealCount() {
+        ColumnStatistics statistics = ColumnStatistics.withHistogram();
+        for (int i = 0; i < 100000; i++) statistics.add(i % 20000);
+
+        Assert.assertEquals(100000, statistics.getRows());
+        Assert.assertTrue("Distinct: " + statistics.getDistinct(), Math.abs(statistics.getDistinct() - 20000) < 1000);
+    }
+
+    @Test
+    public void distinctExactForSmallCount() {
+        ColumnStatistics statistics = ColumnStatistics.withDistinct();
+        for (int i = 0; i < 1000; i++) statistics.addHash(BloomFilter.hash(i % 10 + 1));
+
+        Assert.assertEquals(10, statistics.getDistinct());
+    }
+
+    @Test
+    public void exactFrequencies() {
+        ColumnStatistics statistics = ColumnStatistics.withFrequencies(Byte.MIN_VALUE);
+        for (int i = 0; i < 1000; i++) statistics.add(i % 10 == 0 ? -128 : 5);
+
+        Assert.assertEquals(0.1, statistics.equal(-128), 1e-9);
+        Assert.assertEquals(0.9, statistics.equal(5), 1e-9);
+        Assert.assertEquals(0.0, statistics.equal(6));
+        Assert.assertEquals(0.0, statistics.equal(127));
+        Assert.assertEquals(1.0, statistics.between(-128, 127), 1e-9);
+        Assert.assertEquals(0.9, statistics.between(0, 10), 1e-9);
+    }
+
+    @Test
+    public void histogramEstimatesRangeOfSkewedValues() {
+        ColumnStatistics statistics = ColumnStatistics.withHistogram();
+        Random random = new Random(1);
+        // 90% of values from 0 to 99, rest from 100 to 1000000
+        for (int i = 0; i < 100000; i++) {
+            statistics.add(i % 10 == 0 ? 100 + random.nextInt(1000000) : random.nextInt(100));
+        }
+
+        Assert.assertEquals(0.9, statistics.between(0, 99), 0.05);
+        Assert.assertEquals(0.45, statistics.between(0, 49), 0.05);
+        Assert.assertEquals(0.05, statistics.between(100, 500000), 0.03);
+        Assert.assertEquals(0.0, statistics.between(-10, -1));
+        Assert.assertEquals(0.0, statistics.between(10, 1));
+    }
+
+    @Test
+    public void equalByDistinctWithoutFrequencies() {
+        ColumnStatistics statistics = ColumnStatistics.withHistogram();
+        for (int i = 0; i < 1000; i++) statistics.add(i % 100);
+
+        Assert.assertEquals(0.01, statistics.equal(50), 0.001);
+        Assert.assertEquals(0.0, statistics.equal(100));
+    }
+
+    @Test
+    public void rangeUnknownWithoutHistogram() {
+        ColumnStatistics statistics = ColumnStatistics.withDistinct();
+        statistics.addHash(BloomFilter.hash(1));
+
+        Assert.assertEquals(-1.0, statistics.between(0, 10));
+    }
+
+}
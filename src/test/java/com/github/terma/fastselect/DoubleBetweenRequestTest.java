@@ -75,36 +75,47 @@ public class DoubleBetweenRequestTest {
         Assert.assertTrue(request.checkValue(1));
     }
 
+    private static Range range(double min, double max) {
+        return new Range(Range.sortable(min), Range.sortable(max));
+    }
+
     @Test
     public void acceptInBlockIfRangeInBetween() {
-        Range range = new Range();
-        range.min = 2;
-        range.max = 4;
-
-        Assert.assertTrue(request.checkBlock(new BlockMock(range)));
+        Assert.assertTrue(request.checkBlock(new BlockMock(range(2, 4))));
     }
 
     @Test
     public void acceptInBlockIfRangeCoverBetween() {
-        Range range = new Range();
-        range.min = 0;
-        range.max = 11;
-
-        Assert.assertTrue(request.checkBlock(new BlockMock(range)));
+        Assert.assertTrue(request.checkBlock(new BlockMock(range(0, 11))));
     }
 
     @Test
     public void acceptInBlockIfRangeCoverMin() {
-        Range range = new Range();
-        range.min = -90;
-        range.max = 1;
+        Assert.assertTrue(request.checkBlock(new BlockMock(range(-90, 1))));
+    }
 
-        Assert.assertTrue(request.checkBlock(new BlockMock(range)));
+    @Test
+    public void skipBlockIfRangeOutOfBetween() {
+        Assert.assertFalse(request.checkBlock(new BlockMock(range(-90, 0.99))));
+        Assert.assertFalse(request.checkBlock(new BlockMock(range(10.01, Double.MAX_VALUE))));
+        Assert.assertFalse(request.checkBlock(new BlockMock(new Range())));
+    }
+
+    @Test
+    public void checkBlockAllOnlyIfRangeInside() {
+        Assert.assertTrue(request.checkBlockAll(new BlockMock(range(1, 10))));
+        Assert.assertFalse(request.checkBlockAll(new BlockMock(range(0.5, 10))));
+        Assert.assertFalse(request.checkBlockAll(new BlockMock(range(1, Double.NaN))));
     }
 
     @Test
-    public void alwaysAcceptBlock() {
-        Assert.assertTrue(request.checkBlock(null));
+    public void sortableKeepOrderOfDoubles() {
+        double[] values = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -Double.MIN_VALUE, 0,
+                Double.MIN_VALUE, 1.5, Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN};
+        for (int i = 1; i < values.length; i++) {
+            Assert.assertTrue(values[i] + "", Range.sortable(values[i - 1]) < Range.sortable(values[i]));
+        }
+        Assert.assertEquals(Range.sortable(0.0), Range.sortable(-0.0));
     }
 
     @Test
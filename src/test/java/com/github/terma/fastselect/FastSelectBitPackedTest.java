@@ -0,0 +1,102 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import com.github.terma.fastselect.data.BitPacked;
+import com.github.terma.fastselect.data.BitPackedIntData;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectBitPackedTest {
+
+    private static FastSelect<Item> create() {
+        FastSelect<Item> fastSelect = new FastSelectBuilder<>(Item.class).blockSize(1000).create();
+        List<Item> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            int status = i < 5000 ? i % 17 : 1000 + i % 30;
+            data.add(new Item(status, status));
+        }
+        fastSelect.addAll(data.subList(0, 3000));
+        fastSelect.addAll(data.subList(3000, data.size()));
+        return fastSelect;
+    }
+
+    @Test
+    public void selectSameAsPlainInt() {
+        FastSelect<Item> fastSelect = create();
+        Assert.assertTrue(fastSelect.getColumnsByNames().get("status").data instanceof BitPackedIntData);
+
+        for (int[] bounds : new int[][]{{0, 5}, {16, 1005}, {1029, 1029}, {-10, 2000}, {20, 999}}) {
+            Assert.assertEquals(
+                    fastSelect.selectPositions(new Request[]{new IntBetweenRequest("plainStatus", bounds[0], bounds[1])}),
+                    fastSelect.selectPositions(new Request[]{new IntBetweenRequest("status", bounds[0], bounds[1])}));
+        }
+        Assert.assertEquals(
+                fastSelect.selectPositions(new Request[]{new IntRequest("plainStatus", 3, 1003)}),
+                fastSelect.selectPositions(new Request[]{new IntRequest("status", 3, 1003)}));
+        Assert.assertEquals(
+                fastSelect.selectPositions(new Request[]{new NotRequest(new IntBetweenRequest("plainStatus", 2, 1010))}),
+                fastSelect.selectPositions(new Request[]{new NotRequest(new IntBetweenRequest("status", 2, 1010))}));
+    }
+
+    @Test
+    public void skipBlocksByRange() {
+        QueryContext context = new QueryContext();
+        create().select(new Request[]{new IntBetweenRequest("status", 1000, 1001)}, new ArrayLayoutCallback() {
+            @Override
+            public void data(int position) {
+            }
+        }, context);
+
+        Assert.assertEquals(5, context.getSkippedBlocks());
+    }
+
+    @Test
+    public void takeLessMemoryThanPlainInt() {
+        FastSelect<Item> fastSelect = create();
+        fastSelect.compact();
+
+        long packed = fastSelect.getColumnsByNames().get("status").data.mem();
+        long plain = fastSelect.getColumnsByNames().get("plainStatus").data.mem();
+        Assert.assertTrue(packed + " vs " + plain, packed * 3 < plain);
+    }
+
+    public static class Item {
+
+        @BitPacked
+        public int status;
+        public int plainStatus;
+
+        // empty constructor for database to be able restore object
+        @SuppressWarnings("unused")
+        public Item() {
+        }
+
+        Item(int status, int plainStatus) {
+            this.status = status;
+            this.plainStatus = plainStatus;
+        }
+
+    }
+
+}
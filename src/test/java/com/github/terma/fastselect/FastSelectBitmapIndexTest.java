@@ -0,0 +1,158 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import com.github.terma.fastselect.callbacks.ArrayLayoutLimitCallback;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectBitmapIndexTest {
+
+    private static List<TestAllTypes> data() {
+        List<TestAllTypes> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            TestAllTypes item = new TestAllTypes();
+            item.byteValue = (byte) (i % 250 - 125);
+            item.shortValue = (short) (i % 3000 - 1500);
+            item.intValue = i * 7;
+            item.longValue = i % 10;
+            item.stringCompressedByteValue = "code-" + i % 120;
+            item.stringCompressedShortValue = "name-" + i % 1000;
+            item.stringCompressedIntValue = "id-" + i;
+            data.add(item);
+        }
+        return data;
+    }
+
+    private static FastSelect<TestAllTypes> create(String... indexColumns) {
+        FastSelect<TestAllTypes> fastSelect = new FastSelectBuilder<>(TestAllTypes.class)
+                .blockSize(100).bitmapIndex(indexColumns).create();
+        List<TestAllTypes> data = data();
+        fastSelect.addAll(data.subList(0, 5000));
+        fastSelect.addAll(data.subList(5000, data.size()));
+        return fastSelect;
+    }
+
+    private static List<Integer> select(FastSelect<TestAllTypes> fastSelect, Request[] where, QueryContext context) {
+        final List<Integer> positions = new ArrayList<>();
+        fastSelect.select(where, new ArrayLayoutCallback() {
+            @Override
+            public void data(int position) {
+                positions.add(position);
+            }
+        }, context);
+        return positions;
+    }
+
+    @Test
+    public void selectByIndexSameAsScan() {
+        FastSelect<TestAllTypes> indexed = create("byteValue", "shortValue", "intValue",
+                "stringCompressedByteValue", "stringCompressedShortValue", "stringCompressedIntValue");
+        FastSelect<TestAllTypes> scan = create();
+
+        for (Request[] where : asList(
+                new Request[]{new IntRequest("intValue", 0, 700, 69993, 3)},
+                new Request[]{new ByteRequest("byteValue", -125, 124)},
+                new Request[]{new ShortRequest("shortValue", -1500, 1499)},
+                new Request[]{new ShortRequest("shortValue", -1500), new LongRequest("longValue", 0)},
+                new Request[]{new OrRequest(new IntRequest("intValue", 14), new ShortRequest("shortValue", 7))},
+                new Request[]{new ShortRequest("shortValue", 1, 2), new ByteRequest("byteValue", -124, -123)},
+                new Request[]{new StringCompressedByteNoCaseLikeRequest("stringCompressedByteValue", "code-119")},
+                new Request[]{new StringCompressedShortNoCaseLikeRequest("stringCompressedShortValue", "name-999")},
+                new Request[]{new StringCompressedIntNoCaseLikeRequest("stringCompressedIntValue", "id-999")})) {
+            QueryContext context = new QueryContext();
+            List<Integer> positions = select(indexed, where, context);
+
+            Assert.assertFalse(positions.isEmpty());
+            Assert.assertEquals(scan.selectPositions(where), positions);
+            Assert.assertEquals("Select by index doesn't scan blocks", 0, context.getTotalBlocks());
+        }
+    }
+
+    @Test
+    public void scanBlocksWhenRequestNotSelective() {
+        FastSelect<TestAllTypes> indexed = create("shortValue");
+        Request[] where = {new ShortRequest("shortValue", 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+                16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33)};
+
+        QueryContext context = new QueryContext();
+        List<Integer> positions = select(indexed, where, context);
+
+        Assert.assertEquals(create().selectPositions(where), positions);
+        Assert.assertEquals(100, context.getTotalBlocks());
+    }
+
+    @Test
+    public void scanBlocksWhenOrHasRequestWithoutIndex() {
+        FastSelect<TestAllTypes> indexed = create("intValue");
+        Request[] where = {new OrRequest(new IntRequest("intValue", 7), new LongRequest("longValue", 5))};
+
+        QueryContext context = new QueryContext();
+        List<Integer> positions = select(indexed, where, context);
+
+        Assert.assertEquals(1001, positions.size());
+        Assert.assertEquals(100, context.getTotalBlocks());
+    }
+
+    @Test
+    public void selectWithLimitByIndex() {
+        FastSelect<TestAllTypes> indexed = create("shortValue");
+        final List<Integer> positions = new ArrayList<>();
+
+        indexed.select(new ArrayLayoutLimitCallback() {
+            @Override
+            public void data(int position) {
+                positions.add(position);
+            }
+
+            @Override
+            public boolean needToStop() {
+                return positions.size() == 2;
+            }
+        }, new ShortRequest("shortValue", 5));
+
+        Assert.assertEquals(asList(1505, 4505), positions);
+    }
+
+    @Test
+    public void copyWithIndex() {
+        FastSelect<TestAllTypes> copy = create("intValue").copy(new Request[]{new LongRequest("longValue", 1)});
+
+        QueryContext context = new QueryContext();
+        Assert.assertEquals(asList(1), select(copy, new Request[]{new IntRequest("intValue", 77)}, context));
+        Assert.assertEquals(0, context.getTotalBlocks());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failWhenIndexUnsupportedColumn() {
+        create("longValue");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failWhenIndexUnknownColumn() {
+        create("unknown");
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import com.github.terma.fastselect.callbacks.LimitCallback;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectBlockLevelsTest {
+
+    private static List<FastSelectIntTest.TestInt> data(int count) {
+        List<FastSelectIntTest.TestInt> data = new ArrayList<>();
+        for (int i = 0; i < count; i++) data.add(new FastSelectIntTest.TestInt(i));
+        return data;
+    }
+
+    @Test
+    public void selectSameAsOneLevel() {
+        FastSelect<FastSelectIntTest.TestInt> oneLevel =
+                new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSize(2).create();
+        FastSelect<FastSelectIntTest.TestInt> multiLevel =
+                new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSizes(100, 10, 2).create();
+        Random random = new Random(1);
+        List<FastSelectIntTest.TestInt> data = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) data.add(new FastSelectIntTest.TestInt(random.nextInt(5000)));
+        // few adds to fill not full blocks of each level
+        for (int i = 0; i < data.size(); i += 333) {
+            oneLevel.addAll(data.subList(i, Math.min(data.size(), i + 333)));
+            multiLevel.addAll(data.subList(i, Math.min(data.size(), i + 333)));
+        }
+
+        for (Request[] where : asList(
+                new Request[0],
+                new Request[]{new IntRequest("intValue", 12, 777, 4999)},
+                new Request[]{new IntBetweenRequest("intValue", 100, 2000)},
+                new Request[]{new NotRequest(new IntBetweenRequest("intValue", 100, 4900))})) {
+            Assert.assertEquals(oneLevel.selectPositions(where), multiLevel.selectPositions(where));
+        }
+        Assert.assertEquals(1000, multiLevel.size());
+    }
+
+    @Test
+    public void skipSuperBlocksWithoutScanOfDataBlocks() {
+        FastSelect<FastSelectIntTest.TestInt> fastSelect =
+                new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSizes(100, 10).create();
+        fastSelect.addAll(data(1005));
+
+        QueryContext context = new QueryContext();
+        List<Integer> positions = new ArrayList<>();
+        fastSelect.select(new Request[]{new IntRequest("intValue", 555)}, new PositionCallback(positions), context);
+
+        Assert.assertEquals(asList(555), positions);
+        Assert.assertEquals(101, context.getTotalBlocks());
+        Assert.assertEquals(101, context.getDoneBlocks());
+        Assert.assertEquals(100, context.getSkippedBlocks());
+        Assert.assertEquals(1, fastSelect.blockTouch(new ColumnRequest[]{new IntRequest("intValue", 555)}));
+    }
+
+    @Test
+    public void buildSameLevelsOnInit() {
+        FastSelect<FastSelectIntTest.TestInt> fastSelect =
+                new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSizes(100, 10).create();
+        fastSelect.addAll(data(1005));
+
+        FastSelect<FastSelectIntTest.TestInt> copy = fastSelect.copy(new Request[0]);
+
+        Assert.assertEquals(100, copy.getBlockSizes()[0]);
+        QueryContext context = new QueryContext();
+        List<Integer> positions = new ArrayList<>();
+        copy.select(new Request[]{new IntBetweenRequest("intValue", 999, 1001)}, new PositionCallback(positions), context);
+
+        Assert.assertEquals(asList(999, 1000, 1001), positions);
+        Assert.assertEquals(101, context.getTotalBlocks());
+        Assert.assertEquals(99, context.getSkippedBlocks());
+    }
+
+    @Test
+    public void selectWithLimitByMultiLevelBlocks() {
+        FastSelect<FastSelectIntTest.TestInt> fastSelect =
+                new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSizes(100, 10).create();
+        fastSelect.addAll(data(1000));
+
+        final List<FastSelectIntTest.TestInt> result = new ArrayList<>();
+        fastSelect.select(new LimitCallback<FastSelectIntTest.TestInt>() {
+            @Override
+            public void data(FastSelectIntTest.TestInt data) {
+                result.add(data);
+            }
+
+            @Override
+            public boolean needToStop() {
+                return result.size() == 2;
+            }
+        }, new IntBetweenRequest("intValue", 250, 900));
+
+        Assert.assertEquals(asList(new FastSelectIntTest.TestInt(250), new FastSelectIntTest.TestInt(251)), result);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blockSizesShouldBeDescending() {
+        new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSizes(10, 100).create();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blockSizesShouldBePositive() {
+        new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSizes(10, 0).create();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blockSizesShouldNotBeEmpty() {
+        new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSizes().create();
+    }
+
+    private static class PositionCallback implements ArrayLayoutCallback {
+
+        private final List<Integer> positions;
+
+        PositionCallback(List<Integer> positions) {
+            this.positions = positions;
+        }
+
+        @Override
+        public void data(int position) {
+            positions.add(position);
+        }
+
+    }
+
+}
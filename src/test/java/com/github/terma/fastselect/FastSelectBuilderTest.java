@@ -43,6 +43,11 @@ public class FastSelectBuilderTest {
         Assert.assertEquals(99, fastSelect.getColumns().get(0).data.inc());
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void failWhenBloomFilterBitsPerValueNegative() {
+        new FastSelectBuilder<>(DemoData.class).bloomFilter(-1).create();
+    }
+
     @Test
     public void createFastSelectWithCustomColumns() {
         FastSelect.Column column = new FastSelect.Column("prg", byte.class, 12);
@@ -116,6 +116,22 @@ public class FastSelectByteTest {
         Assert.assertEquals(singletonList(new TestIntByte(12, (byte) 0)), result);
     }
 
+    @Test
+    public void shouldSelectAndSkipBlocksByNegativeValues() {
+        FastSelect<TestIntByte> database = new FastSelectBuilder<>(TestIntByte.class).blockSize(2).create();
+        database.addAll(asList(
+                new TestIntByte(1, (byte) -1), new TestIntByte(2, (byte) 5),
+                new TestIntByte(3, Byte.MIN_VALUE), new TestIntByte(4, (byte) -100),
+                new TestIntByte(5, (byte) 0), new TestIntByte(6, (byte) 1)));
+
+        Assert.assertEquals(
+                asList(new TestIntByte(1, (byte) -1), new TestIntByte(3, Byte.MIN_VALUE)),
+                database.select(new ByteRequest("value2", -1, Byte.MIN_VALUE)));
+        Assert.assertEquals(2, database.blockTouch(new ColumnRequest[]{new ByteRequest("value2", -1, Byte.MIN_VALUE)}));
+        Assert.assertEquals(1, database.blockTouch(new ColumnRequest[]{new ByteRequest("value2", -100)}));
+        Assert.assertEquals(0, database.blockTouch(new ColumnRequest[]{new ByteRequest("value2", -2, 200)}));
+    }
+
     @Test
     public void shouldCorrectlyRestoreByteField() {
         FastSelect<TestIntByte> database = new FastSelectBuilder<>(TestIntByte.class).create();
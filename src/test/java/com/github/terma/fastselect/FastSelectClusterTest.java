@@ -0,0 +1,381 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import com.github.terma.fastselect.callbacks.GroupCountCallback;
+import com.github.terma.fastselect.data.StringCompressedByte;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectClusterTest {
+
+    private static List<Data> shuffled(int count) {
+        List<Data> data = new ArrayList<>();
+        for (int i = 0; i < count; i++) data.add(new Data(i % 100, i, "name-" + i));
+        Collections.shuffle(data, new Random(1));
+        return data;
+    }
+
+    private static FastSelect<Data> create(String... clusterBy) {
+        return new FastSelectBuilder<>(Data.class).blockSizes(100, 10).clusterBy(clusterBy).create();
+    }
+
+    @Test
+    public void addAllSortsByClusterColumns() {
+        FastSelect<Data> fastSelect = create("group", "id");
+        fastSelect.addAll(shuffled(1000));
+
+        List<Data> result = fastSelect.select();
+
+        Assert.assertTrue(fastSelect.isClustered());
+        Assert.assertEquals(1000, result.size());
+        Assert.assertEquals(new Data(0, 0, "name-0"), result.get(0));
+        Assert.assertEquals(new Data(0, 100, "name-100"), result.get(1));
+        Assert.assertEquals(new Data(99, 999, "name-999"), result.get(999));
+    }
+
+    @Test
+    public void selectSameAsNotClustered() {
+        FastSelect<Data> plain = new FastSelectBuilder<>(Data.class).blockSizes(100, 10).create();
+        FastSelect<Data> clustered = create("group");
+        List<Data> data = shuffled(1000);
+        plain.addAll(data);
+        clustered.addAll(data);
+
+        for (Request[] where : asList(
+                new Request[0],
+                new Request[]{new IntRequest("group", 5, 77)},
+                new Request[]{new IntRequest("group", 200)},
+                new Request[]{new IntBetweenRequest("group", 10, 20), new LongBetweenRequest("id", 0, 500)},
+                new Request[]{new IntBetweenRequest("group", 30, 10)},
+                new Request[]{new IntBetweenRequest("group", 0, 50), new IntBetweenRequest("group", 40, 99)},
+                new Request[]{new StringRequest("name", "name-7")})) {
+            List<Data> expected = plain.select(where);
+            List<Data> actual = clustered.select(where);
+            Collections.sort(expected);
+            Collections.sort(actual);
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void findBlocksByBinarySearch() {
+        FastSelect<Data> fastSelect = new FastSelectBuilder<>(Data.class).blockSize(10).clusterBy("id").create();
+        fastSelect.addAll(shuffled(1000));
+        AtomicInteger checks = new AtomicInteger();
+
+        QueryContext context = new QueryContext();
+        final List<Integer> positions = new ArrayList<>();
+        fastSelect.select(new Request[]{new CountingLongBetweenRequest("id", 500, 519, checks)},
+                new ArrayLayoutCallback() {
+                    @Override
+                    public void data(int position) {
+                        positions.add(position);
+                    }
+                }, context);
+
+        Assert.assertEquals(20, positions.size());
+        Assert.assertEquals(500, (int) positions.get(0));
+        // two binary searches by 100 blocks plus check of found blocks instead of check each block
+        Assert.assertTrue(checks.get() < 20);
+        Assert.assertEquals(100, context.getTotalBlocks());
+        Assert.assertEquals(100, context.getDoneBlocks());
+        Assert.assertEquals(98, context.getSkippedBlocks());
+    }
+
+    @Test
+    public void overlappedAddBreaksOrderUntilCompact() {
+        FastSelect<Data> fastSelect = create("id");
+        List<Data> data = shuffled(1000);
+        fastSelect.addAll(data.subList(0, 500));
+        fastSelect.addAll(data.subList(500, 1000));
+
+        Assert.assertFalse(fastSelect.isClustered());
+        Assert.assertEquals(20, fastSelect.select(new LongBetweenRequest("id", 500, 519)).size());
+
+        fastSelect.compact();
+
+        Assert.assertTrue(fastSelect.isClustered());
+        Assert.assertEquals(1000, fastSelect.size());
+        Assert.assertEquals(1000, fastSelect.allocatedSize());
+        Assert.assertEquals(new Data(0, 0, "name-0"), fastSelect.select().get(0));
+        Assert.assertEquals(20, fastSelect.select(new LongBetweenRequest("id", 500, 519)).size());
+        Assert.assertEquals(1, fastSelect.blockTouch(new ColumnRequest[]{new LongRequest("id", 555)}));
+    }
+
+    @Test
+    public void columnTakenBeforeCompactSeesSortedData() {
+        FastSelect<Data> fastSelect = create("id");
+        FastSelect.Column group = fastSelect.getColumnsByNames().get("group");
+        com.github.terma.fastselect.data.Data groupData = group.data;
+        List<Data> data = shuffled(1000);
+        fastSelect.addAll(data.subList(0, 500));
+        fastSelect.addAll(data.subList(500, 1000));
+        fastSelect.compact();
+
+        Assert.assertSame(group, fastSelect.getColumnsByNames().get("group"));
+        Assert.assertSame(groupData, group.data);
+        GroupCountCallback counter = new GroupCountCallback(group);
+        fastSelect.select(new Request[]{new LongBetweenRequest("id", 0, 199)}, counter);
+        Assert.assertEquals(100, counter.getCounters().size());
+        for (int value = 0; value < 100; value++) {
+            Assert.assertEquals(Integer.valueOf(2), counter.getCounters().get(value));
+        }
+    }
+
+    @Test
+    public void addInOrderKeepsClustered() {
+        FastSelect<Data> fastSelect = create("id");
+        fastSelect.addAll(asList(new Data(1, 2, "a"), new Data(1, 1, "b")));
+        fastSelect.addAll(asList(new Data(1, 3, "c")));
+
+        Assert.assertTrue(fastSelect.isClustered());
+        Assert.assertEquals(asList(new Data(1, 1, "b"), new Data(1, 2, "a"), new Data(1, 3, "c")), fastSelect.select());
+    }
+
+    @Test
+    public void copySortedData() {
+        FastSelect<Data> fastSelect = create("id");
+        List<Data> data = shuffled(100);
+        fastSelect.addAll(data.subList(0, 50));
+        fastSelect.addAll(data.subList(50, 100));
+
+        FastSelect<Data> copy = fastSelect.copy(new Request[]{new IntBetweenRequest("group", 10, 19)});
+
+        Assert.assertTrue(copy.isClustered());
+        Assert.assertEquals(asList("id"), asList(copy.getClusterBy()));
+        List<Data> result = copy.select();
+        Assert.assertEquals(10, result.size());
+        for (int i = 0; i < result.size(); i++) Assert.assertEquals(10 + i, result.get(i).id);
+    }
+
+    @Test
+    public void loadSortsData() throws IOException {
+        FastSelect<Data> plain = new FastSelectBuilder<>(Data.class).create();
+        plain.addAll(shuffled(1000));
+        File f = Files.createTempFile("a", "b").toFile();
+        FileChannel fc = new RandomAccessFile(f, "rw").getChannel();
+        plain.save(fc);
+
+        FastSelect<Data> fastSelect = create("id");
+        fc.position(0);
+        fastSelect.load(fc, 1);
+        fc.close();
+
+        Assert.assertTrue(fastSelect.isClustered());
+        List<Data> result = fastSelect.select(new LongBetweenRequest("id", 0, 9));
+        Assert.assertEquals(10, result.size());
+        for (int i = 0; i < result.size(); i++) Assert.assertEquals(i, result.get(i).id);
+    }
+
+    @Test
+    public void notClusteredByDefault() {
+        FastSelect<Data> fastSelect = new FastSelectBuilder<>(Data.class).create();
+        fastSelect.addAll(shuffled(10));
+
+        Assert.assertFalse(fastSelect.isClustered());
+        Assert.assertEquals(0, fastSelect.getClusterBy().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cantClusterByUnknownColumn() {
+        create("unknown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cantClusterByMultiValueColumn() {
+        new FastSelectBuilder<>(FastSelectMultiIntTest.Data.class).clusterBy("value").create();
+    }
+
+    private static List<Point> points() {
+        List<Point> data = new ArrayList<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 4096; i++) {
+            data.add(new Point((byte) random.nextInt(64), (short) random.nextInt(64), "tag-" + random.nextInt(4)));
+        }
+        return data;
+    }
+
+    private static ColumnRequest[] corner() {
+        return new ColumnRequest[]{
+                new ByteBetweenRequest("x", (byte) 0, (byte) 7), new ShortBetweenRequest("y", (short) 0, (short) 7)};
+    }
+
+    @Test
+    public void zOrderTouchesLessBlocksForFilterByFewColumns() {
+        FastSelect<Point> plain = new FastSelectBuilder<>(Point.class).blockSize(64).create();
+        FastSelect<Point> sorted = new FastSelectBuilder<>(Point.class).blockSize(64).clusterBy("x", "y").create();
+        FastSelect<Point> zOrder = new FastSelectBuilder<>(Point.class).blockSize(64).zOrder("x", "y").create();
+        plain.addAll(points());
+        sorted.addAll(points());
+        zOrder.addAll(points());
+
+        Assert.assertTrue(zOrder.isClustered());
+        Assert.assertEquals(64, plain.blockTouch(corner()));
+        Assert.assertTrue(sorted.blockTouch(corner()) >= 8);
+        Assert.assertTrue(zOrder.blockTouch(corner()) <= 4);
+    }
+
+    @Test
+    public void zOrderSelectSameAsNotClustered() {
+        FastSelect<Point> plain = new FastSelectBuilder<>(Point.class).blockSize(64).create();
+        FastSelect<Point> zOrder = new FastSelectBuilder<>(Point.class).blockSizes(512, 64).zOrder("x", "y", "tag").create();
+        List<Point> data = points();
+        plain.addAll(data);
+        zOrder.addAll(data.subList(0, 1000));
+        zOrder.addAll(data.subList(1000, data.size()));
+
+        Assert.assertFalse(zOrder.isClustered());
+        zOrder.compact();
+        Assert.assertTrue(zOrder.isClustered());
+
+        for (Request[] where : asList(
+                new Request[0],
+                corner(),
+                new Request[]{new ByteRequest("x", 5), new StringCompressedByteNoCaseLikeRequest("tag", "tag-1")},
+                new Request[]{new ShortBetweenRequest("y", (short) 60, (short) 63)})) {
+            List<Point> expected = plain.select(where);
+            List<Point> actual = zOrder.select(where);
+            Assert.assertEquals(expected.size(), actual.size());
+            Assert.assertTrue(actual.containsAll(expected));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cantZOrderByLongColumn() {
+        new FastSelectBuilder<>(Data.class).zOrder("group", "id").create();
+    }
+
+    private static class CountingLongBetweenRequest extends LongBetweenRequest {
+
+        private final AtomicInteger checks;
+
+        CountingLongBetweenRequest(String name, long min, long max, AtomicInteger checks) {
+            super(name, min, max);
+            this.checks = checks;
+        }
+
+        @Override
+        public boolean checkBlock(Block block) {
+            checks.incrementAndGet();
+            return super.checkBlock(block);
+        }
+
+        @Override
+        public int compareBlock(Block block) {
+            checks.incrementAndGet();
+            return super.compareBlock(block);
+        }
+
+    }
+
+    public static class Data implements Comparable<Data> {
+
+        public int group;
+        public long id;
+        public String name;
+
+        // empty constructor for database to be able restore object
+        @SuppressWarnings("unused")
+        public Data() {
+        }
+
+        Data(int group, long id, String name) {
+            this.group = group;
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public int compareTo(Data o) {
+            return Long.compare(id, o.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Data data = (Data) o;
+            return group == data.group && id == data.id && name.equals(data.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) id;
+        }
+
+        @Override
+        public String toString() {
+            return "Data {group: " + group + ", id: " + id + ", name: " + name + '}';
+        }
+
+    }
+
+    public static class Point {
+
+        public byte x;
+        public short y;
+        @StringCompressedByte
+        public String tag;
+
+        // empty constructor for database to be able restore object
+        @SuppressWarnings("unused")
+        public Point() {
+        }
+
+        Point(byte x, short y, String tag) {
+            this.x = x;
+            this.y = y;
+            this.tag = tag;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Point point = (Point) o;
+            return x == point.x && y == point.y && tag.equals(point.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * x + y;
+        }
+
+        @Override
+        public String toString() {
+            return "Point {x: " + x + ", y: " + y + ", tag: " + tag + '}';
+        }
+
+    }
+
+}
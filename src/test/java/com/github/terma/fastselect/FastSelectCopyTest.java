@@ -82,6 +82,29 @@ public class FastSelectCopyTest {
         Assert.assertEquals(fastSelect.select(doubleWhere), copy.select(doubleWhere));
     }
 
+    @Test
+    public void whenCopyShouldKeepRangesForByteAndShortColumns() {
+        FastSelect<ScalarData> fastSelect = new FastSelectBuilder<>(ScalarData.class).blockSize(2).create();
+
+        ScalarData data1 = new ScalarData();
+        data1.byteValue = 4;
+        data1.shortValue = (short) 400;
+
+        ScalarData data2 = new ScalarData();
+        data2.byteValue = -3;
+        data2.shortValue = (short) -300;
+
+        fastSelect.addAll(Arrays.asList(data1, data2));
+
+        FastSelect<ScalarData> copy = fastSelect.copy(new Request[]{});
+
+        Request[] byteWhere = new Request[]{new ByteBetweenRequest("byteValue", (byte) -5, (byte) 0)};
+        Assert.assertEquals(Arrays.asList(data2), copy.select(byteWhere));
+
+        Request[] shortWhere = new Request[]{new ShortBetweenRequest("shortValue", (short) 0, (short) 500)};
+        Assert.assertEquals(Arrays.asList(data1), copy.select(shortWhere));
+    }
+
     @Test
     public void shouldCopyArrayTypes() {
         FastSelect<ArrayData> fastSelect = new FastSelectBuilder<>(ArrayData.class).blockSize(2).create();
@@ -0,0 +1,122 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.data.Delta;
+import com.github.terma.fastselect.data.DeltaLongData;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectDeltaTest {
+
+    private static final long NOW = 1500000000000L;
+
+    private static List<Event> data() {
+        List<Event> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            // nearly sorted timestamps
+            long time = NOW + i * 10L + (i % 7) * 3;
+            data.add(new Event(time, time));
+        }
+        return data;
+    }
+
+    private static FastSelect<Event> create() {
+        FastSelect<Event> fastSelect = new FastSelectBuilder<>(Event.class).create();
+        List<Event> data = data();
+        fastSelect.addAll(data.subList(0, 3000));
+        fastSelect.addAll(data.subList(3000, data.size()));
+        return fastSelect;
+    }
+
+    private static void assertSameAsPlain(FastSelect<Event> fastSelect) {
+        for (long[] bounds : new long[][]{{NOW, NOW + 100}, {NOW + 5000, NOW + 55000}, {0, NOW + 200000},
+                {NOW + 99995, NOW + 99995}}) {
+            Assert.assertEquals(
+                    fastSelect.selectPositions(new Request[]{new LongBetweenRequest("plainTime", bounds[0], bounds[1])}),
+                    fastSelect.selectPositions(new Request[]{new LongBetweenRequest("time", bounds[0], bounds[1])}));
+        }
+        Assert.assertEquals(
+                fastSelect.selectPositions(new Request[]{new LongRequest("plainTime", NOW + 10018, NOW + 7)}),
+                fastSelect.selectPositions(new Request[]{new LongRequest("time", NOW + 10018, NOW + 7)}));
+    }
+
+    @Test
+    public void selectSameAsPlainLong() {
+        FastSelect<Event> fastSelect = create();
+        Assert.assertTrue(fastSelect.getColumnsByNames().get("time").data instanceof DeltaLongData);
+
+        assertSameAsPlain(fastSelect);
+        Assert.assertEquals(data().get(7777).time, fastSelect.select(new LongRequest("time", NOW + 77770)).get(0).time);
+    }
+
+    @Test
+    public void takeLessMemoryThanPlainLong() {
+        FastSelect<Event> fastSelect = create();
+        fastSelect.compact();
+
+        long delta = fastSelect.getColumnsByNames().get("time").data.mem();
+        long plain = fastSelect.getColumnsByNames().get("plainTime").data.mem();
+        Assert.assertTrue(delta + " vs " + plain, delta * 2 < plain);
+    }
+
+    @Test
+    public void saveLoad() throws IOException {
+        FastSelect<Event> fastSelect = create();
+        File f = Files.createTempFile("a", "b").toFile();
+        FileChannel fc = new RandomAccessFile(f, "rw").getChannel();
+        fastSelect.save(fc);
+
+        FastSelect<Event> loaded = new FastSelectBuilder<>(Event.class).create();
+        fc.position(0);
+        loaded.load(fc, 1);
+        fc.close();
+
+        Assert.assertEquals(10000, loaded.size());
+        Assert.assertEquals(2, ((DeltaLongData) loaded.getColumnsByNames().get("time").data).width(0));
+        assertSameAsPlain(loaded);
+    }
+
+    public static class Event {
+
+        @Delta
+        public long time;
+        public long plainTime;
+
+        // empty constructor for database to be able restore object
+        @SuppressWarnings("unused")
+        public Event() {
+        }
+
+        Event(long time, long plainTime) {
+            this.time = time;
+            this.plainTime = plainTime;
+        }
+
+    }
+
+}
@@ -28,6 +28,23 @@ import static java.util.Collections.singletonList;
 @SuppressWarnings("WeakerAccess")
 public class FastSelectDoubleTest {
 
+    @Test
+    public void shouldSkipBlocksOutOfBetween() {
+        FastSelect<DoubleData> database = new FastSelectBuilder<>(DoubleData.class).blockSize(2).create();
+        database.addAll(asList(
+                new DoubleData(-5.5), new DoubleData(-0.1),
+                new DoubleData(-0.0), new DoubleData(1.5),
+                new DoubleData(99.9), new DoubleData(Double.NaN)));
+
+        Assert.assertEquals(1, database.blockTouch(new ColumnRequest[]{new DoubleBetweenRequest("doubleValue", 0, 2)}));
+        Assert.assertEquals(2, database.blockTouch(new ColumnRequest[]{new DoubleBetweenRequest("doubleValue", -1, 2)}));
+        Assert.assertEquals(asList(new DoubleData(-0.0), new DoubleData(1.5)),
+                database.select(new DoubleBetweenRequest("doubleValue", 0, 2)));
+
+        FastSelect<DoubleData> copy = database.copy(new Request[0]);
+        Assert.assertEquals(1, copy.blockTouch(new ColumnRequest[]{new DoubleBetweenRequest("doubleValue", 0, 2)}));
+    }
+
     @Test
     public void shouldCorrectlyRestoreDoubleField() {
         FastSelect<DoubleData> database = new FastSelectBuilder<>(DoubleData.class).create();
@@ -0,0 +1,159 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.CounterCallback;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FastSelectEstimateTest {
+
+    private static FastSelect<TestAllTypes> create() {
+        FastSelect<TestAllTypes> fastSelect = new FastSelectBuilder<>(TestAllTypes.class).create();
+        List<TestAllTypes> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            TestAllTypes item = new TestAllTypes();
+            item.byteValue = (byte) (i % 10);
+            item.shortValue = (short) (i % 1000);
+            item.intValue = i;
+            item.longValue = i % 100;
+            item.doubleValue = i / 100.0;
+            item.stringValue = "s" + (i % 50);
+            item.stringCompressedByteValue = i % 100 == 0 ? "rare" : "often";
+            item.stringCompressedShortValue = "v" + (i % 4);
+            item.stringCompressedIntValue = "i" + (i % 2);
+            data.add(item);
+        }
+        fastSelect.addAll(data);
+        return fastSelect;
+    }
+
+    private static void assertEstimate(long expected, long actual) {
+        Assert.assertTrue("Expected around " + expected + " but " + actual,
+                Math.abs(expected - actual) <= Math.max(10, expected / 5));
+    }
+
+    @Test
+    public void estimateAllRowsWithoutRequests() {
+        Assert.assertEquals(10000, create().estimateRows());
+    }
+
+    @Test
+    public void estimateByRequestsOfEachColumnType() {
+        FastSelect<TestAllTypes> fastSelect = create();
+
+        assertEstimate(2000, fastSelect.estimateRows(new ByteRequest("byteValue", 1, 2, 2)));
+        assertEstimate(3000, fastSelect.estimateRows(new ByteBetweenRequest("byteValue", (byte) 0, (byte) 2)));
+        assertEstimate(10, fastSelect.estimateRows(new ShortRequest("shortValue", 7)));
+        assertEstimate(5000, fastSelect.estimateRows(new ShortBetweenRequest("shortValue", (short) 0, (short) 499)));
+        assertEstimate(1, fastSelect.estimateRows(new IntRequest("intValue", 77)));
+        assertEstimate(2500, fastSelect.estimateRows(new IntBetweenRequest("intValue", 0, 2499)));
+        assertEstimate(200, fastSelect.estimateRows(new LongRequest("longValue", 1, 2)));
+        assertEstimate(1000, fastSelect.estimateRows(new LongBetweenRequest("longValue", 90, 200)));
+        assertEstimate(1000, fastSelect.estimateRows(new DoubleBetweenRequest("doubleValue", 0, 9.99)));
+        assertEstimate(200, fastSelect.estimateRows(new StringRequest("stringValue", "s1")));
+        assertEstimate(600, fastSelect.estimateRows(new StringMultipleRequest("stringValue", "s1", "s2", "s3")));
+        assertEstimate(100, fastSelect.estimateRows(new StringCompressedByteNoCaseLikeRequest("stringCompressedByteValue", "rare")));
+        assertEstimate(2500, fastSelect.estimateRows(new StringCompressedShortNoCaseLikeRequest("stringCompressedShortValue", "v1")));
+        assertEstimate(5000, fastSelect.estimateRows(new StringCompressedIntNoCaseLikeRequest("stringCompressedIntValue", "i1")));
+    }
+
+    @Test
+    public void estimateCombinationOfRequests() {
+        FastSelect<TestAllTypes> fastSelect = create();
+
+        assertEstimate(100, fastSelect.estimateRows(
+                new ByteRequest("byteValue", 1), new LongBetweenRequest("longValue", 0, 9)));
+        assertEstimate(1900, fastSelect.estimateRows(
+                new OrRequest(new ByteRequest("byteValue", 1), new ByteRequest("byteValue", 2))));
+        assertEstimate(9000, fastSelect.estimateRows(new NotRequest(new ByteRequest("byteValue", 1))));
+        // like can't be estimated, so all rows
+        Assert.assertEquals(10000, fastSelect.estimateRows(new StringLikeRequest("stringValue", "s")));
+    }
+
+    @Test
+    public void estimateZeroForValuesOutOfData() {
+        FastSelect<TestAllTypes> fastSelect = create();
+
+        Assert.assertEquals(0, fastSelect.estimateRows(new ByteRequest("byteValue", 100)));
+        Assert.assertEquals(0, fastSelect.estimateRows(new IntBetweenRequest("intValue", 20000, 30000)));
+        Assert.assertEquals(0, fastSelect.estimateRows(new StringCompressedByteNoCaseLikeRequest("stringCompressedByteValue", "none")));
+    }
+
+    @Test(expected = QueryRejectedException.class)
+    public void rejectSelectWhenEstimateBiggerThanMaxRows() {
+        FastSelect<TestAllTypes> fastSelect = create();
+        fastSelect.select(new Request[]{new IntBetweenRequest("intValue", 0, 5000)}, new CounterCallback(),
+                new QueryContext().setMaxRows(1000));
+    }
+
+    @Test
+    public void executeSelectWhenEstimateLessThanMaxRows() {
+        FastSelect<TestAllTypes> fastSelect = create();
+        CounterCallback counter = new CounterCallback();
+        fastSelect.select(new Request[]{new IntBetweenRequest("intValue", 0, 99)}, counter,
+                new QueryContext().setMaxRows(1000));
+
+        Assert.assertEquals(100, counter.getCount());
+    }
+
+    @Test
+    public void orderRequestsByEstimate() {
+        FastSelect<TestAllTypes> fastSelect = create();
+        Request[] where = fastSelect.bind(new Request[]{
+                new ShortBetweenRequest("shortValue", (short) 0, (short) 998),
+                new ShortBetweenRequest("shortValue", (short) 0, (short) 5)});
+
+        BlockScanner scanner = new BlockScanner(where, fastSelect.dataBlockSize());
+
+        Assert.assertSame(where[1], scanner.order()[0]);
+    }
+
+    @Test
+    public void buildStatisticsOnLoadAndCopy() throws IOException {
+        FastSelect<TestAllTypes> fastSelect = create();
+        File f = Files.createTempFile("a", "b").toFile();
+        FileChannel fc = new RandomAccessFile(f, "rw").getChannel();
+        fastSelect.save(fc);
+
+        FastSelect<TestAllTypes> loaded = new FastSelectBuilder<>(TestAllTypes.class).create();
+        fc.position(0);
+        loaded.load(fc, 1);
+        fc.close();
+        FastSelect<TestAllTypes> copy = fastSelect.copy(new Request[0]);
+
+        for (FastSelect<TestAllTypes> other : new FastSelect[]{loaded, copy}) {
+            Assert.assertEquals(10000, other.getColumnStatistics("intValue").getRows());
+            assertEstimate(1000, other.estimateRows(new ByteRequest("byteValue", 1)));
+            assertEstimate(100, other.estimateRows(new StringCompressedByteNoCaseLikeRequest("stringCompressedByteValue", "rare")));
+        }
+    }
+
+    @Test
+    public void noStatisticsForMultiValueColumns() {
+        Assert.assertNull(create().getColumnStatistics("multiIntValue"));
+    }
+
+}
@@ -19,8 +19,13 @@ package com.github.terma.fastselect;
 import junit.framework.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -155,6 +160,74 @@ public class FastSelectIntTest {
                 database.select(new OrRequest(new IntRequest("intValue", 0), new IntRequest("intValue", 89))));
     }
 
+    @Test
+    public void shouldSelectByCombinationOfOrAndNotWithinBigBlocks() {
+        FastSelect<TestInt> database = new FastSelectBuilder<>(TestInt.class).blockSize(100).create();
+        List<TestInt> data = new ArrayList<>();
+        for (int i = 0; i < 250; i++) data.add(new TestInt(i));
+        database.addAll(data);
+
+        Assert.assertEquals(
+                asList(new TestInt(15), new TestInt(16), new TestInt(70), new TestInt(190), new TestInt(249)),
+                database.select(
+                        new OrRequest(new IntBetweenRequest("intValue", 10, 16), new IntRequest("intValue", 70, 190, 249)),
+                        new NotRequest(new IntBetweenRequest("intValue", 0, 14))));
+    }
+
+    @Test
+    public void shouldSelectByNotWhenBlockFullyAcceptedByUnderlyingRequest() {
+        FastSelect<TestInt> database = new FastSelectBuilder<>(TestInt.class).blockSize(2).create();
+        database.addAll(asList(
+                new TestInt(1),
+                new TestInt(2),
+                new TestInt(3),
+                new TestInt(4)));
+
+        Assert.assertEquals(
+                asList(new TestInt(3), new TestInt(4)),
+                database.select(new NotRequest(new IntBetweenRequest("intValue", 1, 2))));
+    }
+
+    @Test
+    public void shouldNotChangeRequestPassedToSelect() {
+        FastSelect<TestInt> database = new FastSelectBuilder<>(TestInt.class).create();
+        database.addAll(asList(new TestInt(1), new TestInt(2)));
+        IntRequest request = new IntRequest("intValue", 2);
+
+        Assert.assertEquals(singletonList(new TestInt(2)), database.select(request));
+        Assert.assertNull(request.column);
+    }
+
+    @Test
+    public void shouldExecuteSameRequestsOnDifferentInstancesConcurrently() throws Exception {
+        final FastSelect<TestInt> first = new FastSelectBuilder<>(TestInt.class).blockSize(10).create();
+        final FastSelect<TestInt> second = new FastSelectBuilder<>(TestInt.class).blockSize(10).create();
+        List<TestInt> data = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) data.add(new TestInt(i));
+        first.addAll(data);
+        second.addAll(data.subList(0, 100));
+
+        final Request[] where = {new IntRequest("intValue", 5, 500, 50), new NotRequest(new IntRequest("intValue", 50))};
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                final FastSelect<TestInt> database = i % 2 == 0 ? first : second;
+                futures.add(executorService.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        return database.select(where).size();
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Assert.assertEquals(i % 2 == 0 ? 2 : 1, (int) futures.get(i).get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
     @Test
     public void shouldCorrectlyRestoreField() {
         FastSelect<TestInt> database = new FastSelectBuilder<>(TestInt.class).create();
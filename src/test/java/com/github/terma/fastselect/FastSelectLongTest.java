@@ -19,8 +19,10 @@ package com.github.terma.fastselect;
 import junit.framework.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -135,6 +137,31 @@ public class FastSelectLongTest {
                 database.select());
     }
 
+    @Test
+    public void shouldSkipBlocksByBloomFilterWhenValuesRandom() {
+        FastSelect<TestLong> database = new FastSelectBuilder<>(TestLong.class).blockSize(100).bloomFilter(10).create();
+        Random random = new Random(1);
+        List<TestLong> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) data.add(new TestLong(random.nextLong()));
+        database.addAll(data);
+
+        long value = data.get(5555).longValue;
+        Assert.assertTrue(database.blockTouch(new ColumnRequest[]{new LongRequest("longValue", value)}) < 5);
+        Assert.assertEquals(singletonList(new TestLong(value)), database.select(new LongRequest("longValue", value)));
+    }
+
+    @Test
+    public void shouldNotSkipBlocksByRangeOnlyWhenBloomFilterDisabled() {
+        FastSelect<TestLong> database = new FastSelectBuilder<>(TestLong.class).blockSize(100).create();
+        Random random = new Random(1);
+        List<TestLong> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) data.add(new TestLong(random.nextLong()));
+        database.addAll(data);
+
+        long value = data.get(5555).longValue;
+        Assert.assertTrue(database.blockTouch(new ColumnRequest[]{new LongRequest("longValue", value)}) > 50);
+    }
+
     public static class TestLong {
         public long longValue;
 
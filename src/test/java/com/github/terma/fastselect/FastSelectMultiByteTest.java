@@ -108,6 +108,21 @@ public class FastSelectMultiByteTest {
         ));
     }
 
+    @Test
+    public void skipBlocksWithoutValues() {
+        FastSelect<Data> database = new FastSelectBuilder<>(Data.class).blockSize(2).create();
+        database.addAll(asList(
+                new Data((byte) 1, (byte) 2), new Data((byte) 3),
+                new Data((byte) -1, Byte.MIN_VALUE), new Data(new byte[0]),
+                new Data((byte) 1), new Data((byte) 5)));
+
+        assertEquals(2, database.blockTouch(new ColumnRequest[]{new MultiByteRequest("value", (byte) 1)}));
+        assertEquals(1, database.blockTouch(new ColumnRequest[]{new MultiByteRequest("value", Byte.MIN_VALUE)}));
+        assertEquals(0, database.blockTouch(new ColumnRequest[]{new MultiByteRequest("value", (byte) -2, (byte) 4)}));
+        assertEquals(singletonList(new Data((byte) -1, Byte.MIN_VALUE)),
+                database.select(new MultiByteRequest("value", Byte.MIN_VALUE)));
+    }
+
     public static class Data {
 
         public byte[] value;
@@ -0,0 +1,115 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectMultiIntTest {
+
+    @Test
+    public void selectByValues() {
+        FastSelect<Data> database = new FastSelectBuilder<>(Data.class).blockSize(1).create();
+        database.addAll(asList(
+                new Data(Integer.MIN_VALUE, 0),
+                new Data(12),
+                new Data(new int[0]),
+                new Data(Integer.MAX_VALUE, 12)));
+
+        assertEquals(asList(new Data(12), new Data(Integer.MAX_VALUE, 12)),
+                database.select(new MultiIntRequest("value", 12)));
+        assertEquals(asList(new Data(Integer.MIN_VALUE, 0), new Data(Integer.MAX_VALUE, 12)),
+                database.select(new MultiIntRequest("value", Integer.MAX_VALUE, Integer.MIN_VALUE)));
+    }
+
+    @Test
+    public void skipBlocksOutOfRangeOfElements() {
+        FastSelect<Data> database = new FastSelectBuilder<>(Data.class).blockSize(2).create();
+        database.addAll(asList(
+                new Data(1, 5), new Data(3),
+                new Data(10, 20), new Data(new int[0]),
+                new Data(-5), new Data(-3)));
+
+        assertEquals(1, database.blockTouch(new ColumnRequest[]{new MultiIntRequest("value", 4)}));
+        assertEquals(2, database.blockTouch(new ColumnRequest[]{new MultiIntRequest("value", 4, 15)}));
+        assertEquals(1, database.blockTouch(new ColumnRequest[]{new MultiIntRequest("value", -4)}));
+        assertEquals(0, database.blockTouch(new ColumnRequest[]{new MultiIntRequest("value", 7, 25, 31)}));
+        assertEquals(0, database.blockTouch(new ColumnRequest[]{new MultiIntRequest("value")}));
+    }
+
+    @Test
+    public void skipBlocksByBloomFilterWhenTagsRandom() {
+        // two tags per row so twice more bits
+        FastSelect<Data> database = new FastSelectBuilder<>(Data.class).blockSize(100).bloomFilter(20).create();
+        Random random = new Random(1);
+        List<Data> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) data.add(new Data(random.nextInt(), random.nextInt()));
+        database.addAll(data);
+
+        int tag = data.get(4321).value[1];
+        assertTrue(database.blockTouch(new ColumnRequest[]{new MultiIntRequest("value", tag)}) < 5);
+        assertEquals(singletonList(data.get(4321)), database.select(new MultiIntRequest("value", tag)));
+
+        // statistics built by init same way as by add
+        FastSelect<Data> copy = database.copy(new Request[0]);
+        assertTrue(copy.blockTouch(new ColumnRequest[]{new MultiIntRequest("value", tag)}) < 5);
+        assertEquals(singletonList(data.get(4321)), copy.select(new MultiIntRequest("value", tag)));
+    }
+
+    public static class Data {
+
+        public int[] value;
+
+        @SuppressWarnings("unused")
+        public Data() {
+        }
+
+        Data(int... value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "{" + "value=" + Arrays.toString(value) + '}';
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Data that = (Data) o;
+            return Arrays.equals(value, that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(value);
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.GroupCountCallback;
+import com.github.terma.fastselect.data.IntData;
+import com.github.terma.fastselect.data.OffHeapData;
+import com.github.terma.fastselect.data.Storage;
+import com.github.terma.fastselect.data.StringData;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectOffHeapTest {
+
+    private static List<Item> data() {
+        Random random = new Random(11);
+        List<Item> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            data.add(new Item((byte) random.nextInt(20), (short) (random.nextInt(2000) - 1000),
+                    random.nextInt(5000), random.nextLong() / 1000, random.nextDouble() * 100, "n" + i % 13));
+        }
+        return data;
+    }
+
+    private static FastSelect<Item> create(Storage storage) {
+        FastSelect<Item> fastSelect = new FastSelectBuilder<>(Item.class).blockSize(1000)
+                .bloomFilter(10).bitmapIndex("b", "i").storage(storage).create();
+        List<Item> data = data();
+        fastSelect.addAll(data.subList(0, 3000));
+        fastSelect.addAll(data.subList(3000, data.size()));
+        return fastSelect;
+    }
+
+    private static void assertSameAsHeap(FastSelect<Item> fastSelect) {
+        FastSelect<Item> heap = create(Storage.HEAP);
+        Item item = data().get(4321);
+        Request[][] wheres = new Request[][]{
+                {new ByteRequest("b", 3, 7)},
+                {new ByteBetweenRequest("b", (byte) 2, (byte) 9)},
+                {new ShortRequest("s", item.s, 0)},
+                {new ShortBetweenRequest("s", (short) -300, (short) 450)},
+                {new IntRequest("i", item.i)},
+                {new IntBetweenRequest("i", 100, 2500)},
+                {new LongRequest("l", item.l)},
+                {new LongBetweenRequest("l", -Long.MAX_VALUE / 5000, Long.MAX_VALUE / 3000)},
+                {new DoubleBetweenRequest("d", 10.5, 40)},
+                {new IntBetweenRequest("i", 100, 2500), new ShortBetweenRequest("s", (short) 0, (short) 999)},
+                {new NotRequest(new LongBetweenRequest("l", 0, Long.MAX_VALUE))},
+                {new OrRequest(new ByteRequest("b", 1), new DoubleBetweenRequest("d", 0, 5))},
+                {new IntBetweenRequest("i", 0, 4000), new ByteRequest("b", 3, 7)},
+                {new IntBetweenRequest("i", 0, 4000), new ByteBetweenRequest("b", (byte) 2, (byte) 9)},
+                {new IntBetweenRequest("i", 0, 4000), new ShortRequest("s", item.s, 0)},
+                {new DoubleBetweenRequest("d", 0, 80), new IntRequest("i", item.i, 7, 100)},
+                {new DoubleBetweenRequest("d", 0, 80), new LongRequest("l", item.l)},
+                {new IntBetweenRequest("i", 0, 4000), new DoubleBetweenRequest("d", 10.5, 40)},
+                {new NotRequest(new ByteRequest("b", 3, 7))},
+                {new NotRequest(new ByteBetweenRequest("b", (byte) 2, (byte) 9))},
+                {new NotRequest(new ShortRequest("s", item.s, 0))},
+                {new NotRequest(new ShortBetweenRequest("s", (short) -300, (short) 450))},
+                {new NotRequest(new IntRequest("i", item.i))},
+                {new NotRequest(new IntBetweenRequest("i", 100, 2500))},
+                {new NotRequest(new LongRequest("l", item.l))},
+                {new NotRequest(new DoubleBetweenRequest("d", 10.5, 40))}
+        };
+        for (Request[] where : wheres) {
+            Assert.assertEquals(where[0].toString(), heap.selectPositions(where), fastSelect.selectPositions(where));
+        }
+        Assert.assertEquals(item.l, fastSelect.select(new LongRequest("l", item.l)).get(0).l);
+    }
+
+    @Test
+    public void keepPrimitiveColumnsOffHeap() {
+        FastSelect<Item> fastSelect = create(Storage.OFF_HEAP);
+        for (String name : new String[]{"b", "s", "i", "l", "d"}) {
+            Assert.assertTrue(name, fastSelect.getColumnsByNames().get(name).data instanceof OffHeapData);
+        }
+        Assert.assertTrue(fastSelect.getColumnsByNames().get("name").data instanceof StringData);
+        Assert.assertTrue(create(Storage.HEAP).getColumnsByNames().get("i").data instanceof IntData);
+    }
+
+    @Test
+    public void selectSameAsHeap() {
+        assertSameAsHeap(create(Storage.OFF_HEAP));
+    }
+
+    @Test
+    public void restoreObjects() {
+        List<Item> expected = data();
+        List<Item> actual = create(Storage.OFF_HEAP).select();
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) Assert.assertEquals(expected.get(i), actual.get(i));
+    }
+
+    @Test
+    public void groupCountSameAsHeap() {
+        FastSelect<Item> heap = create(Storage.HEAP);
+        FastSelect<Item> offHeap = create(Storage.OFF_HEAP);
+        Request[] where = new Request[]{new IntBetweenRequest("i", 0, 1000)};
+
+        GroupCountCallback expected = new GroupCountCallback(heap.getColumnsByNames().get("s"));
+        heap.select(where, expected);
+        GroupCountCallback actual = new GroupCountCallback(offHeap.getColumnsByNames().get("s"));
+        offHeap.select(where, actual);
+        Assert.assertEquals(expected.getCounters(), actual.getCounters());
+    }
+
+    @Test
+    public void loadSavedByHeap() throws IOException {
+        File f = Files.createTempFile("a", "b").toFile();
+        FileChannel fc = new RandomAccessFile(f, "rw").getChannel();
+        create(Storage.HEAP).save(fc);
+
+        FastSelect<Item> loaded = new FastSelectBuilder<>(Item.class).blockSize(1000)
+                .bloomFilter(10).bitmapIndex("b", "i").storage(Storage.OFF_HEAP).create();
+        fc.position(0);
+        loaded.load(fc, 1);
+        fc.close();
+
+        Assert.assertEquals(10000, loaded.size());
+        Assert.assertTrue(loaded.getColumnsByNames().get("l").data instanceof OffHeapData);
+        assertSameAsHeap(loaded);
+    }
+
+    @Test
+    public void clusterSameAsHeap() {
+        FastSelect<Item> heap = new FastSelectBuilder<>(Item.class).clusterBy("i", "l").create();
+        heap.addAll(data());
+        FastSelect<Item> offHeap = new FastSelectBuilder<>(Item.class).clusterBy("i", "l").storage(Storage.OFF_HEAP).create();
+        offHeap.addAll(data());
+
+        Request[] where = new Request[]{new IntBetweenRequest("i", 700, 800)};
+        Assert.assertEquals(heap.selectPositions(where), offHeap.selectPositions(where));
+        Assert.assertEquals(heap.select(where), offHeap.select(where));
+    }
+
+    public static class Item {
+
+        public byte b;
+        public short s;
+        public int i;
+        public long l;
+        public double d;
+        public String name;
+
+        // empty constructor for database to be able restore object
+        @SuppressWarnings("unused")
+        public Item() {
+        }
+
+        Item(byte b, short s, int i, long l, double d, String name) {
+            this.b = b;
+            this.s = s;
+            this.i = i;
+            this.l = l;
+            this.d = d;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Item item = (Item) o;
+            return b == item.b && s == item.s && i == item.i && l == item.l
+                    && Double.compare(item.d, d) == 0 && name.equals(item.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return i;
+        }
+
+        @Override
+        public String toString() {
+            return "Item {b: " + b + ", s: " + s + ", i: " + i + ", l: " + l + ", d: " + d + ", name: " + name + '}';
+        }
+
+    }
+
+}
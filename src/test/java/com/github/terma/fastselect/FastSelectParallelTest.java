@@ -0,0 +1,227 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallbackFactory;
+import com.github.terma.fastselect.callbacks.CounterCallback;
+import com.github.terma.fastselect.callbacks.GroupCountCallback;
+import com.github.terma.fastselect.callbacks.MultiGroupCountCallback;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectParallelTest {
+
+    private static FastSelect<TestData> createFastSelect(int blockSize, int count) {
+        FastSelect<TestData> fastSelect = new FastSelectBuilder<>(TestData.class).blockSize(blockSize).create();
+        List<TestData> data = new ArrayList<>();
+        for (int i = 0; i < count; i++) data.add(new TestData((byte) (i % 7), i));
+        fastSelect.addAll(data);
+        return fastSelect;
+    }
+
+    private static ArrayLayoutCallbackFactory<PositionsCallback> positionsFactory() {
+        return new ArrayLayoutCallbackFactory<PositionsCallback>() {
+            @Override
+            public PositionsCallback create() {
+                return new PositionsCallback();
+            }
+
+            @Override
+            public void merge(PositionsCallback target, PositionsCallback source) {
+                target.positions.addAll(source.positions);
+            }
+        };
+    }
+
+    @Test
+    public void selectFromEmpty() {
+        FastSelect<TestData> fastSelect = createFastSelect(10, 0);
+
+        PositionsCallback result = fastSelect.select(new Request[0], positionsFactory(), 4);
+
+        Assert.assertEquals(0, result.positions.size());
+    }
+
+    @Test
+    public void selectAllInSameOrderAsSequential() {
+        FastSelect<TestData> fastSelect = createFastSelect(10, 1000);
+
+        PositionsCallback result = fastSelect.select(new Request[0], positionsFactory(), 4);
+
+        Assert.assertEquals(fastSelect.selectPositions(new Request[0]), result.positions);
+    }
+
+    @Test
+    public void publishRequestStatisticsOfAllWorkersOnce() {
+        FastSelect<TestData> fastSelect = createFastSelect(10, 1000);
+
+        fastSelect.select(new Request[]{new ByteRequest("group", 1)}, positionsFactory(), 4);
+
+        List<RequestStatistics.Item> items = fastSelect.getRequestStatistics().getItems();
+        Assert.assertEquals(1, items.size());
+        Assert.assertEquals("ByteRequest(group)", items.get(0).key);
+        Assert.assertEquals(1000, items.get(0).checked);
+        Assert.assertEquals(143, items.get(0).accepted);
+        Assert.assertEquals(1, fastSelect.getRequestStatistics().getLastOrder().size());
+    }
+
+    @Test
+    public void selectWithWhereSameAsSequential() {
+        FastSelect<TestData> fastSelect = createFastSelect(3, 1000);
+        Request[] where = new Request[]{new ByteRequest("group", 1, 5), new IntBetweenRequest("value", 100, 800)};
+
+        PositionsCallback result = fastSelect.select(where, positionsFactory(), 3);
+
+        Assert.assertEquals(fastSelect.selectPositions(where), result.positions);
+    }
+
+    @Test
+    public void selectWithWhereByMultiLevelBlocksSameAsSequential() {
+        FastSelect<TestData> fastSelect = new FastSelectBuilder<>(TestData.class).blockSizes(100, 10, 3).create();
+        List<TestData> data = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) data.add(new TestData((byte) (i % 7), i));
+        fastSelect.addAll(data);
+        Request[] where = new Request[]{new ByteRequest("group", 1, 5), new IntBetweenRequest("value", 105, 333)};
+
+        PositionsCallback result = fastSelect.select(where, positionsFactory(), 3);
+
+        Assert.assertEquals(fastSelect.selectPositions(where), result.positions);
+        Assert.assertEquals(65, result.positions.size());
+    }
+
+    @Test
+    public void selectWhenParallelismBiggerThanBlocks() {
+        FastSelect<TestData> fastSelect = createFastSelect(1000, 10);
+
+        PositionsCallback result = fastSelect.select(new Request[0], positionsFactory(), 8);
+
+        Assert.assertEquals(10, result.positions.size());
+    }
+
+    @Test
+    public void groupCountWithSharedPool() {
+        final FastSelect<TestData> fastSelect = createFastSelect(10, 1000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        GroupCountCallback result = fastSelect.select(new Request[]{new IntBetweenRequest("value", 0, 699)},
+                new ArrayLayoutCallbackFactory<GroupCountCallback>() {
+                    @Override
+                    public GroupCountCallback create() {
+                        return new GroupCountCallback(fastSelect.getColumnsByNames().get("group"));
+                    }
+
+                    @Override
+                    public void merge(GroupCountCallback target, GroupCountCallback source) {
+                        for (Map.Entry<Integer, Integer> e : source.getCounters().entrySet()) {
+                            Integer c = target.getCounters().get(e.getKey());
+                            target.getCounters().put(e.getKey(), c == null ? e.getValue() : c + e.getValue());
+                        }
+                    }
+                }, pool);
+        pool.shutdown();
+
+        GroupCountCallback expected = new GroupCountCallback(fastSelect.getColumnsByNames().get("group"));
+        fastSelect.select(new Request[]{new IntBetweenRequest("value", 0, 699)}, expected);
+        Assert.assertEquals(expected.getCounters(), result.getCounters());
+    }
+
+    @Test
+    public void countInParallel() {
+        FastSelect<TestData> fastSelect = createFastSelect(7, 10000);
+
+        CounterCallback result = new CounterCallback();
+        fastSelect.select(new Request[]{new ByteRequest("group", 3)}, result, 4);
+
+        Assert.assertEquals(1429, result.getCount());
+    }
+
+    @Test
+    public void groupCountByMergeableCallback() {
+        FastSelect<TestData> fastSelect = createFastSelect(10, 1000);
+        Request[] where = new Request[]{new IntBetweenRequest("value", 100, 799)};
+
+        GroupCountCallback result = new GroupCountCallback(fastSelect.getColumnsByNames().get("group"));
+        fastSelect.select(where, result, 4);
+
+        GroupCountCallback expected = new GroupCountCallback(fastSelect.getColumnsByNames().get("group"));
+        fastSelect.select(where, expected);
+        Assert.assertEquals(expected.getCounters(), result.getCounters());
+    }
+
+    @Test
+    public void multiGroupCountByMergeableCallbackAndSharedPool() {
+        FastSelect<TestData> fastSelect = createFastSelect(10, 1000);
+        Request[] where = new Request[]{new ByteRequest("group", 1, 2, 3)};
+        ForkJoinPool pool = new ForkJoinPool(3);
+
+        MultiGroupCountCallback result = new MultiGroupCountCallback(
+                fastSelect.getColumnsByNames().get("group"), fastSelect.getColumnsByNames().get("value"));
+        fastSelect.select(where, result, pool);
+        pool.shutdown();
+
+        MultiGroupCountCallback expected = new MultiGroupCountCallback(
+                fastSelect.getColumnsByNames().get("group"), fastSelect.getColumnsByNames().get("value"));
+        fastSelect.select(where, expected);
+        Assert.assertEquals(expected.getCounters(), result.getCounters());
+    }
+
+    @Test
+    public void mergeToCallbackWithExistentResult() {
+        FastSelect<TestData> fastSelect = createFastSelect(10, 1000);
+
+        CounterCallback result = new CounterCallback();
+        fastSelect.select(new Request[0], result);
+        fastSelect.select(new Request[0], result, 2);
+
+        Assert.assertEquals(2000, result.getCount());
+    }
+
+    static class PositionsCallback implements ArrayLayoutCallback {
+
+        final List<Integer> positions = new ArrayList<>();
+
+        @Override
+        public void data(int position) {
+            positions.add(position);
+        }
+
+    }
+
+    public static class TestData {
+
+        public byte group;
+        public int value;
+
+        @SuppressWarnings("unused")
+        public TestData() {
+        }
+
+        TestData(byte group, int value) {
+            this.group = group;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutRangeCallback;
+import com.github.terma.fastselect.callbacks.GroupCountCallback;
+import com.github.terma.fastselect.data.RunLength;
+import com.github.terma.fastselect.data.RunLengthData;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectRunLengthTest {
+
+    private static FastSelect<Item> create() {
+        FastSelect<Item> fastSelect = new FastSelectBuilder<>(Item.class).blockSize(1000).create();
+        List<Item> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            data.add(new Item((byte) (i / 700 % 5 - 2), (short) (i / 1300 * 100 - 300)));
+        }
+        fastSelect.addAll(data.subList(0, 3000));
+        fastSelect.addAll(data.subList(3000, data.size()));
+        return fastSelect;
+    }
+
+    @Test
+    public void selectSameAsPlain() {
+        FastSelect<Item> fastSelect = create();
+        Assert.assertTrue(fastSelect.getColumnsByNames().get("prr").data instanceof RunLengthData);
+        Assert.assertTrue(fastSelect.getColumnsByNames().get("prg").data instanceof RunLengthData);
+
+        Request[][] pairs = new Request[][]{
+                {new ByteRequest("plainPrr", -2, 1), new ByteRequest("prr", -2, 1)},
+                {new ShortRequest("plainPrg", -300, 200), new ShortRequest("prg", -300, 200)},
+                {new ByteBetweenRequest("plainPrr", (byte) -1, (byte) 1), new ByteBetweenRequest("prr", (byte) -1, (byte) 1)},
+                {new ShortBetweenRequest("plainPrg", (short) -150, (short) 250), new ShortBetweenRequest("prg", (short) -150, (short) 250)},
+                {new NotRequest(new ByteRequest("plainPrr", 0)), new NotRequest(new ByteRequest("prr", 0))},
+                {new OrRequest(new ByteRequest("plainPrr", 2), new ShortRequest("plainPrg", 0)),
+                        new OrRequest(new ByteRequest("prr", 2), new ShortRequest("prg", 0))}
+        };
+        for (Request[] pair : pairs) {
+            Assert.assertEquals(pair[1].toString(),
+                    fastSelect.selectPositions(new Request[]{pair[0]}), fastSelect.selectPositions(new Request[]{pair[1]}));
+        }
+
+        // second request checks only positions accepted by first
+        Assert.assertEquals(
+                fastSelect.selectPositions(new Request[]{new ByteRequest("plainPrr", 1), new ShortRequest("plainPrg", 100, 200)}),
+                fastSelect.selectPositions(new Request[]{new ByteRequest("prr", 1), new ShortRequest("prg", 100, 200)}));
+    }
+
+    @Test
+    public void restoreObjects() {
+        for (Item item : create().select()) {
+            Assert.assertEquals(item.plainPrr, item.prr);
+            Assert.assertEquals(item.plainPrg, item.prg);
+        }
+    }
+
+    @Test
+    public void groupCountSameAsPlain() {
+        FastSelect<Item> fastSelect = create();
+        Request[] where = new Request[]{new ShortBetweenRequest("prg", (short) -200, (short) 300)};
+
+        GroupCountCallback runs = new GroupCountCallback(fastSelect.getColumnsByNames().get("prr"));
+        fastSelect.select(where, runs);
+        GroupCountCallback plain = new GroupCountCallback(fastSelect.getColumnsByNames().get("plainPrr"));
+        fastSelect.select(where, plain);
+        Assert.assertEquals(plain.getCounters(), runs.getCounters());
+
+        GroupCountCallback parallel = new GroupCountCallback(fastSelect.getColumnsByNames().get("prr"));
+        fastSelect.select(where, parallel, 3);
+        Assert.assertEquals(plain.getCounters(), parallel.getCounters());
+
+        GroupCountCallback all = new GroupCountCallback(fastSelect.getColumnsByNames().get("prg"));
+        fastSelect.select(new Request[0], all);
+        Assert.assertEquals(8, all.getCounters().size());
+        Assert.assertEquals(Integer.valueOf(1300), all.getCounters().get(-300));
+        Assert.assertEquals(Integer.valueOf(900), all.getCounters().get(400));
+    }
+
+    @Test
+    public void callRangeCallbackOncePerRunInBlock() {
+        final List<int[]> ranges = new ArrayList<>();
+        create().select(new Request[]{new ByteRequest("prr", 0)}, new ArrayLayoutRangeCallback() {
+            @Override
+            public void range(int start, int end) {
+                ranges.add(new int[]{start, end});
+            }
+
+            @Override
+            public void data(int position) {
+                throw new UnsupportedOperationException();
+            }
+        });
+
+        // runs 1400-2100 and 4900-5600 split by blocks of 1000
+        Assert.assertEquals(6, ranges.size());
+        Assert.assertEquals(1400, ranges.get(0)[0]);
+        Assert.assertEquals(2000, ranges.get(0)[1]);
+        Assert.assertEquals(2000, ranges.get(1)[0]);
+        Assert.assertEquals(2100, ranges.get(1)[1]);
+    }
+
+    @Test
+    public void takeLessMemoryThanPlain() {
+        FastSelect<Item> fastSelect = create();
+        fastSelect.compact();
+
+        long runs = fastSelect.getColumnsByNames().get("prr").data.mem();
+        long plain = fastSelect.getColumnsByNames().get("plainPrr").data.mem();
+        Assert.assertTrue(runs + " vs " + plain, runs * 20 < plain);
+    }
+
+    public static class Item {
+
+        @RunLength
+        public byte prr;
+        public byte plainPrr;
+        @RunLength
+        public short prg;
+        public short plainPrg;
+
+        // empty constructor for database to be able restore object
+        @SuppressWarnings("unused")
+        public Item() {
+        }
+
+        Item(byte prr, short prg) {
+            this.prr = prr;
+            this.plainPrr = prr;
+            this.prg = prg;
+            this.plainPrg = prg;
+        }
+
+    }
+
+}
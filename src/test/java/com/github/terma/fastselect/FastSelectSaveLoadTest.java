@@ -322,6 +322,33 @@ public class FastSelectSaveLoadTest {
         );
     }
 
+    @Test
+    public void buildBloomFilterOnLoad() throws IOException {
+        FastSelect<TestIntByte> fastSelect = new FastSelectBuilder<>(TestIntByte.class).blockSize(2).create();
+        fastSelect.addAll(Arrays.asList(
+                new TestIntByte(0, (byte) 0), new TestIntByte(100, (byte) 0),
+                new TestIntByte(1, (byte) 0), new TestIntByte(99, (byte) 0)));
+
+        File f = Files.createTempFile("a", "b").toFile();
+        FileChannel fc = new RandomAccessFile(f, "rw").getChannel();
+
+        fastSelect.save(fc);
+
+        fc.position(0);
+        FastSelect<TestIntByte> fastSelect1 = new FastSelectBuilder<>(TestIntByte.class)
+                .blockSize(2).bloomFilter(16).create();
+        fastSelect1.load(fc, 1);
+
+        fc.close();
+        //noinspection ResultOfMethodCallIgnored
+        f.delete();
+
+        Assert.assertEquals(2, fastSelect.blockTouch(new ColumnRequest[]{new IntRequest("int1", 99)}));
+        Assert.assertEquals(1, fastSelect1.blockTouch(new ColumnRequest[]{new IntRequest("int1", 99)}));
+        Assert.assertEquals(Collections.singletonList(new TestIntByte(99, (byte) 0)),
+                fastSelect1.select(new IntRequest("int1", 99)));
+    }
+
     @Test
     public void saveAndLoadMultiX() throws IOException {
         FastSelect<TestAllTypes> fastSelect = new FastSelectBuilder<>(TestAllTypes.class).blockSize(1).create();
@@ -116,6 +116,22 @@ public class FastSelectShortTest {
                 database.select(new ShortRequest("shortValue", 0)));
     }
 
+    @Test
+    public void shouldSelectAndSkipBlocksByNegativeValues() {
+        FastSelect<TestShort> database = new FastSelectBuilder<>(TestShort.class).blockSize(2).create();
+        database.addAll(asList(
+                new TestShort((short) -1), new TestShort((short) 5),
+                new TestShort(Short.MIN_VALUE), new TestShort((short) -300),
+                new TestShort((short) 0), new TestShort((short) 1)));
+
+        Assert.assertEquals(
+                asList(new TestShort((short) -1), new TestShort(Short.MIN_VALUE)),
+                database.select(new ShortRequest("shortValue", -1, Short.MIN_VALUE)));
+        Assert.assertEquals(2, database.blockTouch(new ColumnRequest[]{new ShortRequest("shortValue", -1, Short.MIN_VALUE)}));
+        Assert.assertEquals(1, database.blockTouch(new ColumnRequest[]{new ShortRequest("shortValue", -300)}));
+        Assert.assertEquals(0, database.blockTouch(new ColumnRequest[]{new ShortRequest("shortValue", -2)}));
+    }
+
     @Test
     public void shouldCorrectlyRestoreField() {
         FastSelect<TestShort> database = new FastSelectBuilder<>(TestShort.class).create();
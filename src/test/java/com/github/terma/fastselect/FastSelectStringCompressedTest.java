@@ -0,0 +1,158 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import com.github.terma.fastselect.data.StringCompressed;
+import com.github.terma.fastselect.data.StringCompressedData;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectStringCompressedTest {
+
+    private static FastSelect<Item> create() {
+        FastSelect<Item> fastSelect = new FastSelectBuilder<>(Item.class).blockSize(100).create();
+        List<Item> data = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            String group = "Group-" + i / 50;
+            String id = i % 10 == 0 ? null : "id-" + i;
+            data.add(new Item(group, group, id, id));
+        }
+        fastSelect.addAll(data.subList(0, 5000));
+        fastSelect.addAll(data.subList(5000, data.size()));
+        return fastSelect;
+    }
+
+    private static List<Integer> select(FastSelect<Item> fastSelect, Request[] where, QueryContext context) {
+        final List<Integer> positions = new ArrayList<>();
+        fastSelect.select(where, new ArrayLayoutCallback() {
+            @Override
+            public void data(int position) {
+                positions.add(position);
+            }
+        }, context);
+        return positions;
+    }
+
+    @Test
+    public void promoteCodesAndFallbackToRaw() {
+        FastSelect<Item> fastSelect = create();
+
+        StringCompressedData group = (StringCompressedData) fastSelect.getColumnsByNames().get("group").data;
+        Assert.assertEquals(2, group.width());
+        Assert.assertEquals(400, group.distinct());
+
+        StringCompressedData id = (StringCompressedData) fastSelect.getColumnsByNames().get("id").data;
+        Assert.assertFalse(id.coded());
+        Assert.assertEquals(20000, id.size());
+    }
+
+    @Test
+    public void selectSameAsPlainString() {
+        FastSelect<Item> fastSelect = create();
+
+        for (String[] columns : asList(new String[]{"group", "plainGroup"}, new String[]{"id", "plainId"})) {
+            for (Request[] requests : new Request[][]{
+                    {new StringRequest(columns[0], "Group-7"), new StringRequest(columns[1], "Group-7")},
+                    {new StringRequest(columns[0], "id-77"), new StringRequest(columns[1], "id-77")},
+                    {new StringRequest(columns[0], ""), new StringRequest(columns[1], "")},
+                    {new StringMultipleRequest(columns[0], "Group-399", "id-1", ""),
+                            new StringMultipleRequest(columns[1], "Group-399", "id-1", "")},
+                    {new StringLikeRequest(columns[0], "-39"), new StringLikeRequest(columns[1], "-39")},
+                    {new StringNoCaseLikeRequest(columns[0], "GROUP-12"),
+                            new StringNoCaseLikeRequest(columns[1], "GROUP-12")}}) {
+                Assert.assertEquals(requests[0].toString(),
+                        fastSelect.selectPositions(new Request[]{requests[1]}),
+                        fastSelect.selectPositions(new Request[]{requests[0]}));
+            }
+        }
+    }
+
+    @Test
+    public void skipBlocksByCodesOfAnyWidth() {
+        FastSelect<Item> fastSelect = create();
+
+        for (String value : asList("Group-3", "Group-399")) {
+            QueryContext context = new QueryContext();
+            List<Integer> positions = select(fastSelect, new Request[]{new StringRequest("group", value)}, context);
+
+            Assert.assertEquals(50, positions.size());
+            Assert.assertEquals(199, context.getSkippedBlocks());
+        }
+
+        QueryContext context = new QueryContext();
+        select(fastSelect, new Request[]{new StringLikeRequest("group", "Group-1")}, context);
+        Assert.assertEquals(200 - 56, context.getSkippedBlocks());
+    }
+
+    @Test
+    public void copyKeepsDictionary() {
+        FastSelect<Item> copy = create().copy(new Request[]{new StringNoCaseLikeRequest("group", "group-1")});
+
+        Assert.assertEquals(2, ((StringCompressedData) copy.getColumnsByNames().get("group").data).width());
+        Assert.assertEquals(50, copy.selectPositions(new Request[]{new StringRequest("group", "Group-111")}).size());
+    }
+
+    @Test
+    public void sortWithNullValuesSameAsPlainString() {
+        FastSelect<Item> fastSelect = new FastSelectBuilder<>(Item.class).blockSize(100).create();
+        List<Item> data = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String group = i % 3 == 0 ? null : "Group-" + i % 7;
+            data.add(new Item(group, group, null, null));
+        }
+        fastSelect.addAll(data);
+        Assert.assertTrue(((StringCompressedData) fastSelect.getColumnsByNames().get("group").data).coded());
+
+        List<Item> sorted = fastSelect.selectAndSort(new Request[0], "group");
+        List<Item> plainSorted = fastSelect.selectAndSort(new Request[0], "plainGroup");
+        Assert.assertEquals(1000, sorted.size());
+        Assert.assertEquals("", sorted.get(0).group);
+        for (int i = 0; i < sorted.size(); i++) Assert.assertEquals(plainSorted.get(i).plainGroup, sorted.get(i).group);
+    }
+
+    public static class Item {
+
+        @StringCompressed
+        public String group;
+        public String plainGroup;
+        @StringCompressed(rawRatio = 0.2)
+        public String id;
+        public String plainId;
+
+        // empty constructor for database to be able restore object
+        @SuppressWarnings("unused")
+        public Item() {
+        }
+
+        Item(String group, String plainGroup, String id, String plainId) {
+            this.group = group;
+            this.plainGroup = plainGroup;
+            this.id = id;
+            this.plainId = plainId;
+        }
+
+    }
+
+}
@@ -19,6 +19,7 @@ package com.github.terma.fastselect;
 import junit.framework.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -29,6 +30,39 @@ import static java.util.Collections.singletonList;
 @SuppressWarnings("WeakerAccess")
 public class FastSelectStringTest {
 
+    @Test
+    public void shouldSkipBlocksByValuePrefixes() {
+        FastSelect<TestString> database = new FastSelectBuilder<>(TestString.class).blockSize(2).create();
+        database.addAll(asList(
+                new TestString(null), new TestString("apple"),
+                new TestString("banana"), new TestString("cherry"),
+                new TestString("date"), new TestString("zebra")));
+
+        Assert.assertEquals(1, database.blockTouch(new ColumnRequest[]{new StringRequest("stringValue", "cherry")}));
+        Assert.assertEquals(0, database.blockTouch(new ColumnRequest[]{new StringRequest("stringValue", "apricot")}));
+        Assert.assertEquals(2, database.blockTouch(
+                new ColumnRequest[]{new StringMultipleRequest("stringValue", "apple", "date", "apricot")}));
+        Assert.assertEquals(asList(new TestString("apple"), new TestString("date")),
+                database.select(new StringMultipleRequest("stringValue", "apple", "date", "apricot")));
+    }
+
+    @Test
+    public void shouldSkipBlocksByBloomFilter() {
+        FastSelect<TestString> database = new FastSelectBuilder<>(TestString.class).blockSize(100).bloomFilter(10).create();
+        List<TestString> data = new ArrayList<>();
+        // same first bytes in all values so prefix range can't skip blocks
+        for (int i = 0; i < 10000; i++) data.add(new TestString("customer-" + (i % 2 == 0 ? i : 10000 - i)));
+        database.addAll(data);
+
+        Assert.assertTrue(database.blockTouch(new ColumnRequest[]{new StringRequest("stringValue", "customer-42")}) < 5);
+        Assert.assertTrue(database.blockTouch(new ColumnRequest[]{
+                new StringMultipleRequest("stringValue", "customer-42", "customer-9001")}) < 8);
+        Assert.assertEquals(singletonList(new TestString("customer-42")),
+                database.select(new StringRequest("stringValue", "customer-42")));
+        Assert.assertEquals(asList(new TestString("customer-42"), new TestString("customer-9001")),
+                database.select(new StringMultipleRequest("stringValue", "customer-42", "customer-9001")));
+    }
+
     @Test
     public void shouldSelectAndSortByColumn() {
         FastSelect<TestString> database = new FastSelectBuilder<>(TestString.class).create();
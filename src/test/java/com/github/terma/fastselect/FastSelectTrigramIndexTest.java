@@ -0,0 +1,142 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+@SuppressWarnings("WeakerAccess")
+public class FastSelectTrigramIndexTest {
+
+    private static List<TestAllTypes> data() {
+        List<TestAllTypes> data = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            TestAllTypes item = new TestAllTypes();
+            item.longValue = i % 10;
+            if (i % 500 == 3) item.stringValue = "user-" + i + "@mail VIP Client";
+            else if (i % 500 == 4) item.stringValue = "user-" + i + "@mail vip client";
+            else if (i % 1000 == 5) item.stringValue = "Straße " + i;
+            else if (i % 1000 == 6) item.stringValue = "Kelvin " + i;
+            else item.stringValue = "user-" + i + "@mail";
+            data.add(item);
+        }
+        return data;
+    }
+
+    private static FastSelect<TestAllTypes> create(String... indexColumns) {
+        FastSelect<TestAllTypes> fastSelect = new FastSelectBuilder<>(TestAllTypes.class)
+                .blockSize(100).trigramIndex(indexColumns).create();
+        List<TestAllTypes> data = data();
+        fastSelect.addAll(data.subList(0, 5000));
+        fastSelect.addAll(data.subList(5000, data.size()));
+        return fastSelect;
+    }
+
+    private static List<Integer> select(FastSelect<TestAllTypes> fastSelect, Request[] where, QueryContext context) {
+        final List<Integer> positions = new ArrayList<>();
+        fastSelect.select(where, new ArrayLayoutCallback() {
+            @Override
+            public void data(int position) {
+                positions.add(position);
+            }
+        }, context);
+        return positions;
+    }
+
+    @Test
+    public void selectByIndexSameAsScan() {
+        FastSelect<TestAllTypes> indexed = create("stringValue");
+        FastSelect<TestAllTypes> scan = create();
+
+        for (Request[] where : asList(
+                new Request[]{new StringLikeRequest("stringValue", "VIP")},
+                new Request[]{new StringLikeRequest("stringValue", "vip cl")},
+                new Request[]{new StringNoCaseLikeRequest("stringValue", "Vip Client")},
+                new Request[]{new StringNoCaseLikeRequest("stringValue", "kelvin")},
+                new Request[]{new StringLikeRequest("stringValue", "traße")},
+                new Request[]{new StringLikeRequest("stringValue", "user-1234@")})) {
+            QueryContext context = new QueryContext();
+            List<Integer> positions = select(indexed, where, context);
+
+            Assert.assertFalse(positions.isEmpty());
+            Assert.assertEquals(scan.selectPositions(where), positions);
+            Assert.assertEquals("Select by index doesn't scan blocks", 0, context.getTotalBlocks());
+        }
+    }
+
+    @Test
+    public void skipBlocksWithoutCandidatesWhenRequestNotSelective() {
+        FastSelect<TestAllTypes> indexed = create("stringValue");
+        Request[] where = {new StringLikeRequest("stringValue", "user-12")};
+
+        QueryContext context = new QueryContext();
+        List<Integer> positions = select(indexed, where, context);
+
+        Assert.assertEquals(create().selectPositions(where), positions);
+        Assert.assertEquals(111, positions.size());
+        Assert.assertEquals(100, context.getTotalBlocks());
+        Assert.assertTrue(context.getSkippedBlocks() > 80);
+    }
+
+    @Test
+    public void scanAllWhenSubstringTooShort() {
+        FastSelect<TestAllTypes> indexed = create("stringValue");
+        Request[] where = {new StringNoCaseLikeRequest("stringValue", "ße")};
+
+        QueryContext context = new QueryContext();
+        List<Integer> positions = select(indexed, where, context);
+
+        Assert.assertEquals(10, positions.size());
+        Assert.assertEquals(0, context.getSkippedBlocks());
+    }
+
+    @Test
+    public void selectWithOtherRequests() {
+        FastSelect<TestAllTypes> indexed = create("stringValue");
+        Request[] where = {new LongRequest("longValue", 3), new StringNoCaseLikeRequest("stringValue", "vip")};
+
+        Assert.assertEquals(create().selectPositions(where), indexed.selectPositions(where));
+        Assert.assertEquals(20, indexed.selectPositions(where).size());
+    }
+
+    @Test
+    public void copyWithIndex() {
+        FastSelect<TestAllTypes> copy = create("stringValue").copy(new Request[]{new LongRequest("longValue", 3)});
+
+        QueryContext context = new QueryContext();
+        Assert.assertEquals(20, select(copy, new Request[]{new StringLikeRequest("stringValue", "VIP")}, context).size());
+        Assert.assertEquals(0, context.getTotalBlocks());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failWhenIndexUnsupportedColumn() {
+        create("stringCompressedByteValue");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failWhenIndexUnknownColumn() {
+        create("unknown");
+    }
+
+}
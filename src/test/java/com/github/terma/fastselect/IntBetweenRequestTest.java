@@ -21,6 +21,7 @@ import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
 public class IntBetweenRequestTest {
@@ -127,4 +128,55 @@ public class IntBetweenRequestTest {
         Assert.assertEquals("{name: 'col', min: -12, max: 82222000}", new IntBetweenRequest("col", -12, 82222000).toString());
     }
 
+    @Test
+    public void filterAllPositionsOfBlock() {
+        data.add(-90);
+        data.add(5);
+        data.add(6);
+        data.add(1000);
+        data.add(10);
+
+        int[] selOut = new int[5];
+        int size = request.filter(1, 5, null, 0, selOut);
+
+        Assert.assertEquals(3, size);
+        Assert.assertTrue(Arrays.equals(new int[]{1, 2, 4}, Arrays.copyOf(selOut, size)));
+    }
+
+    @Test
+    public void filterOnlySelectedPositionsInPlace() {
+        data.add(5);
+        data.add(-90);
+        data.add(6);
+        data.add(1000);
+
+        int[] selection = new int[]{0, 1, 3};
+        int size = request.filter(0, 4, selection, 3, selection);
+
+        Assert.assertEquals(1, size);
+        Assert.assertEquals(0, selection[0]);
+    }
+
+    @Test
+    public void maskSetBitsForValuesInRange() {
+        data.add(-90);
+        data.add(5);
+        data.add(6);
+        data.add(1000);
+        data.add(10);
+
+        long[] bits = new long[]{0b10000};
+        request.mask(1, 5, bits);
+
+        Assert.assertEquals(0b11011, bits[0]);
+    }
+
+    @Test
+    public void checkBlockAllOnlyIfBlockRangeInside() {
+        Assert.assertTrue(request.checkBlockAll(new BlockMock(new Range(1, 10))));
+        Assert.assertTrue(request.checkBlockAll(new BlockMock(new Range(3, 4))));
+        Assert.assertFalse(request.checkBlockAll(new BlockMock(new Range(0, 4))));
+        Assert.assertFalse(request.checkBlockAll(new BlockMock(new Range(3, 11))));
+    }
+
 }
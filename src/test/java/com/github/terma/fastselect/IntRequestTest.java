@@ -21,6 +21,7 @@ import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -81,4 +82,20 @@ public class IntRequestTest {
         Assert.assertEquals("IntRequest {name: 'x', values: []}", createRequest(column).toString());
     }
 
+    @Test
+    public void filterSameAsCheckValue() {
+        data.add(3);
+        data.add(-1);
+        data.add(7);
+        data.add(3);
+        IntRequest request = createRequest(column, 7, 3);
+
+        int[] selection = new int[4];
+        Assert.assertEquals(3, request.filter(0, 4, null, 0, selection));
+        Assert.assertTrue(Arrays.equals(new int[]{0, 2, 3}, Arrays.copyOf(selection, 3)));
+
+        Assert.assertEquals(1, request.filter(0, 4, new int[]{1, 2}, 2, selection));
+        Assert.assertEquals(2, selection[0]);
+    }
+
 }
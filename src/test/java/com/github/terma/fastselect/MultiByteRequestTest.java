@@ -21,6 +21,7 @@ import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -91,10 +92,17 @@ public class MultiByteRequestTest {
     }
 
     @Test
-    public void checkBlocksAlwaysTrue() {
-        MultiByteRequest request = createRequest(column);
-
-        Assert.assertTrue(request.checkBlock(null));
+    public void checkBlockByValuesPresentInBlock() {
+        BlockMock block = new BlockMock();
+        block.columnBitSets.add(new BitSet());
+        block.negativeColumnBitSets.add(new BitSet());
+        block.setColumnBitSet(column, -5);
+        block.setColumnBitSet(column, 3);
+
+        Assert.assertTrue(createRequest(column, (byte) -5, (byte) 7).checkBlock(block));
+        Assert.assertTrue(createRequest(column, (byte) 3).checkBlock(block));
+        Assert.assertFalse(createRequest(column, (byte) -4, (byte) 5).checkBlock(block));
+        Assert.assertFalse(createRequest(column).checkBlock(block));
     }
 
     @Test
@@ -88,13 +88,6 @@ public class MultiLongRequestTest {
         Assert.assertFalse(request.checkValue(1));
     }
 
-    @Test
-    public void checkBlocksAlwaysTrue() {
-        MultiLongRequest request = createRequest(column);
-
-        Assert.assertTrue(request.checkBlock(null));
-    }
-
     @Test
     public void provideToString() {
         MultiLongRequest request = createRequest(column, Long.MIN_VALUE, Long.MAX_VALUE);
@@ -102,4 +95,15 @@ public class MultiLongRequestTest {
         Assert.assertEquals("MultiLongRequest {name: 'x', values: [-9223372036854775808, 9223372036854775807]}", request.toString());
     }
 
+    @Test
+    public void checkBlockByRangeOfElements() {
+        MultiLongRequest request = createRequest(column, 5, 100);
+
+        Assert.assertTrue(request.checkBlock(new BlockMock(new Range(0, 10))));
+        Assert.assertTrue(request.checkBlock(new BlockMock(new Range(100, 100))));
+        Assert.assertFalse(request.checkBlock(new BlockMock(new Range(6, 99))));
+        Assert.assertFalse(request.checkBlock(new BlockMock(new Range(101, Long.MAX_VALUE))));
+        Assert.assertFalse(request.checkBlock(new BlockMock(new Range())));
+    }
+
 }
@@ -21,6 +21,7 @@ import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -67,6 +68,17 @@ public class MultiShortRequestTest {
         Assert.assertFalse(request.checkValue(1));
     }
 
+    @Test
+    public void acceptValuesPassedNotInOrder() {
+        data.add(new short[]{3});
+        data.add(new short[]{6});
+
+        MultiShortRequest request = createRequest(column, (short) 10, (short) 3, (short) -1);
+
+        Assert.assertTrue(request.checkValue(0));
+        Assert.assertFalse(request.checkValue(1));
+    }
+
     @Test
     public void acceptOnlyWhenAtLeastOneElementEquals() {
         data.add(new short[]{Short.MIN_VALUE, 10});
@@ -90,10 +102,17 @@ public class MultiShortRequestTest {
     }
 
     @Test
-    public void checkBlocksAlwaysTrue() {
-        MultiShortRequest request = createRequest(column);
-
-        Assert.assertTrue(request.checkBlock(null));
+    public void checkBlockByValuesPresentInBlock() {
+        BlockMock block = new BlockMock();
+        block.columnBitSets.add(new BitSet());
+        block.negativeColumnBitSets.add(new BitSet());
+        block.setColumnBitSet(column, -5);
+        block.setColumnBitSet(column, 3);
+
+        Assert.assertTrue(createRequest(column, (short) -5, (short) 7).checkBlock(block));
+        Assert.assertTrue(createRequest(column, (short) 3).checkBlock(block));
+        Assert.assertFalse(createRequest(column, (short) -4, (short) 5).checkBlock(block));
+        Assert.assertFalse(createRequest(column).checkBlock(block));
     }
 
     @Test
@@ -19,7 +19,14 @@ package com.github.terma.fastselect;
 import junit.framework.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
-
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -34,19 +41,83 @@ public class NotRequestTest {
     }
 
     /**
-     * For clarification why <code>NotRequest</code> doesn't use statistic goto {@link NotRequest}
+     * For clarification why <code>NotRequest</code> uses only {@link Request#checkBlockAll(Block)}
+     * goto {@link NotRequest}
      */
     @Test
-    public void checkBlockAlwaysReturnTrue() {
+    public void checkBlockReturnTrueIfNotAllRecordsAcceptedByRequest() {
         Block block = Mockito.mock(Block.class);
+        Mockito.when(request.checkBlockAll(block)).thenReturn(false);
 
         NotRequest notRequest = new NotRequest(request);
 
         Assert.assertTrue(notRequest.checkBlock(block));
-        Mockito.verifyZeroInteractions(request);
+        Mockito.verify(request).checkBlockAll(block);
+        Mockito.verifyNoMoreInteractions(request);
+    }
 
-        Assert.assertTrue(notRequest.checkBlock(block));
-        Mockito.verifyZeroInteractions(request);
+    @Test
+    public void checkBlockReturnFalseIfAllRecordsAcceptedByRequest() {
+        Block block = Mockito.mock(Block.class);
+        Mockito.when(request.checkBlockAll(block)).thenReturn(true);
+
+        Assert.assertFalse(new NotRequest(request).checkBlock(block));
+    }
+
+    @Test
+    public void checkBlockAllReturnTrueIfBlockSkippedByRequest() {
+        Block block = Mockito.mock(Block.class);
+        Mockito.when(request.checkBlock(block)).thenReturn(false);
+
+        Assert.assertTrue(new NotRequest(request).checkBlockAll(block));
+    }
+
+    @Test
+    public void maskSetBitsNotSetByRequestOnlyUpToEnd() {
+        Mockito.doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                long[] bits = (long[]) invocation.getArguments()[2];
+                bits[0] = 0b101;
+                return null;
+            }
+        }).when(request).mask(Mockito.eq(10), Mockito.eq(14), Mockito.any(long[].class));
+
+        long[] bits = new long[1];
+        new NotRequest(request).mask(10, 14, bits);
+
+        Assert.assertEquals(0b1010, bits[0]);
+    }
+
+    @Test
+    public void maskWithScratchIgnoresItsContent() {
+        Mockito.doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                long[] bits = (long[]) invocation.getArguments()[2];
+                bits[0] |= 0b101;
+                return null;
+            }
+        }).when(request).mask(Mockito.eq(10), Mockito.eq(14), Mockito.any(long[].class));
+
+        long[] bits = new long[1];
+        long[] requestBits = new long[]{-1L};
+        new NotRequest(request).mask(10, 14, bits, requestBits);
+
+        Assert.assertEquals(0b1010, bits[0]);
+        Assert.assertEquals(0b101, requestBits[0]);
+    }
+
+    @Test
+    public void serializable() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(new NotRequest(new IntRequest("value", 12)));
+        }
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Assert.assertEquals("not IntRequest {name: 'value', values: [12]}", input.readObject().toString());
+        }
     }
 
     @Test
@@ -0,0 +1,65 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class PositionSortTest {
+
+    @Test
+    public void sortStableByComparator() {
+        final int[] values = new int[1000];
+        Random random = new Random(2);
+        for (int i = 0; i < values.length; i++) values[i] = random.nextInt(50);
+        int[] positions = new int[values.length];
+        for (int i = 0; i < positions.length; i++) positions[i] = i;
+
+        PositionSort.sort(positions, new PositionSort.Comparator() {
+            @Override
+            public int compare(int position1, int position2) {
+                return Integer.compare(values[position1], values[position2]);
+            }
+        });
+
+        for (int i = 1; i < positions.length; i++) {
+            Assert.assertTrue(values[positions[i - 1]] <= values[positions[i]]);
+            if (values[positions[i - 1]] == values[positions[i]]) Assert.assertTrue(positions[i - 1] < positions[i]);
+        }
+        int[] sorted = positions.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) Assert.assertEquals(i, sorted[i]);
+    }
+
+    @Test
+    public void sortEmptyAndSingle() {
+        PositionSort.Comparator comparator = new PositionSort.Comparator() {
+            @Override
+            public int compare(int position1, int position2) {
+                return Integer.compare(position2, position1);
+            }
+        };
+        PositionSort.sort(new int[0], comparator);
+        int[] single = new int[]{7};
+        PositionSort.sort(single, comparator);
+        Assert.assertEquals(7, single[0]);
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.CounterCallback;
+import com.github.terma.fastselect.data.StringCompressedByte;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+@SuppressWarnings("WeakerAccess")
+public class PreparedQueryTest {
+
+    private final FastSelect<TestData> fastSelect = new FastSelectBuilder<>(TestData.class).blockSize(2).inc(2).create();
+
+    @Test
+    public void selectSameAsFastSelect() {
+        fastSelect.addAll(asList(new TestData("a", 1), new TestData("b", 2), new TestData("a", 3)));
+
+        PreparedQuery<TestData> query = fastSelect.prepare(new StringCompressedByteNoCaseLikeRequest("name", "a"));
+
+        Assert.assertEquals(asList(new TestData("a", 1), new TestData("a", 3)), query.select());
+        Assert.assertEquals(query.select(), fastSelect.select(new StringCompressedByteNoCaseLikeRequest("name", "a")));
+    }
+
+    @Test
+    public void prepareRequestsOnlyOnceIfDataNotChanged() {
+        fastSelect.addAll(asList(new TestData("a", 1), new TestData("b", 2)));
+        CountPrepareRequest request = new CountPrepareRequest("value");
+
+        PreparedQuery<TestData> query = fastSelect.prepare(request);
+        for (int i = 0; i < 5; i++) query.select(new CounterCallback());
+
+        Assert.assertEquals(1, request.prepares.get());
+    }
+
+    @Test
+    public void prepareAgainWhenDataChanged() {
+        fastSelect.addAll(singletonList(new TestData("a", 1)));
+        CountPrepareRequest request = new CountPrepareRequest("value");
+        PreparedQuery<TestData> query = fastSelect.prepare(request);
+
+        fastSelect.addAll(singletonList(new TestData("a", 2)));
+        query.select(new CounterCallback());
+        query.select(new CounterCallback());
+
+        Assert.assertEquals(2, request.prepares.get());
+    }
+
+    @Test
+    public void seeNewDictionaryValuesAddedAfterPrepare() {
+        fastSelect.addAll(singletonList(new TestData("a", 1)));
+        PreparedQuery<TestData> query = fastSelect.prepare(new StringCompressedByteNoCaseLikeRequest("name", "b"));
+        Assert.assertEquals(0, query.select().size());
+
+        fastSelect.addAll(asList(new TestData("b", 2), new TestData("c", 3), new TestData("b", 4)));
+
+        Assert.assertEquals(asList(new TestData("b", 2), new TestData("b", 4)), query.select());
+    }
+
+    @Test
+    public void seeDataAfterColumnGrowAndCompact() {
+        PreparedQuery<TestData> query = fastSelect.prepare(new IntRequest("value", 7));
+
+        List<TestData> data = new ArrayList<>();
+        for (int i = 0; i < 10; i++) data.add(new TestData("a", i % 8));
+        fastSelect.addAll(data);
+        Assert.assertEquals(1, query.select().size());
+
+        fastSelect.compact();
+        Assert.assertEquals(1, query.select().size());
+    }
+
+    @Test
+    public void executeConcurrently() throws Exception {
+        List<TestData> data = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) data.add(new TestData(i % 2 == 0 ? "a" : "b", i % 10));
+        fastSelect.addAll(data);
+
+        final PreparedQuery<TestData> query = fastSelect.prepare(
+                new StringCompressedByteNoCaseLikeRequest("name", "a"), new IntBetweenRequest("value", 0, 3));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executorService.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        CounterCallback counter = new CounterCallback();
+                        query.select(counter);
+                        return counter.getCount();
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) Assert.assertEquals(200, (int) future.get());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelSelect() {
+        List<TestData> data = new ArrayList<>();
+        for (int i = 0; i < 100; i++) data.add(new TestData("a", i));
+        fastSelect.addAll(data);
+
+        PreparedQuery<TestData> query = fastSelect.prepare(new IntBetweenRequest("value", 10, 19));
+        CounterCallback counter = new CounterCallback();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            query.select(counter, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        Assert.assertEquals(10, counter.getCount());
+    }
+
+    private static class CountPrepareRequest extends ColumnRequest {
+
+        // shared between copies created by bind
+        private final AtomicInteger prepares = new AtomicInteger();
+
+        CountPrepareRequest(String name) {
+            super(name);
+        }
+
+        @Override
+        public boolean checkValue(int position) {
+            return true;
+        }
+
+        @Override
+        public void prepare(Map<String, FastSelect.Column> columnByNames) {
+            super.prepare(columnByNames);
+            prepares.incrementAndGet();
+        }
+
+    }
+
+    public static class TestData {
+
+        @StringCompressedByte
+        public String name;
+        public int value;
+
+        public TestData() {
+        }
+
+        TestData(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TestData testData = (TestData) o;
+            return value == testData.value && Objects.equals(name, testData.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, value);
+        }
+
+        @Override
+        public String toString() {
+            return "TestData {name: " + name + ", value: " + value + "}";
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.ArrayLayoutCallback;
+import com.github.terma.fastselect.callbacks.ArrayLayoutLimitCallback;
+import com.github.terma.fastselect.callbacks.CounterCallback;
+import com.github.terma.fastselect.callbacks.MergeableCallbackFactory;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class QueryContextTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    private final FastSelect<FastSelectIntTest.TestInt> fastSelect =
+            new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSize(BLOCK_SIZE).create();
+
+    private void addData(int count) {
+        List<FastSelectIntTest.TestInt> data = new ArrayList<>();
+        for (int i = 0; i < count; i++) data.add(new FastSelectIntTest.TestInt(i));
+        fastSelect.addAll(data);
+    }
+
+    @Test(expected = QueryCancelledException.class)
+    public void throwCancelIfCancelledBeforeSelect() {
+        addData(100);
+        QueryContext context = new QueryContext();
+        context.cancel();
+
+        fastSelect.select(new Request[0], new CounterCallback(), context);
+    }
+
+    @Test
+    public void stopSelectOnBlockBoundaryAfterCancel() {
+        addData(100);
+        final QueryContext context = new QueryContext();
+        final CounterCallback counter = new CounterCallback();
+
+        try {
+            fastSelect.select(new Request[0], new ArrayLayoutCallback() {
+                @Override
+                public void data(int position) {
+                    counter.data(position);
+                    context.cancel();
+                }
+            }, context);
+            Assert.fail();
+        } catch (QueryCancelledException e) {
+            Assert.assertFalse(e instanceof QueryTimeoutException);
+        }
+
+        Assert.assertEquals(BLOCK_SIZE, counter.getCount());
+        Assert.assertEquals(1, context.getDoneBlocks());
+        Assert.assertTrue(context.isCancelled());
+    }
+
+    @Test
+    public void stopLimitSelectAfterCancel() {
+        addData(100);
+        final QueryContext context = new QueryContext();
+        final CounterCallback counter = new CounterCallback();
+
+        try {
+            fastSelect.select(new Request[0], new ArrayLayoutLimitCallback() {
+                @Override
+                public void data(int position) {
+                    counter.data(position);
+                    context.cancel();
+                }
+
+                @Override
+                public boolean needToStop() {
+                    return false;
+                }
+            }, context);
+            Assert.fail();
+        } catch (QueryCancelledException e) {
+            // expected
+        }
+
+        Assert.assertEquals(BLOCK_SIZE, counter.getCount());
+    }
+
+    @Test(expected = QueryTimeoutException.class)
+    public void throwTimeoutWhenDeadlinePassed() throws InterruptedException {
+        addData(100);
+        QueryContext context = new QueryContext(1, TimeUnit.MILLISECONDS);
+        Thread.sleep(10);
+
+        fastSelect.select(new Request[0], new CounterCallback(), context);
+    }
+
+    @Test
+    public void finishSelectBeforeDeadline() {
+        addData(100);
+        QueryContext context = new QueryContext(1, TimeUnit.HOURS);
+        CounterCallback counter = new CounterCallback();
+
+        fastSelect.select(new Request[0], counter, context);
+
+        Assert.assertEquals(100, counter.getCount());
+    }
+
+    @Test
+    public void countSkippedBlocksAsProgress() {
+        addData(100);
+        QueryContext context = new QueryContext();
+        CounterCallback counter = new CounterCallback();
+
+        fastSelect.select(new Request[]{new IntBetweenRequest("intValue", 0, 15)}, counter, context);
+
+        Assert.assertEquals(16, counter.getCount());
+        Assert.assertEquals(10, context.getTotalBlocks());
+        Assert.assertEquals(10, context.getDoneBlocks());
+        Assert.assertEquals(8, context.getSkippedBlocks());
+        Assert.assertEquals(1.0, context.getProgress());
+    }
+
+    @Test
+    public void stopParallelSelect() {
+        addData(1000);
+        QueryContext context = new QueryContext();
+        context.cancel();
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            fastSelect.select(new Request[0], new MergeableCallbackFactory<>(new CounterCallback()), pool, context);
+            Assert.fail();
+        } catch (QueryCancelledException e) {
+            // expected
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void progressOfParallelSelect() {
+        addData(1000);
+        QueryContext context = new QueryContext();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            CounterCallback counter = fastSelect.select(
+                    new Request[0], new MergeableCallbackFactory<>(new CounterCallback()), pool, context);
+            Assert.assertEquals(1000, counter.getCount());
+        } finally {
+            pool.shutdown();
+        }
+
+        Assert.assertEquals(100, context.getDoneBlocks());
+        Assert.assertEquals(1.0, context.getProgress());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwExceptionForNonPositiveTimeout() {
+        new QueryContext(0, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import com.github.terma.fastselect.callbacks.CounterCallback;
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SelectAsyncTest {
+
+    private final FastSelect<FastSelectIntTest.TestInt> fastSelect =
+            new FastSelectBuilder<>(FastSelectIntTest.TestInt.class).blockSize(10).create();
+    private final SelectExecutor executor = new SelectExecutor(1, 1);
+
+    {
+        List<FastSelectIntTest.TestInt> data = new ArrayList<>();
+        for (int i = 0; i < 100; i++) data.add(new FastSelectIntTest.TestInt(i));
+        fastSelect.addAll(data);
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void returnCallbackAsResult() throws Exception {
+        SelectFuture<CounterCallback> future = fastSelect.selectAsync(
+                new Request[]{new IntBetweenRequest("intValue", 10, 19)}, new CounterCallback(), executor);
+
+        Assert.assertEquals(10, future.get(10, TimeUnit.SECONDS).getCount());
+    }
+
+    @Test
+    public void notifyListenerOnSuccess() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final AtomicReference<CounterCallback> result = new AtomicReference<>();
+        SelectListener<CounterCallback> listener = new SelectListener<CounterCallback>() {
+            @Override
+            public void onSuccess(CounterCallback callback) {
+                result.set(callback);
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+            }
+        };
+
+        SelectFuture<CounterCallback> future = fastSelect.selectAsync(new Request[0], new CounterCallback(), executor);
+        future.addListener(listener);
+        future.get(10, TimeUnit.SECONDS);
+        // added after done, called immediately
+        future.addListener(listener);
+
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(100, result.get().getCount());
+    }
+
+    @Test
+    public void notifyListenerOnFailure() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        SelectFuture<CounterCallback> future = fastSelect.selectAsync(
+                new Request[]{new IntRequest("unknown", 1)}, new CounterCallback(), executor);
+        future.addListener(new SelectListener<CounterCallback>() {
+            @Override
+            public void onSuccess(CounterCallback callback) {
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                failure.set(e);
+                latch.countDown();
+            }
+        });
+
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(failure.get() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void completeFutureByRejectWhenQueueIsFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        started.await();
+
+        SelectFuture<CounterCallback> queued = fastSelect.selectAsync(new Request[0], new CounterCallback(), executor);
+        SelectFuture<CounterCallback> rejected = fastSelect.selectAsync(new Request[0], new CounterCallback(), executor);
+
+        Assert.assertEquals(1, executor.getQueueSize());
+        Assert.assertEquals(1, executor.getQueueCapacity());
+        Assert.assertEquals(1, executor.getActiveCount());
+        Assert.assertEquals(1, executor.getRejectedCount());
+        try {
+            rejected.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+
+        release.countDown();
+        Assert.assertEquals(100, queued.get(10, TimeUnit.SECONDS).getCount());
+    }
+
+    @Test
+    public void cancelQueryContextOnCancel() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        SelectFuture<CounterCallback> future = fastSelect.selectAsync(new Request[0], new CounterCallback(), executor);
+        Assert.assertTrue(future.cancel(false));
+        release.countDown();
+
+        Assert.assertTrue(future.getContext().isCancelled());
+        try {
+            future.get();
+            Assert.fail();
+        } catch (CancellationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void provideWaitMetrics() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            fastSelect.selectAsync(new Request[0], new CounterCallback(), executor).get(10, TimeUnit.SECONDS);
+        }
+
+        Assert.assertEquals(0, executor.getRejectedCount());
+        Assert.assertTrue(executor.getMaxWaitMsec() >= executor.getAvgWaitMsec());
+        Assert.assertTrue(executor.toString().startsWith("SelectExecutor {"));
+    }
+
+    @Test
+    public void selectAsyncByPreparedQuery() throws Exception {
+        PreparedQuery<FastSelectIntTest.TestInt> query = fastSelect.prepare(new IntRequest("intValue", 1, 2, 3));
+
+        Assert.assertEquals(3, query.selectAsync(new CounterCallback(), executor).get(10, TimeUnit.SECONDS).getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwExceptionIfNoThreads() {
+        new SelectExecutor(0, 1);
+    }
+
+}
@@ -44,8 +44,8 @@ public class ShortRequestTest {
         data = (ShortData) column.data;
     }
 
-    @Test(expected = IndexOutOfBoundsException.class)
-    public void checkValueDontSupportNegativeValues() {
+    @Test
+    public void checkValueSupportNegativeValues() {
         data.add(Short.MIN_VALUE);
         data.add((short) 0);
 
@@ -93,4 +93,20 @@ public class StringLikeRequestTest {
                 new StringLikeRequest("a", "valLike").hashCode());
     }
 
+    @Test
+    public void filterByDefaultImplementationBasedOnCheckValue() {
+        data.add("G");
+        data.add("AAB");
+        data.add("BAA");
+        data.add("A");
+
+        int[] selection = new int[4];
+        Assert.assertEquals(2, request.filter(0, 4, null, 0, selection));
+        Assert.assertEquals(1, selection[0]);
+        Assert.assertEquals(2, selection[1]);
+
+        Assert.assertEquals(1, request.filter(0, 4, new int[]{0, 2, 3}, 3, selection));
+        Assert.assertEquals(2, selection[0]);
+    }
+
 }
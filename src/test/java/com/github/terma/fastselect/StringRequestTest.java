@@ -40,8 +40,14 @@ public class StringRequestTest {
     }
 
     @Test
-    public void checkBlockAlwaysTrue() {
-        Assert.assertTrue(request.checkBlock(null));
+    public void checkBlockByPrefixRange() {
+        Assert.assertTrue(request.checkBlock(new BlockMock(new Range(
+                Range.prefix("A".getBytes()), Range.prefix("AB".getBytes())))));
+        Assert.assertTrue(request.checkBlock(new BlockMock(new Range(
+                Range.prefix("AA".getBytes()), Range.prefix("AA".getBytes())))));
+        Assert.assertFalse(request.checkBlock(new BlockMock(new Range(
+                Range.prefix("AB".getBytes()), Range.prefix("Z".getBytes())))));
+        Assert.assertFalse(request.checkBlock(new BlockMock(new Range())));
     }
 
     @Test
@@ -0,0 +1,59 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+public class TrigramIndexTest {
+
+    @Test
+    public void trigramsOfLowerCaseAsciiCharacters() {
+        Assert.assertEquals(3, TrigramIndex.trigrams("ABcdE").length);
+        Assert.assertEquals(0, TrigramIndex.trigrams("ab").length);
+        Assert.assertEquals(0, TrigramIndex.trigrams("aßbßc").length);
+        Assert.assertEquals(1, TrigramIndex.trigrams("aaaaaa").length);
+        Assert.assertEquals(TrigramIndex.trigrams("abc")[0], TrigramIndex.trigrams("ßABC")[0]);
+    }
+
+    @Test
+    public void candidatesHaveAllTrigramsOfSubstring() {
+        TrigramIndex index = new TrigramIndex();
+        index.add("Hello World", 0);
+        index.add("hello", 1);
+        index.add(null, 2);
+        index.add("world", 3);
+        index.add("wor hello ld", 4);
+
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(3);
+        Assert.assertEquals(expected, index.candidates("World"));
+
+        expected.set(1);
+        expected.set(4);
+        expected.clear(3);
+        Assert.assertEquals(expected, index.candidates("hello"));
+
+        Assert.assertTrue(index.candidates("xyz").isEmpty());
+        Assert.assertNull(index.candidates("lo"));
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.benchmark;
+
+import com.github.terma.fastselect.*;
+import com.github.terma.fastselect.callbacks.CounterCallback;
+import com.github.terma.fastselect.callbacks.GroupCountCallback;
+import com.github.terma.fastselect.data.Storage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same filters and aggregation for columns in heap arrays and in {@link com.github.terma.fastselect.data.OffHeapData}
+ * to check cost of off heap access described in <code>docs/ARHI.md</code>. Setup prints memory of columns.
+ */
+@Fork(value = 1, jvmArgs = {"-Xmx3g", "-XX:MaxDirectMemorySize=3g"})
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(timeUnit = TimeUnit.SECONDS, time = 10, iterations = 1)
+@Measurement(timeUnit = TimeUnit.SECONDS, time = 10, iterations = 1)
+public class OffHeapVsHeapBenchmark {
+
+    @Param({"1000000"})
+    private int volume;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    private String storage;
+
+    private FastSelect<Item> fastSelect;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include("." + OffHeapVsHeapBenchmark.class.getSimpleName() + ".*").build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void init() {
+        fastSelect = new FastSelectBuilder<>(Item.class).inc(volume).storage(Storage.valueOf(storage)).create();
+
+        final Random random = new Random(1);
+        final List<Item> data = new ArrayList<>();
+        for (int i = 0; i < volume; i++) {
+            Item item = new Item();
+            item.prg = (byte) random.nextInt(100);
+            item.bsid = random.nextInt(150000);
+            item.vlc = random.nextLong();
+            item.price = random.nextDouble() * 1000;
+            data.add(item);
+        }
+        fastSelect.addAll(data);
+        fastSelect.compact();
+
+        System.out.println();
+        System.out.println("Storage: " + storage + ", mem: " + fastSelect.mem());
+    }
+
+    @Benchmark
+    public Object filterByteIn() {
+        CounterCallback counter = new CounterCallback();
+        fastSelect.select(new Request[]{new ByteRequest("prg", 1, 10, 20, 30)}, counter);
+        return counter.getCount();
+    }
+
+    @Benchmark
+    public Object filterIntBetween() {
+        CounterCallback counter = new CounterCallback();
+        fastSelect.select(new Request[]{new IntBetweenRequest("bsid", 1000, 50000)}, counter);
+        return counter.getCount();
+    }
+
+    @Benchmark
+    public Object filterLongBetween() {
+        CounterCallback counter = new CounterCallback();
+        fastSelect.select(new Request[]{new LongBetweenRequest("vlc", 0, Long.MAX_VALUE / 4)}, counter);
+        return counter.getCount();
+    }
+
+    @Benchmark
+    public Object filterDoubleBetween() {
+        CounterCallback counter = new CounterCallback();
+        fastSelect.select(new Request[]{new DoubleBetweenRequest("price", 100, 250)}, counter);
+        return counter.getCount();
+    }
+
+    @Benchmark
+    public Object groupCountByByte() {
+        GroupCountCallback counter = new GroupCountCallback(fastSelect.getColumnsByNames().get("prg"));
+        fastSelect.select(new Request[]{new IntBetweenRequest("bsid", 1000, 50000)}, counter);
+        return counter.getCounters();
+    }
+
+    public static class Item {
+
+        public byte prg;
+        public int bsid;
+        public long vlc;
+        public double price;
+
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.benchmark;
+
+import com.github.terma.fastselect.*;
+import com.github.terma.fastselect.callbacks.CounterCallback;
+import com.github.terma.fastselect.demo.DemoData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter by <code>prg</code>, <code>prr</code> and <code>csg</code> same time for rows in order of adding,
+ * sorted by columns and in Z-order of columns. Setup prints count of blocks touched by filter for each layout.
+ */
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(timeUnit = TimeUnit.SECONDS, time = 10, iterations = 1)
+@Measurement(timeUnit = TimeUnit.SECONDS, time = 10, iterations = 1)
+public class ZOrderBenchmark {
+
+    @Param({"1000000"})
+    private int volume;
+
+    @Param({"none", "clusterBy", "zOrder"})
+    private String layout;
+
+    private FastSelect<DemoData> fastSelect;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include("." + ZOrderBenchmark.class.getSimpleName() + ".*").build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void init() {
+        final FastSelectBuilder<DemoData> builder = new FastSelectBuilder<>(DemoData.class).inc(volume);
+        if (layout.equals("clusterBy")) builder.clusterBy("prg", "prr", "csg");
+        else if (layout.equals("zOrder")) builder.zOrder("prg", "prr", "csg");
+        fastSelect = builder.create();
+
+        final Random random = new Random(1);
+        final List<DemoData> data = new ArrayList<>();
+        for (int i = 0; i < volume; i++) {
+            DemoData item = new DemoData();
+            item.prg = (byte) random.nextInt(DemoData.G_ID_MAX);
+            item.prr = (byte) random.nextInt(DemoData.R_MAX);
+            item.csg = (byte) random.nextInt(DemoData.G_ID_MAX);
+            data.add(item);
+        }
+        fastSelect.addAll(data);
+
+        System.out.println();
+        System.out.println("Layout: " + layout + ", request: " + Arrays.toString(createWhere()));
+        System.out.println("Block touch: " + fastSelect.blockTouch(createWhere())
+                + " from " + (volume / fastSelect.dataBlockSize()));
+    }
+
+    private ColumnRequest[] createWhere() {
+        return new ColumnRequest[]{
+                new ByteBetweenRequest("prg", (byte) 10, (byte) 20),
+                new ByteBetweenRequest("prr", (byte) 2, (byte) 3),
+                new ByteBetweenRequest("csg", (byte) 40, (byte) 60)
+        };
+    }
+
+    @Benchmark
+    public Object countFilterByThreeColumns() {
+        CounterCallback counter = new CounterCallback();
+        fastSelect.select(createWhere(), counter);
+        return counter.getCount();
+    }
+
+}
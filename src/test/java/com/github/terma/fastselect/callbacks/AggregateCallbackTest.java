@@ -96,6 +96,48 @@ public class AggregateCallbackTest {
         new AggregateCallback(null, new FastSelect.Column[0]);
     }
 
+    @Test
+    public void mergeShouldMergeAggregatesForSameKeyAndAddNew() {
+        Aggregator<List<Integer>> aggregator = new MergeablePositionsAggregator();
+
+        final ByteData data1 = new ByteData(16);
+        data1.add((byte) 1);
+        data1.add((byte) 2);
+        data1.add((byte) 1);
+        data1.add((byte) 3);
+
+        AggregateCallback<List<Integer>> aggregateCallback = new AggregateCallback<>(aggregator, data1);
+        aggregateCallback.data(0);
+        aggregateCallback.data(1);
+
+        AggregateCallback<List<Integer>> part = aggregateCallback.fork();
+        Assert.assertEquals(new HashMap(), part.getResult());
+        part.data(2);
+        part.data(3);
+
+        aggregateCallback.merge(part);
+        Assert.assertEquals(new HashMap() {{
+            put(new AggregateKey(new Data[]{data1}, 0), Arrays.asList(0, 2));
+            put(new AggregateKey(new Data[]{data1}, 1), Collections.singletonList(1));
+            put(new AggregateKey(new Data[]{data1}, 3), Collections.singletonList(3));
+        }}, aggregateCallback.getResult());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void throwExceptionWhenMergeWithNotMergeableAggregator() {
+        AggregateCallback<List<Integer>> aggregateCallback = new AggregateCallback<>(
+                new PositionsAggregator(), new Data[0]);
+        aggregateCallback.merge(aggregateCallback.fork());
+    }
+
+    private static class MergeablePositionsAggregator extends PositionsAggregator
+            implements MergeableAggregator<List<Integer>> {
+        @Override
+        public void merge(List<Integer> agg, List<Integer> other) {
+            agg.addAll(other);
+        }
+    }
+
     private static class PositionsAggregator implements Aggregator<List<Integer>> {
         @Override
         public void aggregate(List<Integer> agg, int position) {
@@ -29,4 +29,24 @@ public class CounterCallbackTest {
         Assert.assertEquals("CounterCallback {count: 2}", counterCallback.toString());
     }
 
+    @Test
+    public void forkShouldCreateEmptyCallback() {
+        CounterCallback counterCallback = new CounterCallback();
+        counterCallback.data(1);
+        Assert.assertEquals(0, counterCallback.fork().getCount());
+    }
+
+    @Test
+    public void mergeShouldSumCounts() {
+        CounterCallback counterCallback = new CounterCallback();
+        counterCallback.data(1);
+        CounterCallback part = counterCallback.fork();
+        part.data(2);
+        part.data(3);
+
+        counterCallback.merge(part);
+
+        Assert.assertEquals(3, counterCallback.getCount());
+    }
+
 }
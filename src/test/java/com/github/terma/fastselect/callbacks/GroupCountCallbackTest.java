@@ -53,4 +53,28 @@ public class GroupCountCallbackTest {
         groupCountCallback.data(66);
     }
 
+    @Test
+    public void mergeShouldSumCountersForSameGroupAndAddNew() {
+        FastSelect.Column column1 = new FastSelect.Column("1", int.class, 100);
+        ((IntData) column1.data).add(1);
+        ((IntData) column1.data).add(5);
+        ((IntData) column1.data).add(7);
+
+        GroupCountCallback groupCountCallback = new GroupCountCallback(column1);
+        groupCountCallback.data(0);
+        groupCountCallback.data(1);
+
+        GroupCountCallback part = groupCountCallback.fork();
+        Assert.assertEquals(new HashMap<>(), part.getCounters());
+        part.data(1);
+        part.data(2);
+
+        groupCountCallback.merge(part);
+        Assert.assertEquals(new HashMap<Integer, Integer>() {{
+            put(1, 1);
+            put(5, 2);
+            put(7, 1);
+        }}, groupCountCallback.getCounters());
+    }
+
 }
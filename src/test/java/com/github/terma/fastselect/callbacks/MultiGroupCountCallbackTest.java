@@ -76,4 +76,46 @@ public class MultiGroupCountCallbackTest {
         multiGroupCountCallback.data(66);
     }
 
+    @Test
+    public void mergeShouldSumCountersOnLastLevel() {
+        FastSelect.Column column1 = new FastSelect.Column("1", int.class, 100);
+        FastSelect.Column column2 = new FastSelect.Column("2", int.class, 100);
+        FastSelect.Column column3 = new FastSelect.Column("3", int.class, 100);
+        ((IntData) column1.data).add(1);
+        ((IntData) column2.data).add(2);
+        ((IntData) column3.data).add(3);
+
+        ((IntData) column1.data).add(1);
+        ((IntData) column2.data).add(2);
+        ((IntData) column3.data).add(4);
+
+        ((IntData) column1.data).add(5);
+        ((IntData) column2.data).add(6);
+        ((IntData) column3.data).add(7);
+
+        MultiGroupCountCallback multiGroupCountCallback = new MultiGroupCountCallback(column1, column2, column3);
+        multiGroupCountCallback.data(0);
+
+        MultiGroupCountCallback part = multiGroupCountCallback.fork();
+        Assert.assertEquals(new HashMap<>(), part.getCounters());
+        part.data(0);
+        part.data(1);
+        part.data(2);
+
+        multiGroupCountCallback.merge(part);
+        Assert.assertEquals(new HashMap<Integer, Object>() {{
+            put(1, new HashMap<Integer, Object>() {{
+                put(2, new HashMap<Integer, Object>() {{
+                    put(3, 2);
+                    put(4, 1);
+                }});
+            }});
+            put(5, new HashMap<Integer, Object>() {{
+                put(6, new HashMap<Integer, Object>() {{
+                    put(7, 1);
+                }});
+            }});
+        }}, multiGroupCountCallback.getCounters());
+    }
+
 }
@@ -0,0 +1,138 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.data;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class BitPackedIntDataTest {
+
+    private static BitPackedIntData create(int size, int bound) {
+        BitPackedIntData data = new BitPackedIntData(100);
+        Random random = new Random(7);
+        for (int i = 0; i < size; i++) data.add(random.nextInt(bound) - 5);
+        return data;
+    }
+
+    @Test
+    public void getSameAsAdded() {
+        BitPackedIntData data = new BitPackedIntData(100);
+        int[] values = new int[5000];
+        Random random = new Random(1);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 2048 ? random.nextInt() : i < 3072 ? 42 : random.nextInt(300);
+            data.add(values[i]);
+        }
+
+        Assert.assertEquals(5000, data.size());
+        for (int i = 0; i < values.length; i++) Assert.assertEquals(values[i], data.getInt(i));
+        Assert.assertEquals(32, data.width(0));
+        Assert.assertEquals(0, data.width(2));
+        Assert.assertEquals(9, data.width(3));
+        Assert.assertEquals(-1, data.width(4));
+    }
+
+    @Test
+    public void takeBitsEnoughForRangeOfFrame() {
+        BitPackedIntData data = new BitPackedIntData(100);
+        for (int i = 0; i < 10 * BitPackedIntData.FRAME; i++) data.add(1000 + i % 20);
+        data.compact();
+
+        Assert.assertEquals(5, data.width(0));
+        Assert.assertTrue(data.mem() * 3 < 10 * BitPackedIntData.FRAME * Data.INT_BYTES);
+    }
+
+    @Test
+    public void betweenSameAsScan() {
+        BitPackedIntData data = create(5000, 40);
+        int[] selOut = new int[5000];
+
+        for (int[] bounds : new int[][]{{-5, 34}, {0, 10}, {-100, -6}, {35, 100}, {7, 7}, {Integer.MIN_VALUE, 0}}) {
+            for (int[] range : new int[][]{{0, 5000}, {100, 1100}, {1024, 2048}, {4090, 5000}}) {
+                int c = data.between(bounds[0], bounds[1], range[0], range[1], selOut);
+
+                int expected = 0;
+                for (int i = range[0]; i < range[1]; i++) {
+                    int value = data.getInt(i);
+                    if (value >= bounds[0] && value <= bounds[1]) Assert.assertEquals(i, selOut[expected++]);
+                }
+                Assert.assertEquals(expected, c);
+            }
+        }
+    }
+
+    @Test
+    public void initWillResizeDataAndFillByZero() {
+        Data data = new BitPackedIntData(100);
+        data.init(2100);
+
+        Assert.assertEquals(2100, data.size());
+        for (int i = 0; i < 2100; i++) Assert.assertEquals(0, data.get(i));
+    }
+
+    @Test(expected = NegativeArraySizeException.class)
+    public void initWithNegativeSizeThrowException() {
+        new BitPackedIntData(100).init(-1);
+    }
+
+    @Test
+    public void copyPositions() {
+        BitPackedIntData data = create(3000, 1000);
+        BitPackedIntData copy = (BitPackedIntData) data.copy(new int[]{2999, 0, 1500});
+
+        Assert.assertEquals(3, copy.size());
+        Assert.assertEquals(data.getInt(2999), copy.getInt(0));
+        Assert.assertEquals(data.getInt(0), copy.getInt(1));
+        Assert.assertEquals(data.getInt(1500), copy.getInt(2));
+    }
+
+    @Test
+    public void reorderInPlaceSameAsCopy() {
+        BitPackedIntData data = create(3000, 1000);
+        int[] positions = new int[3000];
+        for (int i = 0; i < positions.length; i++) positions[i] = positions.length - 1 - i;
+        Data copy = data.copy(positions);
+
+        data.reorder(positions);
+
+        Assert.assertEquals(3000, data.size());
+        for (int i = 0; i < 3000; i++) Assert.assertEquals(copy.get(i), data.get(i));
+    }
+
+    @Test
+    public void saveLoad() throws IOException {
+        BitPackedIntData data = create(3000, 1000);
+        ByteBuffer buffer = ByteBuffer.allocate(data.getDiskSpace());
+        data.save(buffer);
+        Assert.assertEquals(0, buffer.remaining());
+        buffer.flip();
+
+        BitPackedIntData data1 = new BitPackedIntData(100);
+        data1.load("", buffer, 3000);
+        data1.add(77);
+
+        Assert.assertEquals(3001, data1.size());
+        for (int i = 0; i < 3000; i++) Assert.assertEquals(data.getInt(i), data1.getInt(i));
+        Assert.assertEquals(77, data1.getInt(3000));
+    }
+
+}
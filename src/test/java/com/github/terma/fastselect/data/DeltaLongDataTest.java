@@ -0,0 +1,158 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.data;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class DeltaLongDataTest {
+
+    private static final long NOW = 1500000000000L;
+
+    private static long[] values(int size) {
+        long[] values = new long[size];
+        Random random = new Random(3);
+        for (int i = 0; i < size; i++) {
+            if (i < 1024) values[i] = NOW + i * 10 + random.nextInt(50);
+            else if (i < 2048) values[i] = NOW + i * 1000L;
+            else if (i < 3072) values[i] = NOW + (random.nextLong() >> 16);
+            else if (i < 4096) values[i] = 7;
+            else if (i < 5120) values[i] = i % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+            else values[i] = NOW - i;
+        }
+        return values;
+    }
+
+    private static DeltaLongData create(long[] values) {
+        DeltaLongData data = new DeltaLongData(100);
+        for (long value : values) data.add(value);
+        return data;
+    }
+
+    @Test
+    public void getSameAsAdded() {
+        long[] values = values(6000);
+        DeltaLongData data = create(values);
+
+        Assert.assertEquals(6000, data.size());
+        for (int i = 0; i < values.length; i++) Assert.assertEquals(values[i], data.getLong(i));
+    }
+
+    @Test
+    public void pickWidthOfDeltasByRangeOfFrame() {
+        DeltaLongData data = create(values(6000));
+
+        Assert.assertEquals(2, data.width(0));
+        Assert.assertEquals(4, data.width(1));
+        Assert.assertEquals(8, data.width(2));
+        Assert.assertEquals(0, data.width(3));
+        Assert.assertEquals(8, data.width(4));
+        Assert.assertEquals(-1, data.width(5));
+    }
+
+    @Test
+    public void betweenSameAsScan() {
+        long[] values = values(6000);
+        DeltaLongData data = create(values);
+        int[] selOut = new int[6000];
+
+        for (long[] bounds : new long[][]{{NOW, NOW + 5000}, {NOW + 1500000, NOW + 2000000}, {7, 7},
+                {Long.MIN_VALUE, 0}, {Long.MIN_VALUE, Long.MAX_VALUE}, {NOW - 5500, NOW - 5200}}) {
+            for (int[] range : new int[][]{{0, 6000}, {100, 1100}, {1024, 2048}, {5000, 6000}}) {
+                int c = data.between(bounds[0], bounds[1], range[0], range[1], selOut);
+
+                int expected = 0;
+                for (int i = range[0]; i < range[1]; i++) {
+                    if (values[i] >= bounds[0] && values[i] <= bounds[1]) Assert.assertEquals(i, selOut[expected++]);
+                }
+                Assert.assertEquals(expected, c);
+            }
+        }
+    }
+
+    @Test
+    public void takeLessMemoryForCloseValues() {
+        DeltaLongData data = new DeltaLongData(100);
+        for (int i = 0; i < 20 * DeltaLongData.FRAME; i++) data.add(NOW + i);
+        data.compact();
+
+        Assert.assertEquals(2, data.width(0));
+        Assert.assertTrue(data.mem() * 3 < 20 * DeltaLongData.FRAME * Data.LONG_BYTES);
+    }
+
+    @Test
+    public void initWillResizeDataAndFillByZero() {
+        Data data = new DeltaLongData(100);
+        data.init(2100);
+
+        Assert.assertEquals(2100, data.size());
+        for (int i = 0; i < 2100; i++) Assert.assertEquals(0L, data.get(i));
+    }
+
+    @Test(expected = NegativeArraySizeException.class)
+    public void initWithNegativeSizeThrowException() {
+        new DeltaLongData(100).init(-1);
+    }
+
+    @Test
+    public void copyPositions() {
+        long[] values = values(3000);
+        DeltaLongData copy = (DeltaLongData) create(values).copy(new int[]{2999, 0, 1500});
+
+        Assert.assertEquals(3, copy.size());
+        Assert.assertEquals(values[2999], copy.getLong(0));
+        Assert.assertEquals(values[0], copy.getLong(1));
+        Assert.assertEquals(values[1500], copy.getLong(2));
+    }
+
+    @Test
+    public void reorderInPlace() {
+        long[] values = values(3000);
+        DeltaLongData data = create(values);
+        int[] positions = new int[3000];
+        for (int i = 0; i < positions.length; i++) positions[i] = positions.length - 1 - i;
+
+        data.reorder(positions);
+
+        Assert.assertEquals(3000, data.size());
+        for (int i = 0; i < 3000; i++) Assert.assertEquals(values[2999 - i], data.getLong(i));
+    }
+
+    @Test
+    public void saveLoad() throws IOException {
+        long[] values = values(6000);
+        DeltaLongData data = create(values);
+        ByteBuffer buffer = ByteBuffer.allocate(data.getDiskSpace());
+        data.save(buffer);
+        Assert.assertEquals(0, buffer.remaining());
+        buffer.flip();
+
+        DeltaLongData data1 = new DeltaLongData(100);
+        data1.load("", buffer, 6000);
+        data1.add(77);
+
+        Assert.assertEquals(6001, data1.size());
+        for (int i = 0; i < values.length; i++) Assert.assertEquals(values[i], data1.getLong(i));
+        Assert.assertEquals(77, data1.getLong(6000));
+    }
+
+}
@@ -48,6 +48,21 @@ public class IntDataTest {
         Assert.assertEquals(Data.DEFAULT_SIZE + 100, data.allocatedSize());
     }
 
+    @Test
+    public void reorderInPlace() {
+        IntData data = new IntData(100);
+        data.add(12);
+        data.add(-90);
+        data.add(7);
+
+        data.reorder(new int[]{2, 0, 1});
+
+        Assert.assertEquals(3, data.size());
+        Assert.assertEquals(7, data.data[0]);
+        Assert.assertEquals(12, data.data[1]);
+        Assert.assertEquals(-90, data.data[2]);
+    }
+
     @Test
     public void supportCompact() {
         IntData data = new IntData(100);
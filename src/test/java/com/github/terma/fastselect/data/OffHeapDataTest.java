@@ -0,0 +1,240 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.data;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+public class OffHeapDataTest {
+
+    @Test
+    public void getSameAsAddedForEachType() {
+        OffHeapData bytes = new OffHeapData(byte.class, 100);
+        OffHeapData shorts = new OffHeapData(short.class, 100);
+        OffHeapData ints = new OffHeapData(int.class, 100);
+        OffHeapData longs = new OffHeapData(long.class, 100);
+        OffHeapData doubles = new OffHeapData(double.class, 100);
+        Random random = new Random(3);
+        long[] values = new long[OffHeapData.PAGE * 2 + 10];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong();
+            bytes.add(values[i]);
+            shorts.add(values[i]);
+            ints.add(values[i]);
+            longs.add(values[i]);
+            doubles.addDouble(values[i] / 3.0);
+        }
+
+        Assert.assertEquals(values.length, longs.size());
+        Assert.assertEquals(OffHeapData.PAGE * 3, longs.allocatedSize());
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals((byte) values[i], bytes.getByte(i));
+            Assert.assertEquals((short) values[i], shorts.getShort(i));
+            Assert.assertEquals((int) values[i], ints.getInt(i));
+            Assert.assertEquals(values[i], longs.getLong(i));
+            Assert.assertEquals(values[i] / 3.0, doubles.getDouble(i));
+            Assert.assertEquals((long) (short) values[i], shorts.getAsLong(i));
+        }
+        Assert.assertEquals((byte) values[5], bytes.get(5));
+        Assert.assertEquals(values[5] / 3.0, doubles.get(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void supportOnlyPrimitives() {
+        new OffHeapData(String.class, 100);
+    }
+
+    @Test
+    public void hashCodeAndCompareSameAsHeap() {
+        OffHeapData ints = new OffHeapData(int.class, 100);
+        IntData heap = new IntData(100);
+        for (int value : new int[]{-5, 7, Integer.MIN_VALUE}) {
+            ints.add(value);
+            heap.add(value);
+        }
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(heap.hashCode(i), ints.hashCode(i));
+            Assert.assertEquals(Integer.signum(heap.compare(i, 0)), Integer.signum(ints.compare(i, 0)));
+        }
+    }
+
+    @Test
+    public void betweenSameAsCheckOfEachPosition() {
+        OffHeapData shorts = new OffHeapData(short.class, 100);
+        Random random = new Random(5);
+        short[] values = new short[OffHeapData.PAGE + 1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (short) random.nextInt();
+            shorts.add(values[i]);
+        }
+
+        int[] selOut = new int[values.length];
+        int c = shorts.between(-100, 5000, 7, values.length - 3, selOut);
+        int expected = 0;
+        for (int i = 7; i < values.length - 3; i++) {
+            if (values[i] >= -100 && values[i] <= 5000) Assert.assertEquals(i, selOut[expected++]);
+        }
+        Assert.assertEquals(expected, c);
+    }
+
+    @Test
+    public void filterAndMaskSameAsCheckOfEachPosition() {
+        Random random = new Random(7);
+        OffHeapData bytes = new OffHeapData(byte.class, 100);
+        OffHeapData ints = new OffHeapData(int.class, 100);
+        OffHeapData doubles = new OffHeapData(double.class, 100);
+        int size = OffHeapData.PAGE + 1000;
+        for (int i = 0; i < size; i++) {
+            bytes.add(random.nextInt(20) - 10);
+            ints.add(random.nextInt(100));
+            doubles.addDouble(random.nextDouble() * 100);
+        }
+
+        BitSet accepted = new BitSet();
+        accepted.set(-3 & 0xFFFF);
+        accepted.set(5);
+        long[] values = new long[]{7, 50, 99};
+        int start = OffHeapData.PAGE - 500;
+        int end = size - 3;
+
+        int[] expectedBytes = new int[size];
+        int[] expectedInts = new int[size];
+        int[] expectedDoubles = new int[size];
+        int[] expectedBetween = new int[size];
+        int bytesCount = 0;
+        int intsCount = 0;
+        int doublesCount = 0;
+        int betweenCount = 0;
+        for (int i = start; i < end; i++) {
+            if (bytes.getByte(i) == -3 || bytes.getByte(i) == 5) expectedBytes[bytesCount++] = i;
+            if (Arrays.binarySearch(values, ints.getInt(i)) > -1) expectedInts[intsCount++] = i;
+            if (doubles.getDouble(i) >= 10.5 && doubles.getDouble(i) <= 40) expectedDoubles[doublesCount++] = i;
+            if (ints.getInt(i) >= 20 && ints.getInt(i) <= 30) expectedBetween[betweenCount++] = i;
+        }
+
+        int[] selOut = new int[size];
+        Assert.assertEquals(bytesCount, bytes.filter(accepted, start, end, selOut));
+        Assert.assertTrue(Arrays.equals(Arrays.copyOf(expectedBytes, bytesCount), Arrays.copyOf(selOut, bytesCount)));
+        Assert.assertEquals(intsCount, ints.filter(values, start, end, selOut));
+        Assert.assertTrue(Arrays.equals(Arrays.copyOf(expectedInts, intsCount), Arrays.copyOf(selOut, intsCount)));
+        Assert.assertEquals(doublesCount, doubles.betweenDouble(10.5, 40, start, end, selOut));
+        Assert.assertTrue(Arrays.equals(Arrays.copyOf(expectedDoubles, doublesCount),
+                Arrays.copyOf(selOut, doublesCount)));
+
+        int[] selIn = new int[end - start];
+        for (int i = 0; i < selIn.length; i++) selIn[i] = start + i;
+        Assert.assertEquals(bytesCount, bytes.filter(accepted, selIn, selIn.length, selOut));
+        Assert.assertEquals(intsCount, ints.filter(values, selIn, selIn.length, selOut));
+        Assert.assertEquals(doublesCount, doubles.betweenDouble(10.5, 40, selIn, selIn.length, selOut));
+        Assert.assertEquals(betweenCount, ints.between(20, 30, selIn, selIn.length, selOut));
+        Assert.assertTrue(Arrays.equals(Arrays.copyOf(expectedBetween, betweenCount),
+                Arrays.copyOf(selOut, betweenCount)));
+
+        long[] bits = new long[(end - start + 63) >>> 6];
+        bytes.mask(accepted, start, end, bits);
+        Assert.assertEquals(bytesCount, bitCount(bits));
+        Arrays.fill(bits, 0);
+        ints.mask(values, start, end, bits);
+        Assert.assertEquals(intsCount, bitCount(bits));
+        Arrays.fill(bits, 0);
+        doubles.maskBetweenDouble(10.5, 40, start, end, bits);
+        Assert.assertEquals(doublesCount, bitCount(bits));
+        Arrays.fill(bits, 0);
+        ints.maskBetween(20, 30, start, end, bits);
+        Assert.assertEquals(betweenCount, bitCount(bits));
+        for (int i = 0; i < betweenCount; i++) {
+            int j = expectedBetween[i] - start;
+            Assert.assertTrue((bits[j >>> 6] & (1L << j)) != 0);
+        }
+    }
+
+    private static int bitCount(long[] bits) {
+        int count = 0;
+        for (long word : bits) count += Long.bitCount(word);
+        return count;
+    }
+
+    @Test
+    public void saveInSameFormatAsHeap() throws IOException {
+        LongData heap = new LongData(100);
+        OffHeapData longs = new OffHeapData(long.class, 100);
+        for (long i = 0; i < 1000; i++) {
+            heap.add(i * 31 - 500);
+            longs.add(i * 31 - 500);
+        }
+
+        ByteBuffer heapBuffer = ByteBuffer.allocate(heap.getDiskSpace());
+        heap.save(heapBuffer);
+        ByteBuffer buffer = ByteBuffer.allocate(longs.getDiskSpace());
+        longs.save(buffer);
+        Assert.assertEquals(heapBuffer.flip(), buffer.flip());
+
+        OffHeapData loaded = new OffHeapData(long.class, 100);
+        loaded.load(LongData.class.getName(), buffer, 1000);
+        Assert.assertEquals(1000, loaded.size());
+        for (int i = 0; i < 1000; i++) Assert.assertEquals(heap.data[i], loaded.getLong(i));
+    }
+
+    @Test
+    public void copySameAsHeap() {
+        OffHeapData ints = new OffHeapData(int.class, 100);
+        for (int i = 0; i < 10; i++) ints.add(i);
+
+        OffHeapData copy = (OffHeapData) ints.copy(new byte[]{0, 1, 0, 1, 0, 0, 0, 0, 0, 0});
+        Assert.assertEquals(10, copy.size());
+        Assert.assertEquals(1, copy.getInt(0));
+        Assert.assertEquals(3, copy.getInt(1));
+        Assert.assertEquals(0, copy.getInt(2));
+
+        OffHeapData copyByPositions = (OffHeapData) ints.copy(new int[]{9, 2});
+        Assert.assertEquals(2, copyByPositions.size());
+        Assert.assertEquals(9, copyByPositions.getInt(0));
+    }
+
+    @Test
+    public void reorderInPlace() {
+        OffHeapData longs = new OffHeapData(long.class, 100);
+        int size = OffHeapData.PAGE + 10;
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            longs.add(i * 3L);
+            positions[i] = size - 1 - i;
+        }
+
+        longs.reorder(positions);
+
+        Assert.assertEquals(size, longs.size());
+        for (int i = 0; i < size; i++) Assert.assertEquals((size - 1 - i) * 3L, longs.getLong(i));
+    }
+
+    @Test
+    public void initByZeros() {
+        OffHeapData doubles = new OffHeapData(double.class, 100);
+        doubles.init(OffHeapData.PAGE + 1);
+        Assert.assertEquals(OffHeapData.PAGE + 1, doubles.size());
+        Assert.assertEquals(0.0, doubles.getDouble(OffHeapData.PAGE));
+        doubles.addDouble(1.5);
+        Assert.assertEquals(1.5, doubles.getDouble(OffHeapData.PAGE + 1));
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.github.terma.fastselect.data;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class RunLengthDataTest {
+
+    private static RunLengthData create(short[] values) {
+        RunLengthData data = new RunLengthData(short.class, 100);
+        for (short value : values) data.add(value);
+        return data;
+    }
+
+    private static short[] clustered(int size) {
+        short[] values = new short[size];
+        for (int i = 0; i < size; i++) values[i] = (short) ((i / 37) % 5 - 2);
+        return values;
+    }
+
+    @Test
+    public void storeRunOnceAndGetSameAsAdded() {
+        short[] values = clustered(1000);
+        RunLengthData data = create(values);
+
+        Assert.assertEquals(1000, data.size());
+        Assert.assertEquals(28, data.runs());
+        Assert.assertEquals(0, data.runStart(0));
+        Assert.assertEquals(37, data.runEnd(0));
+        Assert.assertEquals(-2, data.runValue(0));
+        Assert.assertEquals(1000, data.runEnd(27));
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals(values[i], data.getShort(i));
+            Assert.assertEquals(i / 37, data.run(i));
+        }
+    }
+
+    @Test
+    public void getReturnsTypeOfColumn() {
+        RunLengthData data = new RunLengthData(byte.class, 100);
+        data.add((short) -3);
+        Assert.assertEquals((byte) -3, data.get(0));
+        Assert.assertEquals((short) -3, create(new short[]{-3}).get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void supportOnlyByteAndShort() {
+        new RunLengthData(int.class, 100);
+    }
+
+    @Test
+    public void filterSameAsCheckOfEachPosition() {
+        short[] values = clustered(1000);
+        RunLengthData data = create(values);
+        BitSet accepted = new BitSet();
+        accepted.set(-1 & 0xFFFF);
+        accepted.set(2);
+
+        int[] expected = new int[1000];
+        int c = 0;
+        for (int i = 10; i < 900; i++) {
+            if (values[i] == -1 || values[i] == 2) expected[c++] = i;
+        }
+
+        int[] selOut = new int[1000];
+        Assert.assertEquals(c, data.filter(accepted, 10, 900, selOut));
+        Assert.assertTrue(Arrays.equals(Arrays.copyOf(expected, c), Arrays.copyOf(selOut, c)));
+
+        int[] selIn = new int[]{0, 37, 38, 111, 148, 185, 999};
+        Assert.assertEquals(3, data.filter(accepted, selIn, selIn.length, selIn));
+        Assert.assertTrue(Arrays.equals(new int[]{37, 38, 148}, Arrays.copyOf(selIn, 3)));
+    }
+
+    @Test
+    public void maskSetsBitsOfAcceptedRuns() {
+        short[] values = clustered(1000);
+        RunLengthData data = create(values);
+        BitSet accepted = RunLengthData.between((short) 0, (short) 1);
+
+        long[] bits = new long[(990 - 5 + 63) / 64];
+        data.mask(accepted, 5, 990, bits);
+
+        BitSet actual = BitSet.valueOf(bits);
+        for (int i = 5; i < 990; i++) {
+            Assert.assertEquals("position " + i, values[i] >= 0 && values[i] <= 1, actual.get(i - 5));
+        }
+        Assert.assertEquals(-1, actual.nextSetBit(990 - 5));
+    }
+
+    @Test
+    public void betweenSupportsNegativeValues() {
+        BitSet accepted = RunLengthData.between((short) -2, (short) 1);
+        Assert.assertEquals(4, accepted.cardinality());
+        Assert.assertTrue(accepted.get(-2 & 0xFFFF));
+        Assert.assertTrue(accepted.get(1));
+        Assert.assertEquals(0, RunLengthData.between((short) 3, (short) 2).cardinality());
+        Assert.assertEquals(1 << 16, RunLengthData.between(Short.MIN_VALUE, Short.MAX_VALUE).cardinality());
+    }
+
+    @Test
+    public void saveLoad() throws IOException {
+        RunLengthData data = create(clustered(1000));
+        ByteBuffer buffer = ByteBuffer.allocate(data.getDiskSpace());
+        data.save(buffer);
+        Assert.assertEquals(0, buffer.remaining());
+        buffer.flip();
+
+        RunLengthData loaded = new RunLengthData(short.class, 100);
+        loaded.load(RunLengthData.class.getName(), buffer, 1000);
+
+        Assert.assertEquals(1000, loaded.size());
+        Assert.assertEquals(28, loaded.runs());
+        for (int i = 0; i < 1000; i++) Assert.assertEquals(data.getShort(i), loaded.getShort(i));
+    }
+
+    @Test
+    public void copyOnlyRequestedPositions() {
+        short[] values = clustered(200);
+        RunLengthData data = create(values);
+
+        byte[] needToCopy = new byte[200];
+        for (int i = 30; i < 80; i++) needToCopy[i] = 1;
+        RunLengthData copy = (RunLengthData) data.copy(needToCopy);
+        Assert.assertEquals(50, copy.size());
+        Assert.assertEquals(3, copy.runs());
+        for (int i = 0; i < 50; i++) Assert.assertEquals(values[30 + i], copy.getShort(i));
+
+        RunLengthData copyByPositions = (RunLengthData) data.copy(new int[]{199, 0, 1});
+        Assert.assertEquals(3, copyByPositions.size());
+        Assert.assertEquals(values[199], copyByPositions.getShort(0));
+        Assert.assertEquals(values[0], copyByPositions.getShort(2));
+    }
+
+    @Test
+    public void reorderInPlace() {
+        short[] values = clustered(200);
+        RunLengthData data = create(values);
+        int[] positions = new int[200];
+        for (int i = 0; i < positions.length; i++) positions[i] = positions.length - 1 - i;
+
+        data.reorder(positions);
+
+        Assert.assertEquals(200, data.size());
+        for (int i = 0; i < 200; i++) Assert.assertEquals(values[199 - i], data.getShort(i));
+    }
+
+    @Test
+    public void initAsOneRunOfZero() {
+        RunLengthData data = new RunLengthData(byte.class, 100);
+        data.init(500);
+        Assert.assertEquals(500, data.size());
+        Assert.assertEquals(1, data.runs());
+        Assert.assertEquals((byte) 0, data.get(499));
+    }
+
+}
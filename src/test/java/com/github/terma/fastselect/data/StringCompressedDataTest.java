@@ -0,0 +1,196 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.data;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class StringCompressedDataTest {
+
+    @Test
+    public void initWillResizeDataAndFillByEmpty() {
+        Data data = new StringCompressedData(100);
+        data.init(100);
+
+        Assert.assertEquals(100, data.size());
+        Assert.assertEquals(100, data.allocatedSize());
+        for (int i = 0; i < 100; i++) Assert.assertEquals("", data.get(i));
+    }
+
+    @Test(expected = NegativeArraySizeException.class)
+    public void initWithNegativeSizeThrowException() {
+        new StringCompressedData(100).init(-1);
+    }
+
+    @Test
+    public void promoteWidthOfCodesWhenDistinctValuesDoNotFit() {
+        StringCompressedData data = new StringCompressedData(100);
+        data.setRawRatio(1);
+        Assert.assertEquals(1, data.width());
+
+        for (int i = 0; i < 128; i++) Assert.assertEquals(i, data.add("v" + i));
+        Assert.assertEquals(1, data.width());
+
+        Assert.assertEquals(128, data.add("v128"));
+        Assert.assertEquals(2, data.width());
+
+        for (int i = 129; i < 40000; i++) data.add("v" + i);
+        Assert.assertEquals(4, data.width());
+        Assert.assertTrue(data.coded());
+
+        Assert.assertEquals(40000, data.size());
+        Assert.assertEquals(40000, data.distinct());
+        for (int i = 0; i < 40000; i++) {
+            Assert.assertEquals(i, data.code(i));
+            Assert.assertEquals("v" + i, data.get(i));
+        }
+    }
+
+    @Test
+    public void keepDictionaryWhenFewDistinctValues() {
+        StringCompressedData data = new StringCompressedData(100);
+        for (int i = 0; i < 10000; i++) data.add("v" + i % 100);
+
+        Assert.assertTrue(data.coded());
+        Assert.assertEquals(1, data.width());
+        Assert.assertEquals(100, data.distinct());
+        Assert.assertEquals(1, data.code("v1"));
+        Assert.assertEquals(-1, data.code("v100"));
+    }
+
+    @Test
+    public void moveToRawWhenTooManyDistinctValues() {
+        StringCompressedData data = new StringCompressedData(100);
+        for (int i = 0; i < 5000; i++) Assert.assertEquals(i < 1023, data.add("v" + i) >= 0);
+
+        Assert.assertFalse(data.coded());
+        Assert.assertEquals(0, data.width());
+        Assert.assertEquals(0, data.distinct());
+        Assert.assertEquals(5000, data.size());
+        for (int i = 0; i < 5000; i++) Assert.assertEquals("v" + i, data.get(i));
+        Assert.assertEquals(data.raw().hash(7), data.hash(7));
+    }
+
+    @Test
+    public void nullIsEmptyAndFirstBeforeAndAfterMoveToRaw() {
+        StringCompressedData data = new StringCompressedData(100);
+        data.add("b");
+        data.add(null);
+        data.add("a");
+        data.add(null);
+
+        Assert.assertTrue(data.coded());
+        Assert.assertEquals("", data.get(1));
+        Assert.assertTrue(data.compare(1, 2) < 0);
+        Assert.assertTrue(data.compare(0, 3) > 0);
+        Assert.assertEquals(0, data.compare(1, 3));
+
+        for (int i = 0; i < 5000; i++) data.add("v" + i);
+        Assert.assertFalse(data.coded());
+        Assert.assertEquals("", data.get(1));
+        Assert.assertTrue(data.compare(1, 2) < 0);
+        Assert.assertTrue(data.compare(0, 3) > 0);
+        Assert.assertEquals(0, data.compare(1, 3));
+    }
+
+    @Test
+    public void hashSameAsStringData() {
+        StringCompressedData data = new StringCompressedData(100);
+        StringData raw = new StringData(100);
+        for (String value : new String[]{"a", "", "侍", "a"}) {
+            data.add(value);
+            raw.add(value);
+        }
+
+        for (int i = 0; i < 4; i++) Assert.assertEquals(raw.hash(i), data.hash(i));
+    }
+
+    @Test
+    public void copyPositionsKeepsDictionary() {
+        StringCompressedData data = new StringCompressedData(100);
+        data.add("a");
+        data.add("b");
+        data.add("c");
+
+        StringCompressedData copy = (StringCompressedData) data.copy(new int[]{2, 0});
+        copy.add("d");
+
+        Assert.assertEquals(3, copy.size());
+        Assert.assertEquals("c", copy.get(0));
+        Assert.assertEquals("a", copy.get(1));
+        Assert.assertEquals("d", copy.get(2));
+        Assert.assertEquals(3, data.distinct());
+    }
+
+    @Test
+    public void reorderInPlaceKeepsDictionary() {
+        StringCompressedData data = new StringCompressedData(100);
+        data.add("a");
+        data.add("b");
+        data.add("c");
+
+        data.reorder(new int[]{2, 0, 1});
+
+        Assert.assertEquals("c", data.get(0));
+        Assert.assertEquals("a", data.get(1));
+        Assert.assertEquals("b", data.get(2));
+        Assert.assertEquals(3, data.distinct());
+        Assert.assertEquals(2, data.code("c"));
+    }
+
+    @Test
+    public void saveLoad() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+
+        StringCompressedData data = new StringCompressedData(100);
+        data.setRawRatio(1);
+        for (int i = 0; i < 200; i++) data.add(i % 5 == 0 ? null : "侍" + i);
+        data.save(buffer);
+        Assert.assertEquals(data.getDiskSpace(), buffer.position());
+        buffer.flip();
+
+        StringCompressedData data1 = new StringCompressedData(100);
+        data1.load("", buffer, 200);
+
+        Assert.assertEquals(2, data1.width());
+        Assert.assertEquals(200, data1.size());
+        for (int i = 0; i < 200; i++) Assert.assertEquals(data.get(i), data1.get(i));
+    }
+
+    @Test
+    public void saveLoadRaw() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+
+        StringCompressedData data = new StringCompressedData(100);
+        for (int i = 0; i < 2000; i++) data.add("v" + i);
+        data.save(buffer);
+        Assert.assertEquals(data.getDiskSpace(), buffer.position());
+        buffer.flip();
+
+        StringCompressedData data1 = new StringCompressedData(100);
+        data1.load("", buffer, 2000);
+
+        Assert.assertFalse(data1.coded());
+        Assert.assertEquals(2000, data1.size());
+        Assert.assertEquals("v1999", data1.get(1999));
+    }
+
+}
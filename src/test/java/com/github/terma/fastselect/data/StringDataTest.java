@@ -48,6 +48,21 @@ public class StringDataTest {
         Assert.assertEquals(Data.DEFAULT_SIZE + 100, data.allocatedSize());
     }
 
+    @Test
+    public void reorderInPlace() {
+        StringData data = new StringData(100);
+        data.add("a");
+        data.add("");
+        data.add("ccc");
+
+        data.reorder(new int[]{2, 0, 1});
+
+        Assert.assertEquals(3, data.size());
+        Assert.assertEquals("ccc", data.get(0));
+        Assert.assertEquals("a", data.get(1));
+        Assert.assertEquals("", data.get(2));
+    }
+
     @Test
     public void initWillResizeDataAndFillByZero() {
         Data data = new StringData(100);
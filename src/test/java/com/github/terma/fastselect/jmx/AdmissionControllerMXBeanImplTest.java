@@ -0,0 +1,65 @@
+/*
+Copyright 2015-2017 Artem Stasiuk
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+
+package com.github.terma.fastselect.jmx;
+
+import com.github.terma.fastselect.AdmissionController;
+import com.github.terma.fastselect.QueryContext;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+public class AdmissionControllerMXBeanImplTest {
+
+    private AdmissionController admissionController = new AdmissionController(2, 5, 100, TimeUnit.MILLISECONDS);
+    private AdmissionControllerMXBean mxBean = new AdmissionControllerMXBeanImpl(admissionController);
+
+    @Test
+    public void successfullyRegisterInMBServer() throws JMException {
+        final ObjectName objectName = new ObjectName(":type=admissionTest");
+
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        mbs.registerMBean(mxBean, objectName);
+        mbs.unregisterMBean(objectName);
+    }
+
+    @Test
+    public void provideLimits() {
+        Assert.assertEquals(2, mxBean.getMaxConcurrent());
+        Assert.assertEquals(5, mxBean.getMaxQueue());
+        Assert.assertEquals(100, mxBean.getMaxWaitMsec());
+    }
+
+    @Test
+    public void provideState() {
+        admissionController.acquire(QueryContext.NORMAL_PRIORITY);
+
+        Assert.assertEquals(1, mxBean.getRunning());
+        Assert.assertEquals(0, mxBean.getQueueDepth());
+        Assert.assertEquals(1, mxBean.getAdmittedCount());
+        Assert.assertEquals(0, mxBean.getQueuedCount());
+        Assert.assertEquals(0, mxBean.getRejectedCount());
+        Assert.assertEquals(0, mxBean.getAvgWaitMsec());
+        Assert.assertEquals(0, mxBean.getMaxObservedWaitMsec());
+    }
+
+}
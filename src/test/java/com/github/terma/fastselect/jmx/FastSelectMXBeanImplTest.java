@@ -16,8 +16,11 @@ limitations under the License.
 
 package com.github.terma.fastselect.jmx;
 
+import com.github.terma.fastselect.ByteRequest;
 import com.github.terma.fastselect.FastSelect;
 import com.github.terma.fastselect.FastSelectBuilder;
+import com.github.terma.fastselect.Request;
+import com.github.terma.fastselect.StringLikeRequest;
 import com.github.terma.fastselect.data.Data;
 import com.github.terma.fastselect.demo.DemoData;
 import junit.framework.Assert;
@@ -85,4 +88,29 @@ public class FastSelectMXBeanImplTest {
         Assert.assertEquals(0, columnBeans.get(0).getMemInGb());
     }
 
+    @Test
+    public void provideLastRequestOrderCheapFirst() {
+        fastSelect.addAll(Collections.singletonList(new DemoData()));
+        fastSelect.select(new StringLikeRequest("tr", "x"), new ByteRequest("prg", 1));
+
+        List<String> order = fastSelectMXBean.getLastRequestOrder();
+        Assert.assertEquals(2, order.size());
+        Assert.assertTrue(order.get(0), order.get(0).startsWith("ByteRequest"));
+        Assert.assertTrue(order.get(1), order.get(1).startsWith("StringLikeRequest"));
+    }
+
+    @Test
+    public void provideRequestStatistics() {
+        fastSelect.addAll(Collections.singletonList(new DemoData()));
+        fastSelect.select(new Request[]{new ByteRequest("prg", 0)});
+
+        List<RequestStatisticsBean> beans = fastSelectMXBean.getRequestStatistics();
+        Assert.assertEquals(1, beans.size());
+        Assert.assertEquals("ByteRequest(prg)", beans.get(0).getKey());
+        Assert.assertEquals(Request.LOOKUP_COST, beans.get(0).getCost());
+        Assert.assertEquals(1, beans.get(0).getChecked());
+        Assert.assertEquals(1, beans.get(0).getAccepted());
+        Assert.assertEquals(1.0, beans.get(0).getSelectivity());
+    }
+
 }